@@ -12,11 +12,71 @@ CREATE TABLE IF NOT EXISTS incidents (
   type VARCHAR(50),
   risk VARCHAR(50),
   status VARCHAR(50),
-  reported_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  reported_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
   assigned_to VARCHAR(255),
-  resolution_notes TEXT
+  resolution_notes TEXT,
+  -- Bumped by MySQL on every UPDATE; IncidentArchiver measures a closed incident's age on it
+  last_modified TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  -- Keyset pagination indexes (InnoDB appends incident_id to each secondary index)
+  INDEX idx_incidents_reported_date (reported_date),
+  INDEX idx_incidents_title (title),
+  -- Criteria queries (IncidentDAOImpl.findMatching): equality columns first, then the date range/sort column
+  INDEX idx_incidents_status_risk_date (status, risk, reported_date),
+  INDEX idx_incidents_type_date (type, reported_date),
+  INDEX idx_incidents_assignee_date (assigned_to, reported_date),
+  -- Archiving (IncidentArchiver): closed rows by age
+  INDEX idx_incidents_status_modified (status, last_modified),
+  -- Server-side search (IncidentDAOImpl.search)
+  FULLTEXT INDEX ft_incidents_text (title, description, resolution_notes)
 );
 
+-- Cold tier: closed incidents moved out of the working table by IncidentArchiver.
+-- Same columns and query indexes as incidents; read by findById and by criteria queries with includeArchived.
+CREATE TABLE IF NOT EXISTS incidents_archive (
+  incident_id BIGINT NOT NULL PRIMARY KEY,
+  title VARCHAR(255) NOT NULL,
+  description TEXT,
+  type VARCHAR(50),
+  risk VARCHAR(50),
+  status VARCHAR(50),
+  reported_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  assigned_to VARCHAR(255),
+  resolution_notes TEXT,
+  last_modified TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  archived_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  INDEX idx_incidents_archive_reported_date (reported_date),
+  INDEX idx_incidents_archive_status_risk_date (status, risk, reported_date),
+  INDEX idx_incidents_archive_type_date (type, reported_date),
+  INDEX idx_incidents_archive_assignee_date (assigned_to, reported_date)
+);
+
+-- Delta sync used to read deletes from incident_tombstones; the outbox below replaces it
+DROP TRIGGER IF EXISTS incidents_after_delete;
+
+-- Change outbox: one row per insert, update and delete, whoever made it (app, importer, archiver, manual SQL).
+-- IncidentChangeDispatcher tails it by change_id and pushes the changes to open clients, and delta syncs
+-- (IncidentDAOImpl.findChangedSince) read it by change_id; rows older than incidents.changes.retentionHours
+-- are pruned by the dispatcher.
+CREATE TABLE IF NOT EXISTS incident_changes (
+  change_id BIGINT NOT NULL PRIMARY KEY AUTO_INCREMENT,
+  incident_id BIGINT NOT NULL,
+  op CHAR(1) NOT NULL, -- I, U or D
+  changed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  INDEX idx_incident_changes_changed_at (changed_at)
+);
+
+DROP TRIGGER IF EXISTS incidents_changes_after_insert;
+CREATE TRIGGER incidents_changes_after_insert AFTER INSERT ON incidents
+FOR EACH ROW INSERT INTO incident_changes (incident_id, op) VALUES (NEW.incident_id, 'I');
+
+DROP TRIGGER IF EXISTS incidents_changes_after_update;
+CREATE TRIGGER incidents_changes_after_update AFTER UPDATE ON incidents
+FOR EACH ROW INSERT INTO incident_changes (incident_id, op) VALUES (NEW.incident_id, 'U');
+
+DROP TRIGGER IF EXISTS incidents_changes_after_delete;
+CREATE TRIGGER incidents_changes_after_delete AFTER DELETE ON incidents
+FOR EACH ROW INSERT INTO incident_changes (incident_id, op) VALUES (OLD.incident_id, 'D');
+
 -- Sample seed rows
 INSERT INTO incidents (title, description, type, risk, status, reported_date, assigned_to, resolution_notes)
 VALUES
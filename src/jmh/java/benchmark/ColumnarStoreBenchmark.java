@@ -0,0 +1,135 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.Incident;
+import model.IncidentColumns;
+import model.IncidentSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A List&lt;Incident&gt;, which is how the model used to hold its rows, against the {@link IncidentColumns} it
+ * holds them in now: the cost of scanning a column and of materializing incidents from the columns. The
+ * trial setup prints the heap each one retains. List rows get fresh strings, dates and ids, as a JDBC load
+ * would build them.
+ *
+ * mvn -B -Pjmh -DskipTests verify -Djmh.args="ColumnarStoreBenchmark -p rows=1000000"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ColumnarStoreBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Stores {
+        @Param({"100000", "1000000"})
+        public int rows;
+
+        List<Incident> list;
+        IncidentColumns columns;
+        int slot;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<Incident> dataset = SyntheticIncidents.generate(rows);
+            long listHeap = retained(() -> {
+                list = new ArrayList<>(rows);
+                for (Incident i : dataset) {
+                    list.add(new Incident(Long.valueOf(i.getIncidentId().longValue()), copy(i.getTitle()),
+                            copy(i.getDescription()), i.getType(), i.getRisk(), i.getStatus(),
+                            new Date(i.getReportedDate().getTime()), copy(i.getAssignedTo()),
+                            copy(i.getResolutionNotes())));
+                }
+            });
+            long columnsHeap = retained(() -> {
+                columns = new IncidentColumns(rows);
+                for (Incident i : dataset) columns.add(i);
+            });
+
+            System.out.printf("%n%d incidents%n", rows);
+            System.out.printf("%-24s %12s %16s %18s%n", "", "heap", "bytes/incident", "MB per million");
+            report("List<Incident>", listHeap, rows);
+            report("IncidentColumns", columnsHeap, rows);
+            System.out.printf("%-24s %11.0f%%%n", "saved", 100.0 * (listHeap - columnsHeap) / Math.max(1, listHeap));
+        }
+
+        int nextSlot() {
+            return slot++ % rows;
+        }
+    }
+
+    @Benchmark
+    public int countNewCriticalList(Stores s) {
+        int n = 0;
+        for (Incident i : s.list) {
+            if (i.getStatus() == Incident.Status.NEW && i.getRisk() == Incident.Risk.CRITICAL) n++;
+        }
+        return n;
+    }
+
+    @Benchmark
+    public int countNewCriticalColumns(Stores s) {
+        IncidentColumns columns = s.columns;
+        int n = 0;
+        for (int slot = columns.first(0); slot >= 0; slot = columns.first(slot + 1)) {
+            if (columns.getStatus(slot) == Incident.Status.NEW && columns.getRisk(slot) == Incident.Risk.CRITICAL) n++;
+        }
+        return n;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Incident getColumns(Stores s) {
+        return s.columns.get(s.nextSlot());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public IncidentSummary getSummaryColumns(Stores s) {
+        return s.columns.getSummary(s.nextSlot());
+    }
+
+    private static void report(String label, long bytes, int rows) {
+        System.out.printf("%-24s %9.1f MB %16.0f %18.0f%n", label, bytes / (1024.0 * 1024.0),
+                bytes / (double) rows, bytes / (double) rows * 1_000_000 / (1024.0 * 1024.0));
+    }
+
+    // Heap the built structure retains, measured after forced collections; the caller's field keeps it alive
+    private static long retained(Runnable build) {
+        long before = usedAfterGc();
+        build.run();
+        return usedAfterGc() - before;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String copy(String value) {
+        return value == null ? null : new String(value.toCharArray());
+    }
+}
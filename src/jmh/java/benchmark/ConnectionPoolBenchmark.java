@@ -0,0 +1,112 @@
+package benchmark;
+
+import dao.ConnectionPool;
+import dao.DBconnection;
+import dao.EmbeddedDatabase;
+import dao.IncidentDAOImpl;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Pooled against unpooled connection throughput. Each operation is a findById-style lookup on its own
+ * connection. "h2" is the embedded database, seeded with 1000 incidents; "mysql" is the configured server
+ * (DBconnection), whose connection setup is what the pool saves.
+ *
+ * mvn -B -Pjmh -DskipTests verify -Djmh.args="ConnectionPoolBenchmark -p database=mysql -t 8"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ConnectionPoolBenchmark {
+
+    private static final String SQL = "SELECT * FROM incidents WHERE incident_id = ?";
+    private static final int ROWS = 1000;
+
+    @State(Scope.Benchmark)
+    public static class Source {
+        @Param({"pooled", "unpooled"})
+        public String mode;
+
+        @Param({"h2"})
+        public String database;
+
+        ConnectionPool.ConnectionFactory connections;
+        private EmbeddedDatabase embedded;
+        private ConnectionPool pool;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            ConnectionPool.ConnectionFactory factory;
+            switch (database) {
+                case "h2":
+                    embedded = new EmbeddedDatabase("bench-pool-" + mode);
+                    new IncidentDAOImpl(embedded::connect, 500).addAll(SyntheticIncidents.generate(ROWS));
+                    factory = embedded::connect;
+                    break;
+                case "mysql":
+                    factory = DBconnection::openUnpooledConnection;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown database '" + database + "'");
+            }
+            if (mode.equals("pooled")) {
+                // Sized for up to 32 benchmark threads, so no borrow waits for a connection
+                pool = new ConnectionPool(factory, 32, 32, 5_000, 300_000, 60_000);
+                connections = pool::getConnection;
+            } else {
+                connections = factory;
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            if (pool != null) {
+                System.out.println("Pool: " + pool.getStats());
+                pool.close();
+            }
+            if (embedded != null) embedded.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        long id;
+
+        long next() {
+            return id++ % ROWS + 1;
+        }
+    }
+
+    @Benchmark
+    public String lookup(Source s, Cursor c) throws SQLException {
+        String title = null;
+        try (Connection conn = s.connections.create();
+             PreparedStatement ps = conn.prepareStatement(SQL)) {
+            ps.setLong(1, c.next());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) title = rs.getString("title");
+            }
+        }
+        return title;
+    }
+}
@@ -0,0 +1,155 @@
+package benchmark;
+
+import controller.IncidentController;
+import dao.InMemoryIncidentDAO;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import model.IncidentModel;
+import server.IncidentHttpServer;
+
+/**
+ * Closed-loop load test for the incident HTTP API: each thread sends a request as soon as the previous
+ * one returns, for a fixed duration. The mix is keyset list pages, single incidents, and conditional
+ * GETs that revalidate with If-None-Match. Reports requests per second and latency percentiles.
+ *
+ * Without a URL an embedded server is started over {@link InMemoryIncidentDAO} with synthetic data.
+ * Usage: HttpLoadTest [threads] [seconds] [baseUrl]   (default 16 threads, 15 s)
+ */
+public class HttpLoadTest {
+
+    private static final int DATASET_SIZE = Integer.getInteger("bench.http.rows", 100_000);
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+
+        IncidentHttpServer embedded = null;
+        String base;
+        long maxId;
+        if (args.length > 2) {
+            base = args[2].replaceAll("/+$", "");
+            maxId = Long.MAX_VALUE;
+        } else {
+            InMemoryIncidentDAO dao = new InMemoryIncidentDAO();
+            dao.addAll(SyntheticIncidents.generate(DATASET_SIZE));
+            embedded = new IncidentHttpServer(new IncidentController(new IncidentModel(dao)), 0);
+            embedded.start();
+            base = "http://localhost:" + embedded.getPort();
+            maxId = DATASET_SIZE;
+        }
+
+        try {
+            run(base, maxId, threads, seconds);
+        } finally {
+            if (embedded != null) embedded.close();
+        }
+    }
+
+    private static void run(String base, long maxId, int threads, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        // One cached ETag for the conditional requests
+        HttpResponse<String> first = client.send(HttpRequest.newBuilder(URI.create(base + "/incidents?limit=50")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        String etag = first.headers().firstValue("ETag").orElse("\"none\"");
+        long idRange = Math.max(1, Math.min(maxId, 10_000));
+
+        Worker[] workers = new Worker[threads];
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Worker(client, base, idRange, etag, deadline);
+            workers[t].start();
+        }
+
+        long start = System.nanoTime();
+        List<long[]> all = new ArrayList<>();
+        long ok = 0, notModified = 0, failed = 0;
+        String firstFailure = null;
+        for (Worker w : workers) {
+            w.join();
+            all.add(Arrays.copyOf(w.latencies, w.count));
+            ok += w.ok;
+            notModified += w.notModified;
+            failed += w.failed;
+            if (firstFailure == null) firstFailure = w.firstFailure;
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long[] latencies = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%d threads, %.1f s, %d requests (%d ok, %d not modified, %d failed)%n",
+                threads, elapsed, latencies.length, ok, notModified, failed);
+        System.out.printf("throughput %.0f req/s%n", latencies.length / elapsed);
+        System.out.printf("latency p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+        if (firstFailure != null) System.out.println("first failure: " + firstFailure);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static final class Worker extends Thread {
+        private final HttpClient client;
+        private final String base;
+        private final long idRange;
+        private final String etag;
+        private final long deadline;
+
+        long[] latencies = new long[1 << 14];
+        int count;
+        long ok, notModified, failed;
+        String firstFailure;
+
+        Worker(HttpClient client, String base, long idRange, String etag, long deadline) {
+            this.client = client;
+            this.base = base;
+            this.idRange = idRange;
+            this.etag = etag;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                int pick = random.nextInt(10);
+                HttpRequest request;
+                if (pick < 6) {
+                    request = HttpRequest.newBuilder(URI.create(base + "/incidents?limit=50&after="
+                            + random.nextLong(idRange))).build();
+                } else if (pick < 9) {
+                    request = HttpRequest.newBuilder(URI.create(base + "/incidents/" + (1 + random.nextLong(idRange)))).build();
+                } else {
+                    request = HttpRequest.newBuilder(URI.create(base + "/incidents?limit=50"))
+                            .header("If-None-Match", etag).build();
+                }
+
+                long start = System.nanoTime();
+                try {
+                    int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status == 304) notModified++;
+                    else if (status < 400) ok++;
+                    else fail("HTTP " + status + " for " + request.uri());
+                } catch (Exception e) {
+                    fail(e.toString());
+                }
+                if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+                latencies[count++] = System.nanoTime() - start;
+            }
+        }
+
+        private void fail(String reason) {
+            failed++;
+            if (firstFailure == null) firstFailure = reason;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package benchmark;
+
+import dao.EmbeddedDatabase;
+import dao.InMemoryIncidentDAO;
+import dao.IncidentDAOImpl;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.Incident;
+import model.IncidentModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Model and DAO hot paths over synthetic datasets of 10k, 100k and 1M incidents.
+ * The model runs on {@link InMemoryIncidentDAO}. Row mapping is measured twice: over
+ * {@link SyntheticJdbc} (mapping alone) and over an embedded H2 database (driver plus mapping).
+ *
+ * mvn -B -Pjmh -DskipTests verify -Djmh.args="IncidentBenchmarks -p size=10000"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class IncidentBenchmarks {
+
+    // Head, mid and tail terms of the synthetic vocabulary, an AND, an OR and a prefix query
+    private static final String[] QUERIES = {"email", "ransomware", "finance team", "macro OR beacon", "cred*", "analyst17"};
+
+    @State(Scope.Benchmark)
+    public static class ModelState {
+        @Param({"10000", "100000", "1000000"})
+        public int size;
+
+        InMemoryIncidentDAO dao;
+        IncidentModel model;
+        Incident last;
+        Incident victim;
+        int query;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            dao = new InMemoryIncidentDAO();
+            dao.addAll(SyntheticIncidents.generate(size));
+            model = new IncidentModel(dao);
+            model.getAllIncidents(); // full load and index build happen outside the measurement
+            last = dao.findById((long) size); // worst case for an id scan: the last incident in the list
+            victim = dao.findById((long) size / 2);
+        }
+
+        String nextQuery() {
+            return QUERIES[query++ % QUERIES.length];
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class MappingState {
+        @Param({"10000", "100000", "1000000"})
+        public int size;
+
+        IncidentDAOImpl synthetic;
+        IncidentDAOImpl embedded;
+        EmbeddedDatabase database;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            List<Incident> dataset = SyntheticIncidents.generate(size);
+            synthetic = new IncidentDAOImpl(new SyntheticJdbc(dataset)::connection, 500);
+
+            database = new EmbeddedDatabase("bench-mapping-" + size);
+            embedded = new IncidentDAOImpl(database::connect, 1000);
+            List<Incident> copies = new ArrayList<>(dataset.size());
+            for (Incident incident : dataset) {
+                Incident copy = new Incident(incident);
+                copy.setIncidentId(null);
+                copies.add(copy);
+            }
+            if (embedded.addAll(copies).size() != size) throw new IllegalStateException("Embedded load failed");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            database.close();
+        }
+    }
+
+    // MODEL
+    @Benchmark
+    public List<Incident> searchIncidents(ModelState s) {
+        return s.model.searchIncidents(s.nextQuery());
+    }
+
+    @Benchmark
+    public List<Incident> filterIncidentsStatusRisk(ModelState s) {
+        return s.model.filterIncidents(Incident.Status.NEW, Incident.Risk.CRITICAL, null);
+    }
+
+    // First page of the same filter: the bitmap AND plus 50 incidents built, whatever the hit count
+    @Benchmark
+    public List<Incident> filterIncidentsStatusRiskPage(ModelState s) {
+        return s.model.filterIncidents(Incident.Status.NEW, Incident.Risk.CRITICAL, null, 0, 50);
+    }
+
+    @Benchmark
+    public List<Incident> filterIncidentsType(ModelState s) {
+        return s.model.filterIncidents(null, null, Incident.IncidentType.PHISHING);
+    }
+
+    @Benchmark
+    public int countFiltered(ModelState s) {
+        return s.model.countFiltered(Incident.Status.NEW, Incident.Risk.CRITICAL, null);
+    }
+
+    @Benchmark
+    public Incident updateIncident(ModelState s) {
+        s.model.updateIncident(s.last);
+        return s.last;
+    }
+
+    // Delete and re-add one incident per op: the list, search, facet and assignee indexes all change
+    @Benchmark
+    public Incident deleteAndAddIncident(ModelState s) {
+        Incident v = s.victim;
+        s.model.deleteIncident(v.getIncidentId());
+        s.victim = s.model.addIncident(v.getTitle(), v.getDescription(), v.getType(), v.getRisk(),
+                v.getStatus(), v.getReportedDate(), v.getAssignedTo(), v.getResolutionNotes());
+        return s.victim;
+    }
+
+    @Benchmark
+    public List<Incident> getIncidentsAssignedTo(ModelState s) {
+        return s.model.getIncidentsAssignedTo("analyst17@example.com");
+    }
+
+    @Benchmark
+    public List<Incident> getIncidentsAssignedToPage(ModelState s) {
+        return s.model.getIncidentsAssignedTo("analyst17@example.com", 0, 50);
+    }
+
+    // DAO ROW MAPPING (findAll maps every row through mapResultSetToIncident)
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Incident> mapRowsSynthetic(MappingState s) {
+        return s.synthetic.findAll();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Incident> mapRowsEmbedded(MappingState s) {
+        return s.embedded.findAll();
+    }
+}
@@ -0,0 +1,119 @@
+package benchmark;
+
+import dao.InMemoryIncidentDAO;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import model.Incident;
+import model.IncidentModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * IncidentModel shared by many threads, over {@link InMemoryIncidentDAO}: ops/s at 1 to 32 threads (one
+ * benchmark per thread count) for a read-only (writePercent 0), a read-mostly (5% updates) and a mixed
+ * (25% updates) workload. Reads are searches, filters, counts, assignee lookups and facet counts. The
+ * correctness check under the same load is model.IncidentModelConcurrencyTest.
+ *
+ * mvn -B -Pjmh -DskipTests verify -Djmh.args="ModelConcurrencyBenchmark -p writePercent=5"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ModelConcurrencyBenchmark {
+
+    private static final String[] QUERIES = {"email", "ransomware", "finance team", "macro OR beacon", "cred*"};
+    private static final Incident.Status[] STATUSES = Incident.Status.values();
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        @Param({"100000"})
+        public int size;
+
+        @Param({"0", "5", "25"})
+        public int writePercent;
+
+        InMemoryIncidentDAO dao;
+        IncidentModel model;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            dao = new InMemoryIncidentDAO();
+            dao.addAll(SyntheticIncidents.generate(size));
+            model = new IncidentModel(dao);
+            model.getAllIncidents();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object threads01(Shared s) {
+        return op(s);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Object threads02(Shared s) {
+        return op(s);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object threads04(Shared s) {
+        return op(s);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object threads08(Shared s) {
+        return op(s);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object threads16(Shared s) {
+        return op(s);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Object threads32(Shared s) {
+        return op(s);
+    }
+
+    private static Object op(Shared s) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < s.writePercent) {
+            Incident incident = s.dao.findById(1L + random.nextInt(s.size));
+            incident.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            incident.setAssignedTo("analyst" + random.nextInt(200) + "@example.com");
+            s.model.updateIncident(incident);
+            return incident;
+        }
+        IncidentModel model = s.model;
+        switch (random.nextInt(5)) {
+            case 0:
+                return model.searchIncidents(QUERIES[random.nextInt(QUERIES.length)]);
+            case 1:
+                return model.filterIncidents(Incident.Status.NEW, Incident.Risk.CRITICAL, null);
+            case 2:
+                return model.countFiltered(STATUSES[random.nextInt(STATUSES.length)], null, null);
+            case 3:
+                return model.getIncidentsAssignedTo("analyst" + random.nextInt(200) + "@example.com");
+            default:
+                return model.getFacetCounts(Incident.Risk.class, Incident.Status.NEW, null, null);
+        }
+    }
+}
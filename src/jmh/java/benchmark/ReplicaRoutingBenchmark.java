@@ -0,0 +1,95 @@
+package benchmark;
+
+import dao.ConnectionPool;
+import dao.IncidentDAOImpl;
+import dao.RoutingDataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.Incident;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * RoutingDataSource with IncidentDAOImpl over three in-process stand-ins for database servers: a primary and
+ * two replicas, the second slowed down by slowMillis per statement as if overloaded or far away. Compares
+ * read throughput under round-robin and least-loaded balancing; the trial teardown prints how the reads
+ * were spread. Read-your-writes routing is checked by dao.RoutingDataSourceTest.
+ *
+ * mvn -B -Pjmh -DskipTests verify -Djmh.args="ReplicaRoutingBenchmark -p slowMillis=20"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ReplicaRoutingBenchmark {
+
+    private static final int ROWS = 50;
+    private static final long STICKY_MS = 200;
+
+    @State(Scope.Benchmark)
+    public static class Routing {
+        @Param({"ROUND_ROBIN", "LEAST_LOADED"})
+        public RoutingDataSource.Balance balance;
+
+        @Param({"5"})
+        public long slowMillis;
+
+        RoutingDataSource router;
+        IncidentDAOImpl dao;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SyntheticJdbc data = new SyntheticJdbc(SyntheticIncidents.generate(ROWS));
+            List<ConnectionPool.ConnectionFactory> replicas = new ArrayList<>();
+            replicas.add(server(data, 0));
+            replicas.add(server(data, slowMillis));
+            router = new RoutingDataSource(server(data, 0), replicas, balance, STICKY_MS);
+            dao = new IncidentDAOImpl(router, 500);
+        }
+
+        @TearDown(Level.Trial)
+        public void report() {
+            System.out.println(balance + ": " + router.getStats());
+        }
+    }
+
+    @Benchmark
+    public List<Incident> readPage(Routing r) {
+        return r.dao.findPage(null, ROWS);
+    }
+
+    // A stand-in server: every prepared statement costs the given latency
+    private static ConnectionPool.ConnectionFactory server(SyntheticJdbc data, long latencyMillis) {
+        return () -> {
+            Connection connection = data.connection();
+            if (latencyMillis == 0) return connection;
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("prepareStatement")) Thread.sleep(latencyMillis);
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        };
+    }
+}
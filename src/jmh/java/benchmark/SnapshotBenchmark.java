@@ -0,0 +1,122 @@
+package benchmark;
+
+import dao.GenericDAO;
+import dao.InMemoryIncidentDAO;
+import dao.IncidentDAOImpl;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.Incident;
+import model.IncidentModel;
+import model.IncidentSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cold start (full table load) against warm start (binary snapshot plus delta) for IncidentModel, and the
+ * snapshot load itself against row mapping. "synthetic" runs the model on {@link InMemoryIncidentDAO} with
+ * 100 rows changed after the snapshot, and maps the same rows from synthetic JDBC result sets (a lower bound
+ * for any database load). "mysql" runs everything against the configured incidents table; the rows
+ * parameter is then ignored. The trial setup prints the snapshot's size.
+ *
+ * mvn -B -Pjmh -DskipTests verify -Djmh.args="SnapshotBenchmark -p rows=100000"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SnapshotBenchmark {
+
+    private static final int CHANGED_ROWS = 100;
+
+    @State(Scope.Benchmark)
+    public static class Store {
+        @Param({"synthetic"})
+        public String store;
+
+        @Param({"100000"})
+        public int rows;
+
+        GenericDAO<Incident> dao;
+        GenericDAO<Incident> mapped; // row mapping without the model
+        IncidentSnapshot snapshot;
+        private Path dir;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            dir = Files.createTempDirectory("incident-snapshot");
+            Path file = dir.resolve("incidents.snapshot");
+            switch (store) {
+                case "synthetic":
+                    List<Incident> dataset = SyntheticIncidents.generate(rows);
+                    InMemoryIncidentDAO memory = new InMemoryIncidentDAO();
+                    memory.addAll(dataset);
+                    dao = memory;
+                    mapped = new IncidentDAOImpl(new SyntheticJdbc(dataset)::connection, 500);
+                    snapshot = new IncidentSnapshot(file, "bench");
+                    break;
+                case "mysql":
+                    dao = new IncidentDAOImpl();
+                    mapped = dao;
+                    snapshot = new IncidentSnapshot(file, "bench-db");
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown store '" + store + "'");
+            }
+
+            IncidentModel first = new IncidentModel(dao, snapshot);
+            first.getAllIncidents();
+            first.saveSnapshot();
+            System.out.printf("%nSnapshot of %d rows: %.1f MB (%.0f bytes/row)%n", first.getAllIncidents().size(),
+                    Files.size(file) / (1024.0 * 1024.0), Files.size(file) / (double) first.getAllIncidents().size());
+
+            // Rows written after the snapshot, which the warm start must pick up from the delta
+            if (dao instanceof InMemoryIncidentDAO) {
+                List<Incident> changed = dao.findPage(null, CHANGED_ROWS);
+                for (Incident incident : changed) incident.setStatus(Incident.Status.RESOLVED);
+                dao.updateAll(changed);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(dir.resolve("incidents.snapshot"));
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Benchmark
+    public List<Incident> snapshotLoad(Store s) {
+        return s.snapshot.load().incidents;
+    }
+
+    @Benchmark
+    public List<Incident> findAllMapped(Store s) {
+        return s.mapped.findAll();
+    }
+
+    // Both starts end with a full, indexed list; the warm one reads the snapshot and a delta
+    @Benchmark
+    public List<Incident> modelColdStart(Store s) {
+        return new IncidentModel(s.dao).getAllIncidents();
+    }
+
+    @Benchmark
+    public List<Incident> modelWarmStart(Store s) {
+        return new IncidentModel(s.dao, s.snapshot).getAllIncidents();
+    }
+}
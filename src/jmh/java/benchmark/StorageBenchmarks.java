@@ -0,0 +1,268 @@
+package benchmark;
+
+import dao.ConnectionPool;
+import dao.EmbeddedDatabase;
+import dao.GenericDAO;
+import dao.IncidentDAOImpl;
+import dao.IncidentSummaryDAO;
+import dao.LogIncidentDAO;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import model.Incident;
+import model.IncidentSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The embedded log store against IncidentDAOImpl through the same GenericDAO calls: lookups, pages, durable
+ * single-row writes, inserts from 1 and 8 threads (where group commit shows), bulk load and, for the log,
+ * recovery. "log" forces every write to disk, "log-nofsync" does not, and "db" is IncidentDAOImpl over a
+ * connection pool on the embedded H2 database, which keeps its tables in memory.
+ *
+ * mvn -B -Pjmh -DskipTests verify -Djmh.args="StorageBenchmarks -p size=100000"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class StorageBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class StoreState {
+        @Param({"log", "log-nofsync", "db"})
+        public String store;
+
+        @Param({"10000", "100000", "1000000"})
+        public int size;
+
+        Store opened;
+        List<Long> ids;
+        Incident existing;
+        final Queue<Long> inserted = new ConcurrentLinkedQueue<>();
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            opened = Store.open(store, "bench-storage-" + store + "-" + size);
+            if (opened.dao.addAll(copies(SyntheticIncidents.generate(size))).size() != size)
+                throw new IllegalStateException("Load failed");
+            ids = new ArrayList<>();
+            for (Incident incident : opened.dao.findPage(null, Math.min(size, 10_000))) ids.add(incident.getIncidentId());
+            existing = opened.dao.findById(ids.get(0));
+        }
+
+        // Rows the insert benchmarks added are removed, so every iteration starts from the same table
+        @TearDown(Level.Iteration)
+        public void removeInserted() {
+            List<Long> batch = new ArrayList<>(inserted);
+            inserted.clear();
+            if (!batch.isEmpty()) opened.dao.deleteAll(batch);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            opened.close();
+        }
+
+        Long randomId() {
+            return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+    }
+
+    // A fresh empty store per iteration, for the single-shot bulk load
+    @State(Scope.Benchmark)
+    public static class BulkState {
+        @Param({"log", "log-nofsync", "db"})
+        public String store;
+
+        @Param({"10000", "100000", "1000000"})
+        public int size;
+
+        List<Incident> dataset;
+        List<Incident> rows;
+        Store opened;
+        int iteration;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            dataset = SyntheticIncidents.generate(size);
+        }
+
+        @Setup(Level.Iteration)
+        public void setUp() throws Exception {
+            rows = copies(dataset);
+            opened = Store.open(store, "bench-bulk-" + store + "-" + size + "-" + iteration++);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws Exception {
+            opened.close();
+        }
+    }
+
+    // A log file written once; every invocation reopens it, which replays every record
+    @State(Scope.Benchmark)
+    public static class RecoveryState {
+        @Param({"10000", "100000", "1000000"})
+        public int size;
+
+        Path dir;
+        Path file;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            dir = Files.createTempDirectory("incident-log");
+            file = dir.resolve("incidents.log");
+            try (LogIncidentDAO log = new LogIncidentDAO(file, false, 0)) {
+                log.addAll(copies(SyntheticIncidents.generate(size)));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            deleteRecursively(dir);
+        }
+    }
+
+    // POINT READS AND PAGES
+    @Benchmark
+    public Incident findById(StoreState s) {
+        return s.opened.dao.findById(s.randomId());
+    }
+
+    @Benchmark
+    public List<Incident> findPage(StoreState s) {
+        return s.opened.dao.findPage(s.randomId(), 50);
+    }
+
+    @Benchmark
+    public List<IncidentSummary> findSummaryPage(StoreState s) {
+        return s.opened.summaries.findSummaryPage(s.randomId(), 50);
+    }
+
+    // DURABLE WRITES (an update rewrites a row with its own values, so the table does not change)
+    @Benchmark
+    public Incident update(StoreState s) {
+        s.opened.dao.update(s.existing);
+        return s.existing;
+    }
+
+    @Benchmark
+    public Long add(StoreState s) {
+        return insert(s);
+    }
+
+    // Concurrent writers share each fsync of the log
+    @Benchmark
+    @Threads(8)
+    public Long addConcurrently(StoreState s) {
+        return insert(s);
+    }
+
+    private static Long insert(StoreState s) {
+        Incident row = new Incident(s.existing);
+        row.setIncidentId(null);
+        Long id = s.opened.dao.add(row);
+        if (id != null) s.inserted.add(id);
+        return id;
+    }
+
+    // BULK LOAD AND RECOVERY
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    public List<Long> addAll(BulkState s) {
+        return s.opened.dao.addAll(s.rows);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    public long recoverLog(RecoveryState s) throws IOException {
+        try (LogIncidentDAO log = new LogIncidentDAO(s.file, false, 0)) {
+            return log.count();
+        }
+    }
+
+    // One store under test and whatever has to be cleaned up after it
+    private static final class Store implements AutoCloseable {
+        final GenericDAO<Incident> dao;
+        final IncidentSummaryDAO summaries;
+        private final AutoCloseable resource;
+        private final Path dir;
+
+        private <D extends GenericDAO<Incident> & IncidentSummaryDAO> Store(D dao, AutoCloseable resource, Path dir) {
+            this.dao = dao;
+            this.summaries = dao;
+            this.resource = resource;
+            this.dir = dir;
+        }
+
+        static Store open(String kind, String name) throws IOException, SQLException {
+            switch (kind) {
+                case "log":
+                case "log-nofsync": {
+                    Path dir = Files.createTempDirectory("incident-log");
+                    LogIncidentDAO log = new LogIncidentDAO(dir.resolve("incidents.log"), kind.equals("log"), 0);
+                    return new Store(log, log, dir);
+                }
+                case "db": {
+                    // Pooled like the application's connections, so a call does not pay for a new connection
+                    EmbeddedDatabase database = new EmbeddedDatabase(name);
+                    ConnectionPool pool = new ConnectionPool(database::connect, 2, 16, 5_000, 300_000, 60_000);
+                    return new Store(new IncidentDAOImpl(pool::getConnection, 1000), () -> {
+                        pool.close();
+                        database.close();
+                    }, null);
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown store '" + kind + "'");
+            }
+        }
+
+        @Override
+        public void close() throws Exception {
+            resource.close();
+            if (dir != null) deleteRecursively(dir);
+        }
+    }
+
+    private static List<Incident> copies(List<Incident> dataset) {
+        List<Incident> list = new ArrayList<>(dataset.size());
+        for (Incident incident : dataset) {
+            Incident copy = new Incident(incident);
+            copy.setIncidentId(null);
+            list.add(copy);
+        }
+        return list;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (var paths = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) paths.sorted(Collections.reverseOrder())::iterator) Files.deleteIfExists(p);
+        }
+    }
+}
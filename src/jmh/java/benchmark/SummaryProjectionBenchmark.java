@@ -0,0 +1,195 @@
+package benchmark;
+
+import dao.DBconnection;
+import dao.EmbeddedDatabase;
+import dao.IncidentDAOImpl;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import model.Incident;
+import model.IncidentSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A full-row table load against the summary projection. The benchmarks time each load; the trial setup
+ * prints the bytes transferred and the heap retained by each list. "h2" is the embedded database with
+ * synthetic rows, where wire bytes are estimated from the MySQL text protocol (a length prefix plus the
+ * UTF-8 value per column) and heap is measured on lists built with fresh strings. "mysql" reads the configured server's table and takes wire bytes from its
+ * Bytes_sent counter; the rows parameter is then ignored.
+ *
+ * mvn -B -Pjmh -DskipTests verify -Djmh.args="SummaryProjectionBenchmark -p rows=100000"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SummaryProjectionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Table {
+        @Param({"h2"})
+        public String database;
+
+        @Param({"10000", "100000"})
+        public int rows;
+
+        IncidentDAOImpl dao;
+        private EmbeddedDatabase embedded;
+        private Connection raw;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            switch (database) {
+                case "h2":
+                    embedded = new EmbeddedDatabase("bench-summary-" + rows);
+                    dao = new IncidentDAOImpl(embedded::connect, 500);
+                    dao.addAll(SyntheticIncidents.generate(rows));
+                    break;
+                case "mysql":
+                    // One physical connection for every query, so the session counter sees all of them
+                    raw = DBconnection.openUnpooledConnection();
+                    Connection shared = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                            new Class<?>[]{Connection.class}, (proxy, method, args) ->
+                                    method.getName().equals("close") ? null : method.invoke(raw, args));
+                    dao = new IncidentDAOImpl(() -> shared, 500);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown database '" + database + "'");
+            }
+            report();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            if (embedded != null) embedded.close();
+            if (raw != null) raw.close();
+        }
+
+        private void report() throws SQLException {
+            long fullBytes = 0;
+            long summaryBytes = 0;
+            long fullHeap;
+            long summaryHeap;
+            if (raw == null) {
+                // H2 hands out the strings it stores, so the lists are built with fresh ones, as a driver
+                // reading them off the wire would
+                List<Incident> rows = dao.findAll();
+                for (Incident i : rows) {
+                    long summary = column(String.valueOf(i.getIncidentId())) + column(i.getTitle())
+                            + column(i.getType().name()) + column(i.getRisk().name()) + column(i.getStatus().name())
+                            + column("2024-01-01 00:00:00.000") + column(i.getAssignedTo());
+                    summaryBytes += summary;
+                    fullBytes += summary + column(i.getDescription()) + column(i.getResolutionNotes());
+                }
+                fullHeap = retained(() -> {
+                    List<Incident> list = new ArrayList<>(rows.size());
+                    for (Incident i : rows) {
+                        list.add(new Incident(i.getIncidentId(), copy(i.getTitle()), copy(i.getDescription()),
+                                i.getType(), i.getRisk(), i.getStatus(), new Date(i.getReportedDate().getTime()),
+                                copy(i.getAssignedTo()), copy(i.getResolutionNotes())));
+                    }
+                    return list;
+                });
+                summaryHeap = retained(() -> {
+                    List<IncidentSummary> list = new ArrayList<>(rows.size());
+                    for (Incident i : rows) {
+                        list.add(new IncidentSummary(i.getIncidentId(), copy(i.getTitle()), i.getType(), i.getRisk(),
+                                i.getStatus(), new Date(i.getReportedDate().getTime()), copy(i.getAssignedTo())));
+                    }
+                    return list;
+                });
+            } else {
+                long before = bytesSent();
+                fullHeap = retained(dao::findAll);
+                fullBytes = bytesSent() - before;
+
+                before = bytesSent();
+                summaryHeap = retained(() -> dao.findSummaryRange(0, Integer.MAX_VALUE));
+                summaryBytes = bytesSent() - before;
+            }
+
+            System.out.printf("%n%d rows (%s)%n", dao.count(), raw == null ? "estimated wire bytes" : "Bytes_sent");
+            System.out.printf("%-10s %16s %16s%n", "", "transferred", "heap");
+            System.out.printf("%-10s %16s %16s%n", "full", mb(fullBytes), mb(fullHeap));
+            System.out.printf("%-10s %16s %16s%n", "summary", mb(summaryBytes), mb(summaryHeap));
+            System.out.printf("%-10s %15.0f%% %15.0f%%%n", "saved",
+                    100.0 * (fullBytes - summaryBytes) / Math.max(1, fullBytes),
+                    100.0 * (fullHeap - summaryHeap) / Math.max(1, fullHeap));
+        }
+
+        private long bytesSent() throws SQLException {
+            if (raw == null) return 0;
+            try (PreparedStatement ps = raw.prepareStatement("SHOW SESSION STATUS LIKE 'Bytes_sent'");
+                 ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(2) : 0;
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Incident> loadFull(Table t) {
+        return t.dao.findAll();
+    }
+
+    @Benchmark
+    public List<IncidentSummary> loadSummaries(Table t) {
+        return t.dao.findSummaryRange(0, Integer.MAX_VALUE);
+    }
+
+    // Heap still reachable from the loaded list, measured after forced collections
+    private static long retained(Supplier<List<?>> load) {
+        long before = usedAfterGc();
+        List<?> list = load.get();
+        long after = usedAfterGc();
+        if (list.isEmpty()) System.out.println("Nothing loaded");
+        return after - before;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long column(String value) {
+        if (value == null) return 1; // NULL marker
+        int length = value.getBytes(StandardCharsets.UTF_8).length;
+        return length + (length < 251 ? 1 : 3);
+    }
+
+    private static String copy(String value) {
+        return value == null ? null : new String(value.toCharArray());
+    }
+
+    private static String mb(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
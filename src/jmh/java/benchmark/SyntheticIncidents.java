@@ -0,0 +1,73 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import model.Incident;
+
+// Reproducible synthetic incident datasets (fixed seed per size). Words follow a Zipf distribution over
+// a few thousand terms, so common words match many incidents and rare ones only a handful.
+public final class SyntheticIncidents {
+
+    private static final String[] WORDS = {
+            "email", "phishing", "attempt", "malware", "workstation", "unsigned", "process", "finance",
+            "team", "server", "credential", "leak", "database", "export", "firewall", "alert", "login",
+            "failed", "brute", "force", "vpn", "gateway", "ransomware", "backup", "encrypted", "share",
+            "invoice", "attachment", "macro", "payload", "beacon", "outbound", "traffic", "dns", "tunnel",
+            "privilege", "escalation", "admin", "account", "disabled", "usb", "device", "policy",
+            "violation", "cloud", "bucket", "public", "exposed", "token", "rotation", "endpoint", "agent"
+    };
+    private static final int VOCABULARY_SIZE = 5_000;
+    private static final String[] VOCABULARY = new String[VOCABULARY_SIZE];
+    private static final double[] CUMULATIVE = new double[VOCABULARY_SIZE];
+    private static final long TWO_YEARS_MS = 2L * 365 * 24 * 3600 * 1000;
+
+    static {
+        double total = 0;
+        for (int rank = 0; rank < VOCABULARY_SIZE; rank++) {
+            VOCABULARY[rank] = rank < WORDS.length ? WORDS[rank] : WORDS[rank % WORDS.length] + Integer.toString(rank, 36);
+            total += 1.0 / (rank + 1);
+            CUMULATIVE[rank] = total;
+        }
+        for (int rank = 0; rank < VOCABULARY_SIZE; rank++) CUMULATIVE[rank] /= total;
+    }
+
+    private SyntheticIncidents() {
+    }
+
+    // Incidents with ids 1..size
+    public static List<Incident> generate(int size) {
+        Random random = new Random(size);
+        long now = System.currentTimeMillis();
+        List<Incident> incidents = new ArrayList<>(size);
+
+        for (int i = 1; i <= size; i++) {
+            incidents.add(new Incident((long) i,
+                    words(random, 3 + random.nextInt(3)),
+                    words(random, 12 + random.nextInt(10)),
+                    pick(random, Incident.IncidentType.values()),
+                    pick(random, Incident.Risk.values()),
+                    pick(random, Incident.Status.values()),
+                    new Date(now - (long) (random.nextDouble() * TWO_YEARS_MS)),
+                    "analyst" + random.nextInt(200) + "@example.com",
+                    random.nextInt(3) == 0 ? words(random, 8) : null));
+        }
+        return incidents;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) text.append(' ');
+            int rank = Arrays.binarySearch(CUMULATIVE, random.nextDouble());
+            text.append(VOCABULARY[rank >= 0 ? rank : Math.min(-rank - 1, VOCABULARY_SIZE - 1)]);
+        }
+        return text.toString();
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,102 @@
+package benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import model.Incident;
+
+/**
+ * A JDBC connection whose every query returns the same pre-built incident rows, so DAO read paths
+ * (row iteration and ResultSet mapping) can be measured without a database or network.
+ * Accessors go through dynamic proxies; that overhead is constant and part of every reading.
+ */
+public final class SyntheticJdbc {
+
+    private static final String[] COLUMNS = {
+            "incident_id", "title", "description", "type", "risk", "status",
+            "reported_date", "assigned_to", "resolution_notes"
+    };
+
+    private final Object[][] rows;
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+
+    public SyntheticJdbc(List<Incident> incidents) {
+        for (int i = 0; i < COLUMNS.length; i++) columnIndex.put(COLUMNS[i], i);
+        rows = new Object[incidents.size()][];
+        for (int r = 0; r < rows.length; r++) {
+            Incident i = incidents.get(r);
+            rows[r] = new Object[]{
+                    i.getIncidentId(), i.getTitle(), i.getDescription(), i.getType().name(),
+                    i.getRisk().name(), i.getStatus().name(), new Timestamp(i.getReportedDate().getTime()),
+                    i.getAssignedTo(), i.getResolutionNotes()
+            };
+        }
+    }
+
+    public Connection connection() {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return statement();
+                case "isClosed":
+                case "isReadOnly":
+                    return false;
+                case "getAutoCommit":
+                case "isValid":
+                    return true;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private PreparedStatement statement() {
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "executeQuery":
+                    return resultSet();
+                case "executeUpdate":
+                    return 0;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private ResultSet resultSet() {
+        int[] cursor = {-1};
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "next":
+                    return ++cursor[0] < rows.length;
+                case "getLong":
+                    return ((Number) value(cursor[0], args[0])).longValue();
+                case "getString":
+                    Object v = value(cursor[0], args[0]);
+                    return v == null ? null : v.toString();
+                case "getTimestamp":
+                    return value(cursor[0], args[0]);
+                case "wasNull":
+                    return false;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private Object value(int row, Object column) {
+        int index = column instanceof String ? columnIndex.get(column) : (Integer) column - 1;
+        return rows[row][index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,295 @@
+package controller;
+
+import dao.IncidentCriteria;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+import metrics.Trace;
+import model.Incident;
+import model.IncidentSummary;
+
+/**
+ * Non-blocking front for {@link IncidentController}: every call runs on a background executor
+ * and returns a future, so the Swing event dispatch thread never waits on the database.
+ * Calls that touch the in-memory model (writes, and searches, filters and counts over the loaded list)
+ * run one at a time in submission order, so an edit followed by a delete reaches the store in that order
+ * and a search sees every write submitted before it. Reads that go straight to the DAO (pages, single
+ * incidents, criteria and database search) run in parallel.
+ * Cancelling a returned future interrupts the task if it is still running. The caller's trace action id
+ * ({@link Trace}) goes with the task, so its JFR events correlate with the UI action that started it.
+ */
+public class AsyncIncidentController implements AutoCloseable {
+
+    private final IncidentController controller;
+    private final ExecutorService executor;
+    private final Executor modelLane;
+
+    public AsyncIncidentController(IncidentController controller) {
+        this(controller, newDefaultExecutor());
+    }
+
+    public AsyncIncidentController(IncidentController controller, ExecutorService executor) {
+        this.controller = controller;
+        this.executor = executor;
+        this.modelLane = new SerialExecutor(executor);
+    }
+
+    // Virtual threads when the runtime has them (Java 21+), otherwise a cached pool of daemon threads
+    public static ExecutorService newDefaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "incident-io");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // Blocking controller, for code that is already off the EDT
+    public IncidentController getController() {
+        return controller;
+    }
+
+    // ADD INCIDENT
+    public CompletableFuture<Void> addIncident(String title, String description,
+                                               Incident.IncidentType type, Incident.Risk risk,
+                                               Incident.Status status, Date reportedDate,
+                                               String assignedTo, String resolutionNotes) {
+        return submitToModel(() -> {
+            controller.addIncident(title, description, type, risk, status, reportedDate, assignedTo, resolutionNotes);
+            return null;
+        });
+    }
+
+    // UPDATE INCIDENT
+    public CompletableFuture<Void> updateIncident(Incident incident) {
+        return submitToModel(() -> {
+            controller.updateIncident(incident);
+            return null;
+        });
+    }
+
+    // DELETE INCIDENT
+    public CompletableFuture<Void> deleteIncident(Long incidentId) {
+        return submitToModel(() -> {
+            controller.deleteIncident(incidentId);
+            return null;
+        });
+    }
+
+    // GET INCIDENT BY ID
+    public CompletableFuture<Incident> getIncidentById(Long incidentId) {
+        return submit(() -> controller.getIncidentById(incidentId));
+    }
+
+    // GET ALL INCIDENTS
+    public CompletableFuture<List<Incident>> getAllIncidents() {
+        return submitToModel(controller::getAllIncidents);
+    }
+
+    // PAGED ACCESS
+    public CompletableFuture<Long> countIncidents() {
+        return submit(controller::countIncidents);
+    }
+
+    public CompletableFuture<List<Incident>> getIncidentPage(Long afterId, int limit) {
+        return submit(() -> controller.getIncidentPage(afterId, limit));
+    }
+
+    public CompletableFuture<List<Incident>> getIncidentRange(long offset, int limit) {
+        return submit(() -> controller.getIncidentRange(offset, limit));
+    }
+
+    public CompletableFuture<List<IncidentSummary>> getIncidentSummaryPage(Long afterId, int limit) {
+        return submit(() -> controller.getIncidentSummaryPage(afterId, limit));
+    }
+
+    public CompletableFuture<List<IncidentSummary>> getIncidentSummaryRange(long offset, int limit) {
+        return submit(() -> controller.getIncidentSummaryRange(offset, limit));
+    }
+
+    public CompletableFuture<List<Incident>> getIncidentsByIds(Collection<Long> incidentIds) {
+        return submit(() -> controller.getIncidentsByIds(incidentIds));
+    }
+
+    // CRITERIA QUERIES
+    public CompletableFuture<List<Incident>> queryIncidents(IncidentCriteria criteria) {
+        return submit(() -> controller.queryIncidents(criteria));
+    }
+
+    public CompletableFuture<Long> countMatching(IncidentCriteria criteria) {
+        return submit(() -> controller.countMatching(criteria));
+    }
+
+    // PER-ASSIGNEE VIEWS
+    public CompletableFuture<List<Incident>> getIncidentsAssignedTo(String assignee) {
+        return submitToModel(() -> controller.getIncidentsAssignedTo(assignee));
+    }
+
+    public CompletableFuture<List<Incident>> getIncidentsAssignedTo(String assignee, int offset, int limit) {
+        return submitToModel(() -> controller.getIncidentsAssignedTo(assignee, offset, limit));
+    }
+
+    public CompletableFuture<Map<String, Integer>> getAssigneeCounts() {
+        return submitToModel(controller::getAssigneeCounts);
+    }
+
+    // SEARCH INCIDENTS BY KEYWORD
+    public CompletableFuture<List<Incident>> searchIncidents(String keyword) {
+        return submitToModel(() -> controller.searchIncidents(keyword));
+    }
+
+    public CompletableFuture<List<Incident>> searchIncidents(String keyword, int offset, int limit) {
+        return submitToModel(() -> controller.searchIncidents(keyword, offset, limit));
+    }
+
+    public CompletableFuture<Integer> countSearchHits(String keyword) {
+        return submitToModel(() -> controller.countSearchHits(keyword));
+    }
+
+    public CompletableFuture<List<Incident>> searchIncidentsInDatabase(String query, long offset, int limit) {
+        return submit(() -> controller.searchIncidentsInDatabase(query, offset, limit));
+    }
+
+    // FILTER INCIDENTS
+    public CompletableFuture<List<Incident>> filterIncidents(Incident.Status status,
+                                                             Incident.Risk risk,
+                                                             Incident.IncidentType type) {
+        return submitToModel(() -> controller.filterIncidents(status, risk, type));
+    }
+
+    public CompletableFuture<List<Incident>> filterIncidents(Incident.Status status,
+                                                             Incident.Risk risk,
+                                                             Incident.IncidentType type,
+                                                             int offset, int limit) {
+        return submitToModel(() -> controller.filterIncidents(status, risk, type, offset, limit));
+    }
+
+    public CompletableFuture<Integer> countFiltered(Incident.Status status,
+                                                    Incident.Risk risk,
+                                                    Incident.IncidentType type) {
+        return submitToModel(() -> controller.countFiltered(status, risk, type));
+    }
+
+    public <E extends Enum<E>> CompletableFuture<EnumMap<E, Integer>> getFacetCounts(Class<E> dimension,
+                                                                                     Incident.Status status,
+                                                                                     Incident.Risk risk,
+                                                                                     Incident.IncidentType type) {
+        return submitToModel(() -> controller.getFacetCounts(dimension, status, risk, type));
+    }
+
+    // DAO reads, in parallel
+    private <T> CompletableFuture<T> submit(Callable<T> task) {
+        return submit(executor, task);
+    }
+
+    // Model calls, one at a time in submission order
+    private <T> CompletableFuture<T> submitToModel(Callable<T> task) {
+        return submit(modelLane, task);
+    }
+
+    private <T> CompletableFuture<T> submit(Executor lane, Callable<T> task) {
+        CancellableFuture<T> result = new CancellableFuture<>();
+        long actionId = Trace.currentActionId();
+        FutureTask<Void> run = new FutureTask<>(() -> {
+            if (result.isDone()) return; // cancelled before it started
+            long previous = Trace.enter(actionId);
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                Trace.restore(previous);
+            }
+        }, null);
+        result.task = run;
+        lane.execute(run);
+        return result;
+    }
+
+    /**
+     * UI-side completion hook: runs {@code onSuccess} or {@code onError} on the EDT once the future settles.
+     * Nothing runs for a cancelled future, so superseded requests are silently dropped. The callback runs
+     * under the action id that was current when it was registered.
+     */
+    public static <T> void onEdt(CompletableFuture<T> future, Consumer<? super T> onSuccess,
+                                 Consumer<? super Throwable> onError) {
+        long actionId = Trace.currentActionId();
+        future.whenComplete((value, error) -> SwingUtilities.invokeLater(() -> {
+            long previous = Trace.enter(actionId);
+            try {
+                if (error == null) {
+                    onSuccess.accept(value);
+                    return;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (!(cause instanceof CancellationException)) onError.accept(cause);
+            } finally {
+                Trace.restore(previous);
+            }
+        }));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // Runs tasks one after another, in submission order, on the threads of another executor
+    private static final class SerialExecutor implements Executor {
+        private final Executor executor;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private Runnable active;
+
+        SerialExecutor(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public synchronized void execute(Runnable task) {
+            tasks.add(() -> {
+                try {
+                    task.run();
+                } finally {
+                    scheduleNext();
+                }
+            });
+            if (active == null) scheduleNext();
+        }
+
+        private synchronized void scheduleNext() {
+            active = tasks.poll();
+            if (active != null) executor.execute(active);
+        }
+    }
+
+    // Propagates cancel() to the running task
+    private static final class CancellableFuture<T> extends CompletableFuture<T> {
+        private volatile Future<?> task;
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<?> running = task;
+            if (cancelled && running != null) running.cancel(true);
+            return cancelled;
+        }
+    }
+}
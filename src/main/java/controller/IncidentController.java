@@ -1,9 +1,17 @@
 package controller;
 
+import dao.IncidentCriteria;
+import java.util.Collection;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import model.Incident;
+import model.IncidentChangeListener;
 import model.IncidentModel;
+import model.IncidentSummary;
 
 public class IncidentController {
 
@@ -13,22 +21,17 @@ public class IncidentController {
         this.model = model;
     }
 
-    // ADD INCIDENT
-    public void addIncident(String title, String description,
+    // ADD INCIDENT (returns the stored incident with its generated id)
+    public Incident addIncident(String title, String description,
                             Incident.IncidentType type, Incident.Risk risk,
                             Incident.Status status, Date reportedDate,
                             String assignedTo, String resolutionNotes) {
 
-        // Basic validation
-        if (title == null || title.trim().isEmpty())
-            throw new IllegalArgumentException("Title cannot be empty");
-
-        if (description == null || description.trim().isEmpty())
-            throw new IllegalArgumentException("Description cannot be empty");
+        validate(title, description);
 
         if (reportedDate == null) reportedDate = new Date(); // default to now
 
-        model.addIncident(title, description, type, risk, status, reportedDate, assignedTo, resolutionNotes);
+        return model.addIncident(title, description, type, risk, status, reportedDate, assignedTo, resolutionNotes);
     }
 
     // UPDATE INCIDENT
@@ -36,9 +39,19 @@ public class IncidentController {
         if (incident.getIncidentId() == null)
             throw new IllegalArgumentException("Incident ID cannot be empty");
 
+        validate(incident.getTitle(), incident.getDescription());
         model.updateIncident(incident);
     }
 
+    // Basic validation, the same for new and replaced incidents
+    private static void validate(String title, String description) {
+        if (title == null || title.trim().isEmpty())
+            throw new IllegalArgumentException("Title cannot be empty");
+
+        if (description == null || description.trim().isEmpty())
+            throw new IllegalArgumentException("Description cannot be empty");
+    }
+
     // DELETE INCIDENT
     public void deleteIncident(Long incidentId) {
         if (incidentId == null)
@@ -47,22 +60,147 @@ public class IncidentController {
         model.deleteIncident(incidentId);
     }
 
+    // CONDITIONAL WRITES: false, with nothing written, when the stored row is gone or fails the check
+    public boolean updateIncidentIf(Long incidentId, Predicate<Incident> expected, UnaryOperator<Incident> change) {
+        if (incidentId == null)
+            throw new IllegalArgumentException("Incident ID cannot be empty");
+
+        // Checked on the replacement the change builds, before anything is written
+        return model.updateIncidentIf(incidentId, expected, current -> {
+            Incident updated = change.apply(current);
+            validate(updated.getTitle(), updated.getDescription());
+            return updated;
+        });
+    }
+
+    public boolean deleteIncidentIf(Long incidentId, Predicate<Incident> expected) {
+        if (incidentId == null)
+            throw new IllegalArgumentException("Incident ID cannot be empty");
+
+        return model.deleteIncidentIf(incidentId, expected);
+    }
+
     // GET INCIDENT BY ID
     public Incident getIncidentById(Long incidentId) {
         return model.getIncidentById(incidentId);
     }
 
+    // ROW-LEVEL CHANGE EVENTS
+    public void addChangeListener(IncidentChangeListener listener) {
+        model.addChangeListener(listener);
+    }
+
+    public void removeChangeListener(IncidentChangeListener listener) {
+        model.removeChangeListener(listener);
+    }
+
     // GET ALL INCIDENTS
     public List<Incident> getAllIncidents() {
         return model.getAllIncidents();
     }
 
+    // PULL CHANGES MADE BY OTHER CLIENTS
+    public void refresh() {
+        model.refresh();
+    }
+
+    // PAGED ACCESS (for virtualized views)
+    public long countIncidents() {
+        return model.countIncidents();
+    }
+
+    public List<Incident> getIncidentPage(Long afterId, int limit) {
+        if (limit <= 0)
+            throw new IllegalArgumentException("Page size must be positive");
+        return model.getIncidentPage(afterId, limit);
+    }
+
+    public List<Incident> getIncidentRange(long offset, int limit) {
+        if (offset < 0 || limit <= 0)
+            throw new IllegalArgumentException("Invalid page range");
+        return model.getIncidentRange(offset, limit);
+    }
+
+    public List<IncidentSummary> getIncidentSummaryPage(Long afterId, int limit) {
+        if (limit <= 0)
+            throw new IllegalArgumentException("Page size must be positive");
+        return model.getIncidentSummaryPage(afterId, limit);
+    }
+
+    public List<IncidentSummary> getIncidentSummaryRange(long offset, int limit) {
+        if (offset < 0 || limit <= 0)
+            throw new IllegalArgumentException("Invalid page range");
+        return model.getIncidentSummaryRange(offset, limit);
+    }
+
+    public List<Incident> getIncidentsByIds(Collection<Long> incidentIds) {
+        if (incidentIds == null)
+            throw new IllegalArgumentException("Incident IDs are required");
+        return model.getIncidentsByIds(incidentIds);
+    }
+
+
+    // CRITERIA QUERIES (run in the database)
+    public List<Incident> queryIncidents(IncidentCriteria criteria) {
+        if (criteria == null)
+            throw new IllegalArgumentException("Criteria are required");
+        return model.queryIncidents(criteria);
+    }
+
+    public long countMatching(IncidentCriteria criteria) {
+        if (criteria == null)
+            throw new IllegalArgumentException("Criteria are required");
+        return model.countMatching(criteria);
+    }
+
+    // PER-ASSIGNEE VIEWS (in-memory index)
+    public List<Incident> getIncidentsAssignedTo(String assignee) {
+        if (assignee == null || assignee.trim().isEmpty())
+            throw new IllegalArgumentException("Assignee cannot be empty");
+        return model.getIncidentsAssignedTo(assignee);
+    }
+
+    public List<Incident> getIncidentsAssignedTo(String assignee, int offset, int limit) {
+        if (assignee == null || assignee.trim().isEmpty())
+            throw new IllegalArgumentException("Assignee cannot be empty");
+        if (offset < 0 || limit <= 0)
+            throw new IllegalArgumentException("Invalid page range");
+        return model.getIncidentsAssignedTo(assignee, offset, limit);
+    }
+
+    public int countAssignedTo(String assignee) {
+        if (assignee == null || assignee.trim().isEmpty())
+            throw new IllegalArgumentException("Assignee cannot be empty");
+        return model.countAssignedTo(assignee);
+    }
+
+    public Map<String, Integer> getAssigneeCounts() {
+        return model.getAssigneeCounts();
+    }
 
     // SEARCH INCIDENTS BY KEYWORD
     public List<Incident> searchIncidents(String keyword) {
         return model.searchIncidents(keyword);
     }
 
+    public List<Incident> searchIncidents(String keyword, int offset, int limit) {
+        if (offset < 0 || limit <= 0)
+            throw new IllegalArgumentException("Invalid page range");
+        return model.searchIncidents(keyword, offset, limit);
+    }
+
+    public int countSearchHits(String keyword) {
+        return model.countSearchHits(keyword);
+    }
+
+
+    // SEARCH INCIDENTS IN DATABASE (ranked, paged)
+    public List<Incident> searchIncidentsInDatabase(String query, long offset, int limit) {
+        if (offset < 0 || limit <= 0)
+            throw new IllegalArgumentException("Invalid page range");
+        return model.searchIncidentsInDatabase(query, offset, limit);
+    }
+
 
     // FILTER INCIDENTS
     public List<Incident> filterIncidents(Incident.Status status,
@@ -70,4 +208,30 @@ public class IncidentController {
                                           Incident.IncidentType type) {
         return model.filterIncidents(status, risk, type);
     }
+
+    public List<Incident> filterIncidents(Incident.Status status,
+                                          Incident.Risk risk,
+                                          Incident.IncidentType type,
+                                          int offset, int limit) {
+        if (offset < 0 || limit <= 0)
+            throw new IllegalArgumentException("Invalid page range");
+        return model.filterIncidents(status, risk, type, offset, limit);
+    }
+
+    // COUNT MATCHING INCIDENTS
+    public int countFiltered(Incident.Status status,
+                             Incident.Risk risk,
+                             Incident.IncidentType type) {
+        return model.countFiltered(status, risk, type);
+    }
+
+    // FACET COUNTS (e.g. incidents per risk level among NEW incidents)
+    public <E extends Enum<E>> EnumMap<E, Integer> getFacetCounts(Class<E> dimension,
+                                                                  Incident.Status status,
+                                                                  Incident.Risk risk,
+                                                                  Incident.IncidentType type) {
+        if (dimension == null)
+            throw new IllegalArgumentException("Facet dimension cannot be empty");
+        return model.getFacetCounts(dimension, status, risk, type);
+    }
 }
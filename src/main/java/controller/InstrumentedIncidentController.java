@@ -0,0 +1,192 @@
+package controller;
+
+import dao.IncidentCriteria;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import metrics.Metrics;
+import model.Incident;
+import model.IncidentModel;
+import model.IncidentSummary;
+
+/**
+ * {@link IncidentController} that records count, errors, rows returned and latency of every call under
+ * "controller.&lt;method&gt;" in {@link Metrics}. These timings are what callers see, including model
+ * index lookups and cache hits; the "dao.*" operations show the data store underneath.
+ */
+public class InstrumentedIncidentController extends IncidentController {
+
+    public InstrumentedIncidentController(IncidentModel model) {
+        super(model);
+    }
+
+    // WRITES
+    @Override
+    public Incident addIncident(String title, String description,
+                                Incident.IncidentType type, Incident.Risk risk,
+                                Incident.Status status, Date reportedDate,
+                                String assignedTo, String resolutionNotes) {
+        return Metrics.timed("controller.addIncident", () -> super.addIncident(title, description, type, risk,
+                status, reportedDate, assignedTo, resolutionNotes));
+    }
+
+    @Override
+    public void updateIncident(Incident incident) {
+        Metrics.run("controller.updateIncident", () -> super.updateIncident(incident),
+                () -> "id=" + incident.getIncidentId());
+    }
+
+    @Override
+    public void deleteIncident(Long incidentId) {
+        Metrics.run("controller.deleteIncident", () -> super.deleteIncident(incidentId), () -> "id=" + incidentId);
+    }
+
+    @Override
+    public boolean updateIncidentIf(Long incidentId, Predicate<Incident> expected, UnaryOperator<Incident> change) {
+        return Metrics.timed("controller.updateIncidentIf", () -> super.updateIncidentIf(incidentId, expected, change),
+                written -> written ? 1 : 0, () -> "id=" + incidentId);
+    }
+
+    @Override
+    public boolean deleteIncidentIf(Long incidentId, Predicate<Incident> expected) {
+        return Metrics.timed("controller.deleteIncidentIf", () -> super.deleteIncidentIf(incidentId, expected),
+                written -> written ? 1 : 0, () -> "id=" + incidentId);
+    }
+
+    // READS
+    @Override
+    public Incident getIncidentById(Long incidentId) {
+        return Metrics.timed("controller.getIncidentById", () -> super.getIncidentById(incidentId), i -> 1,
+                () -> "id=" + incidentId);
+    }
+
+    @Override
+    public List<Incident> getAllIncidents() {
+        return Metrics.timed("controller.getAllIncidents", super::getAllIncidents, List::size);
+    }
+
+    @Override
+    public void refresh() {
+        Metrics.run("controller.refresh", super::refresh);
+    }
+
+    @Override
+    public long countIncidents() {
+        return Metrics.timed("controller.countIncidents", super::countIncidents);
+    }
+
+    @Override
+    public List<Incident> getIncidentPage(Long afterId, int limit) {
+        return Metrics.timed("controller.getIncidentPage", () -> super.getIncidentPage(afterId, limit), List::size);
+    }
+
+    @Override
+    public List<Incident> getIncidentRange(long offset, int limit) {
+        return Metrics.timed("controller.getIncidentRange", () -> super.getIncidentRange(offset, limit), List::size);
+    }
+
+    @Override
+    public List<IncidentSummary> getIncidentSummaryPage(Long afterId, int limit) {
+        return Metrics.timed("controller.getIncidentSummaryPage", () -> super.getIncidentSummaryPage(afterId, limit),
+                List::size);
+    }
+
+    @Override
+    public List<IncidentSummary> getIncidentSummaryRange(long offset, int limit) {
+        return Metrics.timed("controller.getIncidentSummaryRange", () -> super.getIncidentSummaryRange(offset, limit),
+                List::size);
+    }
+
+    @Override
+    public List<Incident> getIncidentsByIds(Collection<Long> incidentIds) {
+        return Metrics.timed("controller.getIncidentsByIds", () -> super.getIncidentsByIds(incidentIds), List::size);
+    }
+
+    @Override
+    public List<Incident> queryIncidents(IncidentCriteria criteria) {
+        return Metrics.timed("controller.queryIncidents", () -> super.queryIncidents(criteria), List::size,
+                () -> String.valueOf(criteria));
+    }
+
+    @Override
+    public long countMatching(IncidentCriteria criteria) {
+        return Metrics.timed("controller.countMatching", () -> super.countMatching(criteria), null,
+                () -> String.valueOf(criteria));
+    }
+
+    @Override
+    public List<Incident> getIncidentsAssignedTo(String assignee) {
+        return Metrics.timed("controller.getIncidentsAssignedTo", () -> super.getIncidentsAssignedTo(assignee),
+                List::size);
+    }
+
+    @Override
+    public List<Incident> getIncidentsAssignedTo(String assignee, int offset, int limit) {
+        return Metrics.timed("controller.getIncidentsAssignedToPage",
+                () -> super.getIncidentsAssignedTo(assignee, offset, limit), List::size);
+    }
+
+    @Override
+    public int countAssignedTo(String assignee) {
+        return Metrics.timed("controller.countAssignedTo", () -> super.countAssignedTo(assignee));
+    }
+
+    @Override
+    public Map<String, Integer> getAssigneeCounts() {
+        return Metrics.timed("controller.getAssigneeCounts", super::getAssigneeCounts, Map::size);
+    }
+
+    // SEARCH AND FILTER
+    @Override
+    public List<Incident> searchIncidents(String keyword) {
+        return Metrics.timed("controller.searchIncidents", () -> super.searchIncidents(keyword), List::size,
+                () -> "q=\"" + keyword + "\"");
+    }
+
+    @Override
+    public List<Incident> searchIncidents(String keyword, int offset, int limit) {
+        return Metrics.timed("controller.searchIncidentsPage", () -> super.searchIncidents(keyword, offset, limit),
+                List::size, () -> "q=\"" + keyword + "\"");
+    }
+
+    @Override
+    public int countSearchHits(String keyword) {
+        return Metrics.timed("controller.countSearchHits", () -> super.countSearchHits(keyword), null,
+                () -> "q=\"" + keyword + "\"");
+    }
+
+    @Override
+    public List<Incident> searchIncidentsInDatabase(String query, long offset, int limit) {
+        return Metrics.timed("controller.searchIncidentsInDatabase",
+                () -> super.searchIncidentsInDatabase(query, offset, limit), List::size, () -> "q=\"" + query + "\"");
+    }
+
+    @Override
+    public List<Incident> filterIncidents(Incident.Status status, Incident.Risk risk, Incident.IncidentType type) {
+        return Metrics.timed("controller.filterIncidents", () -> super.filterIncidents(status, risk, type), List::size,
+                () -> status + "," + risk + "," + type);
+    }
+
+    @Override
+    public List<Incident> filterIncidents(Incident.Status status, Incident.Risk risk, Incident.IncidentType type,
+                                          int offset, int limit) {
+        return Metrics.timed("controller.filterIncidentsPage",
+                () -> super.filterIncidents(status, risk, type, offset, limit), List::size,
+                () -> status + "," + risk + "," + type);
+    }
+
+    @Override
+    public int countFiltered(Incident.Status status, Incident.Risk risk, Incident.IncidentType type) {
+        return Metrics.timed("controller.countFiltered", () -> super.countFiltered(status, risk, type));
+    }
+
+    @Override
+    public <E extends Enum<E>> EnumMap<E, Integer> getFacetCounts(Class<E> dimension, Incident.Status status,
+                                                                  Incident.Risk risk, Incident.IncidentType type) {
+        return Metrics.timed("controller.getFacetCounts", () -> super.getFacetCounts(dimension, status, risk, type));
+    }
+}
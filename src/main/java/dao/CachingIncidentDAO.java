@@ -0,0 +1,365 @@
+package dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import model.Incident;
+import model.IncidentSummary;
+
+/**
+ * Read-through cache in front of another incident DAO. {@link #findById(Long)} is answered from
+ * a size-bounded LRU map when possible; entries can also expire after a TTL. Full rows returned by
+ * full loads, pages, batches, searches and criteria queries warm the cache. Summary pages, which is
+ * what the main table lists, carry no text columns and do not, so the first open of a listed incident
+ * is a miss and opening it again is a hit.
+ *
+ * Writes go to the delegate first and then invalidate the affected ids. Entries are stored and
+ * handed out as copies, so callers that edit a returned incident cannot corrupt the cache.
+ * Subscribed to an {@link IncidentChangeDispatcher}, it also drops rows other clients changed.
+ */
+public class CachingIncidentDAO implements GenericDAO<Incident>, IncidentSummaryDAO, IncidentChangeSubscriber {
+
+    private static final int DEFAULT_MAX_SIZE = Integer.getInteger("incidents.cache.maxSize", 10_000);
+    private static final long DEFAULT_TTL_MS = Long.getLong("incidents.cache.ttlMs", 0);
+
+    private final GenericDAO<Incident> delegate;
+    private final int maxSize;
+    private final long ttlMillis; // 0 = entries never expire
+
+    // Access-ordered, so the eldest entry is the least recently used one
+    private final LinkedHashMap<Long, Entry> entries;
+
+    // Bumped by every invalidation; a load that raced with a write is not cached
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public CachingIncidentDAO(GenericDAO<Incident> delegate) {
+        this(delegate, DEFAULT_MAX_SIZE, DEFAULT_TTL_MS);
+    }
+
+    public CachingIncidentDAO(GenericDAO<Incident> delegate, int maxSize, long ttlMillis) {
+        if (maxSize < 1) throw new IllegalArgumentException("Cache size must be positive");
+        if (ttlMillis < 0) throw new IllegalArgumentException("TTL must not be negative");
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= CachingIncidentDAO.this.maxSize) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    private static final class Entry {
+        final Incident incident;
+        final long loadedAt;
+
+        Entry(Incident incident, long loadedAt) {
+            this.incident = incident;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    // READ-THROUGH LOOKUP
+    @Override
+    public Incident findById(Long id) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry != null && isExpired(entry)) {
+                entries.remove(id);
+                expirations++;
+                entry = null;
+            }
+            if (entry != null) {
+                hits++;
+                return new Incident(entry.incident);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        Incident loaded = delegate.findById(id);
+        if (loaded != null) cache(loaded, loadGeneration);
+        return loaded;
+    }
+
+    // Always from the delegate; the row read replaces any cached copy
+    @Override
+    public Incident findCurrent(Long id) {
+        long loadGeneration = currentGeneration();
+        Incident loaded = delegate.findCurrent(id);
+        if (loaded != null) cache(loaded, loadGeneration);
+        else invalidate(id);
+        return loaded;
+    }
+
+    // Only ids that are missing or expired are fetched, in one batched call
+    @Override
+    public List<Incident> findByIds(Collection<Long> ids) {
+        List<Incident> result = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+            for (Long id : new TreeSet<>(ids)) {
+                Entry entry = entries.get(id);
+                if (entry != null && isExpired(entry)) {
+                    entries.remove(id);
+                    expirations++;
+                    entry = null;
+                }
+                if (entry != null) {
+                    hits++;
+                    result.add(new Incident(entry.incident));
+                } else {
+                    misses++;
+                    missing.add(id);
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<Incident> loaded = delegate.findByIds(missing);
+            cacheAll(loaded, loadGeneration);
+            result.addAll(loaded);
+            result.sort((a, b) -> Long.compare(a.getIncidentId(), b.getIncidentId()));
+        }
+        return result;
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ttlMillis > 0 && System.currentTimeMillis() - entry.loadedAt > ttlMillis;
+    }
+
+    private synchronized void cache(Incident incident, long loadGeneration) {
+        if (loadGeneration != generation || incident.getIncidentId() == null) return;
+        entries.put(incident.getIncidentId(), new Entry(new Incident(incident), System.currentTimeMillis()));
+    }
+
+    // Bulk results warm the cache; only the last maxSize rows could survive eviction anyway
+    private synchronized void cacheAll(List<Incident> incidents, long loadGeneration) {
+        for (int i = Math.max(0, incidents.size() - maxSize); i < incidents.size(); i++) {
+            cache(incidents.get(i), loadGeneration);
+        }
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private synchronized void invalidate(Long id) {
+        generation++;
+        if (entries.remove(id) != null) invalidations++;
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    // PUSHED CHANGES: the next read of a changed row goes to the delegate
+    @Override
+    public void incidentsChanged(IncidentChangeBatch batch) {
+        for (Incident incident : batch.getUpserts()) invalidate(incident.getIncidentId());
+        for (Long id : batch.getDeletedIds()) invalidate(id);
+    }
+
+    @Override
+    public void resync() {
+        invalidateAll();
+    }
+
+    // WRITES (delegate first, then invalidate)
+    @Override
+    public Long add(Incident incident) {
+        return delegate.add(incident);
+    }
+
+    @Override
+    public void update(Incident incident) {
+        try {
+            delegate.update(incident);
+        } finally {
+            invalidate(incident.getIncidentId());
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        try {
+            delegate.delete(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public List<Long> addAll(List<Incident> incidents) {
+        return delegate.addAll(incidents);
+    }
+
+    @Override
+    public void updateAll(List<Incident> incidents) {
+        try {
+            delegate.updateAll(incidents);
+        } finally {
+            for (Incident incident : incidents) invalidate(incident.getIncidentId());
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        try {
+            delegate.deleteAll(ids);
+        } finally {
+            for (Long id : ids) invalidate(id);
+        }
+    }
+
+    // BULK READS (pass through and warm the cache)
+    @Override
+    public List<Incident> findAll() {
+        long loadGeneration = currentGeneration();
+        List<Incident> all = delegate.findAll();
+        cacheAll(all, loadGeneration);
+        return all;
+    }
+
+    @Override
+    public List<Incident> findPage(Long afterId, int limit) {
+        long loadGeneration = currentGeneration();
+        List<Incident> page = delegate.findPage(afterId, limit);
+        cacheAll(page, loadGeneration);
+        return page;
+    }
+
+    @Override
+    public List<Incident> findRange(long offset, int limit) {
+        long loadGeneration = currentGeneration();
+        List<Incident> page = delegate.findRange(offset, limit);
+        cacheAll(page, loadGeneration);
+        return page;
+    }
+
+    @Override
+    public List<Incident> search(String query, long offset, int limit) {
+        long loadGeneration = currentGeneration();
+        List<Incident> page = delegate.search(query, offset, limit);
+        cacheAll(page, loadGeneration);
+        return page;
+    }
+
+    @Override
+    public List<Incident> findMatching(Criteria<Incident> criteria) {
+        long loadGeneration = currentGeneration();
+        List<Incident> page = delegate.findMatching(criteria);
+        cacheAll(page, loadGeneration);
+        return page;
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long countMatching(Criteria<Incident> criteria) {
+        return delegate.countMatching(criteria);
+    }
+
+    // Changes made by other clients replace or drop the cached copies
+    @Override
+    public ChangeSet<Incident> findChangedSince(long watermark) {
+        long loadGeneration = currentGeneration();
+        ChangeSet<Incident> changes = delegate.findChangedSince(watermark);
+        if (changes == null) return null;
+        synchronized (this) {
+            if (changes.isFullSnapshot()) entries.clear();
+            for (Long id : changes.getDeletedIds()) entries.remove(id);
+            cacheAll(changes.getUpserts(), loadGeneration);
+        }
+        return changes;
+    }
+
+    @Override
+    public Stream<Incident> streamAll() {
+        return delegate.streamAll();
+    }
+
+    // SUMMARIES (never cached; they carry no text columns)
+    @Override
+    public List<IncidentSummary> findSummaryPage(Long afterId, int limit) {
+        if (delegate instanceof IncidentSummaryDAO) return ((IncidentSummaryDAO) delegate).findSummaryPage(afterId, limit);
+        return summarize(delegate.findPage(afterId, limit));
+    }
+
+    @Override
+    public List<IncidentSummary> findSummaryRange(long offset, int limit) {
+        if (delegate instanceof IncidentSummaryDAO) return ((IncidentSummaryDAO) delegate).findSummaryRange(offset, limit);
+        return summarize(delegate.findRange(offset, limit));
+    }
+
+    private static List<IncidentSummary> summarize(List<Incident> incidents) {
+        List<IncidentSummary> summaries = new ArrayList<>(incidents.size());
+        for (Incident incident : incidents) summaries.add(IncidentSummary.of(incident));
+        return summaries;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(entries.size(), maxSize, hits, misses, evictions, expirations, invalidations);
+    }
+
+    // Snapshot of cache metrics
+    public static final class Stats {
+        public final int size;
+        public final int maxSize;
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        public final long expirations;
+        public final long invalidations;
+
+        Stats(int size, int maxSize, long hits, long misses, long evictions, long expirations, long invalidations) {
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+        }
+
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "size=" + size +
+                    ", max=" + maxSize +
+                    ", hits=" + hits +
+                    ", misses=" + misses +
+                    ", hitRate=" + String.format("%.1f%%", hitRate() * 100) +
+                    ", evictions=" + evictions +
+                    ", expirations=" + expirations +
+                    ", invalidations=" + invalidations +
+                    '}';
+        }
+    }
+}
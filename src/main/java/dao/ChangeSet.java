@@ -0,0 +1,45 @@
+package dao;
+
+import java.util.List;
+
+/**
+ * Rows changed since a sync watermark, as returned by {@link GenericDAO#findChangedSince(long)}.
+ */
+public class ChangeSet<T> {
+
+    private final List<T> upserts;
+    private final List<Long> deletedIds;
+    private final long watermark;
+    private final boolean fullSnapshot;
+
+    public ChangeSet(List<T> upserts, List<Long> deletedIds, long watermark, boolean fullSnapshot) {
+        this.upserts = upserts;
+        this.deletedIds = deletedIds;
+        this.watermark = watermark;
+        this.fullSnapshot = fullSnapshot;
+    }
+
+    // Inserted or updated rows (the whole table when this is a full snapshot)
+    public List<T> getUpserts() {
+        return upserts;
+    }
+
+    // Ids deleted since the previous watermark
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    // Pass this to the next findChangedSince call
+    public long getWatermark() {
+        return watermark;
+    }
+
+    // True when upserts holds every row and anything not in it should be dropped
+    public boolean isFullSnapshot() {
+        return fullSnapshot;
+    }
+
+    public boolean isEmpty() {
+        return upserts.isEmpty() && deletedIds.isEmpty();
+    }
+}
@@ -0,0 +1,349 @@
+package dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-bound JDBC connection pool.
+ * Borrowed connections are proxies: calling close() hands the physical connection back to the pool.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /** Opens a new physical connection. */
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long maxIdleMillis;
+    private final long leakThresholdMillis;
+    private final boolean leakTrace;
+    private final long validationBypassMillis;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Metrics
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong borrowWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long maxIdleMillis, long leakThresholdMillis) {
+        this(factory, minSize, maxSize, borrowTimeoutMillis, maxIdleMillis, leakThresholdMillis, false);
+    }
+
+    // With leakTrace, every borrow records its stack so a leak report can say where the connection was taken.
+    // That costs a stack walk per borrow, so it is for tracking a leak down, not for normal running.
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long maxIdleMillis, long leakThresholdMillis, boolean leakTrace) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize)
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.maxIdleMillis = maxIdleMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.leakTrace = leakTrace;
+        this.validationBypassMillis = 500;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(maxIdleMillis, leakThresholdMillis) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+
+        fillToMinimum();
+    }
+
+    // BORROW
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a connection (" + getStats() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) break;
+                validationFailures.incrementAndGet();
+                destroy(pooled);
+            }
+            if (pooled == null) pooled = open();
+
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowSite = leakTrace ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+
+            borrows.incrementAndGet();
+            borrowWaitNanos.addAndGet(System.nanoTime() - start);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // RETURN (called by the handle's close())
+    private void release(PooledConnection pooled) {
+        if (!borrowed.remove(pooled)) return;
+        try {
+            if (closed || pooled.physical.isClosed()) {
+                destroy(pooled);
+            } else {
+                resetState(pooled.physical);
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled); // LIFO keeps the warmest connections busy and lets the rest idle out
+            }
+        } catch (SQLException e) {
+            System.err.println("Discarding connection that failed to reset: " + e.getMessage());
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void resetState(Connection physical) throws SQLException {
+        if (!physical.getAutoCommit()) {
+            physical.rollback();
+            physical.setAutoCommit(true);
+        }
+        if (physical.isReadOnly()) physical.setReadOnly(false);
+        physical.clearWarnings();
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsed < validationBypassMillis) return true;
+        try {
+            return pooled.physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        PooledConnection pooled = new PooledConnection(factory.create());
+        created.incrementAndGet();
+        return pooled;
+    }
+
+    private void destroy(PooledConnection pooled) {
+        destroyed.incrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error while closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    // HOUSEKEEPING: idle eviction, minimum size, leak detection
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && totalConnections() > minSize) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastUsed > maxIdleMillis && idle.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+
+        for (PooledConnection pooled : borrowed) {
+            if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                pooled.leakReported = true;
+                leaksDetected.incrementAndGet();
+                System.err.println("Possible connection leak: connection held for "
+                        + (now - pooled.borrowedAt) + " ms" + borrowSite(pooled.borrowSite));
+            }
+        }
+
+        fillToMinimum();
+    }
+
+    private static String borrowSite(Throwable site) {
+        if (site == null) return " (-Dincidents.pool.leakTrace=true logs where it was borrowed)";
+        StringBuilder sb = new StringBuilder(", borrowed at:");
+        for (StackTraceElement frame : site.getStackTrace()) sb.append(System.lineSeparator()).append("\tat ").append(frame);
+        return sb.toString();
+    }
+
+    private void fillToMinimum() {
+        while (!closed && totalConnections() < minSize) {
+            if (!permits.tryAcquire()) return;
+            try {
+                PooledConnection pooled = open();
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                System.err.println("Could not pre-open pooled connection: " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private int totalConnections() {
+        return idle.size() + borrowed.size();
+    }
+
+    public Stats getStats() {
+        long count = borrows.get();
+        return new Stats(borrowed.size(), idle.size(), maxSize, created.get(), destroyed.get(), count,
+                count == 0 ? 0 : borrowWaitNanos.get() / count / 1000,
+                timeouts.get(), validationFailures.get(), leaksDetected.get());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) destroy(pooled);
+        // Borrowed connections are destroyed when their holders close them.
+    }
+
+    // Snapshot of pool metrics
+    public static final class Stats {
+        public final int active;
+        public final int idle;
+        public final int maxSize;
+        public final long created;
+        public final long destroyed;
+        public final long borrows;
+        public final long avgBorrowWaitMicros;
+        public final long timeouts;
+        public final long validationFailures;
+        public final long leaksDetected;
+
+        Stats(int active, int idle, int maxSize, long created, long destroyed, long borrows,
+              long avgBorrowWaitMicros, long timeouts, long validationFailures, long leaksDetected) {
+            this.active = active;
+            this.idle = idle;
+            this.maxSize = maxSize;
+            this.created = created;
+            this.destroyed = destroyed;
+            this.borrows = borrows;
+            this.avgBorrowWaitMicros = avgBorrowWaitMicros;
+            this.timeouts = timeouts;
+            this.validationFailures = validationFailures;
+            this.leaksDetected = leaksDetected;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "active=" + active +
+                    ", idle=" + idle +
+                    ", max=" + maxSize +
+                    ", created=" + created +
+                    ", destroyed=" + destroyed +
+                    ", borrows=" + borrows +
+                    ", avgWaitMicros=" + avgBorrowWaitMicros +
+                    ", timeouts=" + timeouts +
+                    ", validationFailures=" + validationFailures +
+                    ", leaks=" + leaksDetected +
+                    '}';
+        }
+    }
+
+    // One physical connection plus its bookkeeping
+    private final class PooledConnection {
+        final Connection physical;
+        volatile long lastUsed;
+        volatile long borrowedAt;
+        volatile Throwable borrowSite;
+        volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    // Per-borrow view of a pooled connection; unusable once closed
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean handleClosed;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed || pooled.physical.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) return proxy;
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.physical;
+                default:
+                    break;
+            }
+            if (handleClosed) throw new SQLException("Connection has already been returned to the pool");
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package dao;
+
+import java.util.Comparator;
+
+/**
+ * Query specification for {@link GenericDAO#findMatching(Criteria)}: a predicate, an order and a window.
+ * SQL-backed DAOs compile their own criteria type into a query; the predicate and comparator let
+ * stores without a query engine evaluate the same criteria in memory.
+ */
+public interface Criteria<T> {
+
+    boolean matches(T entity);
+
+    Comparator<T> getOrder();
+
+    long getOffset();
+
+    // Integer.MAX_VALUE means no limit
+    int getLimit();
+}
@@ -3,19 +3,144 @@ package dao;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import metrics.Metrics;
 
 public class DBconnection {
 
-    private static final String URL = "jdbc:mysql://localhost:3306/Incidents";
+    // Server-side prepared statements are cached per connection, and pooled connections live long
+    private static final String URL_OPTIONS = "?useCursorFetch=true&rewriteBatchedStatements=true"
+            + "&useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048";
+    private static final String PRIMARY = System.getProperty("incidents.db.primary", "localhost:3306");
+    private static final String URL = url(PRIMARY);
     private static final String USER = "root";
     private static final String PASSWORD = "";
 
+    // Pool settings, overridable with -Dincidents.pool.<name>=<value>
+    private static final int POOL_MIN_SIZE = Integer.getInteger("incidents.pool.minSize", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("incidents.pool.maxSize", 10);
+    private static final long POOL_BORROW_TIMEOUT_MS = Long.getLong("incidents.pool.borrowTimeoutMs", 5_000);
+    private static final long POOL_MAX_IDLE_MS = Long.getLong("incidents.pool.maxIdleMs", 300_000);
+    private static final long POOL_LEAK_THRESHOLD_MS = Long.getLong("incidents.pool.leakThresholdMs", 60_000);
+    private static final boolean POOL_LEAK_TRACE = Boolean.getBoolean("incidents.pool.leakTrace");
+
+    // Read replicas: -Dincidents.db.replicas=host:port,host:port (empty = everything on the primary)
+    private static final String REPLICAS = System.getProperty("incidents.db.replicas", "");
+    private static final RoutingDataSource.Balance READ_BALANCE = RoutingDataSource.Balance.valueOf(
+            System.getProperty("incidents.db.readBalance", "LEAST_LOADED"));
+    private static final long READ_YOUR_WRITES_MS = Long.getLong("incidents.db.stickyMs", 1_000);
+
+    private static volatile ConnectionPool pool;
+    private static volatile RoutingDataSource router;
+
+    // Borrow a pooled connection to the primary; close() returns it to the pool
     public static Connection getConnection() {
+        return Metrics.timed("db.getConnection", DBconnection::borrowWriteConnection);
+    }
+
+    // Borrow a connection for a read that may be served by a replica
+    public static Connection getReadConnection() {
+        return Metrics.timed("db.getReadConnection", DBconnection::borrowReadConnection);
+    }
+
+    // Borrow a primary connection for a read that must see every committed row (delta sync, the change outbox)
+    public static Connection getPrimaryReadConnection() {
+        return Metrics.timed("db.getPrimaryReadConnection", DBconnection::borrowPrimaryReadConnection);
+    }
+
+    // Read-your-writes: after a committed change, reads stay on the primary for incidents.db.stickyMs
+    public static void markWritten() {
+        RoutingDataSource r = getRouter();
+        if (r != null) r.markWritten();
+    }
+
+    private static Connection borrowWriteConnection() {
+        try {
+            RoutingDataSource r = getRouter();
+            return r == null ? getPool().getConnection() : r.getWriteConnection();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Database connection error."+ e.getMessage());
+        }
+    }
+
+    private static Connection borrowReadConnection() {
+        RoutingDataSource r = getRouter();
+        if (r == null) return borrowWriteConnection();
         try {
-            return DriverManager.getConnection(URL, USER, PASSWORD);
+            return r.getReadConnection();
         } catch (SQLException e) {
             e.printStackTrace();
             throw new RuntimeException("Database connection error."+ e.getMessage());
         }
     }
+
+    private static Connection borrowPrimaryReadConnection() {
+        RoutingDataSource r = getRouter();
+        if (r == null) return borrowWriteConnection();
+        try {
+            return r.getPrimaryReadConnection();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Database connection error."+ e.getMessage());
+        }
+    }
+
+    // Open a dedicated physical connection, bypassing the pool
+    public static Connection openUnpooledConnection() throws SQLException {
+        return DriverManager.getConnection(URL, USER, PASSWORD);
+    }
+
+    // The configured primary server (host:port or JDBC URL), e.g. to tell snapshots of different databases apart
+    public static String getPrimaryServer() {
+        return PRIMARY;
+    }
+
+    // host:port, or a full JDBC URL used as is
+    private static String url(String server) {
+        return server.startsWith("jdbc:") ? server : "jdbc:mysql://" + server + "/Incidents" + URL_OPTIONS;
+    }
+
+    private static ConnectionPool newPool(String url) {
+        ConnectionPool p = new ConnectionPool(() -> DriverManager.getConnection(url, USER, PASSWORD),
+                POOL_MIN_SIZE, POOL_MAX_SIZE,
+                POOL_BORROW_TIMEOUT_MS, POOL_MAX_IDLE_MS, POOL_LEAK_THRESHOLD_MS, POOL_LEAK_TRACE);
+        Runtime.getRuntime().addShutdownHook(new Thread(p::close, "connection-pool-shutdown"));
+        return p;
+    }
+
+    // Null when no replicas are configured
+    public static RoutingDataSource getRouter() {
+        if (REPLICAS.isBlank()) return null;
+        RoutingDataSource r = router;
+        if (r == null) {
+            synchronized (DBconnection.class) {
+                r = router;
+                if (r == null) {
+                    List<ConnectionPool.ConnectionFactory> replicas = new ArrayList<>();
+                    for (String server : REPLICAS.split(",")) {
+                        if (!server.isBlank()) replicas.add(newPool(url(server.trim()))::getConnection);
+                    }
+                    r = new RoutingDataSource(getPool()::getConnection, replicas, READ_BALANCE, READ_YOUR_WRITES_MS);
+                    router = r;
+                }
+            }
+        }
+        return r;
+    }
+
+    public static ConnectionPool getPool() {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DBconnection.class) {
+                p = pool;
+                if (p == null) {
+                    p = newPool(URL);
+                    pool = p;
+                }
+            }
+        }
+        return p;
+    }
 }
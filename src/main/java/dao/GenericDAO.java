@@ -1,15 +1,99 @@
 package dao;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface GenericDAO<T> {
 
     List<T> findAll();
+
+    /**
+     * The entity with the given id, or null. Stores with an archive tier look there too.
+     */
     T findById(Long id);
+
+    /**
+     * {@link #findById(Long)} from the data store itself, past any cache in front of it, for checks
+     * that must see the latest committed row. Only rows that can still be written are returned.
+     */
+    default T findCurrent(Long id) {
+        return findById(id);
+    }
+
+    /**
+     * Batched lookup: the entities with the given ids, in id order, in as few queries as the batch size allows.
+     * Ids that do not exist are skipped.
+     */
+    List<T> findByIds(Collection<Long> ids);
+
     /**
      * Add the entity and return the generated database id (Long).
      */
     Long add(T entity);
     void update(T entity);
     void delete(Long id);
+
+    /**
+     * Bulk insert in chunks, one transaction per chunk. Returns the generated ids of the rows that
+     * were committed, in input order; fewer ids than entities means a chunk failed and the rest were skipped.
+     */
+    List<Long> addAll(List<T> entities);
+    void updateAll(List<T> entities);
+    void deleteAll(Collection<Long> ids);
+
+    /**
+     * Keyset page: up to {@code limit} entities with an id greater than {@code afterId}
+     * (null for the first page), ordered by id.
+     */
+    List<T> findPage(Long afterId, int limit);
+
+    /**
+     * Positional page in id order, for callers that jump to an arbitrary row (e.g. a scrolled table).
+     * Prefer {@link #findPage(Long, int)} when the previous page's last id is known.
+     */
+    List<T> findRange(long offset, int limit);
+
+    long count();
+
+    /**
+     * Entities matching the criteria, in its order and window. SQL-backed implementations evaluate
+     * filter, sort and limit in the database.
+     */
+    List<T> findMatching(Criteria<T> criteria);
+
+    // Number of entities matching the criteria's predicates (offset and limit are ignored)
+    long countMatching(Criteria<T> criteria);
+
+    /**
+     * Rows inserted, updated or deleted since {@code watermark}, which is the value returned by the
+     * previous call. Pass 0 to get a full snapshot. Returns null when the changes could not be read.
+     */
+    ChangeSet<T> findChangedSince(long watermark);
+
+    /**
+     * Full-text search evaluated by the data store, best matches first.
+     * Every term must match; {@code offset} and {@code limit} page through the ranked results.
+     * Archived entities are not searched.
+     */
+    List<T> search(String query, long offset, int limit);
+
+    default List<T> search(String query, int limit) {
+        return search(query, 0, limit);
+    }
+
+    /**
+     * Stream every entity in id order without materializing the table.
+     * The stream holds a database connection until it is closed, so use try-with-resources.
+     */
+    Stream<T> streamAll();
+
+    /**
+     * Callback form of {@link #streamAll()}: visit every entity in id order, one at a time.
+     */
+    default void forEach(Consumer<? super T> action) {
+        try (Stream<T> stream = streamAll()) {
+            stream.forEachOrdered(action);
+        }
+    }
 }
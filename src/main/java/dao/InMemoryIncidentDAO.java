@@ -0,0 +1,244 @@
+package dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import model.Incident;
+import model.IncidentSummary;
+
+/**
+ * Embedded stand-in for the incidents table, for benchmarks and for running without MySQL.
+ * Rows are copied on the way in and out, like a real database. The change version is a counter,
+ * so {@link #findChangedSince(long)} watermarks are version numbers rather than timestamps.
+ */
+public class InMemoryIncidentDAO implements GenericDAO<Incident>, IncidentSummaryDAO {
+
+    private final TreeMap<Long, Incident> rows = new TreeMap<>();
+    private final Map<Long, Long> modifiedAt = new HashMap<>();
+    private final Map<Long, Long> deletedAt = new HashMap<>();
+    private long nextId = 1;
+    private long version;
+
+    @Override
+    public synchronized List<Incident> findAll() {
+        List<Incident> list = new ArrayList<>(rows.size());
+        for (Incident incident : rows.values()) list.add(copy(incident));
+        return list;
+    }
+
+    @Override
+    public synchronized Incident findById(Long id) {
+        Incident incident = rows.get(id);
+        return incident == null ? null : copy(incident);
+    }
+
+    @Override
+    public synchronized List<Incident> findByIds(Collection<Long> ids) {
+        List<Incident> list = new ArrayList<>(ids.size());
+        for (Long id : new TreeSet<>(ids)) {
+            Incident incident = rows.get(id);
+            if (incident != null) list.add(copy(incident));
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized Long add(Incident incident) {
+        long id = nextId++;
+        incident.setIncidentId(id);
+        put(incident);
+        return id;
+    }
+
+    @Override
+    public synchronized void update(Incident incident) {
+        if (rows.containsKey(incident.getIncidentId())) put(incident);
+    }
+
+    @Override
+    public synchronized void delete(Long id) {
+        if (rows.remove(id) != null) {
+            modifiedAt.remove(id);
+            deletedAt.put(id, ++version);
+        }
+    }
+
+    @Override
+    public synchronized List<Long> addAll(List<Incident> incidents) {
+        List<Long> ids = new ArrayList<>(incidents.size());
+        for (Incident incident : incidents) ids.add(add(incident));
+        return ids;
+    }
+
+    @Override
+    public synchronized void updateAll(List<Incident> incidents) {
+        for (Incident incident : incidents) update(incident);
+    }
+
+    @Override
+    public synchronized void deleteAll(Collection<Long> ids) {
+        for (Long id : ids) delete(id);
+    }
+
+    @Override
+    public synchronized List<Incident> findPage(Long afterId, int limit) {
+        Map<Long, Incident> tail = afterId == null ? rows : rows.tailMap(afterId, false);
+        List<Incident> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Incident incident : tail.values()) {
+            if (page.size() >= limit) break;
+            page.add(copy(incident));
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized List<Incident> findRange(long offset, int limit) {
+        List<Incident> page = new ArrayList<>();
+        long skipped = 0;
+        for (Incident incident : rows.values()) {
+            if (skipped++ < offset) continue;
+            if (page.size() >= limit) break;
+            page.add(copy(incident));
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized List<IncidentSummary> findSummaryPage(Long afterId, int limit) {
+        Map<Long, Incident> tail = afterId == null ? rows : rows.tailMap(afterId, false);
+        List<IncidentSummary> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Incident incident : tail.values()) {
+            if (page.size() >= limit) break;
+            page.add(IncidentSummary.of(copy(incident)));
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized List<IncidentSummary> findSummaryRange(long offset, int limit) {
+        List<IncidentSummary> page = new ArrayList<>();
+        for (Incident incident : findRange(offset, limit)) page.add(IncidentSummary.of(incident));
+        return page;
+    }
+
+    @Override
+    public synchronized long count() {
+        return rows.size();
+    }
+
+    @Override
+    public synchronized List<Incident> findMatching(Criteria<Incident> criteria) {
+        List<Incident> page = new ArrayList<>();
+        for (Incident incident : match(rows.values(), criteria)) page.add(copy(incident));
+        return page;
+    }
+
+    @Override
+    public synchronized long countMatching(Criteria<Incident> criteria) {
+        long count = 0;
+        for (Incident incident : rows.values()) {
+            if (criteria.matches(incident)) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized ChangeSet<Incident> findChangedSince(long watermark) {
+        if (watermark <= 0) return new ChangeSet<>(findAll(), new ArrayList<>(), version, true);
+
+        List<Incident> upserts = new ArrayList<>();
+        for (Map.Entry<Long, Long> e : modifiedAt.entrySet()) {
+            if (e.getValue() > watermark) upserts.add(copy(rows.get(e.getKey())));
+        }
+        List<Long> deleted = new ArrayList<>();
+        for (Map.Entry<Long, Long> e : deletedAt.entrySet()) {
+            if (e.getValue() > watermark) deleted.add(e.getKey());
+        }
+        return new ChangeSet<>(upserts, deleted, version, false);
+    }
+
+    @Override
+    public synchronized List<Incident> search(String query, long offset, int limit) {
+        List<Incident> page = new ArrayList<>();
+        for (Incident incident : rank(rows.values(), query, offset, limit)) page.add(copy(incident));
+        return page;
+    }
+
+    @Override
+    public Stream<Incident> streamAll() {
+        return findAll().stream();
+    }
+
+    private void put(Incident incident) {
+        rows.put(incident.getIncidentId(), copy(incident));
+        modifiedAt.put(incident.getIncidentId(), ++version);
+    }
+
+    // Criteria evaluated in memory: matching rows in the criteria's order and window (not copied)
+    static List<Incident> match(Collection<Incident> rows, Criteria<Incident> criteria) {
+        List<Incident> matches = new ArrayList<>();
+        for (Incident incident : rows) {
+            if (criteria.matches(incident)) matches.add(incident);
+        }
+        matches.sort(criteria.getOrder());
+
+        List<Incident> page = new ArrayList<>();
+        for (long i = criteria.getOffset(); i < matches.size() && page.size() < criteria.getLimit(); i++) {
+            page.add(matches.get((int) i));
+        }
+        return page;
+    }
+
+    // Every term must appear in title, description or resolution notes; title hits rank first (not copied)
+    static List<Incident> rank(Collection<Incident> rows, String query, long offset, int limit) {
+        String[] terms = query == null ? new String[0] : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        List<Incident> matches = new ArrayList<>();
+        Map<Long, Integer> scores = new HashMap<>();
+
+        for (Incident incident : rows) {
+            int score = 0;
+            boolean all = true;
+            for (String term : terms) {
+                if (term.isEmpty()) continue;
+                int hit = (contains(incident.getTitle(), term) ? 3 : 0)
+                        + (contains(incident.getDescription(), term) ? 1 : 0)
+                        + (contains(incident.getResolutionNotes(), term) ? 1 : 0);
+                if (hit == 0) {
+                    all = false;
+                    break;
+                }
+                score += hit;
+            }
+            if (all && score > 0) {
+                matches.add(incident);
+                scores.put(incident.getIncidentId(), score);
+            }
+        }
+
+        matches.sort(Comparator.comparing((Incident i) -> -scores.get(i.getIncidentId()))
+                .thenComparing(Incident::getIncidentId));
+        List<Incident> page = new ArrayList<>();
+        for (long i = offset; i < matches.size() && page.size() < limit; i++) {
+            page.add(matches.get((int) i));
+        }
+        return page;
+    }
+
+    private static boolean contains(String text, String term) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(term);
+    }
+
+    private static Incident copy(Incident i) {
+        return new Incident(i.getIncidentId(), i.getTitle(), i.getDescription(), i.getType(), i.getRisk(),
+                i.getStatus(), i.getReportedDate() == null ? null : new Date(i.getReportedDate().getTime()),
+                i.getAssignedTo(), i.getResolutionNotes());
+    }
+}
@@ -0,0 +1,131 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves CLOSED incidents that have not changed for a configurable age from the hot {@code incidents}
+ * table into {@code incidents_archive}, one batch per transaction. The delete trigger records each
+ * move in the change outbox, so delta syncs drop archived rows from in-memory lists.
+ *
+ * Usage: IncidentArchiver [ageDays]   (archives once and exits)
+ */
+public class IncidentArchiver implements AutoCloseable {
+
+    private static final int DEFAULT_AGE_DAYS = Integer.getInteger("incidents.archive.ageDays", 90);
+    private static final long DEFAULT_INTERVAL_MINUTES = Long.getLong("incidents.archive.intervalMinutes", 60);
+    private static final int DEFAULT_BATCH_SIZE = Integer.getInteger("incidents.archive.batchSize", 500);
+
+    private static final String COLUMNS =
+            "incident_id, title, description, type, risk, status, reported_date, assigned_to, resolution_notes, last_modified";
+
+    private final ConnectionPool.ConnectionFactory connections;
+    private final long ageMillis;
+    private final int batchSize;
+    private ScheduledExecutorService scheduler;
+
+    public IncidentArchiver() {
+        this(DBconnection::getConnection, TimeUnit.DAYS.toMillis(DEFAULT_AGE_DAYS), DEFAULT_BATCH_SIZE);
+    }
+
+    public IncidentArchiver(ConnectionPool.ConnectionFactory connections, long ageMillis, int batchSize) {
+        if (ageMillis < 0) throw new IllegalArgumentException("Archive age must not be negative");
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+        this.connections = connections;
+        this.ageMillis = ageMillis;
+        this.batchSize = batchSize;
+    }
+
+    public static void main(String[] args) {
+        long ageDays = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_AGE_DAYS;
+        IncidentArchiver archiver = new IncidentArchiver(DBconnection::getConnection,
+                TimeUnit.DAYS.toMillis(ageDays), DEFAULT_BATCH_SIZE);
+        System.out.println("Archived " + archiver.archiveNow() + " incidents");
+    }
+
+    // BACKGROUND JOB (first run after one interval, so startup is not slowed down)
+    public synchronized void start() {
+        start(DEFAULT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public synchronized void start(long interval, TimeUnit unit) {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "incident-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::archiveNow, interval, interval, unit);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    // ARCHIVE: batches until no eligible row is left; returns the number of rows moved
+    public long archiveNow() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - ageMillis);
+        long moved = 0;
+
+        try (Connection conn = connections.create()) {
+            conn.setAutoCommit(false);
+            while (!Thread.currentThread().isInterrupted()) {
+                int batch;
+                try {
+                    batch = archiveBatch(conn, cutoff);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    System.err.println("Error while archiving incidents: " + e.getMessage());
+                    break;
+                }
+                moved += batch;
+                if (batch < batchSize) break;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error while archiving incidents: " + e.getMessage());
+        }
+        return moved;
+    }
+
+    // Lock a batch of eligible ids, copy those rows to the archive, then delete them from the hot table
+    private int archiveBatch(Connection conn, Timestamp cutoff) throws SQLException {
+        List<Long> ids = new ArrayList<>(batchSize);
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT incident_id FROM incidents WHERE status = 'CLOSED' AND last_modified < ? " +
+                        "ORDER BY incident_id LIMIT ? FOR UPDATE")) {
+            ps.setTimestamp(1, cutoff);
+            ps.setInt(2, batchSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getLong(1));
+            }
+        }
+        if (ids.isEmpty()) return 0;
+
+        StringBuilder in = new StringBuilder();
+        for (int i = 0; i < ids.size(); i++) in.append(i == 0 ? "?" : ", ?");
+
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO incidents_archive (" + COLUMNS + ") SELECT " + COLUMNS +
+                        " FROM incidents WHERE incident_id IN (" + in + ")")) {
+            for (int i = 0; i < ids.size(); i++) ps.setLong(i + 1, ids.get(i));
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "DELETE FROM incidents WHERE incident_id IN (" + in + ")")) {
+            for (int i = 0; i < ids.size(); i++) ps.setLong(i + 1, ids.get(i));
+            ps.executeUpdate();
+        }
+        return ids.size();
+    }
+}
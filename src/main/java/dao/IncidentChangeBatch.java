@@ -0,0 +1,53 @@
+package dao;
+
+import java.util.List;
+import java.util.Set;
+import model.Incident;
+
+/**
+ * One push from {@link IncidentChangeDispatcher}: the changes read from the outbox in one poll, coalesced
+ * per incident (the last change wins, and a delete beats anything before it). Upserts hold the current rows.
+ */
+public class IncidentChangeBatch {
+
+    private final List<Incident> upserts;
+    private final List<Long> deletedIds;
+    private final Set<Long> insertedIds;
+    private final long lastChangeId;
+
+    public IncidentChangeBatch(List<Incident> upserts, List<Long> deletedIds, Set<Long> insertedIds,
+                               long lastChangeId) {
+        this.upserts = upserts;
+        this.deletedIds = deletedIds;
+        this.insertedIds = insertedIds;
+        this.lastChangeId = lastChangeId;
+    }
+
+    // Inserted or updated rows, as they are now
+    public List<Incident> getUpserts() {
+        return upserts;
+    }
+
+    // Deleted (or archived) ids, including upserted ids whose row was gone by the time it was read
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    // True when the upsert is a new incident rather than a change to an existing one
+    public boolean isInsert(Long incidentId) {
+        return insertedIds.contains(incidentId);
+    }
+
+    // Highest outbox change_id covered by this batch
+    public long getLastChangeId() {
+        return lastChangeId;
+    }
+
+    public boolean isEmpty() {
+        return upserts.isEmpty() && deletedIds.isEmpty();
+    }
+
+    public int size() {
+        return upserts.size() + deletedIds.size();
+    }
+}
@@ -0,0 +1,307 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import metrics.Metrics;
+import model.Incident;
+
+/**
+ * Tails the {@code incident_changes} outbox (filled by triggers on {@code incidents}, see DB_SETUP.sql)
+ * and pushes what changed to subscribers, so open clients stay current without reloading. Each poll is
+ * one indexed range query on change_id; when something changed, the current rows are read in one
+ * batched query on the primary and handed over as a coalesced {@link IncidentChangeBatch}.
+ *
+ * Auto-increment ids are allocated at insert but become visible at commit, so a change can show up
+ * after a higher change_id was already read. Skipped ids are remembered as gaps and looked for again
+ * for incidents.changes.gapTimeoutMs. A gap that expires may be a rollback or a transaction still
+ * running, and past MAX_GAPS skipped ids are not tracked at all; either way subscribers are told to
+ * {@link IncidentChangeSubscriber#resync() resync} instead of the change being dropped.
+ *
+ * Outbox retention is shared by every client, so only a dispatcher with {@link #setPruning(boolean)}
+ * (the HTTP server's) deletes old rows.
+ *
+ * Configuration (system properties):
+ * incidents.changes.pollMs          (1000)  delay between polls
+ * incidents.changes.batchSize       (1000)  outbox rows per query
+ * incidents.changes.gapTimeoutMs    (60000) how long a skipped change_id is waited for
+ * incidents.changes.retentionHours  (24)    outbox rows older than this are deleted (hourly)
+ *
+ * Usage: IncidentChangeDispatcher   (prunes the outbox once and exits)
+ */
+public class IncidentChangeDispatcher implements AutoCloseable {
+
+    private static final long DEFAULT_POLL_MS = Long.getLong("incidents.changes.pollMs", 1000);
+    private static final int DEFAULT_BATCH_SIZE = Integer.getInteger("incidents.changes.batchSize", 1000);
+    private static final long DEFAULT_GAP_TIMEOUT_MS = Long.getLong("incidents.changes.gapTimeoutMs", 60_000);
+    private static final long RETENTION_HOURS = Long.getLong("incidents.changes.retentionHours", 24);
+    private static final long PRUNE_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+    static final int MAX_GAPS = 1000;
+
+    private final ConnectionPool.ConnectionFactory connections;
+    private final GenericDAO<Incident> rows;
+    private final int batchSize;
+    private final long gapTimeoutMs;
+    private volatile boolean pruning;
+    private final List<IncidentChangeSubscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Poll state, guarded by this dispatcher
+    private long position = -1; // highest change_id read; -1 until the first poll
+    private final TreeMap<Long, Long> gaps = new TreeMap<>(); // skipped change_id -> when it was skipped
+    private boolean gapExpired;
+    private long untrackedSince = -1; // first skip past MAX_GAPS not yet covered by a resync; -1 if none
+    private long untrackedLast = -1; // last skip past MAX_GAPS
+    private long lastPrune;
+    private String lastError;
+    private ScheduledExecutorService scheduler;
+
+    public IncidentChangeDispatcher() {
+        // The primary, without pinning the process's other reads to it on every poll
+        this(DBconnection::getPrimaryReadConnection,
+                new IncidentDAOImpl(DBconnection::getPrimaryReadConnection, DEFAULT_BATCH_SIZE), DEFAULT_BATCH_SIZE);
+    }
+
+    public IncidentChangeDispatcher(ConnectionPool.ConnectionFactory connections, GenericDAO<Incident> rows,
+                                    int batchSize) {
+        this(connections, rows, batchSize, DEFAULT_GAP_TIMEOUT_MS);
+    }
+
+    // rows must read from the primary: a lagging replica would miss the rows the outbox announces
+    public IncidentChangeDispatcher(ConnectionPool.ConnectionFactory connections, GenericDAO<Incident> rows,
+                                    int batchSize, long gapTimeoutMs) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+        if (gapTimeoutMs < 0) throw new IllegalArgumentException("Gap timeout must not be negative");
+        this.connections = connections;
+        this.rows = rows;
+        this.batchSize = batchSize;
+        this.gapTimeoutMs = gapTimeoutMs;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("Pruned " + new IncidentChangeDispatcher().pruneNow() + " outbox rows");
+    }
+
+    public void subscribe(IncidentChangeSubscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(IncidentChangeSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    // Off by default: one process per deployment should delete old outbox rows, not every open client
+    public void setPruning(boolean pruning) {
+        this.pruning = pruning;
+    }
+
+    // BACKGROUND POLLING (the first poll runs at once and only records where the outbox ends)
+    public synchronized void start() {
+        start(DEFAULT_POLL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void start(long interval, TimeUnit unit) {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "incident-changes");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::pollNow, 0, interval, unit);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    // POLL: read and push every change since the last poll; returns the number of incidents pushed
+    public int pollNow() {
+        return Metrics.timed("changes.poll", this::poll, n -> n);
+    }
+
+    private synchronized int poll() {
+        int pushed = 0;
+        try (Connection conn = connections.create()) {
+            if (position < 0) {
+                position = lastChangeId(conn);
+                return 0;
+            }
+            List<long[]> changes;
+            do {
+                changes = readChanges(conn);
+                IncidentChangeBatch batch = coalesce(changes);
+                if (!batch.isEmpty()) {
+                    push(batch);
+                    pushed += batch.size();
+                }
+            } while (changes.size() >= batchSize && !Thread.currentThread().isInterrupted());
+            resyncIfDue();
+            if (pruning) pruneIfDue(conn);
+            lastError = null;
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            // Logged once per distinct error, so a missing outbox table does not flood the log every poll
+            String message = String.valueOf(e.getMessage());
+            if (!message.equals(lastError)) System.err.println("Error while reading incident changes: " + message);
+            lastError = message;
+        }
+        return pushed;
+    }
+
+    private static long lastChangeId(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT COALESCE(MAX(change_id), 0) FROM incident_changes");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    // Next outbox rows after the position, plus any that turned up in a gap; each is {change_id, incident_id, op}
+    private List<long[]> readChanges(Connection conn) throws SQLException {
+        long now = System.currentTimeMillis();
+        gapExpired |= gaps.values().removeIf(skippedAt -> now - skippedAt > gapTimeoutMs);
+
+        StringBuilder sql = new StringBuilder("SELECT change_id, incident_id, op FROM incident_changes WHERE change_id > ?");
+        if (!gaps.isEmpty()) {
+            sql.append(" OR change_id IN (");
+            for (int i = 0; i < gaps.size(); i++) sql.append(i == 0 ? "?" : ", ?");
+            sql.append(')');
+        }
+        sql.append(" ORDER BY change_id LIMIT ?");
+
+        List<long[]> changes = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            int p = 1;
+            ps.setLong(p++, position);
+            for (Long gap : gaps.keySet()) ps.setLong(p++, gap);
+            ps.setInt(p, batchSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    changes.add(new long[]{rs.getLong(1), rs.getLong(2), rs.getString(3).charAt(0)});
+                }
+            }
+        }
+
+        for (long[] change : changes) {
+            long changeId = change[0];
+            if (gaps.remove(changeId) != null || changeId <= position) continue;
+            for (long skipped = position + 1; skipped < changeId; skipped++) {
+                if (gaps.size() >= MAX_GAPS) {
+                    if (untrackedSince < 0) untrackedSince = now;
+                    untrackedLast = now;
+                    break;
+                }
+                gaps.put(skipped, now);
+            }
+            position = changeId;
+        }
+        return changes;
+    }
+
+    // One entry per incident: the last change wins, a delete beats anything before it, and an insert
+    // followed by updates is still an insert
+    private IncidentChangeBatch coalesce(List<long[]> changes) {
+        Map<Long, Character> ops = new LinkedHashMap<>();
+        long last = position;
+        for (long[] change : changes) {
+            char op = (char) change[2];
+            Character previous = ops.get(change[1]);
+            if (previous != null && op == 'U' && (previous == 'I' || previous == 'D')) op = 'I';
+            ops.put(change[1], op);
+            last = Math.max(last, change[0]);
+        }
+
+        List<Long> upsertIds = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        Set<Long> insertedIds = new HashSet<>();
+        for (Map.Entry<Long, Character> e : ops.entrySet()) {
+            if (e.getValue() == 'D') {
+                deletedIds.add(e.getKey());
+            } else {
+                upsertIds.add(e.getKey());
+                if (e.getValue() == 'I') insertedIds.add(e.getKey());
+            }
+        }
+
+        List<Incident> upserts = upsertIds.isEmpty() ? new ArrayList<>() : rows.findByIds(upsertIds);
+        if (upserts.size() < upsertIds.size()) {
+            // Gone again before it could be read; its delete is in the outbox too, but drop it now
+            Set<Long> found = new HashSet<>();
+            for (Incident incident : upserts) found.add(incident.getIncidentId());
+            for (Long id : upsertIds) if (!found.contains(id)) deletedIds.add(id);
+        }
+        return new IncidentChangeBatch(upserts, deletedIds, insertedIds, last);
+    }
+
+    // A skip past MAX_GAPS gets the same time to commit as a tracked gap before the resync that covers it
+    private void resyncIfDue() {
+        long now = System.currentTimeMillis();
+        boolean untrackedDue = untrackedSince >= 0 && now - untrackedSince > gapTimeoutMs;
+        if (!gapExpired && !untrackedDue) return;
+        gapExpired = false;
+        if (untrackedDue) untrackedSince = untrackedLast > untrackedSince ? untrackedLast : -1;
+        Metrics.run("changes.resync", () -> {
+            for (IncidentChangeSubscriber subscriber : subscribers) {
+                try {
+                    subscriber.resync();
+                } catch (RuntimeException e) {
+                    System.err.println("Error while resyncing incident changes: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void push(IncidentChangeBatch batch) {
+        for (IncidentChangeSubscriber subscriber : subscribers) {
+            try {
+                subscriber.incidentsChanged(batch);
+            } catch (RuntimeException e) {
+                System.err.println("Error while pushing incident changes: " + e.getMessage());
+            }
+        }
+    }
+
+    // RETENTION: clients that were offline longer than this get a full snapshot on their next delta sync
+    public synchronized int pruneNow() {
+        try (Connection conn = connections.create()) {
+            return prune(conn);
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while pruning incident changes: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private void pruneIfDue(Connection conn) throws SQLException {
+        if (System.currentTimeMillis() - lastPrune < PRUNE_INTERVAL_MS) return;
+        prune(conn);
+    }
+
+    // The newest row is kept however old it is: delta sync watermarks are change ids, and an empty outbox
+    // would no longer say where the sequence stands
+    private int prune(Connection conn) throws SQLException {
+        long now = System.currentTimeMillis();
+        lastPrune = now;
+        long last = lastChangeId(conn);
+        try (PreparedStatement ps = conn.prepareStatement(
+                "DELETE FROM incident_changes WHERE changed_at < ? AND change_id < ?")) {
+            ps.setTimestamp(1, new Timestamp(now - TimeUnit.HOURS.toMillis(RETENTION_HOURS)));
+            ps.setLong(2, last);
+            return ps.executeUpdate();
+        }
+    }
+}
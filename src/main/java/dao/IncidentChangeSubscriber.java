@@ -0,0 +1,15 @@
+package dao;
+
+/**
+ * Receives incident changes pushed by {@link IncidentChangeDispatcher}, on the dispatcher's thread.
+ * Batches may repeat changes a subscriber has already applied (its own writes, for one), so applying
+ * one must be idempotent.
+ */
+public interface IncidentChangeSubscriber {
+
+    void incidentsChanged(IncidentChangeBatch batch);
+
+    // Changes may have been missed (a skipped change_id expired or could not be tracked), so whatever
+    // the pushes kept current has to be caught up some other way, e.g. by a full delta sync
+    void resync();
+}
@@ -0,0 +1,186 @@
+package dao;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Set;
+import model.Incident;
+
+/**
+ * Typed incident filter, order and window, e.g.
+ * {@code new IncidentCriteria().status(NEW, IN_PROGRESS).risk(CRITICAL).orderBy(REPORTED_DATE, true).limit(50)}.
+ * Unset predicates match everything; several values of one field are ORed, different fields are ANDed.
+ * Only the hot table is queried unless {@link #includeArchived(boolean)} is set.
+ */
+public class IncidentCriteria implements Criteria<Incident> {
+
+    private final EnumSet<Incident.Status> statuses = EnumSet.noneOf(Incident.Status.class);
+    private final EnumSet<Incident.Risk> risks = EnumSet.noneOf(Incident.Risk.class);
+    private final EnumSet<Incident.IncidentType> types = EnumSet.noneOf(Incident.IncidentType.class);
+    private String assignedTo;
+    private Date reportedFrom; // inclusive
+    private Date reportedTo;   // exclusive
+    private IncidentSortKey sortKey = IncidentSortKey.ID;
+    private boolean descending;
+    private long offset;
+    private int limit = Integer.MAX_VALUE;
+    private boolean includeArchived;
+
+    // PREDICATES
+    public IncidentCriteria status(Incident.Status... values) {
+        statuses.clear();
+        for (Incident.Status value : values) if (value != null) statuses.add(value);
+        return this;
+    }
+
+    public IncidentCriteria risk(Incident.Risk... values) {
+        risks.clear();
+        for (Incident.Risk value : values) if (value != null) risks.add(value);
+        return this;
+    }
+
+    public IncidentCriteria type(Incident.IncidentType... values) {
+        types.clear();
+        for (Incident.IncidentType value : values) if (value != null) types.add(value);
+        return this;
+    }
+
+    public IncidentCriteria assignedTo(String assignee) {
+        this.assignedTo = assignee == null || assignee.trim().isEmpty() ? null : assignee.trim();
+        return this;
+    }
+
+    // Reported in [from, to); either bound may be null
+    public IncidentCriteria reportedBetween(Date from, Date to) {
+        if (from != null && to != null && !from.before(to))
+            throw new IllegalArgumentException("Reported date range is empty");
+        this.reportedFrom = from == null ? null : new Date(from.getTime());
+        this.reportedTo = to == null ? null : new Date(to.getTime());
+        return this;
+    }
+
+    // ORDER AND WINDOW (ties are always broken by incident id)
+    public IncidentCriteria orderBy(IncidentSortKey sortKey, boolean descending) {
+        if (sortKey == null) throw new IllegalArgumentException("Sort key is required");
+        this.sortKey = sortKey;
+        this.descending = descending;
+        return this;
+    }
+
+    public IncidentCriteria offset(long offset) {
+        if (offset < 0) throw new IllegalArgumentException("Offset must not be negative");
+        this.offset = offset;
+        return this;
+    }
+
+    public IncidentCriteria limit(int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("Limit must be positive");
+        this.limit = limit;
+        return this;
+    }
+
+    // SCOPE: also read incidents_archive (history queries; slower than the hot table alone)
+    public IncidentCriteria includeArchived(boolean includeArchived) {
+        this.includeArchived = includeArchived;
+        return this;
+    }
+
+    public Set<Incident.Status> getStatuses() {
+        return statuses;
+    }
+
+    public Set<Incident.Risk> getRisks() {
+        return risks;
+    }
+
+    public Set<Incident.IncidentType> getTypes() {
+        return types;
+    }
+
+    public String getAssignedTo() {
+        return assignedTo;
+    }
+
+    public Date getReportedFrom() {
+        return reportedFrom;
+    }
+
+    public Date getReportedTo() {
+        return reportedTo;
+    }
+
+    public IncidentSortKey getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public boolean isIncludeArchived() {
+        return includeArchived;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    // IN-MEMORY EVALUATION
+    @Override
+    public boolean matches(Incident incident) {
+        if (!statuses.isEmpty() && !statuses.contains(incident.getStatus())) return false;
+        if (!risks.isEmpty() && !risks.contains(incident.getRisk())) return false;
+        if (!types.isEmpty() && !types.contains(incident.getType())) return false;
+        if (assignedTo != null && !assignedTo.equals(incident.getAssignedTo())) return false;
+        Date reported = incident.getReportedDate();
+        if (reportedFrom != null && (reported == null || reported.before(reportedFrom))) return false;
+        if (reportedTo != null && (reported == null || !reported.before(reportedTo))) return false;
+        return true;
+    }
+
+    @Override
+    public Comparator<Incident> getOrder() {
+        Comparator<Incident> byId = Comparator.comparing(Incident::getIncidentId);
+        Comparator<Incident> order;
+        switch (sortKey) {
+            case REPORTED_DATE:
+                order = Comparator.comparing(Incident::getReportedDate).thenComparing(byId);
+                break;
+            case TITLE:
+                order = Comparator.comparing(Incident::getTitle).thenComparing(byId);
+                break;
+            default:
+                order = byId;
+        }
+        return descending ? order.reversed() : order;
+    }
+
+    @Override
+    public String toString() {
+        return "IncidentCriteria{" +
+                "status=" + statuses +
+                ", risk=" + risks +
+                ", type=" + types +
+                ", assignedTo=" + assignedTo +
+                ", from=" + reportedFrom +
+                ", to=" + reportedTo +
+                ", order=" + sortKey + (descending ? " desc" : "") +
+                ", offset=" + offset +
+                ", limit=" + limit +
+                ", archived=" + includeArchived +
+                '}';
+    }
+
+    // Identifies the SQL text this criteria compiles to (which predicates, how many values, which order)
+    String shape() {
+        return statuses.size() + "," + risks.size() + "," + types.size() + ","
+                + (assignedTo != null) + "," + (reportedFrom != null) + "," + (reportedTo != null) + ","
+                + sortKey + "," + descending + "," + includeArchived;
+    }
+}
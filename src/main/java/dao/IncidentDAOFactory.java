@@ -0,0 +1,73 @@
+package dao;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import model.Incident;
+import model.IncidentSnapshot;
+
+/**
+ * Chooses the incident store from configuration:
+ * -Dincidents.store=mysql (default) uses {@link IncidentDAOImpl};
+ * -Dincidents.store=log uses the embedded {@link LogIncidentDAO} in incidents.store.dir (default "data").
+ * Model snapshots for warm start go to the same directory unless -Dincidents.snapshot.enabled=false.
+ * With MySQL, changes are pushed from the incident_changes outbox unless -Dincidents.changes.enabled=false,
+ * and the HTTP server archives old closed incidents unless -Dincidents.archive.enabled=false.
+ */
+public final class IncidentDAOFactory {
+
+    private static final String STORE = System.getProperty("incidents.store", "mysql");
+    private static final String LOG_DIR = System.getProperty("incidents.store.dir", "data");
+    private static final boolean LOG_FSYNC = Boolean.parseBoolean(System.getProperty("incidents.store.fsync", "true"));
+    private static final long LOG_COMPACT_MINUTES = Long.getLong("incidents.store.compactMinutes", 10);
+    private static final boolean SNAPSHOT_ENABLED =
+            Boolean.parseBoolean(System.getProperty("incidents.snapshot.enabled", "true"));
+    private static final boolean CHANGES_ENABLED =
+            Boolean.parseBoolean(System.getProperty("incidents.changes.enabled", "true"));
+    private static final boolean ARCHIVE_ENABLED =
+            Boolean.parseBoolean(System.getProperty("incidents.archive.enabled", "true"));
+
+    private IncidentDAOFactory() {
+    }
+
+    // The configured store, timed under "dao.*" in metrics.Metrics
+    public static GenericDAO<Incident> create() {
+        if (!usesLogStore()) return new InstrumentedIncidentDAO(new IncidentDAOImpl());
+        try {
+            LogIncidentDAO dao = new LogIncidentDAO(Paths.get(LOG_DIR, "incidents.log"), LOG_FSYNC, LOG_COMPACT_MINUTES);
+            Runtime.getRuntime().addShutdownHook(new Thread(dao::close, "incident-log-shutdown"));
+            return new InstrumentedIncidentDAO(dao);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Could not open incident log: " + e.getMessage());
+        }
+    }
+
+    // Snapshot file for the configured store, or null when snapshots are disabled
+    public static IncidentSnapshot snapshot() {
+        if (!SNAPSHOT_ENABLED) return null;
+        if (usesLogStore()) {
+            Path log = Paths.get(LOG_DIR, "incidents.log").toAbsolutePath();
+            return new IncidentSnapshot(Paths.get(LOG_DIR, "incidents-log.snapshot"), "log:" + log);
+        }
+        return new IncidentSnapshot(Paths.get(LOG_DIR, "incidents-mysql.snapshot"),
+                "mysql:" + DBconnection.getPrimaryServer());
+    }
+
+    // Push updates from the change outbox (not started yet), or null for the embedded store or when disabled
+    public static IncidentChangeDispatcher changeDispatcher() {
+        if (usesLogStore() || !CHANGES_ENABLED) return null;
+        return new IncidentChangeDispatcher();
+    }
+
+    // Background archiving for the HTTP server (not started yet), or null for the embedded store or when disabled
+    public static IncidentArchiver archiver() {
+        if (usesLogStore() || !ARCHIVE_ENABLED) return null;
+        return new IncidentArchiver();
+    }
+
+    // True for the embedded store, which has no database for archiving, replicas or pooling
+    public static boolean usesLogStore() {
+        return "log".equalsIgnoreCase(STORE);
+    }
+}
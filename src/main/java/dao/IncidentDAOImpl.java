@@ -2,21 +2,120 @@ package dao;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import metrics.Metrics;
 import model.Incident;
+import model.IncidentSummary;
 import model.Incident.IncidentType;
 import model.Incident.Risk;
 import model.Incident.Status;
 
-public class IncidentDAOImpl implements GenericDAO<Incident> {
+public class IncidentDAOImpl implements GenericDAO<Incident>, IncidentSummaryDAO {
 
+    // Rows per server round trip when streaming (needs useCursorFetch=true on the JDBC URL)
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // MySQL error codes meaning MATCH ... AGAINST cannot run: no FULLTEXT index / engine without FULLTEXT
+    private static final int ER_FT_MATCHING_KEY_NOT_FOUND = 1191;
+    private static final int ER_TABLE_CANT_HANDLE_FT = 1214;
+    // H2 (the embedded stand-in) has no MATCH function at all
+    private static final int H2_FUNCTION_NOT_FOUND = 90022;
+
+    // Delta sync: an outbox id that is still missing once a later change is this old is taken for a rollback.
+    // Transactions that write incidents must finish within it (the dispatcher waits as long for a gap).
+    private static final long SYNC_GAP_TIMEOUT_MS = Long.getLong("incidents.changes.gapTimeoutMs", 60_000);
+
+    // Bulk operations: rows per statement and per transaction. 8 placeholders per row must stay under 65535.
+    private static final int DEFAULT_BATCH_SIZE = Integer.getInteger("incidents.dao.batchSize", 500);
+    private static final int MAX_BATCH_SIZE = 8_000;
+
+    // Table columns only; description and resolution_notes stay on the server until an incident is opened
+    private static final String SUMMARY_COLUMNS =
+            "incident_id, title, type, risk, status, reported_date, assigned_to";
+
+    // Every mapped column, for queries over both the hot and the archive table
+    private static final String SELECT_COLUMNS =
+            "incident_id, title, description, type, risk, status, reported_date, assigned_to, resolution_notes";
+
+    private static final String INSERT_COLUMNS =
+            "(title, description, type, risk, status, reported_date, assigned_to, resolution_notes)";
+
+    // Cleared on the first search the database rejects; -Dincidents.search.fulltext=false starts with the fallback
+    private volatile boolean fullTextSupported =
+            Boolean.parseBoolean(System.getProperty("incidents.search.fulltext", "true"));
+
+    // Criteria shape -> SQL text, so each distinct query is built once and reuses the driver's statement cache
+    private final Map<String, String> criteriaSql = new ConcurrentHashMap<>();
+
+    private final ConnectionPool.ConnectionFactory connections;
+    private final ConnectionPool.ConnectionFactory readConnections;
+    private final ConnectionPool.ConnectionFactory primaryReadConnections;
+    private final Runnable written; // after every committed change, for read-your-writes routing
+    private final int batchSize;
 
     public IncidentDAOImpl() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    public IncidentDAOImpl(int batchSize) {
+        this(DBconnection::getConnection, DBconnection::getReadConnection, DBconnection::getPrimaryReadConnection,
+                DBconnection::markWritten, batchSize);
+    }
+
+    // Explicit connection source, e.g. a dedicated pool or a synthetic connection in benchmarks
+    public IncidentDAOImpl(ConnectionPool.ConnectionFactory connections, int batchSize) {
+        this(connections, connections, connections, () -> { }, batchSize);
+    }
+
+    // Writes and consistent reads on the router's primary, other reads on its replicas
+    public IncidentDAOImpl(RoutingDataSource router, int batchSize) {
+        this(router::getWriteConnection, router::getReadConnection, router::getPrimaryReadConnection,
+                router::markWritten, batchSize);
+    }
+
+    private IncidentDAOImpl(ConnectionPool.ConnectionFactory connections,
+                            ConnectionPool.ConnectionFactory readConnections,
+                            ConnectionPool.ConnectionFactory primaryReadConnections, Runnable written, int batchSize) {
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE)
+            throw new IllegalArgumentException("Batch size must be between 1 and " + MAX_BATCH_SIZE);
+        this.connections = connections;
+        this.readConnections = readConnections;
+        this.primaryReadConnections = primaryReadConnections;
+        this.written = written;
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
     }
 
     // Helper method to get and close connection
-    private Connection getConnection() {
-        return DBconnection.getConnection();
+    private Connection getConnection() throws SQLException {
+        return JdbcTracing.trace(connections.create());
+    }
+
+    // Reads that tolerate replication lag
+    private Connection getReadConnection() throws SQLException {
+        return JdbcTracing.trace(readConnections.create());
+    }
+
+    // Reads that must see every committed row: delta sync, whose watermark must not skip rows a replica
+    // has not applied yet, and findCurrent. Unlike a committed write, they do not pin later reads to the primary.
+    private Connection getPrimaryReadConnection() throws SQLException {
+        return JdbcTracing.trace(primaryReadConnections.create());
     }
 
     // FIND ALL (Connection fixed)
@@ -26,7 +125,7 @@ public class IncidentDAOImpl implements GenericDAO<Incident> {
         String sql = "SELECT * FROM incidents";
 
         // Connection is obtained and placed in the try-with-resources block
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
@@ -36,51 +135,65 @@ public class IncidentDAOImpl implements GenericDAO<Incident> {
 
         } catch (SQLException e) {
             // Improved error reporting (use a proper logging framework in production)
+            Metrics.markFailed();
             System.err.println("Error while fetching all incidents: " + e.getMessage());
         }
         return list;
     }
 
-    // FIND BY ID (Connection fixed)
+    // FIND BY ID (Connection fixed): hot table first, then the archive, in one statement so a row the
+    // archiver is moving is seen in exactly one of them
     @Override
     public Incident findById(Long id) {
-        String sql = "SELECT * FROM incidents WHERE incident_id = ?";
+        String sql = "SELECT " + SELECT_COLUMNS + " FROM incidents WHERE incident_id = ?" +
+                " UNION ALL SELECT " + SELECT_COLUMNS + " FROM incidents_archive WHERE incident_id = ?";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-
             ps.setLong(1, id);
-
+            ps.setLong(2, id);
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToIncident(rs);
-                }
+                return rs.next() ? mapResultSetToIncident(rs) : null;
             }
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while fetching incident by ID: " + e.getMessage());
+        }
+        return null;
+    }
 
+    // FIND CURRENT: from the primary, never a lagging replica; hot table only, archived rows are read-only
+    @Override
+    public Incident findCurrent(Long id) {
+        try (Connection conn = getPrimaryReadConnection()) {
+            return findById(conn, id);
         } catch (SQLException e) {
+            Metrics.markFailed();
             System.err.println("Error while fetching incident by ID: " + e.getMessage());
         }
         return null;
     }
 
+    private Incident findById(Connection conn, Long id) throws SQLException {
+        String sql = "SELECT * FROM incidents WHERE incident_id = ?";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapResultSetToIncident(rs) : null;
+            }
+        }
+    }
+
     // INSERT (Connection fixed)
     @Override
     public Long add(Incident incident) {
-        String sql = "INSERT INTO incidents " +
-                "(title, description, type, risk, status, reported_date, assigned_to, resolution_notes) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO incidents " + INSERT_COLUMNS + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
         try (Connection conn = getConnection();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            ps.setString(1, incident.getTitle());
-            ps.setString(2, incident.getDescription());
-            ps.setString(3, incident.getType().name());
-            ps.setString(4, incident.getRisk().name());
-            ps.setString(5, incident.getStatus().name());
-            ps.setTimestamp(6, new Timestamp(incident.getReportedDate().getTime()));
-            ps.setString(7, incident.getAssignedTo());
-            ps.setString(8, incident.getResolutionNotes());
+            setIncidentParameters(ps, 1, incident);
 
             ps.executeUpdate();
 
@@ -88,11 +201,13 @@ public class IncidentDAOImpl implements GenericDAO<Incident> {
                 if (keys.next()) {
                     long generatedId = keys.getLong(1);
                     incident.setIncidentId(generatedId);
+                    written.run();
                     return generatedId;
                 }
             }
 
         } catch (SQLException e) {
+            Metrics.markFailed();
             System.err.println("Error while adding incident: " + e.getMessage());
         }
         return null;
@@ -107,19 +222,14 @@ public class IncidentDAOImpl implements GenericDAO<Incident> {
         try (Connection conn = getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, incident.getTitle());
-            ps.setString(2, incident.getDescription());
-            ps.setString(3, incident.getType().name());
-            ps.setString(4, incident.getRisk().name());
-            ps.setString(5, incident.getStatus().name());
-            ps.setTimestamp(6, new Timestamp(incident.getReportedDate().getTime()));
-            ps.setString(7, incident.getAssignedTo());
-            ps.setString(8, incident.getResolutionNotes());
+            setIncidentParameters(ps, 1, incident);
             ps.setLong(9, incident.getIncidentId()); // The ID is used for the WHERE clause
 
             ps.executeUpdate();
+            written.run();
 
         } catch (SQLException e) {
+            Metrics.markFailed();
             System.err.println("Error while updating incident: " + e.getMessage());
         }
     }
@@ -134,12 +244,756 @@ public class IncidentDAOImpl implements GenericDAO<Incident> {
 
             ps.setLong(1, id);
             ps.executeUpdate();
+            written.run();
 
         } catch (SQLException e) {
+            Metrics.markFailed();
             System.err.println("Error while deleting incident: " + e.getMessage());
         }
     }
 
+    // BULK INSERT: one multi-row INSERT and one transaction per chunk. Generated ids are set on the entities.
+    // Returns the ids of the rows that were committed; a failed chunk is rolled back and stops the import.
+    @Override
+    public List<Long> addAll(List<Incident> incidents) {
+        List<Long> ids = new ArrayList<>(incidents.size());
+        if (incidents.isEmpty()) return ids;
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            for (int from = 0; from < incidents.size(); from += batchSize) {
+                List<Incident> chunk = incidents.subList(from, Math.min(from + batchSize, incidents.size()));
+                try {
+                    List<Long> chunkIds = insertChunk(conn, chunk);
+                    conn.commit();
+                    written.run();
+                    for (int i = 0; i < chunk.size(); i++) chunk.get(i).setIncidentId(chunkIds.get(i));
+                    ids.addAll(chunkIds);
+                } catch (SQLException e) {
+                    conn.rollback();
+                    Metrics.markFailed();
+                    System.err.println("Error while bulk adding incidents (rows " + from + "-"
+                            + (from + chunk.size() - 1) + " rolled back): " + e.getMessage());
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while bulk adding incidents: " + e.getMessage());
+        }
+        return ids;
+    }
+
+    private List<Long> insertChunk(Connection conn, List<Incident> chunk) throws SQLException {
+        StringBuilder sql = new StringBuilder("INSERT INTO incidents ").append(INSERT_COLUMNS).append(" VALUES ");
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?)");
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)) {
+            int index = 1;
+            for (Incident incident : chunk) {
+                setIncidentParameters(ps, index, incident);
+                index += 8;
+            }
+            ps.executeUpdate();
+
+            List<Long> keys = new ArrayList<>(chunk.size());
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                while (rs.next()) keys.add(rs.getLong(1));
+            }
+            if (keys.size() != chunk.size())
+                throw new SQLException("Expected " + chunk.size() + " generated keys, got " + keys.size());
+            return keys;
+        }
+    }
+
+    // BULK UPDATE: JDBC batch per chunk (rewritten into multi-statement round trips by the driver)
+    @Override
+    public void updateAll(List<Incident> incidents) {
+        String sql = "UPDATE incidents SET title=?, description=?, type=?, risk=?, status=?, " +
+                "reported_date=?, assigned_to=?, resolution_notes=? WHERE incident_id=?";
+
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            conn.setAutoCommit(false);
+            for (int from = 0; from < incidents.size(); from += batchSize) {
+                List<Incident> chunk = incidents.subList(from, Math.min(from + batchSize, incidents.size()));
+                try {
+                    for (Incident incident : chunk) {
+                        setIncidentParameters(ps, 1, incident);
+                        ps.setLong(9, incident.getIncidentId());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    conn.commit();
+                    written.run();
+                } catch (SQLException e) {
+                    ps.clearBatch();
+                    conn.rollback();
+                    Metrics.markFailed();
+                    System.err.println("Error while bulk updating incidents (rows " + from + "-"
+                            + (from + chunk.size() - 1) + " rolled back): " + e.getMessage());
+                    break;
+                }
+            }
+
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while bulk updating incidents: " + e.getMessage());
+        }
+    }
+
+    // FIND BY IDS: one IN (...) query per chunk
+    @Override
+    public List<Incident> findByIds(Collection<Long> ids) {
+        List<Incident> list = new ArrayList<>(ids.size());
+
+        try (Connection conn = getReadConnection()) {
+            findByIds(conn, ids, list);
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while fetching incidents by IDs: " + e.getMessage());
+        }
+        return list;
+    }
+
+    private void findByIds(Connection conn, Collection<Long> ids, List<Incident> list) throws SQLException {
+        List<Long> all = new ArrayList<>(new TreeSet<>(ids));
+        for (int from = 0; from < all.size(); from += batchSize) {
+            List<Long> chunk = all.subList(from, Math.min(from + batchSize, all.size()));
+            String sql = "SELECT * FROM incidents WHERE incident_id IN (" + placeholders(chunk.size()) +
+                    ") ORDER BY incident_id";
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) ps.setLong(i + 1, chunk.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        list.add(mapResultSetToIncident(rs));
+                    }
+                }
+            }
+        }
+    }
+
+    // BULK DELETE: one IN (...) statement and one transaction per chunk
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            for (int from = 0; from < all.size(); from += batchSize) {
+                List<Long> chunk = all.subList(from, Math.min(from + batchSize, all.size()));
+                String sql = "DELETE FROM incidents WHERE incident_id IN (" + placeholders(chunk.size()) + ")";
+
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) ps.setLong(i + 1, chunk.get(i));
+                    ps.executeUpdate();
+                    conn.commit();
+                    written.run();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    Metrics.markFailed();
+                    System.err.println("Error while bulk deleting incidents: " + e.getMessage());
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while bulk deleting incidents: " + e.getMessage());
+        }
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) sb.append(i == 0 ? "?" : ", ?");
+        return sb.toString();
+    }
+
+    // Binds the 8 data columns in INSERT_COLUMNS order, starting at parameter index "first"
+    private void setIncidentParameters(PreparedStatement ps, int first, Incident incident) throws SQLException {
+        ps.setString(first, incident.getTitle());
+        ps.setString(first + 1, incident.getDescription());
+        ps.setString(first + 2, incident.getType().name());
+        ps.setString(first + 3, incident.getRisk().name());
+        ps.setString(first + 4, incident.getStatus().name());
+        ps.setTimestamp(first + 5, new Timestamp(incident.getReportedDate().getTime()));
+        ps.setString(first + 6, incident.getAssignedTo());
+        ps.setString(first + 7, incident.getResolutionNotes());
+    }
+
+    // KEYSET PAGE (by id)
+    @Override
+    public List<Incident> findPage(Long afterId, int limit) {
+        String sql = afterId == null
+                ? "SELECT * FROM incidents ORDER BY incident_id LIMIT ?"
+                : "SELECT * FROM incidents WHERE incident_id > ? ORDER BY incident_id LIMIT ?";
+        List<Incident> list = new ArrayList<>();
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            if (afterId != null) ps.setLong(i++, afterId);
+            ps.setInt(i, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapResultSetToIncident(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while fetching incident page: " + e.getMessage());
+        }
+        return list;
+    }
+
+    // POSITIONAL PAGE: the offset is resolved on the primary key index only, then the rows are joined in
+    @Override
+    public List<Incident> findRange(long offset, int limit) {
+        String sql = "SELECT i.* FROM incidents i JOIN " +
+                "(SELECT incident_id FROM incidents ORDER BY incident_id LIMIT ? OFFSET ?) k " +
+                "ON i.incident_id = k.incident_id ORDER BY i.incident_id";
+        List<Incident> list = new ArrayList<>();
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, limit);
+            ps.setLong(2, offset);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapResultSetToIncident(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while fetching incident range: " + e.getMessage());
+        }
+        return list;
+    }
+
+    // SUMMARY KEYSET PAGE (list columns only)
+    @Override
+    public List<IncidentSummary> findSummaryPage(Long afterId, int limit) {
+        String sql = afterId == null
+                ? "SELECT " + SUMMARY_COLUMNS + " FROM incidents ORDER BY incident_id LIMIT ?"
+                : "SELECT " + SUMMARY_COLUMNS + " FROM incidents WHERE incident_id > ? ORDER BY incident_id LIMIT ?";
+        List<IncidentSummary> list = new ArrayList<>();
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            if (afterId != null) ps.setLong(i++, afterId);
+            ps.setInt(i, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapResultSetToSummary(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while fetching incident summary page: " + e.getMessage());
+        }
+        return list;
+    }
+
+    // SUMMARY POSITIONAL PAGE (same deferred join as findRange)
+    @Override
+    public List<IncidentSummary> findSummaryRange(long offset, int limit) {
+        String sql = "SELECT i.incident_id, i.title, i.type, i.risk, i.status, i.reported_date, i.assigned_to " +
+                "FROM incidents i JOIN " +
+                "(SELECT incident_id FROM incidents ORDER BY incident_id LIMIT ? OFFSET ?) k " +
+                "ON i.incident_id = k.incident_id ORDER BY i.incident_id";
+        List<IncidentSummary> list = new ArrayList<>();
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, limit);
+            ps.setLong(2, offset);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapResultSetToSummary(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while fetching incident summary range: " + e.getMessage());
+        }
+        return list;
+    }
+
+    // COUNT
+    @Override
+    public long count() {
+        String sql = "SELECT COUNT(*) FROM incidents";
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            if (rs.next()) return rs.getLong(1);
+
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while counting incidents: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    // CRITERIA QUERY: filter, order, limit and offset all run in MySQL
+    @Override
+    public List<Incident> findMatching(Criteria<Incident> criteria) {
+        IncidentCriteria c = incidentCriteria(criteria);
+        String sql = criteriaSql.computeIfAbsent("find:" + c.shape(), key -> compile(c, false));
+        List<Incident> list = new ArrayList<>();
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            if (c.isIncludeArchived()) {
+                // Each tier contributes at most offset + limit rows before the merged window is cut
+                long perTier = Math.min(Long.MAX_VALUE - c.getLimit(), c.getOffset()) + c.getLimit();
+                i = bindCriteria(ps, i, c);
+                ps.setLong(i++, perTier);
+                i = bindCriteria(ps, i, c);
+                ps.setLong(i++, perTier);
+            } else {
+                i = bindCriteria(ps, i, c);
+            }
+            ps.setInt(i++, c.getLimit());
+            ps.setLong(i, c.getOffset());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapResultSetToIncident(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while querying incidents: " + e.getMessage());
+        }
+        return list;
+    }
+
+    @Override
+    public long countMatching(Criteria<Incident> criteria) {
+        IncidentCriteria c = incidentCriteria(criteria);
+        String sql = criteriaSql.computeIfAbsent("count:" + c.shape(), key -> compile(c, true));
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            int i = bindCriteria(ps, 1, c);
+            if (c.isIncludeArchived()) bindCriteria(ps, i, c);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return rs.getLong(1);
+            }
+
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while counting incidents: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    private IncidentCriteria incidentCriteria(Criteria<Incident> criteria) {
+        if (!(criteria instanceof IncidentCriteria))
+            throw new IllegalArgumentException("IncidentDAOImpl only compiles IncidentCriteria");
+        return (IncidentCriteria) criteria;
+    }
+
+    // Predicates become "column IN (?, ...)" / range terms; the composite indexes in DB_SETUP.sql cover them.
+    // With includeArchived, each tier is filtered, ordered and cut on its own indexes, then the two are merged.
+    private String compile(IncidentCriteria c, boolean countOnly) {
+        List<String> terms = new ArrayList<>();
+        if (!c.getStatuses().isEmpty()) terms.add(inClause("status", c.getStatuses().size()));
+        if (!c.getRisks().isEmpty()) terms.add(inClause("risk", c.getRisks().size()));
+        if (!c.getTypes().isEmpty()) terms.add(inClause("type", c.getTypes().size()));
+        if (c.getAssignedTo() != null) terms.add("assigned_to = ?");
+        if (c.getReportedFrom() != null) terms.add("reported_date >= ?");
+        if (c.getReportedTo() != null) terms.add("reported_date < ?");
+        String where = terms.isEmpty() ? "" : " WHERE " + String.join(" AND ", terms);
+
+        if (countOnly) {
+            return c.isIncludeArchived()
+                    ? "SELECT (SELECT COUNT(*) FROM incidents" + where + ") + (SELECT COUNT(*) FROM incidents_archive" + where + ")"
+                    : "SELECT COUNT(*) FROM incidents" + where;
+        }
+
+        String dir = c.isDescending() ? " DESC" : "";
+        String orderBy = " ORDER BY " + (c.getSortKey() == IncidentSortKey.ID ? "" : c.getSortKey().getColumn() + dir + ", ")
+                + "incident_id" + dir;
+        if (!c.isIncludeArchived()) return "SELECT * FROM incidents" + where + orderBy + " LIMIT ? OFFSET ?";
+
+        return "(SELECT " + SELECT_COLUMNS + " FROM incidents" + where + orderBy + " LIMIT ?)" +
+                " UNION ALL (SELECT " + SELECT_COLUMNS + " FROM incidents_archive" + where + orderBy + " LIMIT ?)" +
+                orderBy + " LIMIT ? OFFSET ?";
+    }
+
+    private static String inClause(String column, int values) {
+        return values == 1 ? column + " = ?" : column + " IN (" + placeholders(values) + ")";
+    }
+
+    // Binds predicate values in compile() order from parameter index i; returns the next index
+    private int bindCriteria(PreparedStatement ps, int i, IncidentCriteria c) throws SQLException {
+        for (Status status : c.getStatuses()) ps.setString(i++, status.name());
+        for (Risk risk : c.getRisks()) ps.setString(i++, risk.name());
+        for (IncidentType type : c.getTypes()) ps.setString(i++, type.name());
+        if (c.getAssignedTo() != null) ps.setString(i++, c.getAssignedTo());
+        if (c.getReportedFrom() != null) ps.setTimestamp(i++, new Timestamp(c.getReportedFrom().getTime()));
+        if (c.getReportedTo() != null) ps.setTimestamp(i++, new Timestamp(c.getReportedTo().getTime()));
+        return i;
+    }
+
+    // KEYSET PAGE (by sort key). Pass the last incident of the previous page as "after", or null for the first page.
+    public List<Incident> findPage(IncidentSortKey sortKey, boolean descending, Incident after, int limit) {
+        if (sortKey == IncidentSortKey.ID && !descending) {
+            return findPage(after == null ? null : after.getIncidentId(), limit);
+        }
+
+        String column = sortKey.getColumn();
+        String cmp = descending ? "<" : ">";
+        String dir = descending ? " DESC" : "";
+        StringBuilder sql = new StringBuilder("SELECT * FROM incidents");
+        if (after != null) {
+            sql.append(sortKey == IncidentSortKey.ID
+                    ? " WHERE incident_id " + cmp + " ?"
+                    : " WHERE (" + column + " " + cmp + " ? OR (" + column + " = ? AND incident_id " + cmp + " ?))");
+        }
+        sql.append(" ORDER BY ");
+        if (sortKey != IncidentSortKey.ID) sql.append(column).append(dir).append(", ");
+        sql.append("incident_id").append(dir).append(" LIMIT ?");
+
+        List<Incident> list = new ArrayList<>();
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+
+            int i = 1;
+            if (after != null) {
+                if (sortKey != IncidentSortKey.ID) {
+                    Object key = sortKeyValue(sortKey, after);
+                    ps.setObject(i++, key);
+                    ps.setObject(i++, key);
+                }
+                ps.setLong(i++, after.getIncidentId());
+            }
+            ps.setInt(i, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapResultSetToIncident(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while fetching incident page: " + e.getMessage());
+        }
+        return list;
+    }
+
+    private Object sortKeyValue(IncidentSortKey sortKey, Incident incident) {
+        switch (sortKey) {
+            case REPORTED_DATE:
+                return new Timestamp(incident.getReportedDate().getTime());
+            case TITLE:
+                return incident.getTitle();
+            default:
+                return incident.getIncidentId();
+        }
+    }
+
+    // DELTA SYNC over the incident_changes outbox (see DB_SETUP.sql), ordered by change_id rather than by a
+    // clock. The watermark is the lowest change_id whose outcome is still unknown. Ids are allocated at insert
+    // but visible at commit, so a missing id may still commit: it holds the watermark back until it shows up
+    // or a later change is older than SYNC_GAP_TIMEOUT_MS. Changes past it are returned anyway and read again
+    // on the next sync; applying a row twice changes nothing. Returns null when nothing could be read.
+    @Override
+    public ChangeSet<Incident> findChangedSince(long watermark) {
+        try (Connection conn = getPrimaryReadConnection()) {
+
+            Timestamp settledBefore;
+            try (PreparedStatement ps = conn.prepareStatement("SELECT NOW(3)");
+                 ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                settledBefore = new Timestamp(rs.getTimestamp(1).getTime() - SYNC_GAP_TIMEOUT_MS);
+            }
+
+            if (watermark <= 0 || !outboxCovers(conn, watermark)) {
+                // Taken before reading, so a change that commits meanwhile is read again by the next sync
+                long next = lastSettledChange(conn, settledBefore) + 1;
+                List<Incident> all = new ArrayList<>();
+                try (PreparedStatement ps = conn.prepareStatement("SELECT * FROM incidents");
+                     ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        all.add(mapResultSetToIncident(rs));
+                    }
+                }
+                return new ChangeSet<>(all, Collections.emptyList(), next, true);
+            }
+
+            // The last change per incident wins; ids are never reused, so a delete is always the last one
+            long next = watermark;
+            boolean pending = false;
+            Map<Long, Character> ops = new LinkedHashMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT change_id, incident_id, op, changed_at FROM incident_changes WHERE change_id >= ? " +
+                            "ORDER BY change_id")) {
+                ps.setLong(1, watermark);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        long changeId = rs.getLong(1);
+                        if (!pending && (changeId == next || rs.getTimestamp(4).before(settledBefore))) {
+                            next = changeId + 1;
+                        } else {
+                            pending = true;
+                        }
+                        ops.put(rs.getLong(2), rs.getString(3).charAt(0));
+                    }
+                }
+            }
+
+            List<Long> upsertIds = new ArrayList<>();
+            List<Long> deletedIds = new ArrayList<>();
+            for (Map.Entry<Long, Character> e : ops.entrySet()) {
+                if (e.getValue() == 'D') deletedIds.add(e.getKey());
+                else upsertIds.add(e.getKey());
+            }
+            // Read after the outbox, so each row is at least as new as its last change
+            List<Incident> upserts = new ArrayList<>(upsertIds.size());
+            findByIds(conn, upsertIds, upserts);
+            if (upserts.size() < upsertIds.size()) {
+                // Deleted again since; its delete is in the outbox too, but drop it now
+                Set<Long> found = new HashSet<>();
+                for (Incident incident : upserts) found.add(incident.getIncidentId());
+                for (Long id : upsertIds) if (!found.contains(id)) deletedIds.add(id);
+            }
+            return new ChangeSet<>(upserts, deletedIds, next, false);
+
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while fetching incident changes: " + e.getMessage());
+        }
+        // Nothing read; the caller keeps its list and watermark and tries again next time
+        return null;
+    }
+
+    // False when the outbox rows the watermark still needs were pruned (a client that was away longer than
+    // the retention), or the watermark is no change_id at all (a snapshot from before outbox sync held a
+    // timestamp); either way the caller needs a full snapshot
+    private static boolean outboxCovers(Connection conn, long watermark) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT MIN(change_id), MAX(change_id) FROM incident_changes");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            long first = rs.getLong(1);
+            if (rs.wasNull()) return true;
+            return first <= watermark && watermark <= rs.getLong(2) + 1;
+        }
+    }
+
+    // Highest change_id older than the gap timeout: every id below it has committed or never will.
+    // Walks the primary key down from the newest change, so it reads only the last timeout's worth of rows.
+    private static long lastSettledChange(Connection conn, Timestamp settledBefore) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT change_id FROM incident_changes WHERE changed_at < ? ORDER BY change_id DESC LIMIT 1")) {
+            ps.setTimestamp(1, settledBefore);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    // FULL-TEXT SEARCH: FULLTEXT index when available, portable LIKE scan otherwise. Hot table only: the
+    // archive has no FULLTEXT index, and a query the index cannot serve would switch every search to LIKE
+    @Override
+    public List<Incident> search(String query, long offset, int limit) {
+        List<String> terms = searchTerms(query);
+        if (terms.isEmpty()) return new ArrayList<>();
+
+        if (fullTextSupported) {
+            try {
+                return fullTextSearch(terms, offset, limit);
+            } catch (SQLException e) {
+                if (!isFullTextUnsupported(e)) {
+                    Metrics.markFailed();
+                    System.err.println("Error while searching incidents: " + e.getMessage());
+                    return new ArrayList<>();
+                }
+                System.err.println("FULLTEXT search unavailable, falling back to LIKE: " + e.getMessage());
+                fullTextSupported = false;
+            }
+        }
+
+        try {
+            return likeSearch(terms, offset, limit);
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while searching incidents: " + e.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
+    // Boolean mode with every term required and prefix-matched ("+phish* +finance*")
+    private List<Incident> fullTextSearch(List<String> terms, long offset, int limit) throws SQLException {
+        String sql = "SELECT *, MATCH(title, description, resolution_notes) AGAINST (? IN BOOLEAN MODE) AS score " +
+                "FROM incidents WHERE MATCH(title, description, resolution_notes) AGAINST (? IN BOOLEAN MODE) " +
+                "ORDER BY score DESC, incident_id LIMIT ? OFFSET ?";
+
+        StringBuilder against = new StringBuilder();
+        for (String term : terms) against.append('+').append(term).append("* ");
+
+        List<Incident> list = new ArrayList<>();
+        try (Connection conn = getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, against.toString().trim());
+            ps.setString(2, against.toString().trim());
+            ps.setInt(3, limit);
+            ps.setLong(4, offset);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapResultSetToIncident(rs));
+                }
+            }
+        }
+        return list;
+    }
+
+    // Fallback for stores without FULLTEXT (older engines, H2 stand-ins): every term must appear in some
+    // column; a hit in the title outranks one in the description or resolution notes
+    private List<Incident> likeSearch(List<String> terms, long offset, int limit) throws SQLException {
+        StringBuilder score = new StringBuilder();
+        StringBuilder where = new StringBuilder();
+        for (String term : terms) {
+            if (score.length() > 0) {
+                score.append(" + ");
+                where.append(" AND ");
+            }
+            score.append("(CASE WHEN LOWER(title) LIKE ? ESCAPE '!' THEN 3 ELSE 0 END")
+                    .append(" + CASE WHEN LOWER(description) LIKE ? ESCAPE '!' THEN 1 ELSE 0 END")
+                    .append(" + CASE WHEN LOWER(resolution_notes) LIKE ? ESCAPE '!' THEN 1 ELSE 0 END)");
+            where.append("(LOWER(title) LIKE ? ESCAPE '!' OR LOWER(description) LIKE ? ESCAPE '!'")
+                    .append(" OR LOWER(resolution_notes) LIKE ? ESCAPE '!')");
+        }
+        String sql = "SELECT * FROM (SELECT i.*, " + score + " AS score FROM incidents i WHERE " + where + ") ranked " +
+                "ORDER BY score DESC, incident_id LIMIT ? OFFSET ?";
+
+        List<Incident> list = new ArrayList<>();
+        try (Connection conn = getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            for (String term : terms) {
+                String pattern = "%" + escapeLike(term) + "%";
+                for (int k = 0; k < 3; k++) ps.setString(i++, pattern);
+            }
+            for (String term : terms) {
+                String pattern = "%" + escapeLike(term) + "%";
+                for (int k = 0; k < 3; k++) ps.setString(i++, pattern);
+            }
+            ps.setInt(i++, limit);
+            ps.setLong(i, offset);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapResultSetToIncident(rs));
+                }
+            }
+        }
+        return list;
+    }
+
+    // Only errors that say the store cannot run MATCH at all; any other error leaves FULLTEXT on for the next search
+    private boolean isFullTextUnsupported(SQLException e) {
+        return e.getErrorCode() == ER_FT_MATCHING_KEY_NOT_FOUND
+                || e.getErrorCode() == ER_TABLE_CANT_HANDLE_FT
+                || e.getErrorCode() == H2_FUNCTION_NOT_FOUND;
+    }
+
+    // Lower-cased letter/digit runs; everything else (including boolean-mode operators) is dropped
+    private List<String> searchTerms(String query) {
+        List<String> terms = new ArrayList<>();
+        if (query == null) return terms;
+        for (String term : query.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!term.isEmpty()) terms.add(term);
+        }
+        return terms;
+    }
+
+    private String escapeLike(String term) {
+        return term.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    // STREAMING READ (forward-only cursor, constant memory)
+    @Override
+    public Stream<Incident> streamAll() {
+        String sql = "SELECT * FROM incidents ORDER BY incident_id";
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = getReadConnection();
+            ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            Metrics.markFailed();
+            System.err.println("Error while streaming incidents: " + e.getMessage());
+            closeQuietly(rs, ps, conn);
+            return Stream.empty();
+        }
+
+        final Connection streamConn = conn;
+        final PreparedStatement streamPs = ps;
+        final ResultSet streamRs = rs;
+
+        Spliterator<Incident> cursor = new Spliterators.AbstractSpliterator<Incident>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Incident> action) {
+                try {
+                    if (!streamRs.next()) return false;
+                    action.accept(mapResultSetToIncident(streamRs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error while streaming incidents: " + e.getMessage(), e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(cursor, false)
+                .onClose(() -> closeQuietly(streamRs, streamPs, streamConn));
+    }
+
+    private void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) continue;
+            try {
+                resource.close();
+            } catch (Exception e) {
+                System.err.println("Error while closing JDBC resource: " + e.getMessage());
+            }
+        }
+    }
+
     // RESULTSET MAPPING (Unchanged, remains correct)
     private Incident mapResultSetToIncident(ResultSet rs) throws SQLException {
        
@@ -155,4 +1009,16 @@ public class IncidentDAOImpl implements GenericDAO<Incident> {
                 rs.getString("resolution_notes")
         );
     }
-}
\ No newline at end of file
+
+    private IncidentSummary mapResultSetToSummary(ResultSet rs) throws SQLException {
+        return new IncidentSummary(
+                rs.getLong("incident_id"),
+                rs.getString("title"),
+                IncidentType.valueOf(rs.getString("type")),
+                Risk.valueOf(rs.getString("risk")),
+                Status.valueOf(rs.getString("status")),
+                rs.getTimestamp("reported_date"),
+                rs.getString("assigned_to")
+        );
+    }
+}
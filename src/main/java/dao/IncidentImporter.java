@@ -0,0 +1,338 @@
+package dao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import model.Incident;
+
+/**
+ * Streams incidents from a CSV file (with a header row) or a JSON-lines file into
+ * {@link GenericDAO#addAll(List)}, one batch at a time, and reports throughput.
+ *
+ * Recognised fields: title, description, type, risk, status, reported_date, assigned_to, resolution_notes.
+ * A row that cannot be mapped is rejected and the import goes on. A batch the store fails to write stops the
+ * import, as addAll stops at its first failed chunk: every accepted row before the reported one is stored, so the
+ * import can be resumed from there.
+ * Usage: IncidentImporter <file.csv|file.jsonl> [batchSize]
+ */
+public class IncidentImporter {
+
+    private static final long PROGRESS_INTERVAL_MS = 5_000;
+
+    private final GenericDAO<Incident> dao;
+    private final int batchSize;
+
+    private long read;
+    private long imported;
+    private long rejected;
+    private long stoppedAtRow; // file row of the first row not written; 0 while the import has not stopped
+
+    public IncidentImporter(GenericDAO<Incident> dao, int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+        this.dao = dao;
+        this.batchSize = batchSize;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: IncidentImporter <file.csv|file.jsonl> [batchSize]");
+            System.exit(1);
+        }
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        IncidentImporter importer = new IncidentImporter(IncidentDAOFactory.create(), batchSize);
+        importer.importFile(Paths.get(args[0]));
+        if (importer.isStopped()) System.exit(1);
+    }
+
+    // IMPORT (format chosen by extension: .jsonl/.ndjson are JSON lines, anything else is CSV)
+    public void importFile(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean jsonLines = name.endsWith(".jsonl") || name.endsWith(".ndjson");
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (jsonLines) importJsonLines(reader);
+            else importCsv(reader);
+        }
+    }
+
+    public void importCsv(BufferedReader reader) throws IOException {
+        List<String> header = readCsvRecord(reader);
+        if (header == null) return;
+        for (int i = 0; i < header.size(); i++) header.set(i, header.get(i).trim().toLowerCase(Locale.ROOT));
+
+        run(() -> {
+            List<String> values = readCsvRecord(reader);
+            if (values == null) return null;
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) row.put(header.get(i), values.get(i));
+            return row;
+        });
+    }
+
+    public void importJsonLines(BufferedReader reader) throws IOException {
+        run(() -> {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) return null;
+            } while (line.trim().isEmpty());
+            return parseJsonObject(line);
+        });
+    }
+
+    private interface RowSource {
+        Map<String, String> next() throws IOException;
+    }
+
+    private void run(RowSource source) throws IOException {
+        long start = System.currentTimeMillis();
+        long lastReport = start;
+        List<Incident> batch = new ArrayList<>(batchSize);
+        List<Long> batchRows = new ArrayList<>(batchSize); // file row of each batched incident
+
+        while (!isStopped()) {
+            Map<String, String> row;
+            try {
+                row = source.next();
+            } catch (IllegalArgumentException e) {
+                read++;
+                rejected++;
+                System.err.println("Row " + read + " rejected: " + e.getMessage());
+                continue;
+            }
+            if (row == null) break;
+            read++;
+
+            try {
+                batch.add(toIncident(row));
+                batchRows.add(read);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+                System.err.println("Row " + read + " rejected: " + e.getMessage());
+            }
+
+            if (batch.size() >= batchSize) flush(batch, batchRows);
+
+            long now = System.currentTimeMillis();
+            if (now - lastReport >= PROGRESS_INTERVAL_MS) {
+                report("progress", start, now);
+                lastReport = now;
+            }
+        }
+        flush(batch, batchRows);
+        report(isStopped() ? "stopped" : "done", start, System.currentTimeMillis());
+    }
+
+    // addAll stores a prefix of the batch; anything short of the whole batch ends the import
+    private void flush(List<Incident> batch, List<Long> batchRows) {
+        if (batch.isEmpty() || isStopped()) return;
+        int written = dao.addAll(batch).size();
+        imported += written;
+        if (written < batch.size()) {
+            stoppedAtRow = batchRows.get(written);
+            System.err.println("Import stopped: row " + stoppedAtRow + " and the rows after it were not written");
+        }
+        batch.clear();
+        batchRows.clear();
+    }
+
+    private void report(String label, long start, long now) {
+        double seconds = Math.max(1, now - start) / 1000.0;
+        System.out.printf("[%s] read=%d imported=%d rejected=%d elapsed=%.1fs rate=%.0f rows/s%n",
+                label, read, imported, rejected, seconds, imported / seconds);
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public boolean isStopped() {
+        return stoppedAtRow > 0;
+    }
+
+    // File row (1-based, the CSV header not counted) to resume from after a stopped import
+    public long getStoppedAtRow() {
+        return stoppedAtRow;
+    }
+
+    // ROW MAPPING
+    private Incident toIncident(Map<String, String> row) {
+        String title = emptyToNull(row.get("title"));
+        if (title == null) throw new IllegalArgumentException("title is required");
+
+        return new Incident(null, title,
+                emptyToNull(row.get("description")),
+                parseEnum(Incident.IncidentType.class, row.get("type"), Incident.IncidentType.OTHER),
+                parseEnum(Incident.Risk.class, row.get("risk"), Incident.Risk.MEDIUM),
+                parseEnum(Incident.Status.class, row.get("status"), Incident.Status.NEW),
+                parseDate(row.get("reported_date")),
+                emptyToNull(row.get("assigned_to")),
+                emptyToNull(row.get("resolution_notes")));
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, E fallback) {
+        value = emptyToNull(value);
+        if (value == null) return fallback;
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown " + type.getSimpleName() + " '" + value + "'");
+        }
+    }
+
+    // "yyyy-MM-dd HH:mm:ss" (as in IncidentDialog), ISO "yyyy-MM-dd'T'HH:mm:ss", a bare date, or epoch millis
+    private static Date parseDate(String value) {
+        value = emptyToNull(value);
+        if (value == null) return new Date();
+        value = value.trim();
+        if (value.chars().allMatch(Character::isDigit)) return new Date(Long.parseLong(value));
+
+        for (String pattern : new String[]{"yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd"}) {
+            try {
+                SimpleDateFormat format = new SimpleDateFormat(pattern);
+                format.setLenient(false);
+                return format.parse(value);
+            } catch (ParseException ignored) {
+                // try the next pattern
+            }
+        }
+        throw new IllegalArgumentException("unparseable reported_date '" + value + "'");
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    // CSV: RFC 4180 quoting, quoted fields may contain commas, doubled quotes and line breaks
+    static List<String> readCsvRecord(Reader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!any) return null;
+        if (quoted) throw new IllegalArgumentException("unterminated quoted field");
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // JSON lines: one flat object per line; values are strings, numbers, booleans or null. Keys are lower-cased.
+    public static Map<String, String> parseJsonObject(String line) {
+        Map<String, String> row = new HashMap<>();
+        int[] pos = {skipSpace(line, 0)};
+        expect(line, pos, '{');
+        if (peek(line, pos) == '}') return row;
+
+        while (true) {
+            String key = readJsonString(line, pos);
+            expect(line, pos, ':');
+            row.put(key.toLowerCase(Locale.ROOT), readJsonValue(line, pos));
+            char next = peek(line, pos);
+            pos[0]++;
+            if (next == '}') return row;
+            if (next != ',') throw new IllegalArgumentException("malformed JSON at column " + pos[0]);
+        }
+    }
+
+    private static String readJsonValue(String s, int[] pos) {
+        char c = peek(s, pos);
+        if (c == '"') return readJsonString(s, pos);
+
+        int start = pos[0];
+        while (pos[0] < s.length() && ",}".indexOf(s.charAt(pos[0])) < 0) pos[0]++;
+        String literal = s.substring(start, pos[0]).trim();
+        if (literal.equals("null")) return null;
+        if (literal.isEmpty() || literal.startsWith("{") || literal.startsWith("["))
+            throw new IllegalArgumentException("unsupported JSON value at column " + start);
+        return literal;
+    }
+
+    private static String readJsonString(String s, int[] pos) {
+        expect(s, pos, '"');
+        StringBuilder out = new StringBuilder();
+        while (pos[0] < s.length()) {
+            char c = s.charAt(pos[0]++);
+            if (c == '"') return out.toString();
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (pos[0] >= s.length()) break;
+            char e = s.charAt(pos[0]++);
+            switch (e) {
+                case 'n': out.append('\n'); break;
+                case 't': out.append('\t'); break;
+                case 'r': out.append('\r'); break;
+                case 'b': out.append('\b'); break;
+                case 'f': out.append('\f'); break;
+                case 'u':
+                    if (pos[0] + 4 > s.length()) throw new IllegalArgumentException("bad \\u escape");
+                    out.append((char) Integer.parseInt(s.substring(pos[0], pos[0] + 4), 16));
+                    pos[0] += 4;
+                    break;
+                default: out.append(e);
+            }
+        }
+        throw new IllegalArgumentException("unterminated JSON string");
+    }
+
+    private static void expect(String s, int[] pos, char expected) {
+        if (peek(s, pos) != expected)
+            throw new IllegalArgumentException("expected '" + expected + "' at column " + pos[0]);
+        pos[0]++;
+    }
+
+    private static char peek(String s, int[] pos) {
+        pos[0] = skipSpace(s, pos[0]);
+        if (pos[0] >= s.length()) throw new IllegalArgumentException("unexpected end of JSON line");
+        return s.charAt(pos[0]);
+    }
+
+    private static int skipSpace(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        return i;
+    }
+}
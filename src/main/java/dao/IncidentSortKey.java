@@ -0,0 +1,18 @@
+package dao;
+
+// Columns that keyset pagination can order by. Each is NOT NULL so (key, incident_id) is a total order.
+public enum IncidentSortKey {
+    ID("incident_id"),
+    REPORTED_DATE("reported_date"),
+    TITLE("title");
+
+    private final String column;
+
+    IncidentSortKey(String column) {
+        this.column = column;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+}
@@ -0,0 +1,21 @@
+package dao;
+
+import java.util.List;
+import model.IncidentSummary;
+
+/**
+ * Summary projection reads for list views. Implementations select only the table columns,
+ * never the description and resolution notes TEXT columns.
+ */
+public interface IncidentSummaryDAO {
+
+    /**
+     * Keyset page of summaries with an id greater than {@code afterId} (null for the first page), ordered by id.
+     */
+    List<IncidentSummary> findSummaryPage(Long afterId, int limit);
+
+    /**
+     * Positional page of summaries in id order.
+     */
+    List<IncidentSummary> findSummaryRange(long offset, int limit);
+}
@@ -0,0 +1,148 @@
+package dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import metrics.Metrics;
+import model.Incident;
+import model.IncidentSummary;
+
+/**
+ * Records count, errors, rows returned and latency for every call to another incident DAO, under
+ * "dao.&lt;method&gt;" in {@link Metrics}. Failures the delegate only logs (it returns an empty result)
+ * are counted through {@link Metrics#markFailed()}. Slow calls are logged with their arguments.
+ */
+public class InstrumentedIncidentDAO implements GenericDAO<Incident>, IncidentSummaryDAO {
+
+    private final GenericDAO<Incident> delegate;
+
+    public InstrumentedIncidentDAO(GenericDAO<Incident> delegate) {
+        this.delegate = delegate;
+    }
+
+    public GenericDAO<Incident> getDelegate() {
+        return delegate;
+    }
+
+    // READS
+    @Override
+    public List<Incident> findAll() {
+        return Metrics.timed("dao.findAll", delegate::findAll, List::size);
+    }
+
+    @Override
+    public Incident findById(Long id) {
+        return Metrics.timed("dao.findById", () -> delegate.findById(id), i -> 1, () -> "id=" + id);
+    }
+
+    @Override
+    public Incident findCurrent(Long id) {
+        return Metrics.timed("dao.findCurrent", () -> delegate.findCurrent(id), i -> 1, () -> "id=" + id);
+    }
+
+    @Override
+    public List<Incident> findByIds(Collection<Long> ids) {
+        return Metrics.timed("dao.findByIds", () -> delegate.findByIds(ids), List::size, () -> ids.size() + " ids");
+    }
+
+    @Override
+    public List<Incident> findPage(Long afterId, int limit) {
+        return Metrics.timed("dao.findPage", () -> delegate.findPage(afterId, limit), List::size,
+                () -> "after=" + afterId + " limit=" + limit);
+    }
+
+    @Override
+    public List<Incident> findRange(long offset, int limit) {
+        return Metrics.timed("dao.findRange", () -> delegate.findRange(offset, limit), List::size,
+                () -> "offset=" + offset + " limit=" + limit);
+    }
+
+    @Override
+    public long count() {
+        return Metrics.timed("dao.count", delegate::count);
+    }
+
+    @Override
+    public List<Incident> findMatching(Criteria<Incident> criteria) {
+        return Metrics.timed("dao.findMatching", () -> delegate.findMatching(criteria), List::size, criteria::toString);
+    }
+
+    @Override
+    public long countMatching(Criteria<Incident> criteria) {
+        return Metrics.timed("dao.countMatching", () -> delegate.countMatching(criteria), null, criteria::toString);
+    }
+
+    @Override
+    public ChangeSet<Incident> findChangedSince(long watermark) {
+        return Metrics.timed("dao.findChangedSince", () -> delegate.findChangedSince(watermark),
+                c -> c.getUpserts().size() + c.getDeletedIds().size(), () -> "watermark=" + watermark);
+    }
+
+    @Override
+    public List<Incident> search(String query, long offset, int limit) {
+        return Metrics.timed("dao.search", () -> delegate.search(query, offset, limit), List::size,
+                () -> "q=\"" + query + "\" offset=" + offset + " limit=" + limit);
+    }
+
+    // Only opening the stream is timed; rows are read later by the caller
+    @Override
+    public Stream<Incident> streamAll() {
+        return Metrics.timed("dao.streamAll", delegate::streamAll);
+    }
+
+    // WRITES
+    @Override
+    public Long add(Incident entity) {
+        return Metrics.timed("dao.add", () -> delegate.add(entity), id -> id == null ? 0 : 1);
+    }
+
+    @Override
+    public void update(Incident entity) {
+        Metrics.run("dao.update", () -> delegate.update(entity), () -> "id=" + entity.getIncidentId());
+    }
+
+    @Override
+    public void delete(Long id) {
+        Metrics.run("dao.delete", () -> delegate.delete(id), () -> "id=" + id);
+    }
+
+    @Override
+    public List<Long> addAll(List<Incident> entities) {
+        return Metrics.timed("dao.addAll", () -> delegate.addAll(entities), List::size,
+                () -> entities.size() + " incidents");
+    }
+
+    @Override
+    public void updateAll(List<Incident> entities) {
+        Metrics.run("dao.updateAll", () -> delegate.updateAll(entities), () -> entities.size() + " incidents");
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        Metrics.run("dao.deleteAll", () -> delegate.deleteAll(ids), () -> ids.size() + " ids");
+    }
+
+    // SUMMARIES
+    @Override
+    public List<IncidentSummary> findSummaryPage(Long afterId, int limit) {
+        return Metrics.timed("dao.findSummaryPage", () -> {
+            if (delegate instanceof IncidentSummaryDAO) return ((IncidentSummaryDAO) delegate).findSummaryPage(afterId, limit);
+            return summarize(delegate.findPage(afterId, limit));
+        }, List::size, () -> "after=" + afterId + " limit=" + limit);
+    }
+
+    @Override
+    public List<IncidentSummary> findSummaryRange(long offset, int limit) {
+        return Metrics.timed("dao.findSummaryRange", () -> {
+            if (delegate instanceof IncidentSummaryDAO) return ((IncidentSummaryDAO) delegate).findSummaryRange(offset, limit);
+            return summarize(delegate.findRange(offset, limit));
+        }, List::size, () -> "offset=" + offset + " limit=" + limit);
+    }
+
+    private static List<IncidentSummary> summarize(List<Incident> incidents) {
+        List<IncidentSummary> summaries = new ArrayList<>(incidents.size());
+        for (Incident incident : incidents) summaries.add(IncidentSummary.of(incident));
+        return summaries;
+    }
+}
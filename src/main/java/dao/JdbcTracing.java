@@ -0,0 +1,158 @@
+package dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import metrics.JdbcQueryEvent;
+
+/**
+ * Emits a {@link JdbcQueryEvent} per statement while a JFR recording has the event on. Connections are
+ * wrapped in proxies that time execute and ResultSet.next (driver time) and count rows; the query ends
+ * when its result set is exhausted or closed. With the event off, connections are returned as they are.
+ */
+final class JdbcTracing {
+
+    private JdbcTracing() {
+    }
+
+    static Connection trace(Connection connection) {
+        if (!JdbcQueryEvent.isRecording()) return connection;
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(JdbcTracing.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // CONNECTION
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = call(target, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler((Statement) result, null));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    // STATEMENT
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        private Query open;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if (name.equals("close") && open != null) open.finish();
+                return call(target, method, args);
+            }
+            String text = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            if (open != null) open.finish();
+            Query query = new Query(text);
+            Object result;
+            try {
+                result = call(target, method, args);
+            } catch (Throwable e) {
+                query.driverNanos = System.nanoTime() - query.startNanos;
+                query.finish();
+                throw e;
+            }
+            query.driverNanos = System.nanoTime() - query.startNanos;
+            if (name.equals("executeQuery")) {
+                open = query;
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, query));
+            }
+            query.rows = updateCount(result);
+            query.finish();
+            return result;
+        }
+
+        private static long updateCount(Object result) {
+            if (result instanceof Number) return ((Number) result).longValue();
+            long total = 0;
+            if (result instanceof int[]) for (int n : (int[]) result) total += Math.max(n, 0);
+            else if (result instanceof long[]) for (long n : (long[]) result) total += Math.max(n, 0);
+            else return -1;
+            return total;
+        }
+    }
+
+    // RESULT SET
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final Query query;
+
+        ResultSetHandler(ResultSet target, Query query) {
+            this.target = target;
+            this.query = query;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    long start = System.nanoTime();
+                    Object more = call(target, method, args);
+                    query.driverNanos += System.nanoTime() - start;
+                    if ((Boolean) more) query.rows++;
+                    else query.finish();
+                    return more;
+                }
+                case "close":
+                    query.finish();
+                    return call(target, method, args);
+                default:
+                    return call(target, method, args);
+            }
+        }
+    }
+
+    private static final class Query {
+        final JdbcQueryEvent event;
+        final long startNanos = System.nanoTime();
+        long driverNanos;
+        long rows;
+        boolean finished;
+
+        Query(String sql) {
+            event = JdbcQueryEvent.start(sql);
+        }
+
+        void finish() {
+            if (finished) return;
+            finished = true;
+            event.finish(rows, driverNanos, System.nanoTime() - startNanos);
+        }
+    }
+}
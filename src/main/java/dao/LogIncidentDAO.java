@@ -0,0 +1,836 @@
+package dao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32C;
+import metrics.Metrics;
+import model.Incident;
+import model.IncidentSummary;
+
+/**
+ * Embedded storage engine: incidents in a memory-mapped, append-only log file, for running without MySQL.
+ *
+ * Every insert, update and delete appends one checksummed record; an in-memory index maps each id to the
+ * offset of its latest version, and reads decode straight from the mapping. The header holds the logical
+ * end of the log. Opening the store replays the records up to it, stopping early at a torn or corrupt
+ * record left by a crash; nothing past the end is read, so the rest of the mapping needs no clearing.
+ *
+ * Compaction copies the live records into the next generation file (incidents.log.1, .2, ...) and switches
+ * to it, in the background once more than half the log is garbage. The old file is never replaced while it
+ * is mapped, which Windows does not allow; it is deleted once it can be, at the latest on the next open,
+ * which picks the newest generation.
+ *
+ * Writers return once their records are on disk. Forces are shared: while one writer syncs, the others
+ * queue up and the next sync covers all of them (group commit). A write whose sync fails is still stored
+ * and visible; it is counted as failed, and the next sync forces it again. Change watermarks are record
+ * versions; a watermark older than the last compaction gets a full snapshot, since tombstones are
+ * compacted away.
+ */
+public class LogIncidentDAO implements GenericDAO<Incident>, IncidentSummaryDAO, AutoCloseable {
+
+    private static final int MAGIC = 0x494E4C47; // "INLG"
+    private static final int FORMAT = 2;
+    // magic, format, horizon (version at the last compaction), next id, logical end, 4 bytes reserved
+    private static final int HEADER_SIZE = 32;
+    private static final int END_OFFSET = 24;
+    // Format 1 had no logical end; such a log is scanned to its first bad record and compacted on open
+    private static final int FORMAT_1 = 1;
+    private static final int FORMAT_1_HEADER_SIZE = 24;
+    // length, CRC-32C of everything after it, type, id, version
+    private static final int RECORD_HEADER = 4 + 4 + 1 + 8 + 8;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    private static final int INITIAL_MAP_SIZE = 16 << 20;
+    private static final int MAX_LOG_SIZE = Integer.MAX_VALUE - 8;
+    // Compact once garbage outweighs live data and is at least this big
+    private static final long MIN_COMPACT_GARBAGE = 1 << 20;
+    private static final int STREAM_PAGE_SIZE = 500;
+
+    private static final Incident.IncidentType[] TYPES = Incident.IncidentType.values();
+    private static final Incident.Risk[] RISKS = Incident.Risk.values();
+    private static final Incident.Status[] STATUSES = Incident.Status.values();
+
+    private final Path file;
+    private final boolean fsync;
+    private Path current; // file of the current generation
+    private long generation;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    private FileChannel channel;
+    private MappedByteBuffer log;
+    private int end;
+    private long liveBytes;
+
+    private final TreeMap<Long, Integer> offsets = new TreeMap<>();
+    private final Map<Long, Long> modifiedAt = new HashMap<>();
+    private final Map<Long, Long> deletedAt = new HashMap<>();
+    private long nextId = 1;
+    private long version;
+    private long horizon;
+
+    // Group commit: appendedSeq counts records appended, durableSeq those known to be on disk
+    private final Object syncLock = new Object();
+    private long appendedSeq;
+    private int dirtyFrom;
+    private long durableSeq;
+    private boolean syncing;
+
+    private final ScheduledExecutorService compactor;
+
+    // Metrics
+    private long syncs;
+    private long compactions;
+
+    public LogIncidentDAO(Path file) throws IOException {
+        this(file, true, 10);
+    }
+
+    /**
+     * @param fsync           wait for records to reach the disk before returning from a write
+     * @param compactMinutes  how often to check whether compaction is due; 0 disables the background check
+     */
+    public LogIncidentDAO(Path file, boolean fsync, long compactMinutes) throws IOException {
+        this.file = file;
+        this.fsync = fsync;
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+
+        // One process per log: a second writer would interleave records with ours
+        lockChannel = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null; // already open in this JVM
+        }
+        lock = acquired;
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException(file + " is in use by another process");
+        }
+
+        Files.deleteIfExists(compactionFile()); // left behind by a crash during compaction
+        open();
+
+        if (compactMinutes > 0) {
+            compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "incident-log-compactor");
+                t.setDaemon(true);
+                return t;
+            });
+            compactor.scheduleWithFixedDelay(this::compactIfDue, compactMinutes, compactMinutes, TimeUnit.MINUTES);
+        } else {
+            compactor = null;
+        }
+    }
+
+    // RECOVERY: map the newest generation and replay every intact record up to its logical end
+    private void open() throws IOException {
+        generation = newestGeneration();
+        current = generationFile(generation);
+        deleteGenerationsBelow(generation);
+        channel = FileChannel.open(current, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size > MAX_LOG_SIZE) throw new IOException("Log file too large: " + size + " bytes");
+        boolean fresh = size < FORMAT_1_HEADER_SIZE;
+        log = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, INITIAL_MAP_SIZE));
+
+        int format = FORMAT;
+        if (fresh) {
+            writeHeader(log, 0, 1, HEADER_SIZE);
+            log.force();
+        } else if (log.getInt(0) != MAGIC) {
+            throw new IOException(current + " is not an incident log");
+        } else {
+            format = log.getInt(4);
+            if (format != FORMAT && format != FORMAT_1) {
+                throw new IOException(current + " has unknown format " + format);
+            }
+        }
+        horizon = log.getLong(8);
+        nextId = log.getLong(16);
+        version = horizon;
+
+        int start = format == FORMAT ? HEADER_SIZE : FORMAT_1_HEADER_SIZE;
+        int limit = format == FORMAT ? log.getInt(END_OFFSET) : log.capacity();
+        if (limit < start || limit > log.capacity()) throw new IOException(current + " has a corrupt header");
+        int pos = start;
+        CRC32C crc = new CRC32C();
+        while (pos + RECORD_HEADER <= limit) {
+            int length = log.getInt(pos);
+            if (length < RECORD_HEADER || length > limit - pos) break;
+            crc.reset();
+            crc.update(log.duplicate().position(pos + 8).limit(pos + length));
+            if ((int) crc.getValue() != log.getInt(pos + 4)) break;
+            replay(pos, length);
+            pos += length;
+        }
+        end = pos;
+        dirtyFrom = pos;
+
+        if (format == FORMAT_1) {
+            compact(); // rewritten with a header end, into the next generation
+        } else if (end != limit) {
+            // Torn or corrupt tail: appends continue from the last intact record, and records that survived
+            // past the torn one (pages can reach the disk out of order) stay past the end, unread
+            log.putInt(END_OFFSET, end);
+            log.force(0, HEADER_SIZE);
+        }
+    }
+
+    // GENERATIONS: the base file is generation 0, later ones carry their number as a suffix
+    private Path generationFile(long generation) {
+        return generation == 0 ? file : file.resolveSibling(file.getFileName() + "." + generation);
+    }
+
+    private long generationOf(Path path) {
+        String prefix = file.getFileName() + ".";
+        String name = path.getFileName().toString();
+        if (!name.startsWith(prefix) || name.length() == prefix.length()) return -1;
+        for (int i = prefix.length(); i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) return -1;
+        }
+        return Long.parseLong(name.substring(prefix.length()));
+    }
+
+    private long newestGeneration() throws IOException {
+        long newest = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory(), p -> generationOf(p) > 0)) {
+            for (Path path : files) newest = Math.max(newest, generationOf(path));
+        }
+        return newest;
+    }
+
+    // Best effort: a file still mapped by this process cannot be deleted on Windows; the next open retries
+    private void deleteGenerationsBelow(long generation) throws IOException {
+        List<Path> old = new ArrayList<>();
+        if (generation > 0) old.add(file);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory(),
+                p -> generationOf(p) > 0 && generationOf(p) < generation)) {
+            for (Path path : files) old.add(path);
+        }
+        for (Path path : old) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                System.err.println("Could not delete old incident log " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Path directory() {
+        return file.toAbsolutePath().getParent();
+    }
+
+    private void replay(int pos, int length) {
+        byte type = log.get(pos + 8);
+        long id = log.getLong(pos + 9);
+        long recordVersion = log.getLong(pos + 17);
+        Integer previous = type == PUT ? offsets.put(id, pos) : offsets.remove(id);
+        if (previous != null) liveBytes -= log.getInt(previous);
+        if (type == PUT) {
+            liveBytes += length;
+            modifiedAt.put(id, recordVersion);
+            deletedAt.remove(id);
+        } else {
+            modifiedAt.remove(id);
+            deletedAt.put(id, recordVersion);
+        }
+        version = Math.max(version, recordVersion);
+        nextId = Math.max(nextId, id + 1);
+    }
+
+    private static void writeHeader(ByteBuffer buffer, long horizon, long nextId, int end) {
+        buffer.putInt(0, MAGIC).putInt(4, FORMAT).putLong(8, horizon).putLong(16, nextId)
+                .putInt(END_OFFSET, end).putInt(END_OFFSET + 4, 0);
+    }
+
+    // FIND ALL
+    @Override
+    public synchronized List<Incident> findAll() {
+        List<Incident> list = new ArrayList<>(offsets.size());
+        for (int offset : offsets.values()) list.add(decode(offset));
+        return list;
+    }
+
+    // FIND BY ID
+    @Override
+    public synchronized Incident findById(Long id) {
+        Integer offset = offsets.get(id);
+        return offset == null ? null : decode(offset);
+    }
+
+    @Override
+    public synchronized List<Incident> findByIds(Collection<Long> ids) {
+        List<Incident> list = new ArrayList<>(ids.size());
+        for (Long id : new TreeSet<>(ids)) {
+            Integer offset = offsets.get(id);
+            if (offset != null) list.add(decode(offset));
+        }
+        return list;
+    }
+
+    // INSERT
+    @Override
+    public Long add(Incident incident) {
+        long seq;
+        long id;
+        synchronized (this) {
+            id = nextId;
+            try {
+                seq = append(PUT, id, incident);
+            } catch (IOException e) {
+                Metrics.markFailed();
+                System.err.println("Error while adding incident: " + e.getMessage());
+                return null;
+            }
+            nextId++;
+        }
+        // Stored and visible even if the sync fails, so the id is reported either way
+        awaitDurable(seq);
+        incident.setIncidentId(id);
+        return id;
+    }
+
+    // UPDATE
+    @Override
+    public void update(Incident incident) {
+        long seq;
+        synchronized (this) {
+            if (!offsets.containsKey(incident.getIncidentId())) return;
+            try {
+                seq = append(PUT, incident.getIncidentId(), incident);
+            } catch (IOException e) {
+                Metrics.markFailed();
+                System.err.println("Error while updating incident: " + e.getMessage());
+                return;
+            }
+        }
+        awaitDurable(seq);
+    }
+
+    // DELETE
+    @Override
+    public void delete(Long id) {
+        long seq;
+        synchronized (this) {
+            if (!offsets.containsKey(id)) return;
+            try {
+                seq = append(DELETE, id, null);
+            } catch (IOException e) {
+                Metrics.markFailed();
+                System.err.println("Error while deleting incident: " + e.getMessage());
+                return;
+            }
+        }
+        awaitDurable(seq);
+    }
+
+    // BULK: all records appended under one lock, then one sync
+    @Override
+    public List<Long> addAll(List<Incident> incidents) {
+        List<Long> ids = new ArrayList<>(incidents.size());
+        long seq = 0;
+        synchronized (this) {
+            try {
+                for (Incident incident : incidents) {
+                    seq = append(PUT, nextId, incident);
+                    ids.add(nextId++);
+                }
+            } catch (IOException e) {
+                Metrics.markFailed();
+                System.err.println("Error while adding incidents: " + e.getMessage());
+            }
+        }
+        awaitDurable(seq); // as in add, appended rows are stored whether or not the sync succeeds
+        for (int i = 0; i < ids.size(); i++) incidents.get(i).setIncidentId(ids.get(i));
+        return ids;
+    }
+
+    @Override
+    public void updateAll(List<Incident> incidents) {
+        long seq = 0;
+        synchronized (this) {
+            try {
+                for (Incident incident : incidents) {
+                    if (offsets.containsKey(incident.getIncidentId())) {
+                        seq = append(PUT, incident.getIncidentId(), incident);
+                    }
+                }
+            } catch (IOException e) {
+                Metrics.markFailed();
+                System.err.println("Error while updating incidents: " + e.getMessage());
+            }
+        }
+        awaitDurable(seq);
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        long seq = 0;
+        synchronized (this) {
+            try {
+                for (Long id : ids) {
+                    if (offsets.containsKey(id)) seq = append(DELETE, id, null);
+                }
+            } catch (IOException e) {
+                Metrics.markFailed();
+                System.err.println("Error while deleting incidents: " + e.getMessage());
+            }
+        }
+        awaitDurable(seq);
+    }
+
+    // PAGED READS
+    @Override
+    public synchronized List<Incident> findPage(Long afterId, int limit) {
+        Map<Long, Integer> tail = afterId == null ? offsets : offsets.tailMap(afterId, false);
+        List<Incident> page = new ArrayList<>(Math.min(limit, 1024));
+        for (int offset : tail.values()) {
+            if (page.size() >= limit) break;
+            page.add(decode(offset));
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized List<Incident> findRange(long offset, int limit) {
+        List<Incident> page = new ArrayList<>();
+        long skipped = 0;
+        for (int position : offsets.values()) {
+            if (skipped++ < offset) continue;
+            if (page.size() >= limit) break;
+            page.add(decode(position));
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized List<IncidentSummary> findSummaryPage(Long afterId, int limit) {
+        Map<Long, Integer> tail = afterId == null ? offsets : offsets.tailMap(afterId, false);
+        List<IncidentSummary> page = new ArrayList<>(Math.min(limit, 1024));
+        for (int offset : tail.values()) {
+            if (page.size() >= limit) break;
+            page.add(decodeSummary(offset));
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized List<IncidentSummary> findSummaryRange(long offset, int limit) {
+        List<IncidentSummary> page = new ArrayList<>();
+        long skipped = 0;
+        for (int position : offsets.values()) {
+            if (skipped++ < offset) continue;
+            if (page.size() >= limit) break;
+            page.add(decodeSummary(position));
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized long count() {
+        return offsets.size();
+    }
+
+    // CRITERIA and SEARCH: no query engine, so rows are decoded and evaluated in memory
+    @Override
+    public synchronized List<Incident> findMatching(Criteria<Incident> criteria) {
+        return InMemoryIncidentDAO.match(findAll(), criteria);
+    }
+
+    @Override
+    public synchronized long countMatching(Criteria<Incident> criteria) {
+        long count = 0;
+        for (int offset : offsets.values()) {
+            if (criteria.matches(decode(offset))) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized List<Incident> search(String query, long offset, int limit) {
+        return InMemoryIncidentDAO.rank(findAll(), query, offset, limit);
+    }
+
+    // DELTA SYNC
+    @Override
+    public synchronized ChangeSet<Incident> findChangedSince(long watermark) {
+        if (watermark <= 0 || watermark < horizon) {
+            return new ChangeSet<>(findAll(), new ArrayList<>(), version, true);
+        }
+        List<Incident> upserts = new ArrayList<>();
+        for (Map.Entry<Long, Long> e : modifiedAt.entrySet()) {
+            if (e.getValue() > watermark) upserts.add(decode(offsets.get(e.getKey())));
+        }
+        List<Long> deleted = new ArrayList<>();
+        for (Map.Entry<Long, Long> e : deletedAt.entrySet()) {
+            if (e.getValue() > watermark) deleted.add(e.getKey());
+        }
+        return new ChangeSet<>(upserts, deleted, version, false);
+    }
+
+    // STREAM: keyset pages, so neither the whole table nor the lock is held while the caller iterates
+    @Override
+    public Stream<Incident> streamAll() {
+        Iterator<Incident> pages = new Iterator<Incident>() {
+            private List<Incident> page = findPage(null, STREAM_PAGE_SIZE);
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                if (index < page.size()) return true;
+                if (page.size() < STREAM_PAGE_SIZE) return false;
+                page = findPage(page.get(page.size() - 1).getIncidentId(), STREAM_PAGE_SIZE);
+                index = 0;
+                return !page.isEmpty();
+            }
+
+            @Override
+            public Incident next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return page.get(index++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // APPEND (caller holds the lock); returns the sequence number to wait for
+    private long append(byte type, long id, Incident incident) throws IOException {
+        byte[] record = encode(type, id, ++version, incident);
+        ensureCapacity(record.length);
+
+        log.put(end, record);
+        Integer previous = type == PUT ? offsets.put(id, end) : offsets.remove(id);
+        if (previous != null) liveBytes -= log.getInt(previous);
+        if (type == PUT) {
+            liveBytes += record.length;
+            modifiedAt.put(id, version);
+            deletedAt.remove(id);
+        } else {
+            modifiedAt.remove(id);
+            deletedAt.put(id, version);
+        }
+        end += record.length;
+        log.putInt(END_OFFSET, end);
+        return ++appendedSeq;
+    }
+
+    private void ensureCapacity(int needed) throws IOException {
+        if ((long) end + needed <= log.capacity()) return;
+        if (garbageBytes() > Math.max(liveBytes, MIN_COMPACT_GARBAGE)) {
+            compact();
+            if ((long) end + needed <= log.capacity()) return;
+        }
+        long required = (long) end + needed;
+        if (required > MAX_LOG_SIZE) throw new IOException("Incident log is full (" + end + " bytes)");
+        long capacity = Math.min(MAX_LOG_SIZE, Math.max(required, 2L * log.capacity()));
+        log = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private long garbageBytes() {
+        return end - HEADER_SIZE - liveBytes;
+    }
+
+    // GROUP COMMIT: the first waiter forces everything appended so far, then the header with its end; the rest
+    // wait for its result. False, counted as a failed operation, when the records up to seq are not known to
+    // be on disk: the force failed or the wait was interrupted. The range stays dirty, so the next sync
+    // forces it again.
+    private boolean awaitDurable(long seq) {
+        if (!fsync || seq == 0) return true;
+        while (true) {
+            synchronized (syncLock) {
+                while (syncing && durableSeq < seq) {
+                    try {
+                        syncLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        Metrics.markFailed();
+                        System.err.println("Interrupted while syncing incident log; the change may not be durable");
+                        return false;
+                    }
+                }
+                if (durableSeq >= seq) return true;
+                syncing = true;
+            }
+
+            long target = 0;
+            int from = 0;
+            long compactionsBefore = 0;
+            try {
+                MappedByteBuffer buffer;
+                int to;
+                long appended;
+                synchronized (this) {
+                    buffer = log;
+                    from = dirtyFrom;
+                    to = end;
+                    appended = appendedSeq;
+                    compactionsBefore = compactions;
+                    dirtyFrom = end;
+                    syncs++;
+                }
+                if (to > from) {
+                    buffer.force(from, to - from);
+                    buffer.force(0, HEADER_SIZE);
+                }
+                target = appended;
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    // A compaction since then has forced everything into a new file, with nothing left dirty
+                    if (compactions == compactionsBefore) dirtyFrom = Math.min(dirtyFrom, from);
+                }
+                Metrics.markFailed();
+                System.err.println("Error while syncing incident log: " + e.getMessage());
+                return false;
+            } finally {
+                synchronized (syncLock) {
+                    syncing = false;
+                    durableSeq = Math.max(durableSeq, target);
+                    syncLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    // COMPACTION: copy live records into a temporary file, force it, rename it to the next generation and
+    // switch to it. The old generation is closed and deleted, which fails on Windows until it is unmapped.
+    public synchronized void compact() throws IOException {
+        Path tmp = compactionFile();
+        Path next = generationFile(generation + 1);
+        FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = HEADER_SIZE + liveBytes;
+            MappedByteBuffer compacted = out.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.min(MAX_LOG_SIZE, Math.max(INITIAL_MAP_SIZE, size + size / 2)));
+            TreeMap<Long, Integer> moved = new TreeMap<>();
+            int pos = HEADER_SIZE;
+            for (Map.Entry<Long, Integer> e : offsets.entrySet()) {
+                int length = log.getInt(e.getValue());
+                compacted.put(pos, log, e.getValue(), length);
+                moved.put(e.getKey(), pos);
+                pos += length;
+            }
+            writeHeader(compacted, version, nextId, pos);
+            compacted.force();
+            Files.move(tmp, next, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+
+            channel.close();
+            channel = out;
+            current = next;
+            generation++;
+            log = compacted;
+            end = pos;
+            dirtyFrom = pos; // everything in the new file is already on disk
+            offsets.clear();
+            offsets.putAll(moved);
+            deletedAt.clear();
+            horizon = version;
+            compactions++;
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        deleteGenerationsBelow(generation);
+    }
+
+    private void compactIfDue() {
+        try {
+            synchronized (this) {
+                if (garbageBytes() > Math.max(liveBytes, MIN_COMPACT_GARBAGE)) compact();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error while compacting incident log: " + e.getMessage());
+        }
+    }
+
+    // Make the rename itself durable (not supported on every platform)
+    private void syncDirectory() {
+        Path dir = file.toAbsolutePath().getParent();
+        try (FileChannel directory = FileChannel.open(dir, StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // Best effort
+        }
+    }
+
+    private Path compactionFile() {
+        return file.resolveSibling(file.getFileName() + ".compact");
+    }
+
+    @Override
+    public void close() {
+        if (compactor != null) compactor.shutdownNow();
+        synchronized (this) {
+            try {
+                log.force();
+                channel.close();
+                lock.release();
+                lockChannel.close();
+            } catch (IOException e) {
+                System.err.println("Error while closing incident log: " + e.getMessage());
+            }
+        }
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(offsets.size(), end, liveBytes, syncs, compactions, appendedSeq);
+    }
+
+    // Snapshot of store metrics
+    public static final class Stats {
+        public final int rows;
+        public final long logBytes;
+        public final long liveBytes;
+        public final long syncs;
+        public final long compactions;
+        public final long appends;
+
+        Stats(int rows, long logBytes, long liveBytes, long syncs, long compactions, long appends) {
+            this.rows = rows;
+            this.logBytes = logBytes;
+            this.liveBytes = liveBytes;
+            this.syncs = syncs;
+            this.compactions = compactions;
+            this.appends = appends;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "rows=" + rows +
+                    ", logBytes=" + logBytes +
+                    ", liveBytes=" + liveBytes +
+                    ", appends=" + appends +
+                    ", syncs=" + syncs +
+                    ", compactions=" + compactions +
+                    '}';
+        }
+    }
+
+    // RECORD CODEC
+    // PUT payload: title, description, type, risk, status, reported date, assignee, resolution notes.
+    // Strings are length-prefixed UTF-8 (-1 for null), enums one ordinal byte (-1 for null),
+    // dates epoch millis (Long.MIN_VALUE for null).
+    private static byte[] encode(byte type, long id, long version, Incident incident) {
+        byte[][] strings = new byte[0][];
+        int size = RECORD_HEADER;
+        if (type == PUT) {
+            strings = new byte[][]{
+                    utf8(incident.getTitle()), utf8(incident.getDescription()),
+                    utf8(incident.getAssignedTo()), utf8(incident.getResolutionNotes())
+            };
+            size += 3 + 8 + 4 * strings.length;
+            for (byte[] s : strings) size += s == null ? 0 : s.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(size).putInt(0).put(type).putLong(id).putLong(version);
+        if (type == PUT) {
+            putString(buffer, strings[0]);
+            putString(buffer, strings[1]);
+            buffer.put(ordinal(incident.getType()))
+                    .put(ordinal(incident.getRisk()))
+                    .put(ordinal(incident.getStatus()));
+            Date reported = incident.getReportedDate();
+            buffer.putLong(reported == null ? Long.MIN_VALUE : reported.getTime());
+            putString(buffer, strings[2]);
+            putString(buffer, strings[3]);
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 8, size - 8);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    private Incident decode(int offset) {
+        ByteBuffer in = log.duplicate().position(offset + RECORD_HEADER);
+        long id = log.getLong(offset + 9);
+        String title = getString(in);
+        String description = getString(in);
+        Incident.IncidentType type = enumAt(TYPES, in.get());
+        Incident.Risk risk = enumAt(RISKS, in.get());
+        Incident.Status status = enumAt(STATUSES, in.get());
+        long reported = in.getLong();
+        return new Incident(id, title, description, type, risk, status,
+                reported == Long.MIN_VALUE ? null : new Date(reported), getString(in), getString(in));
+    }
+
+    // Summary columns only: the description is skipped and the resolution notes are never read
+    private IncidentSummary decodeSummary(int offset) {
+        ByteBuffer in = log.duplicate().position(offset + RECORD_HEADER);
+        long id = log.getLong(offset + 9);
+        String title = getString(in);
+        int descriptionLength = in.getInt();
+        if (descriptionLength > 0) in.position(in.position() + descriptionLength);
+        Incident.IncidentType type = enumAt(TYPES, in.get());
+        Incident.Risk risk = enumAt(RISKS, in.get());
+        Incident.Status status = enumAt(STATUSES, in.get());
+        long reported = in.getLong();
+        return new IncidentSummary(id, title, type, risk, status,
+                reported == Long.MIN_VALUE ? null : new Date(reported), getString(in));
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer out, byte[] value) {
+        if (value == null) {
+            out.putInt(-1);
+        } else {
+            out.putInt(value.length).put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? -1 : (byte) value.ordinal();
+    }
+
+    private static <E> E enumAt(E[] values, byte ordinal) {
+        return ordinal < 0 ? null : values[ordinal];
+    }
+}
@@ -0,0 +1,221 @@
+package dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read/write splitting over one primary and any number of read replicas.
+ * Writes always go to the primary. Reads go to a replica chosen round-robin or by fewest connections in
+ * use, skipping replicas that recently failed to connect and falling back to the primary when none is left.
+ *
+ * Read-your-writes: for stickyMillis after {@link #markWritten()}, which the DAO calls once a change is
+ * committed, reads are served by the primary too, so a change is visible to the next read even if the
+ * replicas lag behind. The window is process-wide because every view, request thread and cache in this
+ * process shares one model. Borrowing a connection, even a write connection, does not start it: delta sync
+ * and the change outbox read the primary on every poll and would otherwise keep all reads there.
+ */
+public class RoutingDataSource {
+
+    public enum Balance { ROUND_ROBIN, LEAST_LOADED }
+
+    // A replica that failed to hand out a connection is skipped for this long
+    private static final long RETRY_AFTER_NANOS = 5_000_000_000L;
+
+    private final Target primary;
+    private final Target[] replicas;
+    private final Balance balance;
+    private final long stickyNanos;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile long lastWriteNanos;
+    private volatile boolean written;
+
+    // Metrics
+    private final AtomicLong stickyReads = new AtomicLong();
+    private final AtomicLong fallbackReads = new AtomicLong();
+
+    public RoutingDataSource(ConnectionPool.ConnectionFactory primary, List<ConnectionPool.ConnectionFactory> replicas,
+                             Balance balance, long stickyMillis) {
+        if (primary == null || replicas == null || balance == null || stickyMillis < 0)
+            throw new IllegalArgumentException("Invalid routing configuration");
+
+        this.primary = new Target("primary", primary);
+        this.replicas = new Target[replicas.size()];
+        for (int i = 0; i < this.replicas.length; i++) {
+            this.replicas[i] = new Target("replica-" + (i + 1), replicas.get(i));
+        }
+        this.balance = balance;
+        this.stickyNanos = stickyMillis * 1_000_000L;
+    }
+
+    // WRITES
+    public Connection getWriteConnection() throws SQLException {
+        return primary.borrow();
+    }
+
+    // Reads that must see every committed row, such as delta sync and the change outbox; not sticky
+    public Connection getPrimaryReadConnection() throws SQLException {
+        return primary.borrow();
+    }
+
+    // READ-YOUR-WRITES: reads go to the primary for stickyMillis from now
+    public void markWritten() {
+        lastWriteNanos = System.nanoTime();
+        written = true;
+    }
+
+    // READS
+    public Connection getReadConnection() throws SQLException {
+        if (replicas.length == 0) return primary.borrow();
+        if (mustReadPrimary()) {
+            stickyReads.incrementAndGet();
+            return primary.borrow();
+        }
+
+        int start = Math.floorMod(next.getAndIncrement(), replicas.length);
+        long now = System.nanoTime();
+        for (int attempt = 0; attempt < replicas.length; attempt++) {
+            Target target = pick(start, now);
+            if (target == null) break;
+            try {
+                return target.borrow();
+            } catch (SQLException | RuntimeException e) {
+                target.downUntil = System.nanoTime() + RETRY_AFTER_NANOS;
+                target.failures.incrementAndGet();
+                System.err.println("Read replica " + target.name + " unavailable, retrying elsewhere: " + e.getMessage());
+            }
+        }
+        fallbackReads.incrementAndGet();
+        return primary.borrow();
+    }
+
+    private boolean mustReadPrimary() {
+        return written && System.nanoTime() - lastWriteNanos < stickyNanos;
+    }
+
+    // Healthy replica by the balancing policy, scanning from start so ties rotate; null if all are down
+    private Target pick(int start, long now) {
+        Target best = null;
+        for (int k = 0; k < replicas.length; k++) {
+            Target candidate = replicas[(start + k) % replicas.length];
+            if (candidate.downUntil - now > 0) continue;
+            if (balance == Balance.ROUND_ROBIN) return candidate;
+            if (best == null || candidate.inUse.get() < best.inUse.get()) best = candidate;
+        }
+        return best;
+    }
+
+    public int getReplicaCount() {
+        return replicas.length;
+    }
+
+    public Stats getStats() {
+        List<String> lines = new ArrayList<>();
+        lines.add(primary.describe());
+        for (Target replica : replicas) lines.add(replica.describe());
+        return new Stats(lines, stickyReads.get(), fallbackReads.get());
+    }
+
+    // Snapshot of routing metrics
+    public static final class Stats {
+        public final List<String> targets;
+        public final long stickyReads;
+        public final long fallbackReads;
+
+        Stats(List<String> targets, long stickyReads, long fallbackReads) {
+            this.targets = targets;
+            this.stickyReads = stickyReads;
+            this.fallbackReads = fallbackReads;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" + String.join(", ", targets) +
+                    ", stickyReads=" + stickyReads +
+                    ", fallbackReads=" + fallbackReads +
+                    '}';
+        }
+    }
+
+    // One database server plus its load and health bookkeeping
+    private static final class Target {
+        final String name;
+        final ConnectionPool.ConnectionFactory factory;
+        final AtomicInteger inUse = new AtomicInteger();
+        final AtomicLong borrows = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        volatile long downUntil = System.nanoTime();
+
+        Target(String name, ConnectionPool.ConnectionFactory factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        Connection borrow() throws SQLException {
+            Connection physical = factory.create();
+            inUse.incrementAndGet();
+            borrows.incrementAndGet();
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this, physical));
+        }
+
+        String describe() {
+            return name + "=" + borrows.get() + " borrows/" + inUse.get() + " in use"
+                    + (failures.get() == 0 ? "" : "/" + failures.get() + " failures");
+        }
+    }
+
+    // Counts the connection as in use until it is closed
+    private static final class Handle implements InvocationHandler {
+        private final Target target;
+        private final Connection physical;
+        private boolean closed;
+
+        Handle(Target target, Connection physical) {
+            this.target = target;
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        try {
+                            physical.close();
+                        } finally {
+                            target.inUse.decrementAndGet();
+                        }
+                    }
+                    return null;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) return proxy;
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return target.name + ":" + physical;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * One JDBC statement, from execute until its result set is exhausted or closed. Driver time is spent
+ * inside the driver (execute and ResultSet.next); mapping time is the rest, when the caller turns rows
+ * into objects (mapResultSetToIncident) between next() calls.
+ */
+@Name("incidents.JdbcQuery")
+@Label("JDBC Query")
+@Category({"Incidents", "JDBC"})
+@Description("A JDBC statement with its SQL, rows and the split between driver and row mapping time")
+public class JdbcQueryEvent extends jdk.jfr.Event {
+
+    private static final EventType TYPE = EventType.getEventType(JdbcQueryEvent.class);
+
+    @Label("Action Id")
+    long actionId;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Rows")
+    @Description("Rows read, or the update count for writes")
+    long rows;
+
+    @Label("Driver Time")
+    @Timespan
+    long driverTime;
+
+    @Label("Mapping Time")
+    @Timespan
+    long mappingTime;
+
+    // True while a recording has this event on; callers skip tracing work otherwise
+    public static boolean isRecording() {
+        return TYPE.isEnabled();
+    }
+
+    public static JdbcQueryEvent start(String sql) {
+        JdbcQueryEvent event = new JdbcQueryEvent();
+        event.sql = sql;
+        event.begin();
+        return event;
+    }
+
+    // totalNanos runs from start(); whatever was not spent in the driver counts as mapping
+    public void finish(long rows, long driverNanos, long totalNanos) {
+        if (!shouldCommit()) return;
+        this.actionId = Trace.currentActionId();
+        this.rows = rows;
+        this.driverTime = driverNanos;
+        this.mappingTime = Math.max(0, totalNanos - driverNanos);
+        commit();
+    }
+}
@@ -0,0 +1,92 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in the style of HdrHistogram: log-linear buckets with 128 sub-buckets per
+ * power of two, so every recorded value is kept to within 1% (two significant digits) from 1 ns up
+ * to about 18 minutes. Recording is a few atomic increments; percentiles are read from a snapshot.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_MAGNITUDE = 40; // 2^40 ns, about 18 minutes; larger values are clamped
+    private static final long MAX_VALUE = (1L << MAX_MAGNITUDE) - 1;
+    private static final int BUCKETS = SUB_BUCKETS * (MAX_MAGNITUDE - SUB_BITS + 1);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+        counts.incrementAndGet(bucketOf(value));
+        total.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    // Values below 2^SUB_BITS get a bucket each; above, each power of two is split into SUB_BUCKETS
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return SUB_BUCKETS * (shift + 1) + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    // Largest value that falls into the bucket
+    static long highestIn(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, sum.sum(), max.get());
+    }
+
+    public long getCount() {
+        return total.sum();
+    }
+
+    // Bucket counts at one moment (concurrent recordings may be partly included)
+    public static final class Snapshot {
+        private final long[] counts;
+        public final long count;
+        public final long sumNanos;
+        public final long maxNanos;
+
+        Snapshot(long[] counts, long count, long sumNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.sumNanos = sumNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        // Value at or below which the given fraction of recordings fall, e.g. percentile(0.99)
+        public long percentile(double fraction) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(fraction * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(highestIn(i), maxNanos);
+            }
+            return maxNanos;
+        }
+
+        public long meanNanos() {
+            return count == 0 ? 0 : sumNanos / count;
+        }
+    }
+}
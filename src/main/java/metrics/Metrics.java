@@ -0,0 +1,250 @@
+package metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide operation metrics. Instrumented layers wrap each call in {@link #timed} or {@link #run};
+ * every operation gets a count, an error count, rows returned and a latency histogram, and is
+ * registered as a JMX MBean (incidents:type=Operation,name=...) the first time it is used.
+ *
+ * Configuration (system properties):
+ * incidents.metrics.enabled      (true)  false makes timed() a plain call unless JFR is recording it
+ * incidents.metrics.slowMs       (500)   calls at least this slow are logged; 0 turns the log off
+ * incidents.metrics.slowLogFile  ("")    append slow calls to this file instead of stderr
+ * incidents.metrics.dumpSeconds  (0)     with {@link #startReporting()}, dump every N seconds
+ * incidents.metrics.dumpFile     ("")    dump in Prometheus text format to this file (replaced atomically)
+ *                                        instead of printing a table to stdout
+ */
+public final class Metrics {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("incidents.metrics.enabled", "true"));
+    private static final String SLOW_LOG_FILE = System.getProperty("incidents.metrics.slowLogFile", "");
+    private static final long DUMP_SECONDS = Long.getLong("incidents.metrics.dumpSeconds", 0);
+    private static final String DUMP_FILE = System.getProperty("incidents.metrics.dumpFile", "");
+
+    private static final ConcurrentHashMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private static volatile long slowNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("incidents.metrics.slowMs", 500));
+
+    // Set by DAOs that log a failure and return an empty result instead of throwing
+    private static final ThreadLocal<boolean[]> failed = ThreadLocal.withInitial(() -> new boolean[1]);
+
+    private static ScheduledExecutorService reporter;
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    // The metrics for a name, created and registered with JMX on first use
+    public static OperationMetrics operation(String name) {
+        OperationMetrics existing = operations.get(name);
+        if (existing != null) return existing;
+        OperationMetrics created = new OperationMetrics(name);
+        existing = operations.putIfAbsent(name, created);
+        if (existing != null) return existing;
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(created, new ObjectName("incidents:type=Operation,name=" + name));
+        } catch (JMException e) {
+            System.err.println("Could not register metrics MBean for " + name + ": " + e.getMessage());
+        }
+        return created;
+    }
+
+    // TIMING
+    public static <T> T timed(String name, Supplier<T> call) {
+        return timed(name, call, null, null);
+    }
+
+    public static <T> T timed(String name, Supplier<T> call, ToIntFunction<? super T> rows) {
+        return timed(name, call, rows, null);
+    }
+
+    /**
+     * Run the call and record its latency, the rows it returned and whether it failed (threw, or the
+     * layer below called {@link #markFailed()}). {@code detail} describes the call in the slow-query log.
+     * While a JFR recording has {@link OperationEvent} on, the call is also emitted as one, even with
+     * metrics disabled.
+     */
+    public static <T> T timed(String name, Supplier<T> call, ToIntFunction<? super T> rows, Supplier<String> detail) {
+        OperationEvent event = new OperationEvent();
+        if (!ENABLED && !event.isEnabled()) return call.get();
+        boolean[] flag = failed.get();
+        boolean outer = flag[0];
+        flag[0] = false;
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            long nanos = System.nanoTime() - start;
+            int count = rows == null || result == null ? -1 : rows.applyAsInt(result);
+            if (ENABLED) operation(name).record(nanos, count, flag[0], detail);
+            event.finish(name, count, flag[0]);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flag[0] = true;
+            if (ENABLED) operation(name).record(System.nanoTime() - start, -1, true, detail);
+            event.finish(name, -1, true);
+            throw e;
+        } finally {
+            flag[0] |= outer; // a failure inside also fails the enclosing operation
+        }
+    }
+
+    public static void run(String name, Runnable call) {
+        run(name, call, null);
+    }
+
+    public static void run(String name, Runnable call, Supplier<String> detail) {
+        timed(name, () -> {
+            call.run();
+            return null;
+        }, null, detail);
+    }
+
+    // Mark the innermost timed operation on this thread as failed
+    public static void markFailed() {
+        failed.get()[0] = true;
+    }
+
+    // SLOW-QUERY LOG
+    static long slowNanos() {
+        return slowNanos;
+    }
+
+    // 0 turns the slow-query log off
+    public static void setSlowThresholdMillis(long millis) {
+        slowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+    }
+
+    static void logSlow(OperationMetrics operation, long nanos, int rows, boolean failed, String detail) {
+        String line = String.format(Locale.ROOT, "%s SLOW %s %.1f ms%s%s%s", Instant.now(), operation.getName(),
+                nanos / 1e6, rows >= 0 ? " rows=" + rows : "", failed ? " FAILED" : "",
+                detail == null ? "" : " " + detail);
+        if (SLOW_LOG_FILE.isEmpty()) {
+            System.err.println(line);
+            return;
+        }
+        synchronized (Metrics.class) {
+            try {
+                Files.write(Paths.get(SLOW_LOG_FILE), (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                System.err.println(line + " (slow log not writable: " + e.getMessage() + ")");
+            }
+        }
+    }
+
+    // SNAPSHOTS AND EXPORT
+    // One Stats per operation, by name
+    public static List<OperationMetrics.Stats> snapshot() {
+        List<OperationMetrics.Stats> stats = new ArrayList<>(operations.size());
+        for (OperationMetrics operation : operations.values()) stats.add(operation.getStats());
+        stats.sort(Comparator.comparing(s -> s.name));
+        return stats;
+    }
+
+    // Prometheus text exposition format (version 0.0.4)
+    public static String prometheus() {
+        List<OperationMetrics.Stats> stats = snapshot();
+        StringBuilder sb = new StringBuilder(256 + stats.size() * 640);
+        sb.append("# HELP incidents_operation_seconds Latency of instrumented operations since startup.\n");
+        sb.append("# TYPE incidents_operation_seconds summary\n");
+        for (OperationMetrics.Stats s : stats) {
+            quantile(sb, s.name, "0.5", s.p50Nanos);
+            quantile(sb, s.name, "0.9", s.p90Nanos);
+            quantile(sb, s.name, "0.99", s.p99Nanos);
+            quantile(sb, s.name, "0.999", s.p999Nanos);
+            sample(sb, "incidents_operation_seconds_sum", s.name, seconds(s.sumNanos));
+            sample(sb, "incidents_operation_seconds_count", s.name, Long.toString(s.count));
+        }
+        counter(sb, "incidents_operation_errors_total", "Calls that failed.", stats, s -> s.errors);
+        counter(sb, "incidents_operation_rows_total", "Rows returned.", stats, s -> s.rows);
+        counter(sb, "incidents_operation_slow_total", "Calls over the slow-query threshold.", stats, s -> s.slowCalls);
+        sb.append("# HELP incidents_operation_max_seconds Slowest call since startup.\n");
+        sb.append("# TYPE incidents_operation_max_seconds gauge\n");
+        for (OperationMetrics.Stats s : stats) sample(sb, "incidents_operation_max_seconds", s.name, seconds(s.maxNanos));
+        return sb.toString();
+    }
+
+    private static void quantile(StringBuilder sb, String operation, String quantile, long nanos) {
+        sb.append("incidents_operation_seconds{operation=\"").append(operation)
+                .append("\",quantile=\"").append(quantile).append("\"} ").append(seconds(nanos)).append('\n');
+    }
+
+    private static void counter(StringBuilder sb, String metric, String help, List<OperationMetrics.Stats> stats,
+                                ToLongFunction<OperationMetrics.Stats> value) {
+        sb.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(metric).append(" counter\n");
+        for (OperationMetrics.Stats s : stats) sample(sb, metric, s.name, Long.toString(value.applyAsLong(s)));
+    }
+
+    private static void sample(StringBuilder sb, String metric, String operation, String value) {
+        sb.append(metric).append("{operation=\"").append(operation).append("\"} ").append(value).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    // Human-readable table, one line per operation (latencies in ms)
+    public static String report() {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "%-36s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "rows", "mean", "p50", "p90", "p99", "max"));
+        for (OperationMetrics.Stats s : snapshot()) {
+            sb.append(String.format(Locale.ROOT, "%-36s %9d %7d %10d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    s.name, s.count, s.errors, s.rows, s.meanNanos / 1e6, s.p50Nanos / 1e6, s.p90Nanos / 1e6,
+                    s.p99Nanos / 1e6, s.maxNanos / 1e6));
+        }
+        return sb.toString();
+    }
+
+    // PERIODIC DUMP (no-op unless incidents.metrics.dumpSeconds is set)
+    public static synchronized void startReporting() {
+        if (!ENABLED || DUMP_SECONDS <= 0 || reporter != null) return;
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "incident-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleWithFixedDelay(Metrics::dump, DUMP_SECONDS, DUMP_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static void dump() {
+        if (DUMP_FILE.isEmpty()) {
+            System.out.print(report());
+            return;
+        }
+        Path file = Paths.get(DUMP_FILE);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.write(tmp, prometheus().getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Error while writing metrics to " + file + ": " + e.getMessage());
+        }
+    }
+}
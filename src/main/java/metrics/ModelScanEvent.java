@@ -0,0 +1,52 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Work done by {@code IncidentModel} under its lock: a sync with the store, an index rebuild, or a
+ * search/filter/count over the in-memory incidents.
+ */
+@Name("incidents.ModelScan")
+@Label("Model Scan")
+@Category({"Incidents", "Model"})
+@Description("A sync, index rebuild or query over the in-memory incident model")
+public class ModelScanEvent extends jdk.jfr.Event {
+
+    @Label("Action Id")
+    long actionId;
+
+    @Label("Scan")
+    String scan;
+
+    @Label("Detail")
+    String detail;
+
+    @Label("Incidents")
+    @Description("Incidents in the model")
+    long incidents;
+
+    @Label("Results")
+    long results;
+
+    private transient Object arguments; // turned into detail only for events that are committed
+
+    public static ModelScanEvent start(String scan, Object arguments) {
+        ModelScanEvent event = new ModelScanEvent();
+        event.scan = scan;
+        event.arguments = arguments;
+        event.begin();
+        return event;
+    }
+
+    public void finish(long incidents, long results) {
+        if (!shouldCommit()) return;
+        this.actionId = Trace.currentActionId();
+        this.detail = arguments == null ? null : String.valueOf(arguments);
+        this.incidents = incidents;
+        this.results = results;
+        commit();
+    }
+}
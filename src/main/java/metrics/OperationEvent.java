@@ -0,0 +1,38 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One call timed by {@link Metrics#timed}: a DAO call (dao.*), a controller call (controller.*)
+ * or a connection borrow (db.*).
+ */
+@Name("incidents.Operation")
+@Label("Operation")
+@Category({"Incidents", "Operations"})
+@Description("A controller, DAO or connection pool call")
+public class OperationEvent extends jdk.jfr.Event {
+
+    @Label("Action Id")
+    long actionId;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+
+    void finish(String operation, long rows, boolean failed) {
+        if (!shouldCommit()) return;
+        this.actionId = Trace.currentActionId();
+        this.operation = operation;
+        this.rows = rows;
+        this.failed = failed;
+        commit();
+    }
+}
@@ -0,0 +1,142 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Counts, errors, rows returned and a latency histogram for one named operation, e.g. "dao.findAll".
+ * Calls slower than the slow-query threshold are logged with their details.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder slowCalls = new LongAdder();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // rows < 0 when the operation returns no rows; detail is only evaluated for slow calls
+    public void record(long nanos, int rows, boolean failed, Supplier<String> detail) {
+        latency.record(nanos);
+        if (rows > 0) this.rows.add(rows);
+        if (failed) errors.increment();
+        long slowNanos = Metrics.slowNanos();
+        if (slowNanos > 0 && nanos >= slowNanos) {
+            slowCalls.increment();
+            Metrics.logSlow(this, nanos, rows, failed, detail == null ? null : detail.get());
+        }
+    }
+
+    public Stats getStats() {
+        LatencyHistogram.Snapshot s = latency.snapshot();
+        return new Stats(name, s.count, errors.sum(), rows.sum(), slowCalls.sum(), s.meanNanos(),
+                s.percentile(0.50), s.percentile(0.90), s.percentile(0.99), s.percentile(0.999), s.maxNanos,
+                s.sumNanos);
+    }
+
+    // JMX
+    @Override
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public long getSlowCalls() {
+        return slowCalls.sum();
+    }
+
+    @Override
+    public long getMeanMicros() {
+        return latency.snapshot().meanNanos() / 1000;
+    }
+
+    @Override
+    public long getP50Micros() {
+        return latency.snapshot().percentile(0.50) / 1000;
+    }
+
+    @Override
+    public long getP90Micros() {
+        return latency.snapshot().percentile(0.90) / 1000;
+    }
+
+    @Override
+    public long getP99Micros() {
+        return latency.snapshot().percentile(0.99) / 1000;
+    }
+
+    @Override
+    public long getP999Micros() {
+        return latency.snapshot().percentile(0.999) / 1000;
+    }
+
+    @Override
+    public long getMaxMicros() {
+        return latency.snapshot().maxNanos / 1000;
+    }
+
+    // Snapshot of one operation's metrics (latencies in nanoseconds)
+    public static final class Stats {
+        public final String name;
+        public final long count;
+        public final long errors;
+        public final long rows;
+        public final long slowCalls;
+        public final long meanNanos;
+        public final long p50Nanos;
+        public final long p90Nanos;
+        public final long p99Nanos;
+        public final long p999Nanos;
+        public final long maxNanos;
+        public final long sumNanos;
+
+        Stats(String name, long count, long errors, long rows, long slowCalls, long meanNanos,
+              long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos, long maxNanos, long sumNanos) {
+            this.name = name;
+            this.count = count;
+            this.errors = errors;
+            this.rows = rows;
+            this.slowCalls = slowCalls;
+            this.meanNanos = meanNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+            this.p999Nanos = p999Nanos;
+            this.maxNanos = maxNanos;
+            this.sumNanos = sumNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "name=" + name +
+                    ", count=" + count +
+                    ", errors=" + errors +
+                    ", rows=" + rows +
+                    ", slow=" + slowCalls +
+                    ", meanMicros=" + meanNanos / 1000 +
+                    ", p50Micros=" + p50Nanos / 1000 +
+                    ", p99Micros=" + p99Nanos / 1000 +
+                    ", maxMicros=" + maxNanos / 1000 +
+                    '}';
+        }
+    }
+}
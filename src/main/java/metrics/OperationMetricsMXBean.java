@@ -0,0 +1,28 @@
+package metrics;
+
+/**
+ * JMX view of one operation, registered as incidents:type=Operation,name=&lt;operation&gt;.
+ * Latencies are in microseconds and cover every call since startup.
+ */
+public interface OperationMetricsMXBean {
+
+    long getCount();
+
+    long getErrors();
+
+    long getRows();
+
+    long getMeanMicros();
+
+    long getP50Micros();
+
+    long getP90Micros();
+
+    long getP99Micros();
+
+    long getP999Micros();
+
+    long getMaxMicros();
+
+    long getSlowCalls();
+}
@@ -0,0 +1,43 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Rows handed to the incident table on the EDT: a whole list, or one page of a paged load.
+ */
+@Name("incidents.TableFill")
+@Label("Table Fill")
+@Category({"Incidents", "UI"})
+@Description("Rows placed into the incident table on the event dispatch thread")
+public class TableFillEvent extends jdk.jfr.Event {
+
+    @Label("Action Id")
+    long actionId;
+
+    @Label("Mode")
+    String mode;
+
+    @Label("First Row")
+    long firstRow;
+
+    @Label("Rows")
+    long rows;
+
+    public static TableFillEvent start(String mode) {
+        TableFillEvent event = new TableFillEvent();
+        event.mode = mode;
+        event.begin();
+        return event;
+    }
+
+    public void finish(long firstRow, long rows) {
+        if (!shouldCommit()) return;
+        this.actionId = Trace.currentActionId();
+        this.firstRow = firstRow;
+        this.rows = rows;
+        commit();
+    }
+}
@@ -0,0 +1,47 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Action id that correlates the JFR events one user action causes. The UI takes a new id per action
+ * ({@link UiActionEvent#start}); {@code AsyncIncidentController} carries the current id to the worker
+ * thread and back to the EDT callback, so DAO, JDBC, model and table events all carry it. 0 = no action.
+ */
+public final class Trace {
+
+    private static final AtomicLong nextId = new AtomicLong();
+    private static final ThreadLocal<long[]> current = ThreadLocal.withInitial(() -> new long[1]);
+
+    private Trace() {
+    }
+
+    static long newActionId() {
+        return nextId.incrementAndGet();
+    }
+
+    public static long currentActionId() {
+        return current.get()[0];
+    }
+
+    // Make the id current on this thread; pass the returned id to restore() when done
+    public static long enter(long actionId) {
+        long[] id = current.get();
+        long previous = id[0];
+        id[0] = actionId;
+        return previous;
+    }
+
+    public static void restore(long previous) {
+        current.get()[0] = previous;
+    }
+
+    // Run body with actionId current, e.g. the part of a UI action that submits its async work
+    public static void run(long actionId, Runnable body) {
+        long previous = enter(actionId);
+        try {
+            body.run();
+        } finally {
+            restore(previous);
+        }
+    }
+}
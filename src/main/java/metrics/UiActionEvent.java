@@ -0,0 +1,57 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A user action (refresh, search, save, ...) from the click until its result is on screen.
+ * Started and finished on the EDT; its action id tags every event the action causes.
+ */
+@Name("incidents.UiAction")
+@Label("UI Action")
+@Category({"Incidents", "UI"})
+@Description("A user action from the click until its result is on screen")
+public class UiActionEvent extends jdk.jfr.Event {
+
+    @Label("Action Id")
+    long actionId;
+
+    @Label("Action")
+    String action;
+
+    @Label("Detail")
+    String detail;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Outcome")
+    String outcome;
+
+    private transient boolean finished;
+
+    // New action id, made current on this thread until the caller restores the previous one
+    public static UiActionEvent start(String action, String detail) {
+        UiActionEvent event = new UiActionEvent();
+        event.actionId = Trace.newActionId();
+        event.action = action;
+        event.detail = detail;
+        event.begin();
+        return event;
+    }
+
+    public long getActionId() {
+        return actionId;
+    }
+
+    // outcome is e.g. "ok", "failed" or "superseded"; only the first call counts
+    public void finish(long rows, String outcome) {
+        if (finished) return;
+        finished = true;
+        this.rows = rows;
+        this.outcome = outcome;
+        commit();
+    }
+}
@@ -32,6 +32,13 @@ public class Incident {
 
     public Incident() {}
 
+    // Copy (the reported date is cloned, everything else is immutable)
+    public Incident(Incident other) {
+        this(other.incidentId, other.title, other.description, other.type, other.risk, other.status,
+                other.reportedDate == null ? null : new Date(other.reportedDate.getTime()),
+                other.assignedTo, other.resolutionNotes);
+    }
+
     public Long getIncidentId() {
         return incidentId;
     }
@@ -0,0 +1,83 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Incident ids per assignee (exact name; unassigned incidents are not indexed).
+ * Each assignee's ids sit in a dense array with a primitive id → position map beside it, so adding,
+ * moving and removing an incident are O(1) and listing an assignee's incidents is O(their count).
+ */
+public class IncidentAssigneeIndex {
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final Map<String, Ids> byAssignee = new HashMap<>();
+
+    private static final class Ids {
+        long[] ids = new long[4];
+        int size;
+        final LongIntHashMap positions = new LongIntHashMap(4);
+    }
+
+    public void clear() {
+        byAssignee.clear();
+    }
+
+    // ADD (no-op if already present)
+    public void add(String assignee, long incidentId) {
+        if (assignee == null) return;
+        Ids ids = byAssignee.computeIfAbsent(assignee, a -> new Ids());
+        if (ids.positions.containsKey(incidentId)) return;
+        if (ids.size == ids.ids.length) ids.ids = Arrays.copyOf(ids.ids, ids.size * 2);
+        ids.positions.put(incidentId, ids.size);
+        ids.ids[ids.size++] = incidentId;
+    }
+
+    // REMOVE: the last id of the assignee takes the freed position
+    public void remove(String assignee, long incidentId) {
+        if (assignee == null) return;
+        Ids ids = byAssignee.get(assignee);
+        if (ids == null) return;
+        int position = ids.positions.remove(incidentId);
+        if (position == LongIntHashMap.MISSING) return;
+        long last = ids.ids[--ids.size];
+        if (position != ids.size) {
+            ids.ids[position] = last;
+            ids.positions.put(last, position);
+        }
+        if (ids.size == 0) byAssignee.remove(assignee);
+    }
+
+    // REASSIGN (either name may be null)
+    public void move(String from, String to, long incidentId) {
+        if (from == null ? to == null : from.equals(to)) return;
+        remove(from, incidentId);
+        add(to, incidentId);
+    }
+
+    // Ids assigned to the name, in no particular order
+    public long[] idsOf(String assignee) {
+        return idsOf(assignee, 0, Integer.MAX_VALUE);
+    }
+
+    // A slice of them, copying only the slice
+    public long[] idsOf(String assignee, int offset, int limit) {
+        Ids ids = assignee == null ? null : byAssignee.get(assignee);
+        if (ids == null || offset >= ids.size) return NO_IDS;
+        return Arrays.copyOfRange(ids.ids, offset, offset + Math.min(limit, ids.size - offset));
+    }
+
+    public int count(String assignee) {
+        Ids ids = assignee == null ? null : byAssignee.get(assignee);
+        return ids == null ? 0 : ids.size;
+    }
+
+    // Incident count per assignee, e.g. for a workload overview
+    public Map<String, Integer> counts() {
+        Map<String, Integer> counts = new HashMap<>(byAssignee.size() * 2);
+        for (Map.Entry<String, Ids> e : byAssignee.entrySet()) counts.put(e.getKey(), e.getValue().size);
+        return counts;
+    }
+}
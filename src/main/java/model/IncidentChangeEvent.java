@@ -0,0 +1,54 @@
+package model;
+
+/**
+ * One row-level change published by {@link IncidentModel}: an incident was inserted, updated or deleted.
+ * {@code row} is the incident's slot in the model's in-memory {@link IncidentColumns} (before removal,
+ * for deletes), or -1 when the list is not loaded. Slots have no fixed order: the model reuses a deleted
+ * incident's slot for the next insert.
+ */
+public class IncidentChangeEvent {
+
+    public enum Type {
+        INSERTED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long incidentId;
+    private final int row;
+    private final Incident incident;
+
+    public IncidentChangeEvent(Type type, Long incidentId, int row, Incident incident) {
+        this.type = type;
+        this.incidentId = incidentId;
+        this.row = row;
+        this.incident = incident;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getIncidentId() {
+        return incidentId;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    // The new state for inserts and updates, null for deletes
+    public Incident getIncident() {
+        return incident;
+    }
+
+    @Override
+    public String toString() {
+        return "IncidentChangeEvent{" +
+                "type=" + type +
+                ", incidentId=" + incidentId +
+                ", row=" + row +
+                '}';
+    }
+}
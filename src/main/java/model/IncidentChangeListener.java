@@ -0,0 +1,15 @@
+package model;
+
+/**
+ * Receives row-level changes from {@link IncidentModel}. Called on the thread that made the change,
+ * which is usually not the Swing event dispatch thread.
+ */
+public interface IncidentChangeListener {
+
+    void incidentChanged(IncidentChangeEvent event);
+
+    // Changes may have been missed while the list was not loaded, so anything read from the store
+    // should be read again
+    default void incidentsReloaded() {
+    }
+}
@@ -0,0 +1,354 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Struct-of-arrays incident store: one primitive array per column instead of one object per incident.
+ * Ids and reported dates are longs, enums byte ordinals, assignees int codes into a shared dictionary,
+ * and text (title, description, resolution notes) is UTF-8 in a byte arena, decoded only when asked for.
+ *
+ * Rows live in slots, which {@link IncidentFacetIndex} uses as its bit positions: freed slots are reused,
+ * so the arrays stay dense. {@link #get(int)} materializes an {@link Incident} on demand; column accessors
+ * read without allocating. Not thread-safe for writes; {@link IncidentModel} reads it under its read lock
+ * and changes it under its write lock.
+ */
+public class IncidentColumns {
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final long NO_TEXT = -1;
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private static final Incident.IncidentType[] TYPES = Incident.IncidentType.values();
+    private static final Incident.Risk[] RISKS = Incident.Risk.values();
+    private static final Incident.Status[] STATUSES = Incident.Status.values();
+
+    private long[] ids;
+    private long[] reported;
+    private byte[] types;
+    private byte[] risks;
+    private byte[] statuses;
+    private int[] assignees;
+    private long[] titles;
+    private long[] descriptions;
+    private long[] notes;
+
+    private final BitSet live = new BitSet();
+    private int size;
+
+    // Assignee dictionary: code -> name and back
+    private String[] names = new String[16];
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    // Text arena: chunks of varint-length-prefixed UTF-8; a reference is chunk << 32 | offset
+    private byte[][] chunks = new byte[4][];
+    private int chunkCount;
+    private int chunkUsed;
+    private long textBytes;
+    private long garbageBytes;
+
+    public IncidentColumns() {
+        this(16);
+    }
+
+    public IncidentColumns(int capacity) {
+        allocate(Math.max(16, capacity));
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        reported = new long[capacity];
+        types = new byte[capacity];
+        risks = new byte[capacity];
+        statuses = new byte[capacity];
+        assignees = new int[capacity];
+        titles = new long[capacity];
+        descriptions = new long[capacity];
+        notes = new long[capacity];
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        reported = Arrays.copyOf(reported, capacity);
+        types = Arrays.copyOf(types, capacity);
+        risks = Arrays.copyOf(risks, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        assignees = Arrays.copyOf(assignees, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        notes = Arrays.copyOf(notes, capacity);
+    }
+
+    // ADD: returns the slot the incident was stored in
+    public int add(Incident incident) {
+        int slot = live.nextClearBit(0);
+        if (slot >= ids.length) grow();
+        live.set(slot);
+        size++;
+        write(slot, incident);
+        return slot;
+    }
+
+    // REPLACE the incident in an occupied slot
+    public void set(int slot, Incident incident) {
+        checkSlot(slot);
+        release(slot);
+        write(slot, incident);
+    }
+
+    // REMOVE: the slot becomes free for the next add
+    public void remove(int slot) {
+        checkSlot(slot);
+        release(slot);
+        live.clear(slot);
+        size--;
+    }
+
+    public void clear() {
+        live.clear();
+        size = 0;
+        chunks = new byte[4][];
+        chunkCount = 0;
+        chunkUsed = 0;
+        textBytes = 0;
+        garbageBytes = 0;
+        names = new String[16];
+        codes.clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isLive(int slot) {
+        return slot >= 0 && live.get(slot);
+    }
+
+    // Next occupied slot at or after from, or -1; iterate with for (s = first(0); s >= 0; s = first(s + 1))
+    public int first(int from) {
+        int slot = live.nextSetBit(from);
+        return slot < 0 || slot >= ids.length ? -1 : slot;
+    }
+
+    // VIEWS
+    public Incident get(int slot) {
+        checkSlot(slot);
+        return new Incident(ids[slot], text(titles[slot]), text(descriptions[slot]),
+                getType(slot), getRisk(slot), getStatus(slot), getReportedDate(slot),
+                getAssignedTo(slot), text(notes[slot]));
+    }
+
+    // Every stored incident, in slot order
+    public List<Incident> getAll() {
+        List<Incident> all = new ArrayList<>(size);
+        for (int slot = first(0); slot >= 0; slot = first(slot + 1)) all.add(get(slot));
+        return all;
+    }
+
+    // The incidents in the given slots, in slot order
+    public List<Incident> get(BitSet slots) {
+        return get(slots, 0, Integer.MAX_VALUE);
+    }
+
+    // One page of them: only the incidents on the page are built, so the cost follows the limit, not the hit count
+    public List<Incident> get(BitSet slots, int offset, int limit) {
+        int slot = slots.nextSetBit(0);
+        for (int skipped = 0; skipped < offset && slot >= 0; skipped++) slot = slots.nextSetBit(slot + 1);
+        List<Incident> result = new ArrayList<>(Math.min(limit, Math.max(0, slots.cardinality() - offset)));
+        for (; slot >= 0 && result.size() < limit; slot = slots.nextSetBit(slot + 1)) result.add(get(slot));
+        return result;
+    }
+
+    // Summary columns only; description and notes stay encoded
+    public IncidentSummary getSummary(int slot) {
+        checkSlot(slot);
+        return new IncidentSummary(ids[slot], text(titles[slot]), getType(slot), getRisk(slot),
+                getStatus(slot), getReportedDate(slot), getAssignedTo(slot));
+    }
+
+    // COLUMN ACCESS (no allocation except for dates and decoded text)
+    public long getId(int slot) {
+        return ids[slot];
+    }
+
+    public Incident.IncidentType getType(int slot) {
+        return types[slot] < 0 ? null : TYPES[types[slot]];
+    }
+
+    public Incident.Risk getRisk(int slot) {
+        return risks[slot] < 0 ? null : RISKS[risks[slot]];
+    }
+
+    public Incident.Status getStatus(int slot) {
+        return statuses[slot] < 0 ? null : STATUSES[statuses[slot]];
+    }
+
+    // Epoch millis, or Long.MIN_VALUE when the incident has no date
+    public long getReportedMillis(int slot) {
+        return reported[slot];
+    }
+
+    public Date getReportedDate(int slot) {
+        return reported[slot] == NO_DATE ? null : new Date(reported[slot]);
+    }
+
+    // Dictionary code of the assignee (-1 for none); equal codes mean equal names
+    public int getAssigneeCode(int slot) {
+        return assignees[slot];
+    }
+
+    public String getAssignedTo(int slot) {
+        return assignees[slot] < 0 ? null : names[assignees[slot]];
+    }
+
+    // Code for a name, or -1 if no stored incident has ever been assigned to it
+    public int assigneeCode(String name) {
+        Integer code = name == null ? null : codes.get(name);
+        return code == null ? -1 : code;
+    }
+
+    public String getTitle(int slot) {
+        return text(titles[slot]);
+    }
+
+    public String getDescription(int slot) {
+        return text(descriptions[slot]);
+    }
+
+    public String getResolutionNotes(int slot) {
+        return text(notes[slot]);
+    }
+
+    // Bytes held by the text arena, including text of overwritten and removed rows not yet compacted
+    public long getTextBytes() {
+        return textBytes;
+    }
+
+    private void write(int slot, Incident incident) {
+        ids[slot] = incident.getIncidentId() == null ? 0 : incident.getIncidentId();
+        reported[slot] = incident.getReportedDate() == null ? NO_DATE : incident.getReportedDate().getTime();
+        types[slot] = ordinal(incident.getType());
+        risks[slot] = ordinal(incident.getRisk());
+        statuses[slot] = ordinal(incident.getStatus());
+        assignees[slot] = code(incident.getAssignedTo());
+        titles[slot] = store(incident.getTitle());
+        descriptions[slot] = store(incident.getDescription());
+        notes[slot] = store(incident.getResolutionNotes());
+        if (garbageBytes > CHUNK_SIZE && garbageBytes > textBytes / 2) compactText();
+    }
+
+    private void release(int slot) {
+        garbageBytes += stored(titles[slot]) + stored(descriptions[slot]) + stored(notes[slot]);
+        titles[slot] = NO_TEXT;
+        descriptions[slot] = NO_TEXT;
+        notes[slot] = NO_TEXT;
+    }
+
+    private void checkSlot(int slot) {
+        if (!isLive(slot)) throw new IllegalArgumentException("No incident in slot " + slot);
+    }
+
+    private int code(String name) {
+        if (name == null) return -1;
+        Integer code = codes.get(name);
+        if (code == null) {
+            code = codes.size();
+            if (code == names.length) names = Arrays.copyOf(names, names.length * 2);
+            names[code] = name;
+            codes.put(name, code);
+        }
+        return code;
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? -1 : (byte) value.ordinal();
+    }
+
+    // TEXT ARENA
+    private long store(String value) {
+        if (value == null) return NO_TEXT;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int needed = varintSize(bytes.length) + bytes.length;
+        if (chunkCount == 0 || chunkUsed + needed > chunks[chunkCount - 1].length) {
+            if (chunkCount == chunks.length) chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            chunks[chunkCount++] = new byte[Math.max(CHUNK_SIZE, needed)];
+            chunkUsed = 0;
+        }
+        byte[] chunk = chunks[chunkCount - 1];
+        long ref = ((long) (chunkCount - 1) << 32) | chunkUsed;
+        int pos = chunkUsed;
+        int length = bytes.length;
+        while ((length & ~0x7F) != 0) {
+            chunk[pos++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        chunk[pos++] = (byte) length;
+        System.arraycopy(bytes, 0, chunk, pos, bytes.length);
+        chunkUsed = pos + bytes.length;
+        textBytes += needed;
+        return ref;
+    }
+
+    private String text(long ref) {
+        return text(chunks, ref);
+    }
+
+    private static String text(byte[][] arena, long ref) {
+        if (ref == NO_TEXT) return null;
+        byte[] chunk = arena[(int) (ref >>> 32)];
+        int pos = (int) ref;
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = chunk[pos++];
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) break;
+        }
+        return new String(chunk, pos, length, StandardCharsets.UTF_8);
+    }
+
+    // Encoded size of a stored text, prefix included
+    private int stored(long ref) {
+        if (ref == NO_TEXT) return 0;
+        byte[] chunk = chunks[(int) (ref >>> 32)];
+        int pos = (int) ref;
+        int length = 0;
+        int prefix = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = chunk[pos + prefix++];
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) break;
+        }
+        return prefix + length;
+    }
+
+    private static int varintSize(int value) {
+        int bytes = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+    // Copy live text into fresh chunks so overwritten and removed text is dropped
+    private void compactText() {
+        byte[][] old = chunks;
+        chunks = new byte[4][];
+        chunkCount = 0;
+        chunkUsed = 0;
+        textBytes = 0;
+        garbageBytes = 0;
+        for (int slot = first(0); slot >= 0; slot = first(slot + 1)) {
+            titles[slot] = store(text(old, titles[slot]));
+            descriptions[slot] = store(text(old, descriptions[slot]));
+            notes[slot] = store(text(old, notes[slot]));
+        }
+    }
+}
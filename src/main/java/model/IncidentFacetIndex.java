@@ -0,0 +1,122 @@
+package model;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-value bitmaps over status, risk and type, one bit per slot of the model's {@link IncidentColumns}.
+ * A filter is an AND of up to three bitmaps, and counts come from the cardinality of that AND without
+ * touching any incident. The index holds slots only; the caller reads the matching rows from the columns.
+ * The bitmaps are plain, uncompressed {@link BitSet}s: slot reuse keeps them dense, at about n/8 bytes per value.
+ */
+public class IncidentFacetIndex {
+
+    private final EnumMap<Incident.Status, BitSet> byStatus = new EnumMap<>(Incident.Status.class);
+    private final EnumMap<Incident.Risk, BitSet> byRisk = new EnumMap<>(Incident.Risk.class);
+    private final EnumMap<Incident.IncidentType, BitSet> byType = new EnumMap<>(Incident.IncidentType.class);
+
+    private final BitSet live = new BitSet();
+
+    public IncidentFacetIndex() {
+        for (Incident.Status s : Incident.Status.values()) byStatus.put(s, new BitSet());
+        for (Incident.Risk r : Incident.Risk.values()) byRisk.put(r, new BitSet());
+        for (Incident.IncidentType t : Incident.IncidentType.values()) byType.put(t, new BitSet());
+    }
+
+    // REBUILD from every occupied slot of the columns
+    public void rebuild(IncidentColumns columns) {
+        byStatus.values().forEach(BitSet::clear);
+        byRisk.values().forEach(BitSet::clear);
+        byType.values().forEach(BitSet::clear);
+        live.clear();
+        for (int slot = columns.first(0); slot >= 0; slot = columns.first(slot + 1)) {
+            live.set(slot);
+            setBits(slot, columns.getStatus(slot), columns.getRisk(slot), columns.getType(slot));
+        }
+    }
+
+    // ADD / UPDATE: the slot takes the incident's values, replacing any it had
+    public void set(int slot, Incident incident) {
+        clearBits(slot);
+        live.set(slot);
+        setBits(slot, incident.getStatus(), incident.getRisk(), incident.getType());
+    }
+
+    // REMOVE
+    public void remove(int slot) {
+        clearBits(slot);
+        live.clear(slot);
+    }
+
+    private void setBits(int slot, Incident.Status status, Incident.Risk risk, Incident.IncidentType type) {
+        if (status != null) byStatus.get(status).set(slot);
+        if (risk != null) byRisk.get(risk).set(slot);
+        if (type != null) byType.get(type).set(slot);
+    }
+
+    // A handful of values per dimension, so clearing the bit everywhere is cheaper than remembering where it was
+    private void clearBits(int slot) {
+        for (BitSet bitmap : byStatus.values()) bitmap.clear(slot);
+        for (BitSet bitmap : byRisk.values()) bitmap.clear(slot);
+        for (BitSet bitmap : byType.values()) bitmap.clear(slot);
+    }
+
+    // FILTER (null means "any"): the slots of the matching incidents
+    public BitSet filter(Incident.Status status, Incident.Risk risk, Incident.IncidentType type) {
+        return match(status, risk, type);
+    }
+
+    // COUNT, e.g. count(NEW, CRITICAL, null) for "CRITICAL + NEW"
+    public int count(Incident.Status status, Incident.Risk risk, Incident.IncidentType type) {
+        return match(status, risk, type).cardinality();
+    }
+
+    /**
+     * Facet counts: for each value of {@code dimension}, how many incidents match it together with the
+     * other (non-null) criteria. The criterion for {@code dimension} itself is ignored.
+     */
+    public <E extends Enum<E>> EnumMap<E, Integer> facetCounts(Class<E> dimension, Incident.Status status,
+                                                               Incident.Risk risk, Incident.IncidentType type) {
+        EnumMap<E, BitSet> bitmaps = bitmapsFor(dimension);
+        BitSet others = match(
+                dimension == Incident.Status.class ? null : status,
+                dimension == Incident.Risk.class ? null : risk,
+                dimension == Incident.IncidentType.class ? null : type);
+
+        EnumMap<E, Integer> counts = new EnumMap<>(dimension);
+        for (Map.Entry<E, BitSet> e : bitmaps.entrySet()) {
+            BitSet both = (BitSet) e.getValue().clone();
+            both.and(others);
+            counts.put(e.getKey(), both.cardinality());
+        }
+        return counts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Enum<E>> EnumMap<E, BitSet> bitmapsFor(Class<E> dimension) {
+        if (dimension == Incident.Status.class) return (EnumMap<E, BitSet>) (EnumMap<?, BitSet>) byStatus;
+        if (dimension == Incident.Risk.class) return (EnumMap<E, BitSet>) (EnumMap<?, BitSet>) byRisk;
+        if (dimension == Incident.IncidentType.class) return (EnumMap<E, BitSet>) (EnumMap<?, BitSet>) byType;
+        throw new IllegalArgumentException("Not an indexed dimension: " + dimension.getName());
+    }
+
+    // Value bitmaps only ever hold live slots, so "live" is needed only when every criterion is null
+    private BitSet match(Incident.Status status, Incident.Risk risk, Incident.IncidentType type) {
+        BitSet result = null;
+        if (status != null) result = and(result, byStatus.get(status));
+        if (risk != null) result = and(result, byRisk.get(risk));
+        if (type != null) result = and(result, byType.get(type));
+        return result != null ? result : (BitSet) live.clone();
+    }
+
+    private BitSet and(BitSet result, BitSet bitmap) {
+        if (result == null) return (BitSet) bitmap.clone();
+        result.and(bitmap);
+        return result;
+    }
+
+    public int size() {
+        return live.cardinality();
+    }
+}
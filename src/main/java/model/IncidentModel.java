@@ -1,28 +1,368 @@
 package model;
 
-import dao.IncidentDAOImpl;
+import dao.ChangeSet;
+import dao.Criteria;
+import dao.GenericDAO;
+import dao.IncidentChangeBatch;
+import dao.IncidentChangeSubscriber;
+import dao.IncidentSummaryDAO;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import metrics.ModelScanEvent;
 
-public class IncidentModel {
+/**
+ * Incident list with in-memory search and facet indexes, kept current by delta sync. The list is held
+ * column-wise in {@link IncidentColumns}, and the indexes keep ids and slots rather than incidents, so
+ * every incident handed out is materialized from the columns.
+ * Safe to share between threads. Reads (search, filter, counts, list copies) share a read lock, so they
+ * run in parallel and each sees one consistent state of the list and its indexes. Mutations have a single
+ * writer at a time: a local write or a sync holds the writer lock across its DAO round trip and its apply,
+ * so changes reach the list in the order the store made them, but the list itself is write-locked only
+ * while it changes. Readers never wait on the database.
+ * Subscribed to an {@link dao.IncidentChangeDispatcher}, it also merges changes other clients made as
+ * they are pushed, between delta syncs.
+ */
+public class IncidentModel implements IncidentChangeSubscriber {
 
-    private final IncidentDAOImpl dao;
-    private List<Incident> incidents;
+    private final GenericDAO<Incident> dao;
+    private IncidentColumns incidents; // null until the first full load
+    private final IncidentSearchIndex searchIndex = new IncidentSearchIndex();
+    private final IncidentFacetIndex facetIndex = new IncidentFacetIndex();
+    private final LongIntHashMap rowOf = new LongIntHashMap(); // id -> slot in incidents
+    private final IncidentAssigneeIndex assigneeIndex = new IncidentAssigneeIndex();
+    private long syncWatermark; // 0 until the first full load
+    private volatile boolean loaded;
+    private final ReentrantLock writer = new ReentrantLock();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<IncidentChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Inserts and deletes announced while the list was not loaded, so their pushed echoes are not announced again
+    private final Map<Long, IncidentChangeEvent.Type> announced = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, IncidentChangeEvent.Type> eldest) {
+            return size() > 1024;
+        }
+    };
+
+    // Warm start: list changes since load (modCount) versus the last snapshot written (savedModCount)
+    private final IncidentSnapshot snapshot;
+    private long modCount;
+    private long savedModCount = -1;
+    private ScheduledExecutorService snapshotter;
+
+    public IncidentModel(GenericDAO<Incident> dao) {
+        this(dao, null);
+    }
 
-    public IncidentModel(IncidentDAOImpl dao) {
+    // With a snapshot, the first full load reads it from disk and asks the DAO only for rows changed since
+    public IncidentModel(GenericDAO<Incident> dao, IncidentSnapshot snapshot) {
         this.dao = dao;
-        this.incidents = dao.findAll(); // Load existing incidents from DB
+        this.snapshot = snapshot;
+        // The full list is loaded on first use; paged views never need it
+    }
+
+    // CHANGE EVENTS (one per inserted, updated or deleted row)
+    public void addChangeListener(IncidentChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(IncidentChangeListener listener) {
+        listeners.remove(listener);
     }
 
-    // GET ALL INCIDENTS
+    private void fire(IncidentChangeEvent.Type type, Long incidentId, int row, Incident incident) {
+        if (listeners.isEmpty()) return;
+        IncidentChangeEvent event = new IncidentChangeEvent(type, incidentId, row, incident);
+        for (IncidentChangeListener listener : listeners) listener.incidentChanged(event);
+    }
+
+    // Reads run under the shared lock, after the first full load
+    private <T> T read(Supplier<T> query) {
+        if (!loaded) sync();
+        if (!loaded) throw new IllegalStateException("Incidents could not be loaded");
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Local writes: the DAO call and the list change, in that order, with no other writer in between
+    private <T> T write(Supplier<T> store, Consumer<T> apply) {
+        writer.lock();
+        try {
+            T stored = store.get();
+            lock.writeLock().lock();
+            try {
+                apply.accept(stored);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return stored;
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    // GET ALL INCIDENTS (a snapshot; later changes do not show up in the returned list)
     public List<Incident> getAllIncidents() {
-        incidents = dao.findAll(); // refresh from DB
-        return incidents;
+        if (loaded) sync(); // pull only what changed since the last sync; read() does the first load
+        return read(() -> incidents.getAll());
+    }
+
+    // Pull changes made by other clients, if the list is loaded (for periodic refresh in long-running processes)
+    public void refresh() {
+        if (loaded) sync();
+    }
+
+    // DELTA SYNC: fetch rows changed since the last watermark, then merge them into the in-memory list.
+    // Readers keep going during the fetch; only the merge takes the write lock.
+    private void sync() {
+        writer.lock();
+        try {
+            if (!loaded) restoreSnapshot();
+            ChangeSet<Incident> changes = dao.findChangedSince(syncWatermark);
+            if (changes == null) return; // the list and watermark stay as they were; an unloaded model stays unloaded
+            lock.writeLock().lock();
+            try {
+                apply(changes);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    // First load: start from the snapshot, if there is one, so the fetch only reads rows changed since
+    private void restoreSnapshot() {
+        syncWatermark = 0;
+        if (snapshot == null) return;
+        ModelScanEvent load = ModelScanEvent.start("snapshot load", null);
+        IncidentSnapshot.Contents saved = snapshot.load();
+        load.finish(0, saved == null ? 0 : saved.incidents.size());
+        if (saved == null) return;
+        lock.writeLock().lock();
+        try {
+            incidents = columnsOf(saved.incidents);
+            reindexAll();
+            syncWatermark = saved.watermark;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(ChangeSet<Incident> changes) {
+        ModelScanEvent scan;
+        if (changes.isFullSnapshot() || incidents == null) {
+            scan = ModelScanEvent.start("sync", "full");
+            incidents = columnsOf(changes.getUpserts());
+            reindexAll();
+            modCount++;
+        } else {
+            scan = ModelScanEvent.start("sync", "delta");
+            if (!changes.isEmpty()) {
+                merge(changes.getDeletedIds(), changes.getUpserts());
+                modCount++;
+            }
+        }
+        syncWatermark = changes.getWatermark();
+        loaded = true;
+        scan.finish(incidents.size(), changes.getUpserts().size() + changes.getDeletedIds().size());
+    }
+
+    // SNAPSHOTS: write the loaded list and its watermark so the next start can skip the full load
+    public void saveSnapshot() {
+        if (snapshot == null) return;
+        List<Incident> copy;
+        long watermark;
+        long mod;
+        lock.readLock().lock();
+        try {
+            if (incidents == null || modCount == savedModCount) return;
+            copy = incidents.getAll();
+            watermark = syncWatermark;
+            mod = modCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Local writes after the watermark are in the list too; the next start re-reads them harmlessly
+        try {
+            snapshot.save(copy, watermark);
+            lock.writeLock().lock();
+            try {
+                savedModCount = mod;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            System.err.println("Error while writing incident snapshot: " + e.getMessage());
+        }
+    }
+
+    // Save every intervalMinutes and on shutdown
+    public synchronized void startSnapshots(long intervalMinutes) {
+        if (snapshot == null || snapshotter != null) return;
+        snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "incident-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        snapshotter.scheduleWithFixedDelay(this::saveSnapshot, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::saveSnapshot, "incident-snapshot-shutdown"));
+    }
+
+    private void merge(List<Long> deletedIds, List<Incident> upserts) {
+        // Each event is fired right after its row changed, so the reported row is valid when a listener applies it
+        for (Long id : deletedIds) {
+            int row = removeRow(id);
+            if (row < 0) continue;
+            unindex(row, id);
+            fire(IncidentChangeEvent.Type.DELETED, id, row, null);
+        }
+
+        for (Incident changed : upserts) {
+            int row = replaceRow(changed);
+            if (row >= 0) {
+                index(row, changed);
+                fire(IncidentChangeEvent.Type.UPDATED, changed.getIncidentId(), row, changed);
+            } else {
+                row = appendRow(changed);
+                if (row < 0) continue;
+                index(row, changed);
+                fire(IncidentChangeEvent.Type.INSERTED, changed.getIncidentId(), row, changed);
+            }
+        }
+    }
+
+    // Secondary indexes mirror the in-memory list
+    private void reindexAll() {
+        ModelScanEvent scan = ModelScanEvent.start("reindex", null);
+        searchIndex.rebuild(incidents);
+        facetIndex.rebuild(incidents);
+        rowOf.clear();
+        assigneeIndex.clear();
+        for (int slot = incidents.first(0); slot >= 0; slot = incidents.first(slot + 1)) {
+            long id = incidents.getId(slot);
+            rowOf.put(id, slot);
+            assigneeIndex.add(incidents.getAssignedTo(slot), id);
+        }
+        scan.finish(incidents.size(), incidents.size());
+    }
+
+    // Incidents without an id cannot be looked up or changed, so they are left out
+    private static IncidentColumns columnsOf(List<Incident> rows) {
+        IncidentColumns columns = new IncidentColumns(rows.size());
+        for (Incident incident : rows) {
+            if (incident.getIncidentId() != null) columns.add(incident);
+        }
+        return columns;
+    }
+
+    // ROWS: every change is O(1) through rowOf; a deleted incident's slot is reused by the next insert,
+    // so slots have no fixed order
+    private int appendRow(Incident incident) {
+        Long id = incident.getIncidentId();
+        if (id == null) return -1;
+        int slot = incidents.add(incident);
+        rowOf.put(id, slot);
+        assigneeIndex.add(incident.getAssignedTo(), id);
+        return slot;
+    }
+
+    // Slot of the replaced incident, or -1 if it is not in the list
+    private int replaceRow(Incident incident) {
+        Long id = incident.getIncidentId();
+        int slot = id == null ? LongIntHashMap.MISSING : rowOf.get(id);
+        if (slot == LongIntHashMap.MISSING) return -1;
+        String previousAssignee = incidents.getAssignedTo(slot);
+        incidents.set(slot, incident);
+        assigneeIndex.move(previousAssignee, incident.getAssignedTo(), id);
+        return slot;
+    }
+
+    // Slot the incident had, or -1 if it was not in the list
+    private int removeRow(Long id) {
+        int slot = id == null ? LongIntHashMap.MISSING : rowOf.remove(id);
+        if (slot == LongIntHashMap.MISSING) return -1;
+        assigneeIndex.remove(incidents.getAssignedTo(slot), id);
+        incidents.remove(slot);
+        return slot;
+    }
+
+    private void index(int slot, Incident incident) {
+        searchIndex.update(incident);
+        facetIndex.set(slot, incident);
+    }
+
+    private void unindex(int slot, Long incidentId) {
+        searchIndex.remove(incidentId);
+        facetIndex.remove(slot);
+    }
+
+    // PAGED ACCESS (straight to the DAO, no full load)
+    public long countIncidents() {
+        return dao.count();
+    }
+
+    public List<Incident> getIncidentPage(Long afterId, int limit) {
+        return dao.findPage(afterId, limit);
+    }
+
+    public List<Incident> getIncidentRange(long offset, int limit) {
+        return dao.findRange(offset, limit);
+    }
+
+    // SUMMARY PAGES for list views: a projection query when the DAO has one, otherwise trimmed full rows
+    public List<IncidentSummary> getIncidentSummaryPage(Long afterId, int limit) {
+        if (dao instanceof IncidentSummaryDAO) return ((IncidentSummaryDAO) dao).findSummaryPage(afterId, limit);
+        return summarize(dao.findPage(afterId, limit));
+    }
+
+    public List<IncidentSummary> getIncidentSummaryRange(long offset, int limit) {
+        if (dao instanceof IncidentSummaryDAO) return ((IncidentSummaryDAO) dao).findSummaryRange(offset, limit);
+        return summarize(dao.findRange(offset, limit));
+    }
+
+    private static List<IncidentSummary> summarize(List<Incident> incidents) {
+        List<IncidentSummary> summaries = new ArrayList<>(incidents.size());
+        for (Incident incident : incidents) summaries.add(IncidentSummary.of(incident));
+        return summaries;
+    }
+
+    // CRITERIA QUERIES (filter, sort and window evaluated by the data store, not on the loaded list)
+    public List<Incident> queryIncidents(Criteria<Incident> criteria) {
+        return dao.findMatching(criteria);
+    }
+
+    public long countMatching(Criteria<Incident> criteria) {
+        return dao.countMatching(criteria);
+    }
+
+    // FULL ROWS BY ID (batched), e.g. when several listed incidents are opened at once
+    public List<Incident> getIncidentsByIds(Collection<Long> incidentIds) {
+        return dao.findByIds(incidentIds);
     }
 
     // ADD INCIDENT
-    public void addIncident(String title, String description,
+    public Incident addIncident(String title, String description,
                             Incident.IncidentType type, Incident.Risk risk,
                             Incident.Status status, Date reportedDate,
                             String assignedTo, String resolutionNotes) {
@@ -30,29 +370,135 @@ public class IncidentModel {
                 reportedDate, assignedTo, resolutionNotes);
 
         // dao.add will return the generated database ID; the DAO implementation should set it on the entity
-        Long generatedId = dao.add(incident);
-        if (generatedId != null) incident.setIncidentId(generatedId);
-        incidents.add(incident);
+        return write(() -> {
+            Long generatedId = dao.add(incident);
+            if (generatedId != null) incident.setIncidentId(generatedId);
+            return incident;
+        }, added -> {
+            if (added.getIncidentId() == null) return; // not stored (the DAO logged why): nothing to list or announce
+            int row = -1;
+            if (incidents != null) {
+                row = appendRow(added);
+                index(row, added);
+                modCount++;
+            } else {
+                announced.put(added.getIncidentId(), IncidentChangeEvent.Type.INSERTED);
+            }
+            fire(IncidentChangeEvent.Type.INSERTED, added.getIncidentId(), row, added);
+        });
     }
 
     // UPDATE INCIDENT
     public void updateIncident(Incident incident) {
         // FIX: Removed the second parameter (idIgnored) to match the new DAO signature.
-        dao.update(incident);
+        write(() -> {
+            dao.update(incident);
+            return incident;
+        }, this::applyUpdate);
+    }
 
-        // Refresh local list
-        for (int i = 0; i < incidents.size(); i++) {
-            if (incidents.get(i).getIncidentId().equals(incident.getIncidentId())) {
-                incidents.set(i, incident);
-                break;
-            }
+    // CONDITIONAL UPDATE: the stored row is read past any cache, checked and rewritten with no other writer of
+    // this model in between. Returns false, with nothing written, when the row is gone or fails the check.
+    public boolean updateIncidentIf(Long incidentId, Predicate<Incident> expected, UnaryOperator<Incident> change) {
+        return write(() -> {
+            Incident stored = dao.findCurrent(incidentId);
+            if (stored == null || !expected.test(stored)) return null;
+            Incident incident = change.apply(stored);
+            dao.update(incident);
+            return incident;
+        }, this::applyUpdate) != null;
+    }
+
+    private void applyUpdate(Incident updated) {
+        if (updated == null) return;
+        // Refresh local list; a row another client deleted stays out of the list and the indexes
+        int row = -1;
+        if (incidents != null) {
+            row = replaceRow(updated);
+            if (row >= 0) index(row, updated);
+            modCount++;
         }
+        fire(IncidentChangeEvent.Type.UPDATED, updated.getIncidentId(), row, updated);
     }
 
     // DELETE INCIDENT
     public void deleteIncident(Long incidentId) {
-        dao.delete(incidentId);
-        incidents.removeIf(i -> i.getIncidentId() != null && i.getIncidentId().equals(incidentId));
+        write(() -> {
+            dao.delete(incidentId);
+            return incidentId;
+        }, this::applyDelete);
+    }
+
+    // CONDITIONAL DELETE, checked like a conditional update
+    public boolean deleteIncidentIf(Long incidentId, Predicate<Incident> expected) {
+        return write(() -> {
+            Incident stored = dao.findCurrent(incidentId);
+            if (stored == null || !expected.test(stored)) return null;
+            dao.delete(incidentId);
+            return incidentId;
+        }, this::applyDelete) != null;
+    }
+
+    private void applyDelete(Long deleted) {
+        if (deleted == null) return;
+        int row = -1;
+        if (incidents != null) {
+            row = removeRow(deleted);
+            if (row >= 0) unindex(row, deleted);
+            modCount++;
+        } else {
+            announced.put(deleted, IncidentChangeEvent.Type.DELETED);
+        }
+        fire(IncidentChangeEvent.Type.DELETED, deleted, row, null);
+    }
+
+    // PUSHED CHANGES (from IncidentChangeDispatcher): merged like a delta sync, with no query of our own.
+    // Without a loaded list there is nothing to merge, but listeners such as the paged table still hear of them.
+    @Override
+    public void incidentsChanged(IncidentChangeBatch batch) {
+        writer.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                ModelScanEvent scan = ModelScanEvent.start("sync", "push");
+                if (incidents != null) {
+                    merge(batch.getDeletedIds(), batch.getUpserts());
+                    modCount++;
+                } else {
+                    announce(batch);
+                }
+                scan.finish(incidents == null ? 0 : incidents.size(), batch.size());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    // Pushes were missed: a loaded list catches up with a delta sync, which fires an event per changed row;
+    // without one, listeners are told to read again
+    @Override
+    public void resync() {
+        if (loaded) {
+            sync();
+        } else {
+            for (IncidentChangeListener listener : listeners) listener.incidentsReloaded();
+        }
+    }
+
+    private void announce(IncidentChangeBatch batch) {
+        for (Long id : batch.getDeletedIds()) {
+            if (announced.remove(id) == IncidentChangeEvent.Type.DELETED) continue; // our own delete
+            fire(IncidentChangeEvent.Type.DELETED, id, -1, null);
+        }
+        for (Incident incident : batch.getUpserts()) {
+            Long id = incident.getIncidentId();
+            boolean ours = announced.remove(id) == IncidentChangeEvent.Type.INSERTED;
+            IncidentChangeEvent.Type type = batch.isInsert(id) && !ours
+                    ? IncidentChangeEvent.Type.INSERTED : IncidentChangeEvent.Type.UPDATED;
+            fire(type, id, -1, incident);
+        }
     }
 
     // GET INCIDENT BY ID
@@ -60,37 +506,105 @@ public class IncidentModel {
         return dao.findById(incidentId);
     }
 
-    // SEARCH INCIDENTS
+    // PER-ASSIGNEE VIEWS (from the assignee index, no scan; exact name). Every incident returned is built
+    // from the columns, so the cost grows with the assignee's incident count; the paged form does not
+    public List<Incident> getIncidentsAssignedTo(String assignee) {
+        return getIncidentsAssignedTo(assignee, 0, Integer.MAX_VALUE);
+    }
+
+    public List<Incident> getIncidentsAssignedTo(String assignee, int offset, int limit) {
+        return read(() -> {
+            ModelScanEvent scan = ModelScanEvent.start("assignee", assignee);
+            long[] ids = assigneeIndex.idsOf(assignee, offset, limit);
+            List<Incident> result = new ArrayList<>(ids.length);
+            for (long id : ids) result.add(incidents.get(rowOf.get(id)));
+            scan.finish(incidents.size(), result.size());
+            return result;
+        });
+    }
+
+    public int countAssignedTo(String assignee) {
+        return read(() -> assigneeIndex.count(assignee));
+    }
+
+    public Map<String, Integer> getAssigneeCounts() {
+        return read(assigneeIndex::counts);
+    }
+
+    // SEARCH INCIDENTS (ranked; see IncidentSearchIndex for the query syntax). Every hit is ranked and built;
+    // use the paged form on large lists
     public List<Incident> searchIncidents(String keyword) {
-        if (keyword == null || keyword.isEmpty()) return getAllIncidents();
+        if (keyword == null || keyword.trim().isEmpty()) return getAllIncidents();
+        return searchIncidents(keyword, 0, Integer.MAX_VALUE);
+    }
 
-        List<Incident> results = new ArrayList<>();
-        for (Incident incident : incidents) {
-                if ((incident.getIncidentId() != null && incident.getIncidentId().toString().contains(keyword)) ||
-                    incident.getTitle().toLowerCase().contains(keyword.toLowerCase()) ||
-                    incident.getDescription().toLowerCase().contains(keyword.toLowerCase()) ||
-                    (incident.getAssignedTo() != null &&
-                            incident.getAssignedTo().toLowerCase().contains(keyword.toLowerCase()))) {
+    // One page of the ranked hits: only the best offset + limit are ranked, and only the page is built
+    public List<Incident> searchIncidents(String keyword, int offset, int limit) {
+        if (keyword == null || keyword.trim().isEmpty()) return filterIncidents(null, null, null, offset, limit);
 
-                results.add(incident);
-            }
-        }
-        return results;
+        return read(() -> {
+            ModelScanEvent scan = ModelScanEvent.start("search", keyword);
+            List<Long> ids = searchIndex.search(keyword, offset, limit);
+            List<Incident> hits = new ArrayList<>(ids.size());
+            for (Long id : ids) hits.add(incidents.get(rowOf.get(id)));
+            scan.finish(incidents.size(), hits.size());
+            return hits;
+        });
+    }
+
+    public int countSearchHits(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) return read(incidents::size);
+        return read(() -> searchIndex.count(keyword));
+    }
+
+    // SEARCH IN DATABASE (for when the in-memory list is stale or too large to hold)
+    public List<Incident> searchIncidentsInDatabase(String query, long offset, int limit) {
+        return dao.search(query, offset, limit);
     }
 
-    // FILTER INCIDENTS
+    // FILTER INCIDENTS (bitmap AND over the facet index; null means "any"). Every hit is built from the
+    // columns, so the cost grows with the hit count; use the paged form or countFiltered on large lists
     public List<Incident> filterIncidents(Incident.Status status,
                                           Incident.Risk risk,
                                           Incident.IncidentType type) {
-        List<Incident> filtered = new ArrayList<>();
-        for (Incident incident : incidents) {
-            boolean matches = true;
-            if (status != null && incident.getStatus() != status) matches = false;
-            if (risk != null && incident.getRisk() != risk) matches = false;
-            if (type != null && incident.getType() != type) matches = false;
+        return filterIncidents(status, risk, type, 0, Integer.MAX_VALUE);
+    }
 
-            if (matches) filtered.add(incident);
-        }
-        return filtered;
+    // One page of hits, in slot order: the bitmap AND still covers the whole list, but only the page is built
+    public List<Incident> filterIncidents(Incident.Status status,
+                                          Incident.Risk risk,
+                                          Incident.IncidentType type,
+                                          int offset, int limit) {
+        return read(() -> {
+            ModelScanEvent scan = ModelScanEvent.start("filter", Arrays.asList(status, risk, type));
+            List<Incident> hits = incidents.get(facetIndex.filter(status, risk, type), offset, limit);
+            scan.finish(incidents.size(), hits.size());
+            return hits;
+        });
+    }
+
+    // COUNT MATCHING INCIDENTS, e.g. countFiltered(NEW, CRITICAL, null)
+    public int countFiltered(Incident.Status status,
+                             Incident.Risk risk,
+                             Incident.IncidentType type) {
+        return read(() -> {
+            ModelScanEvent scan = ModelScanEvent.start("count", Arrays.asList(status, risk, type));
+            int count = facetIndex.count(status, risk, type);
+            scan.finish(incidents.size(), count);
+            return count;
+        });
+    }
+
+    // FACET COUNTS: per value of one dimension, under the other criteria
+    public <E extends Enum<E>> EnumMap<E, Integer> getFacetCounts(Class<E> dimension,
+                                                                  Incident.Status status,
+                                                                  Incident.Risk risk,
+                                                                  Incident.IncidentType type) {
+        return read(() -> {
+            ModelScanEvent scan = ModelScanEvent.start("facets", dimension.getSimpleName());
+            EnumMap<E, Integer> counts = facetIndex.facetCounts(dimension, status, risk, type);
+            scan.finish(incidents.size(), counts.size());
+            return counts;
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,269 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over incident id, title, assignee and description.
+ *
+ * Queries are whitespace-separated terms that must all match (AND); the word OR separates
+ * alternative groups. A term matches any indexed token containing it, so "hish" finds "phishing"
+ * (terms shorter than three characters match by prefix only); a trailing * restricts a term to
+ * prefix matches. Results are ranked by field weight, match quality (exact > prefix > infix)
+ * and term rarity. The index holds ids and tokens only; the caller reads the matching incidents, and
+ * can ask for one page of them so that only that page is ranked and built.
+ */
+public class IncidentSearchIndex {
+
+    private static final int ID_WEIGHT = 4;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int ASSIGNEE_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int GRAM = 3;
+    // Best first: higher score, then lower id
+    private static final Comparator<Map.Entry<Long, Double>> BY_RANK = (a, b) -> {
+        int byScore = Double.compare(b.getValue(), a.getValue());
+        return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+    };
+
+    // token -> (incident id -> weighted term frequency); sorted so prefixes are a range scan
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // trigram -> tokens containing it, used to expand a term into the tokens it is a substring of
+    private final Map<String, Set<String>> grams = new HashMap<>();
+    // incident id -> its tokens, so an incident can be removed without re-tokenizing the old text
+    private final Map<Long, Map<String, Integer>> docTokens = new HashMap<>();
+
+    // REBUILD from every occupied slot of the columns
+    public void rebuild(IncidentColumns columns) {
+        postings.clear();
+        grams.clear();
+        docTokens.clear();
+        for (int slot = columns.first(0); slot >= 0; slot = columns.first(slot + 1)) {
+            add(columns.getId(slot), columns.getTitle(slot), columns.getAssignedTo(slot), columns.getDescription(slot));
+        }
+    }
+
+    // ADD / UPDATE
+    public void add(Incident incident) {
+        Long id = incident.getIncidentId();
+        if (id == null) return;
+        add(id, incident.getTitle(), incident.getAssignedTo(), incident.getDescription());
+    }
+
+    private void add(long id, String title, String assignee, String description) {
+        if (docTokens.containsKey(id)) remove(id);
+
+        Map<String, Integer> tokens = new HashMap<>();
+        tokens.merge(Long.toString(id), ID_WEIGHT, Integer::sum);
+        collect(title, TITLE_WEIGHT, tokens);
+        collect(assignee, ASSIGNEE_WEIGHT, tokens);
+        collect(description, DESCRIPTION_WEIGHT, tokens);
+
+        for (Map.Entry<String, Integer> e : tokens.entrySet()) {
+            Map<Long, Integer> posting = postings.get(e.getKey());
+            if (posting == null) {
+                posting = new HashMap<>();
+                postings.put(e.getKey(), posting);
+                addGrams(e.getKey());
+            }
+            posting.put(id, e.getValue());
+        }
+        docTokens.put(id, tokens);
+    }
+
+    public void update(Incident incident) {
+        add(incident);
+    }
+
+    // REMOVE
+    public void remove(Long id) {
+        Map<String, Integer> tokens = docTokens.remove(id);
+        if (tokens == null) return;
+
+        for (String token : tokens.keySet()) {
+            Map<Long, Integer> posting = postings.get(token);
+            if (posting == null) continue;
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(token);
+                removeGrams(token);
+            }
+        }
+    }
+
+    public int size() {
+        return docTokens.size();
+    }
+
+    // SEARCH: ids of the matching incidents, best first
+    public List<Long> search(String query) {
+        return search(query, 0, Integer.MAX_VALUE);
+    }
+
+    // One page of them. Every posting of the query's terms is still scored, but only the best offset + limit
+    // are kept, in a bounded heap, so ranking costs O(hits log(offset + limit)) instead of a full sort
+    public List<Long> search(String query, int offset, int limit) {
+        Map<Long, Double> scores = score(query);
+        int keep = (int) Math.min(scores.size(), (long) offset + limit);
+        if (offset >= keep) return new ArrayList<>();
+
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(keep, BY_RANK.reversed()); // worst on top
+        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+            if (best.size() < keep) {
+                best.add(e);
+            } else if (BY_RANK.compare(e, best.peek()) < 0) {
+                best.poll();
+                best.add(e);
+            }
+        }
+        Long[] ranked = new Long[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) ranked[i] = best.poll().getKey();
+        return new ArrayList<>(Arrays.asList(ranked).subList(offset, ranked.length));
+    }
+
+    // COUNT of the matching incidents, without ranking them
+    public int count(String query) {
+        return score(query).size();
+    }
+
+    // id -> score; a group is an AND of its terms, and an id matched by several OR groups keeps its best score
+    private Map<Long, Double> score(String query) {
+        List<List<String>> groups = parse(query);
+        if (groups.size() == 1) return matchAll(groups.get(0));
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (List<String> group : groups) {
+            for (Map.Entry<Long, Double> e : matchAll(group).entrySet()) {
+                scores.merge(e.getKey(), e.getValue(), Math::max);
+            }
+        }
+        return scores;
+    }
+
+    // AND of all terms in a group; the smallest candidate set is intersected first
+    private Map<Long, Double> matchAll(List<String> terms) {
+        List<Map<Long, Double>> perTerm = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Map<Long, Double> matches = matchTerm(term);
+            if (matches.isEmpty()) return Collections.emptyMap();
+            perTerm.add(matches);
+        }
+        if (perTerm.isEmpty()) return Collections.emptyMap();
+        if (perTerm.size() == 1) return perTerm.get(0);
+        perTerm.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        Map<Long, Double> result = new HashMap<>(perTerm.get(0));
+        for (int i = 1; i < perTerm.size() && !result.isEmpty(); i++) {
+            Map<Long, Double> next = perTerm.get(i);
+            result.keySet().retainAll(next.keySet());
+            for (Map.Entry<Long, Double> e : result.entrySet()) {
+                e.setValue(e.getValue() + next.get(e.getKey()));
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, Double> matchTerm(String term) {
+        boolean prefixOnly = term.endsWith("*");
+        String stem = prefixOnly ? term.substring(0, term.length() - 1) : term;
+        if (stem.isEmpty()) return Collections.emptyMap();
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (String token : candidateTokens(stem, prefixOnly)) {
+            double quality = token.equals(stem) ? 3 : token.startsWith(stem) ? 2 : 1;
+            Map<Long, Integer> posting = postings.get(token);
+            double idf = Math.log(1.0 + (double) docTokens.size() / posting.size());
+            for (Map.Entry<Long, Integer> e : posting.entrySet()) {
+                scores.merge(e.getKey(), quality * idf * e.getValue(), Double::sum);
+            }
+        }
+        return scores;
+    }
+
+    // Tokens the term can match: prefix range from the sorted vocabulary, plus substring hits via trigrams
+    private Set<String> candidateTokens(String stem, boolean prefixOnly) {
+        Set<String> tokens = new HashSet<>(postings.subMap(stem, true, stem + Character.MAX_VALUE, false).keySet());
+        if (prefixOnly || stem.length() < GRAM) return tokens;
+
+        Set<String> candidates = null;
+        for (int i = 0; i + GRAM <= stem.length(); i++) {
+            Set<String> withGram = grams.get(stem.substring(i, i + GRAM));
+            if (withGram == null) return tokens;
+            if (candidates == null) {
+                candidates = new HashSet<>(withGram);
+            } else {
+                candidates.retainAll(withGram);
+            }
+            if (candidates.isEmpty()) return tokens;
+        }
+        for (String candidate : candidates) {
+            if (candidate.contains(stem)) tokens.add(candidate);
+        }
+        return tokens;
+    }
+
+    private void addGrams(String token) {
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            grams.computeIfAbsent(token.substring(i, i + GRAM), g -> new HashSet<>()).add(token);
+        }
+    }
+
+    private void removeGrams(String token) {
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            String gram = token.substring(i, i + GRAM);
+            Set<String> withGram = grams.get(gram);
+            if (withGram != null && withGram.remove(token) && withGram.isEmpty()) grams.remove(gram);
+        }
+    }
+
+    // "a b OR c*" -> [[a, b], [c*]]
+    static List<List<String>> parse(String query) {
+        List<List<String>> groups = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            if (word.equals("OR")) {
+                if (!current.isEmpty()) groups.add(current);
+                current = new ArrayList<>();
+            } else if (!word.equals("AND")) {
+                boolean prefix = word.endsWith("*");
+                List<String> parts = tokenize(word);
+                for (int i = 0; i < parts.size(); i++) {
+                    current.add(prefix && i == parts.size() - 1 ? parts.get(i) + "*" : parts.get(i));
+                }
+            }
+        }
+        if (!current.isEmpty()) groups.add(current);
+        return groups;
+    }
+
+    private static void collect(String text, int weight, Map<String, Integer> into) {
+        for (String token : tokenize(text)) into.merge(token, weight, Integer::sum);
+    }
+
+    // Lower-cased runs of letters and digits
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
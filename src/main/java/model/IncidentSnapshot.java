@@ -0,0 +1,314 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary snapshot of the model's incident list, so a client can start from disk and only ask the
+ * database for what changed since (see {@link IncidentModel#startSnapshots(long)}).
+ *
+ * Layout: header (magic, format, source, sync watermark, creation time, row count), the assignee
+ * dictionary, then one record per incident in list order, and a CRC-32C trailer. Ids are zigzag varint
+ * deltas from the previous row, enums single ordinal bytes, reported dates varint deltas of epoch millis,
+ * assignees varint dictionary indexes and text length-prefixed UTF-8. The file is replaced atomically,
+ * and a snapshot that is damaged or was taken from another store is ignored.
+ */
+public class IncidentSnapshot {
+
+    private static final int MAGIC = 0x494E534E; // "INSN"
+    private static final int FORMAT = 1;
+
+    // Presence bits per record
+    private static final int HAS_TITLE = 1;
+    private static final int HAS_DESCRIPTION = 1 << 1;
+    private static final int HAS_DATE = 1 << 2;
+    private static final int HAS_ASSIGNEE = 1 << 3;
+    private static final int HAS_NOTES = 1 << 4;
+
+    private static final Incident.IncidentType[] TYPES = Incident.IncidentType.values();
+    private static final Incident.Risk[] RISKS = Incident.Risk.values();
+    private static final Incident.Status[] STATUSES = Incident.Status.values();
+
+    private final Path file;
+    private final String source;
+
+    /**
+     * @param source identifies the store the watermark belongs to (e.g. server address or log path);
+     *               a snapshot written for another source is not loaded
+     */
+    public IncidentSnapshot(Path file, String source) {
+        this.file = file;
+        this.source = source;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // A loaded snapshot: the incident list and the watermark to resume delta sync from
+    public static final class Contents {
+        public final List<Incident> incidents;
+        public final long watermark;
+        public final long createdAt;
+
+        Contents(List<Incident> incidents, long watermark, long createdAt) {
+            this.incidents = incidents;
+            this.watermark = watermark;
+            this.createdAt = createdAt;
+        }
+    }
+
+    // WRITE: encode in memory, write a temporary file, force it, rename over the old snapshot
+    public void save(List<Incident> incidents, long watermark) throws IOException {
+        write(encode(incidents, watermark));
+    }
+
+    private byte[] encode(List<Incident> incidents, long watermark) {
+        Map<String, Integer> assignees = new HashMap<>();
+        List<byte[]> dictionary = new ArrayList<>();
+        for (Incident i : incidents) {
+            String assignee = i.getAssignedTo();
+            if (assignee != null && !assignees.containsKey(assignee)) {
+                assignees.put(assignee, dictionary.size());
+                dictionary.add(assignee.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        Output out = new Output(64 + incidents.size() * 96);
+        out.putInt(MAGIC);
+        out.putInt(FORMAT);
+        out.putBytes(source.getBytes(StandardCharsets.UTF_8));
+        out.putLong(watermark);
+        out.putLong(System.currentTimeMillis());
+        out.putVarint(incidents.size());
+
+        out.putVarint(dictionary.size());
+        for (byte[] assignee : dictionary) out.putBytes(assignee);
+
+        long previousId = 0;
+        long previousDate = 0;
+        for (Incident i : incidents) {
+            int flags = (i.getTitle() != null ? HAS_TITLE : 0)
+                    | (i.getDescription() != null ? HAS_DESCRIPTION : 0)
+                    | (i.getReportedDate() != null ? HAS_DATE : 0)
+                    | (i.getAssignedTo() != null ? HAS_ASSIGNEE : 0)
+                    | (i.getResolutionNotes() != null ? HAS_NOTES : 0);
+            long id = i.getIncidentId();
+            out.putVarint(zigzag(id - previousId));
+            previousId = id;
+            out.putByte(flags);
+            out.putByte(ordinal(i.getType()));
+            out.putByte(ordinal(i.getRisk()));
+            out.putByte(ordinal(i.getStatus()));
+            if (i.getReportedDate() != null) {
+                long date = i.getReportedDate().getTime();
+                out.putVarint(zigzag(date - previousDate));
+                previousDate = date;
+            }
+            if (i.getAssignedTo() != null) out.putVarint(assignees.get(i.getAssignedTo()));
+            if (i.getTitle() != null) out.putBytes(i.getTitle().getBytes(StandardCharsets.UTF_8));
+            if (i.getDescription() != null) out.putBytes(i.getDescription().getBytes(StandardCharsets.UTF_8));
+            if (i.getResolutionNotes() != null) out.putBytes(i.getResolutionNotes().getBytes(StandardCharsets.UTF_8));
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(out.buffer, 0, out.size);
+        out.putInt((int) crc.getValue());
+        return Arrays.copyOf(out.buffer, out.size);
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(false);
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // READ: memory-map the file and decode; null if there is no usable snapshot
+    public Contents load() {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 12 || size > Integer.MAX_VALUE) return null;
+            // One bulk copy out of the mapping, then decoding runs on a plain array
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            byte[] bytes = new byte[(int) size];
+            mapped.get(bytes);
+            return decode(bytes);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable incident snapshot " + file + ": " + e);
+            return null;
+        }
+    }
+
+    private Contents decode(byte[] bytes) {
+        int end = bytes.length - 4;
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, end);
+        if ((int) crc.getValue() != ByteBuffer.wrap(bytes).getInt(end)) {
+            System.err.println("Ignoring corrupt incident snapshot " + file);
+            return null;
+        }
+
+        Input in = new Input(bytes);
+        if (in.getInt() != MAGIC || in.getInt() != FORMAT) return null;
+        if (!source.equals(in.getString())) return null;
+        long watermark = in.getLong();
+        long createdAt = in.getLong();
+        int count = (int) in.getVarint();
+
+        String[] dictionary = new String[(int) in.getVarint()];
+        for (int d = 0; d < dictionary.length; d++) dictionary[d] = in.getString();
+
+        List<Incident> incidents = new ArrayList<>(count);
+        long id = 0;
+        long date = 0;
+        for (int r = 0; r < count; r++) {
+            id += unzigzag(in.getVarint());
+            int flags = in.getByte();
+            Incident.IncidentType type = enumAt(TYPES, in.getByte());
+            Incident.Risk risk = enumAt(RISKS, in.getByte());
+            Incident.Status status = enumAt(STATUSES, in.getByte());
+            Date reported = null;
+            if ((flags & HAS_DATE) != 0) {
+                date += unzigzag(in.getVarint());
+                reported = new Date(date);
+            }
+            String assignee = (flags & HAS_ASSIGNEE) != 0 ? dictionary[(int) in.getVarint()] : null;
+            String title = (flags & HAS_TITLE) != 0 ? in.getString() : null;
+            String description = (flags & HAS_DESCRIPTION) != 0 ? in.getString() : null;
+            String notes = (flags & HAS_NOTES) != 0 ? in.getString() : null;
+            incidents.add(new Incident(id, title, description, type, risk, status, reported, assignee, notes));
+        }
+        if (in.position != end) throw new IllegalStateException("Snapshot has trailing bytes");
+        return new Contents(incidents, watermark, createdAt);
+    }
+
+    // CODEC HELPERS
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? -1 : (byte) value.ordinal();
+    }
+
+    private static <E> E enumAt(E[] values, byte ordinal) {
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+    // Big-endian reader over a snapshot's bytes (array index bounds checks catch truncation)
+    private static final class Input {
+        final byte[] buffer;
+        int position;
+
+        Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        byte getByte() {
+            return buffer[position++];
+        }
+
+        int getInt() {
+            int v = 0;
+            for (int i = 0; i < 4; i++) v = (v << 8) | (buffer[position++] & 0xFF);
+            return v;
+        }
+
+        long getLong() {
+            long v = 0;
+            for (int i = 0; i < 8; i++) v = (v << 8) | (buffer[position++] & 0xFF);
+            return v;
+        }
+
+        long getVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+            throw new IllegalStateException("Malformed varint");
+        }
+
+        String getString() {
+            int length = (int) getVarint();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+
+    // Growable big-endian byte sink
+    private static final class Output {
+        byte[] buffer;
+        int size;
+
+        Output(int capacity) {
+            buffer = new byte[Math.max(64, capacity)];
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        void putByte(int b) {
+            ensure(1);
+            buffer[size++] = (byte) b;
+        }
+
+        void putInt(int v) {
+            ensure(4);
+            for (int s = 24; s >= 0; s -= 8) buffer[size++] = (byte) (v >>> s);
+        }
+
+        void putLong(long v) {
+            ensure(8);
+            for (int s = 56; s >= 0; s -= 8) buffer[size++] = (byte) (v >>> s);
+        }
+
+        void putVarint(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buffer[size++] = (byte) v;
+        }
+
+        void putBytes(byte[] bytes) {
+            putVarint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package model;
+
+import java.util.Date;
+
+/**
+ * List-view projection of an incident: the table columns only, without the description and
+ * resolution notes TEXT columns. Load the full {@link Incident} by id when it is opened.
+ */
+public class IncidentSummary {
+    private final Long incidentId;
+    private final String title;
+    private final Incident.IncidentType type;
+    private final Incident.Risk risk;
+    private final Incident.Status status;
+    private final Date reportedDate;
+    private final String assignedTo;
+
+    public IncidentSummary(Long incidentId, String title,
+                           Incident.IncidentType type, Incident.Risk risk,
+                           Incident.Status status, Date reportedDate,
+                           String assignedTo) {
+
+        this.incidentId = incidentId;
+        this.title = title;
+        this.type = type;
+        this.risk = risk;
+        this.status = status;
+        this.reportedDate = reportedDate;
+        this.assignedTo = assignedTo;
+    }
+
+    public static IncidentSummary of(Incident incident) {
+        return new IncidentSummary(incident.getIncidentId(), incident.getTitle(), incident.getType(),
+                incident.getRisk(), incident.getStatus(), incident.getReportedDate(), incident.getAssignedTo());
+    }
+
+    public Long getIncidentId() {
+        return incidentId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Incident.IncidentType getType() {
+        return type;
+    }
+
+    public Incident.Risk getRisk() {
+        return risk;
+    }
+
+    public Incident.Status getStatus() {
+        return status;
+    }
+
+    public Date getReportedDate() {
+        return reportedDate;
+    }
+
+    public String getAssignedTo() {
+        return assignedTo;
+    }
+
+    @Override
+    public String toString() {
+        return "IncidentSummary{" +
+                "incidentId='" + incidentId + '\'' +
+                ", title='" + title + '\'' +
+                ", type=" + type +
+                ", risk=" + risk +
+                ", status=" + status +
+                ", reportedDate=" + reportedDate +
+                '}';
+    }
+}
@@ -0,0 +1,143 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long keys to non-negative int values (rows, slots, positions),
+ * with no boxing on lookup or update. Linear probing; removal shifts later entries back instead of
+ * leaving tombstones, so lookups stay short under heavy add/remove churn. Not thread-safe.
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    private static final long FREE = 0; // key 0 is kept outside the table
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int zeroValue = MISSING;
+
+    LongIntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    LongIntHashMap(int expected) {
+        allocate(capacityFor(expected));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    // Power of two keeping the table at most two thirds full
+    private static int capacityFor(int expected) {
+        long needed = Math.max(MIN_CAPACITY, (long) expected * 3 / 2 + 1);
+        return (int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Value for key, or MISSING
+    int get(long key) {
+        if (key == FREE) return zeroValue;
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return values[i];
+            if (k == FREE) return MISSING;
+        }
+    }
+
+    boolean containsKey(long key) {
+        return get(key) != MISSING;
+    }
+
+    // Returns the previous value, or MISSING
+    int put(long key, int value) {
+        if (value < 0) throw new IllegalArgumentException("Negative value " + value);
+        if (key == FREE) {
+            int previous = zeroValue;
+            zeroValue = value;
+            if (previous == MISSING) size++;
+            return previous;
+        }
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                int previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+            if (k == FREE) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size * 3L > keys.length * 2L) rehash(keys.length * 2);
+                return MISSING;
+            }
+        }
+    }
+
+    // Returns the removed value, or MISSING
+    int remove(long key) {
+        if (key == FREE) {
+            int previous = zeroValue;
+            zeroValue = MISSING;
+            if (previous != MISSING) size--;
+            return previous;
+        }
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == FREE) return MISSING;
+            if (k == key) {
+                int previous = values[i];
+                shiftBack(i);
+                size--;
+                return previous;
+            }
+        }
+    }
+
+    // Backward-shift deletion: move later entries of the probe run into the gap where their probe allows
+    private void shiftBack(int gap) {
+        for (int i = (gap + 1) & mask; keys[i] != FREE; i = (i + 1) & mask) {
+            int home = slot(keys[i]);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = FREE;
+    }
+
+    void clear() {
+        Arrays.fill(keys, FREE);
+        zeroValue = MISSING;
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key == FREE) continue;
+            int j = slot(key);
+            while (keys[j] != FREE) j = (j + 1) & mask;
+            keys[j] = key;
+            values[j] = oldValues[i];
+        }
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
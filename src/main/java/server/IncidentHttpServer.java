@@ -0,0 +1,485 @@
+package server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import controller.AsyncIncidentController;
+import controller.IncidentController;
+import controller.InstrumentedIncidentController;
+import dao.CachingIncidentDAO;
+import dao.IncidentArchiver;
+import dao.IncidentChangeDispatcher;
+import dao.IncidentCriteria;
+import dao.IncidentDAOFactory;
+import dao.IncidentImporter;
+import dao.IncidentSortKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import metrics.Metrics;
+import model.Incident;
+import model.IncidentModel;
+import model.IncidentSummary;
+
+/**
+ * Headless JSON API over one shared {@link IncidentController}, so every client uses the same model,
+ * indexes and entity cache instead of its own copy of the table. Requests run on virtual threads
+ * when available. GET responses carry an ETag and honour If-None-Match; PUT and DELETE honour If-Match.
+ *
+ * GET    /incidents?after=&limit=          keyset page of summaries ("next" is the cursor), or ?offset=&limit=
+ * GET    /incidents/count
+ * GET    /incidents/search?q=&offset=&limit=  ranked in-memory search
+ * GET    /incidents/query?status=&risk=&type=&assignee=&from=&to=&sort=&desc=&archived=&offset=&limit=
+ * GET    /incidents/facets?dimension=status|risk|type&status=&risk=&type=
+ * GET    /incidents/{id}
+ * POST   /incidents                        JSON body, 201 with Location
+ * PUT    /incidents/{id}                   JSON body, full replacement
+ * DELETE /incidents/{id}
+ * GET    /metrics                          operation metrics in Prometheus text format
+ *
+ * Usage: IncidentHttpServer [port]
+ */
+public class IncidentHttpServer implements AutoCloseable {
+
+    private static final int DEFAULT_PORT = Integer.getInteger("incidents.server.port", 8080);
+    // The API has no authentication, so it only listens on loopback unless an address is configured
+    private static final String BIND_ADDRESS = System.getProperty("incidents.server.bind");
+    private static final long SYNC_SECONDS = Long.getLong("incidents.server.syncSeconds", 5);
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 1_000;
+
+    static {
+        // Without TCP_NODELAY small responses stall ~40 ms on Nagle + delayed ACK; must be set before the first server
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final IncidentController controller;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService syncer;
+
+    public IncidentHttpServer(IncidentController controller, int port) throws IOException {
+        this.controller = controller;
+        this.executor = AsyncIncidentController.newDefaultExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(bindAddress(), port), 0);
+        this.server.createContext("/incidents", this::handle);
+        this.server.createContext("/metrics", this::metrics);
+        this.server.setExecutor(executor);
+
+        // Changes written by other processes reach the shared model through delta sync
+        this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "incident-server-sync");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static InetAddress bindAddress() throws UnknownHostException {
+        if (BIND_ADDRESS == null || BIND_ADDRESS.trim().isEmpty()) return InetAddress.getLoopbackAddress();
+        return InetAddress.getByName(BIND_ADDRESS.trim());
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        CachingIncidentDAO cache = new CachingIncidentDAO(IncidentDAOFactory.create());
+        IncidentModel model = new IncidentModel(cache, IncidentDAOFactory.snapshot());
+        model.startSnapshots(Long.getLong("incidents.snapshot.intervalMinutes", 5));
+        // Pushed changes keep the shared model current between the periodic delta syncs
+        IncidentChangeDispatcher changes = IncidentDAOFactory.changeDispatcher();
+        if (changes != null) {
+            changes.subscribe(cache);
+            changes.subscribe(model);
+            changes.setPruning(true); // outbox retention runs here, not in every desktop client
+            changes.start();
+        }
+        // Hot/cold tiering is server-side maintenance: this process runs it, desktop clients do not
+        IncidentArchiver archiver = IncidentDAOFactory.archiver();
+        if (archiver != null) archiver.start();
+        Metrics.startReporting();
+        IncidentHttpServer server = new IncidentHttpServer(new InstrumentedIncidentController(model), port);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            if (archiver != null) archiver.close();
+        }, "incident-server-shutdown"));
+        System.out.println("Incident API listening on http://" + server.getHost() + ":" + server.getPort() + "/incidents");
+    }
+
+    public void start() {
+        server.start();
+        syncer.scheduleWithFixedDelay(this::refresh, SYNC_SECONDS, SYNC_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void refresh() {
+        try {
+            controller.refresh();
+        } catch (RuntimeException e) {
+            System.err.println("Error while syncing incidents: " + e.getMessage());
+        }
+    }
+
+    public String getHost() {
+        return server.getAddress().getAddress().getHostAddress();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        syncer.shutdownNow();
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    // ROUTING
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().replaceAll("/+$", "").split("/");
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String sub = path.length > 2 ? path[2] : null;
+
+            if (sub == null) {
+                if (method.equals("GET")) list(exchange, query);
+                else if (method.equals("POST")) create(exchange);
+                else send(exchange, 405, Json.error("Method not allowed"));
+            } else if (method.equals("GET") && sub.equals("count")) {
+                sendCached(exchange, "{\"count\":" + controller.countIncidents() + "}");
+            } else if (method.equals("GET") && sub.equals("search")) {
+                search(exchange, query);
+            } else if (method.equals("GET") && sub.equals("query")) {
+                query(exchange, query);
+            } else if (method.equals("GET") && sub.equals("facets")) {
+                facets(exchange, query);
+            } else {
+                Long id = parseLong(sub, "incident id");
+                switch (method) {
+                    case "GET": get(exchange, id); break;
+                    case "PUT": update(exchange, id); break;
+                    case "DELETE": delete(exchange, id); break;
+                    default: send(exchange, 405, Json.error("Method not allowed"));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, Json.error(e.getMessage()));
+        } catch (RuntimeException e) {
+            System.err.println("Error while handling " + exchange.getRequestURI() + ": " + e);
+            send(exchange, 500, Json.error("Internal error"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // METRICS (for a Prometheus scrape)
+    private void metrics(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                send(exchange, 405, Json.error("Method not allowed"));
+                return;
+            }
+            byte[] bytes = Metrics.prometheus().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            sendHeaders(exchange, 200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // LISTS
+    private void list(HttpExchange exchange, Map<String, String> query) throws IOException {
+        int limit = limit(query);
+        if (query.containsKey("offset")) {
+            List<IncidentSummary> page = controller.getIncidentSummaryRange(offset(query), limit);
+            sendCached(exchange, Json.page(page, null, null));
+            return;
+        }
+        Long after = query.containsKey("after") ? parseLong(query.get("after"), "after") : null;
+        List<IncidentSummary> page = controller.getIncidentSummaryPage(after, limit);
+        Long next = page.size() < limit ? null : page.get(page.size() - 1).getIncidentId();
+        sendCached(exchange, Json.page(page, next, null));
+    }
+
+    private void search(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String q = query.get("q");
+        if (q == null || q.trim().isEmpty()) throw new IllegalArgumentException("Query parameter q is required");
+        long offset = offset(query);
+        int limit = limit(query);
+
+        // Only the best offset + limit hits are ranked and only the page is built; the total is a count
+        List<IncidentSummary> page = new ArrayList<>();
+        if (offset < Integer.MAX_VALUE) {
+            for (Incident hit : controller.searchIncidents(q, (int) offset, limit)) page.add(IncidentSummary.of(hit));
+        }
+        sendCached(exchange, Json.page(page, null, (long) controller.countSearchHits(q)));
+    }
+
+    private void query(HttpExchange exchange, Map<String, String> query) throws IOException {
+        IncidentCriteria criteria = new IncidentCriteria()
+                .status(parseEnums(Incident.Status.class, query.get("status")).toArray(new Incident.Status[0]))
+                .risk(parseEnums(Incident.Risk.class, query.get("risk")).toArray(new Incident.Risk[0]))
+                .type(parseEnums(Incident.IncidentType.class, query.get("type")).toArray(new Incident.IncidentType[0]))
+                .assignedTo(query.get("assignee"))
+                .reportedBetween(parseDate(query.get("from")), parseDate(query.get("to")))
+                .includeArchived(Boolean.parseBoolean(query.get("archived")));
+        if (query.containsKey("sort")) {
+            criteria.orderBy(parseEnum(IncidentSortKey.class, query.get("sort")), Boolean.parseBoolean(query.get("desc")));
+        }
+        long total = controller.countMatching(criteria);
+        if (query.containsKey("offset")) criteria.offset(offset(query));
+        criteria.limit(limit(query));
+
+        List<IncidentSummary> page = new ArrayList<>();
+        for (Incident incident : controller.queryIncidents(criteria)) page.add(IncidentSummary.of(incident));
+        sendCached(exchange, Json.page(page, null, total));
+    }
+
+    private void facets(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String dimension = query.getOrDefault("dimension", "status").toLowerCase(Locale.ROOT);
+        Class<? extends Enum<?>> type;
+        switch (dimension) {
+            case "status": type = Incident.Status.class; break;
+            case "risk": type = Incident.Risk.class; break;
+            case "type": type = Incident.IncidentType.class; break;
+            default: throw new IllegalArgumentException("Unknown facet dimension '" + dimension + "'");
+        }
+        sendCached(exchange, Json.counts(facetCounts(type, query)));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Map<?, Integer> facetCounts(Class type, Map<String, String> query) {
+        return controller.getFacetCounts(type,
+                query.containsKey("status") ? parseEnum(Incident.Status.class, query.get("status")) : null,
+                query.containsKey("risk") ? parseEnum(Incident.Risk.class, query.get("risk")) : null,
+                query.containsKey("type") ? parseEnum(Incident.IncidentType.class, query.get("type")) : null);
+    }
+
+    // SINGLE INCIDENT
+    private void get(HttpExchange exchange, Long id) throws IOException {
+        Incident incident = controller.getIncidentById(id);
+        if (incident == null) {
+            send(exchange, 404, Json.error("Incident " + id + " not found"));
+            return;
+        }
+        sendCached(exchange, Json.incident(incident));
+    }
+
+    private void create(HttpExchange exchange) throws IOException {
+        Map<String, String> body = readBody(exchange);
+        Incident created = controller.addIncident(body.get("title"), body.get("description"),
+                parseEnumOr(Incident.IncidentType.class, body.get("type"), Incident.IncidentType.OTHER),
+                parseEnumOr(Incident.Risk.class, body.get("risk"), Incident.Risk.MEDIUM),
+                parseEnumOr(Incident.Status.class, body.get("status"), Incident.Status.NEW),
+                parseDate(body.get("reported_date")), body.get("assigned_to"), body.get("resolution_notes"));
+        if (created.getIncidentId() == null) {
+            send(exchange, 500, Json.error("Incident could not be stored"));
+            return;
+        }
+        exchange.getResponseHeaders().set("Location", "/incidents/" + created.getIncidentId());
+        String json = Json.incident(created);
+        exchange.getResponseHeaders().set("ETag", etag(json));
+        send(exchange, 201, json);
+    }
+
+    private void update(HttpExchange exchange, Long id) throws IOException {
+        if (controller.getIncidentById(id) == null) {
+            send(exchange, 404, Json.error("Incident " + id + " not found"));
+            return;
+        }
+        Map<String, String> body = readBody(exchange);
+        String expected = exchange.getRequestHeaders().getFirst("If-Match");
+
+        Incident[] written = new Incident[1];
+        boolean stored = controller.updateIncidentIf(id, current -> ifMatch(expected, current), current -> {
+            Incident updated = new Incident(id, body.get("title"), body.get("description"),
+                    parseEnumOr(Incident.IncidentType.class, body.get("type"), current.getType()),
+                    parseEnumOr(Incident.Risk.class, body.get("risk"), current.getRisk()),
+                    parseEnumOr(Incident.Status.class, body.get("status"), current.getStatus()),
+                    body.containsKey("reported_date") ? parseDate(body.get("reported_date")) : current.getReportedDate(),
+                    body.get("assigned_to"), body.get("resolution_notes"));
+            if (updated.getReportedDate() == null) updated.setReportedDate(current.getReportedDate());
+            return written[0] = updated;
+        });
+        if (!stored) {
+            notWritten(exchange, id, expected);
+            return;
+        }
+        String json = Json.incident(written[0]);
+        exchange.getResponseHeaders().set("ETag", etag(json));
+        send(exchange, 200, json);
+    }
+
+    private void delete(HttpExchange exchange, Long id) throws IOException {
+        String expected = exchange.getRequestHeaders().getFirst("If-Match");
+        if (!controller.deleteIncidentIf(id, current -> ifMatch(expected, current))) {
+            notWritten(exchange, id, expected);
+            return;
+        }
+        send(exchange, 204, null);
+    }
+
+    // Optimistic concurrency: with If-Match, the write happens only if the stored row still has that ETag.
+    // The model checks and writes with no other writer in between, so of two requests sending the same
+    // ETag only the first succeeds; the second gets 412 instead of overwriting the first one's change.
+    private static boolean ifMatch(String expected, Incident current) {
+        return expected == null || matches(expected, etag(Json.incident(current)));
+    }
+
+    private static void notWritten(HttpExchange exchange, Long id, String expected) throws IOException {
+        if (expected == null) send(exchange, 404, Json.error("Incident " + id + " not found"));
+        else send(exchange, 412, Json.error("Incident was modified by someone else"));
+    }
+
+    // CONDITIONAL GET
+    private void sendCached(HttpExchange exchange, String json) throws IOException {
+        String tag = etag(json);
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("ETag", tag);
+        headers.set("Cache-Control", "no-cache"); // always revalidate, usually with a bodyless 304
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null && matches(ifNoneMatch, tag)) {
+            sendHeaders(exchange, 304, -1);
+            return;
+        }
+        send(exchange, 200, json);
+    }
+
+    private static boolean matches(String header, String tag) {
+        for (String candidate : header.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals("*") || c.equals(tag)) return true;
+        }
+        return false;
+    }
+
+    static String etag(String body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder("\"");
+            for (int i = 0; i < 12; i++) sb.append(String.format("%02x", digest[i]));
+            return sb.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        if (json == null) {
+            sendHeaders(exchange, status, -1);
+            return;
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        sendHeaders(exchange, status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // The server keeps a connection open only if the request body was read to the end when the response
+    // finishes, and a bodyless response finishes inside sendResponseHeaders. Otherwise it closes the
+    // connection under a client that is reusing it, and the client's next request fails with a reset.
+    private static void sendHeaders(HttpExchange exchange, int status, long length) throws IOException {
+        exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+        exchange.sendResponseHeaders(status, length);
+    }
+
+    // REQUEST PARSING (bad input becomes IllegalArgumentException, answered with 400)
+    private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        // Left open: exchange.close() closes it, and sendHeaders still drains it
+        InputStream in = exchange.getRequestBody();
+        String body = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+        if (body.isEmpty()) throw new IllegalArgumentException("Request body is required");
+        return IncidentImporter.parseJsonObject(body.replace('\n', ' ').replace('\r', ' '));
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    private static int limit(Map<String, String> query) {
+        if (!query.containsKey("limit")) return DEFAULT_PAGE_SIZE;
+        long limit = parseLong(query.get("limit"), "limit");
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        return (int) limit;
+    }
+
+    private static long offset(Map<String, String> query) {
+        if (!query.containsKey("offset")) return 0;
+        long offset = parseLong(query.get("offset"), "offset");
+        if (offset < 0) throw new IllegalArgumentException("offset must not be negative");
+        return offset;
+    }
+
+    private static Long parseLong(String value, String name) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + " '" + value + "'");
+        }
+    }
+
+    // Comma-separated values, e.g. status=NEW,IN_PROGRESS
+    private static <E extends Enum<E>> List<E> parseEnums(Class<E> type, String value) {
+        List<E> values = new ArrayList<>();
+        if (value == null || value.isEmpty()) return values;
+        for (String part : value.split(",")) values.add(parseEnum(type, part));
+        return values;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " '" + value + "'");
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnumOr(Class<E> type, String value, E fallback) {
+        return value == null || value.isEmpty() ? fallback : parseEnum(type, value);
+    }
+
+    // ISO-8601 instant (2024-05-01T10:00:00Z) or epoch milliseconds; null stays null
+    private static Date parseDate(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            if (value.chars().allMatch(Character::isDigit)) return new Date(Long.parseLong(value));
+            return Date.from(Instant.parse(value));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid date '" + value + "'");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package server;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import model.Incident;
+import model.IncidentSummary;
+
+// JSON rendering for the HTTP API. Field names match the database columns; dates are ISO-8601 UTC.
+final class Json {
+
+    private Json() {
+    }
+
+    static String incident(Incident i) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("{\"incident_id\":").append(i.getIncidentId())
+                .append(",\"title\":").append(string(i.getTitle()))
+                .append(",\"description\":").append(string(i.getDescription()))
+                .append(",\"type\":").append(string(name(i.getType())))
+                .append(",\"risk\":").append(string(name(i.getRisk())))
+                .append(",\"status\":").append(string(name(i.getStatus())))
+                .append(",\"reported_date\":").append(date(i.getReportedDate()))
+                .append(",\"assigned_to\":").append(string(i.getAssignedTo()))
+                .append(",\"resolution_notes\":").append(string(i.getResolutionNotes()))
+                .append('}');
+        return sb.toString();
+    }
+
+    static String summary(IncidentSummary s) {
+        StringBuilder sb = new StringBuilder(160);
+        sb.append("{\"incident_id\":").append(s.getIncidentId())
+                .append(",\"title\":").append(string(s.getTitle()))
+                .append(",\"type\":").append(string(name(s.getType())))
+                .append(",\"risk\":").append(string(name(s.getRisk())))
+                .append(",\"status\":").append(string(name(s.getStatus())))
+                .append(",\"reported_date\":").append(date(s.getReportedDate()))
+                .append(",\"assigned_to\":").append(string(s.getAssignedTo()))
+                .append('}');
+        return sb.toString();
+    }
+
+    // {"items":[...], "next":..., "total":...}; pass null to leave out next or total
+    static String page(List<IncidentSummary> items, Long next, Long total) {
+        StringBuilder sb = new StringBuilder(64 + items.size() * 160);
+        sb.append("{\"items\":[");
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(summary(items.get(i)));
+        }
+        sb.append(']');
+        if (next != null) sb.append(",\"next\":").append(next);
+        if (total != null) sb.append(",\"total\":").append(total);
+        return sb.append('}').toString();
+    }
+
+    static String counts(Map<?, Integer> counts) {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<?, Integer> e : counts.entrySet()) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(string(e.getKey().toString())).append(':').append(e.getValue());
+        }
+        return sb.append('}').toString();
+    }
+
+    static String error(String message) {
+        return "{\"error\":" + string(message) + "}";
+    }
+
+    static String date(Date date) {
+        return date == null ? "null" : string(date.toInstant().toString());
+    }
+
+    static String string(String value) {
+        if (value == null) return "null";
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+}
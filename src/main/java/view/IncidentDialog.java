@@ -1,11 +1,14 @@
 package view;
 
-import controller.IncidentController;
+import controller.AsyncIncidentController;
 import java.awt.*;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
+import metrics.Trace;
+import metrics.UiActionEvent;
 import model.Incident;
 
 public class IncidentDialog extends JDialog {
@@ -17,8 +20,9 @@ public class IncidentDialog extends JDialog {
     private JComboBox<Incident.Status> statusBox;
     private JFormattedTextField dateField;
 
-    private IncidentController controller;
+    private AsyncIncidentController controller;
     private Incident incident;
+    private JButton saveBtn;
 
     // Palette de couleurs
     private static final Color PRIMARY_COLOR = new Color(41, 128, 185);
@@ -27,7 +31,7 @@ public class IncidentDialog extends JDialog {
     private static final Color DANGER_COLOR = new Color(231, 76, 60);
     private static final Color BACKGROUND_COLOR = new Color(236, 240, 241);
 
-    public IncidentDialog(JFrame parent, IncidentController controller, Incident incident) {
+    public IncidentDialog(JFrame parent, AsyncIncidentController controller, Incident incident) {
         super(parent, true);
         this.controller = controller;
         this.incident = incident;
@@ -230,7 +234,7 @@ public class IncidentDialog extends JDialog {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
         buttonPanel.setBackground(BACKGROUND_COLOR);
 
-        JButton saveBtn = createStyledButton(
+        saveBtn = createStyledButton(
                 incident == null ? " Save Incident" : " Update Incident",
                 ACCENT_COLOR
         );
@@ -300,11 +304,14 @@ public class IncidentDialog extends JDialog {
             return;
         }
 
+        UiActionEvent action = UiActionEvent.start(incident == null ? "add" : "update",
+                incident == null ? null : "id=" + incident.getIncidentId());
+        long previous = Trace.enter(action.getActionId());
         try {
+            CompletableFuture<Void> save;
             if (incident == null) {
-                controller.addIncident(title, description, type, risk, status,
+                save = controller.addIncident(title, description, type, risk, status,
                         reportedDate, assignedTo, resolutionNotes);
-                showSuccess("Incident created successfully!");
             } else {
                 incident.setTitle(title);
                 incident.setDescription(description);
@@ -314,12 +321,22 @@ public class IncidentDialog extends JDialog {
                 incident.setReportedDate(reportedDate);
                 incident.setAssignedTo(assignedTo);
                 incident.setResolutionNotes(resolutionNotes);
-                controller.updateIncident(incident);
-                showSuccess("Incident updated successfully!");
+                save = controller.updateIncident(incident);
             }
-            dispose();
-        } catch (Exception ex) {
-            showError("Error: " + ex.getMessage());
+
+            // Keep the dialog open (but not re-submittable) until the database answers
+            saveBtn.setEnabled(false);
+            AsyncIncidentController.onEdt(save, ignored -> {
+                action.finish(1, "ok");
+                showSuccess(incident == null ? "Incident created successfully!" : "Incident updated successfully!");
+                dispose();
+            }, error -> {
+                action.finish(0, "failed");
+                saveBtn.setEnabled(true);
+                showError("Error: " + error.getMessage());
+            });
+        } finally {
+            Trace.restore(previous);
         }
     }
 
@@ -0,0 +1,359 @@
+package view;
+
+import controller.AsyncIncidentController;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import metrics.TableFillEvent;
+import metrics.Trace;
+import metrics.UiActionEvent;
+import model.Incident;
+import model.IncidentChangeEvent;
+import model.IncidentChangeListener;
+import model.IncidentSummary;
+
+/**
+ * Table model that pages incident summaries in on demand as rows are painted.
+ * Rows hold the table columns only; the description and notes are loaded when an incident is opened.
+ * Only a bounded window of pages is kept; rows of a page still loading show a placeholder.
+ * Search results and other fixed lists are shown as-is via {@link #showList(List)}.
+ * Registered as an {@link IncidentChangeListener}, it applies single-row inserts, updates and deletes
+ * in place instead of reloading.
+ * Page loads run under the trace action id that was current when the view was (re)filled, so lazily
+ * painted pages still correlate with the action that asked for them in a JFR recording.
+ */
+public class IncidentTableModel extends AbstractTableModel implements IncidentChangeListener {
+
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 25;
+    private static final int MAX_RECOUNTS = 3;
+    private static final String LOADING = "Loading…";
+
+    private static final String[] COLUMNS = {"ID", "Title", "Type", "Risk", "Status", "Reported Date", "Assigned To"};
+
+    private final AsyncIncidentController controller;
+
+    // All state is only touched on the EDT
+    private final Map<Integer, List<IncidentSummary>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<IncidentSummary>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Map<Integer, Long> lastIdOfPage = new HashMap<>();
+    private final Map<Integer, CompletableFuture<List<IncidentSummary>>> pending = new HashMap<>();
+    private CompletableFuture<Long> pendingCount;
+    private final List<IncidentChangeEvent> heldEvents = new ArrayList<>(); // arrived while the count was loading
+    private List<IncidentSummary> fixedRows; // non-null in list mode
+    private int rowCount;
+    private int generation;
+    private long actionId; // trace id of the action that filled the current view
+    private UiActionEvent action; // waiting for its first rows
+    private Runnable onRowCountChanged;
+
+    public IncidentTableModel(AsyncIncidentController controller) {
+        this.controller = controller;
+    }
+
+    public void setOnRowCountChanged(Runnable onRowCountChanged) {
+        this.onRowCountChanged = onRowCountChanged;
+    }
+
+    // Page through the whole table
+    public void showAll() {
+        showAll(null);
+    }
+
+    // As showAll(), finishing the action once the first page (or an empty count) is on screen
+    public void showAll(UiActionEvent action) {
+        int gen = reset();
+        this.action = action;
+        count(gen, 0);
+    }
+
+    // An insert or delete that arrives while the count runs may or may not be in it, so the count is
+    // taken again; past MAX_RECOUNTS the held events are applied to the last count instead
+    private void count(int gen, int recounts) {
+        pendingCount = controller.countIncidents();
+        AsyncIncidentController.onEdt(pendingCount, total -> {
+            if (gen != generation) return;
+            boolean rowsChanged = false;
+            for (IncidentChangeEvent event : heldEvents) {
+                rowsChanged |= event.getType() != IncidentChangeEvent.Type.UPDATED;
+            }
+            if (rowsChanged && recounts < MAX_RECOUNTS) {
+                heldEvents.clear();
+                count(gen, recounts + 1);
+                return;
+            }
+            pendingCount = null;
+            rowCount = (int) Math.min(total, Integer.MAX_VALUE);
+            fireTableDataChanged();
+            notifyRowCount();
+            replayHeldEvents();
+            if (rowCount == 0) finishAction(0, "ok");
+        }, error -> {
+            System.err.println("Error while counting incidents: " + error.getMessage());
+            if (gen != generation) return;
+            pendingCount = null;
+            heldEvents.clear();
+            finishAction(0, "failed");
+        });
+    }
+
+    private void replayHeldEvents() {
+        List<IncidentChangeEvent> held = new ArrayList<>(heldEvents);
+        heldEvents.clear();
+        for (IncidentChangeEvent event : held) apply(event);
+    }
+
+    // Show a fixed list, e.g. search results
+    public void showList(List<Incident> incidents) {
+        reset();
+        TableFillEvent fill = TableFillEvent.start("list");
+        fixedRows = new ArrayList<>(incidents.size());
+        for (Incident incident : incidents) fixedRows.add(IncidentSummary.of(incident));
+        rowCount = fixedRows.size();
+        fireTableDataChanged();
+        notifyRowCount();
+        fill.finish(0, rowCount);
+    }
+
+    // Drops all cached pages and cancels loads that are still in flight
+    private int reset() {
+        generation++;
+        finishAction(0, "superseded");
+        actionId = Trace.currentActionId();
+        if (pendingCount != null) pendingCount.cancel(true);
+        pendingCount = null;
+        heldEvents.clear();
+        for (CompletableFuture<List<IncidentSummary>> load : pending.values()) load.cancel(true);
+        pending.clear();
+        pages.clear();
+        lastIdOfPage.clear();
+        fixedRows = null;
+        rowCount = 0;
+        fireTableDataChanged();
+        return generation;
+    }
+
+    private void finishAction(long rows, String outcome) {
+        if (action == null) return;
+        action.finish(rows, outcome);
+        action = null;
+    }
+
+    private void notifyRowCount() {
+        if (onRowCountChanged != null) onRowCountChanged.run();
+    }
+
+    // Summary of the incident at the row, or null while its page is loading
+    public IncidentSummary getIncidentAt(int row) {
+        if (fixedRows != null) return fixedRows.get(row);
+
+        int page = row / PAGE_SIZE;
+        List<IncidentSummary> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        int index = row % PAGE_SIZE;
+        return index < rows.size() ? rows.get(index) : null;
+    }
+
+    private void requestPage(int page) {
+        if (pending.containsKey(page)) return;
+
+        int gen = generation;
+        Long afterId = page == 0 ? null : lastIdOfPage.get(page - 1);
+        Trace.run(actionId, () -> {
+            CompletableFuture<List<IncidentSummary>> load = page == 0 || afterId != null
+                    ? controller.getIncidentSummaryPage(afterId, PAGE_SIZE)
+                    : controller.getIncidentSummaryRange((long) page * PAGE_SIZE, PAGE_SIZE);
+            pending.put(page, load);
+
+            AsyncIncidentController.onEdt(load, rows -> pageLoaded(gen, page, rows), error -> {
+                System.err.println("Error while loading incident page " + page + ": " + error.getMessage());
+                pageLoaded(gen, page, Collections.emptyList());
+            });
+        });
+    }
+
+    private void pageLoaded(int gen, int page, List<IncidentSummary> rows) {
+        if (gen != generation) return;
+        TableFillEvent fill = TableFillEvent.start("page");
+        pending.remove(page);
+        pages.put(page, rows);
+        if (!rows.isEmpty()) lastIdOfPage.put(page, rows.get(rows.size() - 1).getIncidentId());
+
+        int first = page * PAGE_SIZE;
+        int last = Math.min(first + PAGE_SIZE, rowCount) - 1;
+        if (first <= last) fireTableRowsUpdated(first, last);
+        fill.finish(first, rows.size());
+        finishAction(rows.size(), "ok");
+    }
+
+    // ROW-LEVEL CHANGES (delivered on any thread, applied on the EDT)
+    @Override
+    public void incidentChanged(IncidentChangeEvent event) {
+        SwingUtilities.invokeLater(() -> apply(event));
+    }
+
+    // Paged views load again; fixed lists such as search results stay as they are
+    @Override
+    public void incidentsReloaded() {
+        SwingUtilities.invokeLater(() -> {
+            if (fixedRows == null) showAll();
+        });
+    }
+
+    private void apply(IncidentChangeEvent event) {
+        if (pendingCount != null) { // replayed, or made moot by a recount, once the count is in
+            heldEvents.add(event);
+            return;
+        }
+
+        switch (event.getType()) {
+            case UPDATED:
+                applyUpdate(event.getIncidentId(), IncidentSummary.of(event.getIncident()));
+                break;
+            case INSERTED:
+                applyInsert(IncidentSummary.of(event.getIncident()));
+                break;
+            case DELETED:
+                applyDelete(event.getIncidentId());
+                break;
+        }
+    }
+
+    private void applyUpdate(Long id, IncidentSummary summary) {
+        int row = rowOf(id);
+        if (row < 0) return; // not on screen; the next page load reads the new state
+        if (fixedRows != null) {
+            fixedRows.set(row, summary);
+        } else {
+            pages.get(row / PAGE_SIZE).set(row % PAGE_SIZE, summary);
+        }
+        fireTableRowsUpdated(row, row);
+    }
+
+    // New ids are the highest, so in paged mode an insert is an append; fixed lists (search results) ignore it
+    private void applyInsert(IncidentSummary summary) {
+        if (fixedRows != null) return;
+        if (rowOf(summary.getIncidentId()) >= 0) { // already loaded, e.g. a pushed insert read with its page
+            applyUpdate(summary.getIncidentId(), summary);
+            return;
+        }
+
+        int row = rowCount;
+        List<IncidentSummary> lastPage = pages.get(row / PAGE_SIZE);
+        if (lastPage != null && lastPage.size() == row % PAGE_SIZE) {
+            lastPage.add(summary);
+            lastIdOfPage.put(row / PAGE_SIZE, summary.getIncidentId());
+        }
+        rowCount++;
+        fireTableRowsInserted(row, row);
+        notifyRowCount();
+    }
+
+    private void applyDelete(Long id) {
+        int row = rowOf(id);
+        if (fixedRows != null) {
+            if (row < 0) return;
+            fixedRows.remove(row);
+        } else if (row >= 0) {
+            // Its page and every later one are now shifted by one row; drop them and let them page in
+            // again, by keyset from the last id of the page before
+            dropPagesFrom(row / PAGE_SIZE);
+        } else {
+            dropPagesFrom(firstPageAtOrAfter(id));
+        }
+
+        rowCount = Math.max(0, rowCount - 1);
+        if (row >= 0) fireTableRowsDeleted(row, row);
+        else fireTableDataChanged(); // position unknown
+        notifyRowCount();
+    }
+
+    // Row of a loaded incident, or -1 when its page is not cached
+    private int rowOf(Long id) {
+        if (fixedRows != null) {
+            for (int i = 0; i < fixedRows.size(); i++) {
+                if (fixedRows.get(i).getIncidentId().equals(id)) return i;
+            }
+            return -1;
+        }
+        for (Map.Entry<Integer, List<IncidentSummary>> e : pages.entrySet()) {
+            List<IncidentSummary> rows = e.getValue();
+            if (rows.isEmpty() || id < rows.get(0).getIncidentId() || id > rows.get(rows.size() - 1).getIncidentId())
+                continue;
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getIncidentId().equals(id)) return e.getKey() * PAGE_SIZE + i;
+            }
+        }
+        return -1;
+    }
+
+    // First cached page that could hold the id or come after it (Integer.MAX_VALUE if none)
+    private int firstPageAtOrAfter(Long id) {
+        int first = Integer.MAX_VALUE;
+        for (Map.Entry<Integer, Long> e : lastIdOfPage.entrySet()) {
+            if (e.getValue() >= id) first = Math.min(first, e.getKey());
+        }
+        return first;
+    }
+
+    // Forgets cached pages, and cancels page loads, from "first" on
+    private void dropPagesFrom(int first) {
+        pages.keySet().removeIf(page -> page >= first);
+        lastIdOfPage.keySet().removeIf(page -> page >= first);
+        pending.entrySet().removeIf(e -> {
+            if (e.getKey() < first) return false;
+            e.getValue().cancel(true);
+            return true;
+        });
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        IncidentSummary i = getIncidentAt(row);
+        if (i == null) return column == 1 ? LOADING : "";
+
+        switch (column) {
+            case 0: return i.getIncidentId();
+            case 1: return i.getTitle();
+            case 2: return i.getType();
+            case 3: return i.getRisk();
+            case 4: return i.getStatus();
+            case 5: return i.getReportedDate();
+            case 6: return i.getAssignedTo();
+            default: return null;
+        }
+    }
+}
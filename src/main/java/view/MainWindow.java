@@ -1,22 +1,31 @@
 package view;
 
-import controller.IncidentController;
+import controller.AsyncIncidentController;
+import controller.InstrumentedIncidentController;
 import model.Incident;
 import model.IncidentModel;
-import dao.IncidentDAOImpl;
+import model.IncidentSummary;
+import dao.CachingIncidentDAO;
+import dao.IncidentChangeDispatcher;
+import dao.IncidentDAOFactory;
+import metrics.Metrics;
+import metrics.Trace;
+import metrics.UiActionEvent;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class MainWindow extends JFrame {
 
-    private final IncidentController controller;
+    private final AsyncIncidentController controller;
+    private CompletableFuture<List<Incident>> pendingSearch;
+    private UiActionEvent searchAction;
     private JTable incidentTable;
-    private DefaultTableModel tableModel;
+    private IncidentTableModel tableModel;
     private JLabel statusLabel;
 
     // Palette de couleurs moderne
@@ -29,8 +38,19 @@ public class MainWindow extends JFrame {
 
     public MainWindow() {
         // Initialize controller
-        IncidentModel model = new IncidentModel(new IncidentDAOImpl());
-        controller = new IncidentController(model);
+        CachingIncidentDAO cache = new CachingIncidentDAO(IncidentDAOFactory.create());
+        IncidentModel model = new IncidentModel(cache, IncidentDAOFactory.snapshot());
+        model.startSnapshots(Long.getLong("incidents.snapshot.intervalMinutes", 5));
+        // Other analysts' changes are pushed in from the change outbox, so the table stays current without Refresh
+        IncidentChangeDispatcher changes = IncidentDAOFactory.changeDispatcher();
+        if (changes != null) {
+            changes.subscribe(cache);
+            changes.subscribe(model);
+            changes.start();
+        }
+        // All database work goes through the async controller so the EDT never blocks on JDBC
+        controller = new AsyncIncidentController(new InstrumentedIncidentController(model));
+        Metrics.startReporting();
 
         setTitle(" Incident Management System");
         setSize(1200, 700);
@@ -41,7 +61,7 @@ public class MainWindow extends JFrame {
         initUI();
 
         // Load data
-        loadTableData(controller.getAllIncidents());
+        showAll("load");
     }
 
     private void initUI() {
@@ -110,16 +130,12 @@ public class MainWindow extends JFrame {
                 BorderFactory.createEmptyBorder(10, 10, 10, 10)
         ));
 
-        String[] columns = {"ID", "Title", "Type", "Risk", "Status", "Reported Date", "Assigned To"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Rows are paged in as they scroll into view; no row sorter, since sorting would load every page
+        tableModel = new IncidentTableModel(controller);
+        controller.getController().addChangeListener(tableModel); // row-level updates instead of reloads
+        tableModel.setOnRowCountChanged(() -> updateStatusBar(tableModel.getRowCount()));
 
         incidentTable = new JTable(tableModel);
-        incidentTable.setAutoCreateRowSorter(true);
         styleTable();
 
         JScrollPane scrollPane = new JScrollPane(incidentTable);
@@ -211,7 +227,7 @@ public class MainWindow extends JFrame {
         deleteBtn.addActionListener(e -> deleteSelectedIncident());
         searchBtn.addActionListener(e -> openSearchDialog());
         refreshBtn.addActionListener(e -> {
-            loadTableData(controller.getAllIncidents());
+            showAll("refresh");
             JOptionPane.showMessageDialog(this, "✅ Data refreshed successfully!",
                     "Success", JOptionPane.INFORMATION_MESSAGE);
         });
@@ -274,19 +290,13 @@ public class MainWindow extends JFrame {
     }
 
     private void loadTableData(List<Incident> incidents) {
-        tableModel.setRowCount(0);
-        for (Incident i : incidents) {
-            tableModel.addRow(new Object[]{
-                    i.getIncidentId(),
-                    i.getTitle(),
-                    i.getType(),
-                    i.getRisk(),
-                    i.getStatus(),
-                    i.getReportedDate(),
-                    i.getAssignedTo()
-            });
-        }
-        updateStatusBar(incidents.size());
+        tableModel.showList(incidents);
+    }
+
+    // Page the whole table in as a user action (a JFR UiActionEvent that ends when the first rows show)
+    private void showAll(String actionName) {
+        UiActionEvent action = UiActionEvent.start(actionName, null);
+        Trace.run(action.getActionId(), () -> tableModel.showAll(action));
     }
 
     private void updateStatusBar(int count) {
@@ -298,7 +308,7 @@ public class MainWindow extends JFrame {
     private void openAddDialog() {
         IncidentDialog dialog = new IncidentDialog(this, controller, null);
         dialog.setVisible(true);
-        loadTableData(controller.getAllIncidents());
+        // The new row arrives as a change event; no reload needed
     }
 
     private void openUpdateDialog() {
@@ -310,11 +320,28 @@ public class MainWindow extends JFrame {
                     JOptionPane.WARNING_MESSAGE);
             return;
         }
-        Long incidentId = (Long) tableModel.getValueAt(selectedRow, 0);
-        Incident incident = controller.getIncidentById(incidentId);
-        IncidentDialog dialog = new IncidentDialog(this, controller, incident);
-        dialog.setVisible(true);
-        loadTableData(controller.getAllIncidents());
+        IncidentSummary selected = tableModel.getIncidentAt(selectedRow);
+        if (selected == null) {
+            showStillLoading();
+            return;
+        }
+        // The table only holds summaries; the full incident, text columns included, is loaded here
+        UiActionEvent action = UiActionEvent.start("open", "id=" + selected.getIncidentId());
+        Trace.run(action.getActionId(), () ->
+                AsyncIncidentController.onEdt(controller.getIncidentById(selected.getIncidentId()), incident -> {
+                    if (incident == null) {
+                        action.finish(0, "not found");
+                        showError("The selected incident no longer exists.");
+                        showAll("refresh");
+                        return;
+                    }
+                    action.finish(1, "ok");
+                    IncidentDialog dialog = new IncidentDialog(this, controller, incident);
+                    dialog.setVisible(true);
+                }, error -> {
+                    action.finish(0, "failed");
+                    showError("Could not load incident: " + error.getMessage());
+                }));
     }
 
     private void deleteSelectedIncident() {
@@ -327,6 +354,12 @@ public class MainWindow extends JFrame {
             return;
         }
 
+        IncidentSummary selected = tableModel.getIncidentAt(selectedRow);
+        if (selected == null) {
+            showStillLoading();
+            return;
+        }
+
         int confirm = JOptionPane.showConfirmDialog(this,
                 "Are you sure you want to delete this incident?",
                 "Confirm Deletion",
@@ -334,10 +367,15 @@ public class MainWindow extends JFrame {
                 JOptionPane.WARNING_MESSAGE);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            Long incidentId = (Long) tableModel.getValueAt(selectedRow, 0);
-            controller.deleteIncident(incidentId);
-            loadTableData(controller.getAllIncidents());
-            JOptionPane.showMessageDialog(this, "✅ Incident deleted successfully!");
+            UiActionEvent action = UiActionEvent.start("delete", "id=" + selected.getIncidentId());
+            Trace.run(action.getActionId(), () ->
+                    AsyncIncidentController.onEdt(controller.deleteIncident(selected.getIncidentId()), ignored -> {
+                        action.finish(1, "ok");
+                        JOptionPane.showMessageDialog(this, "✅ Incident deleted successfully!");
+                    }, error -> {
+                        action.finish(0, "failed");
+                        showError("Could not delete incident: " + error.getMessage());
+                    }));
         }
     }
 
@@ -347,20 +385,51 @@ public class MainWindow extends JFrame {
                 "Search Incidents",
                 JOptionPane.QUESTION_MESSAGE);
 
+        // A new search supersedes one that is still running
+        if (pendingSearch != null) pendingSearch.cancel(true);
+        pendingSearch = null;
+        if (searchAction != null) searchAction.finish(0, "superseded");
+        searchAction = null;
+
         if (keyword != null && !keyword.isEmpty()) {
-            List<Incident> results = controller.searchIncidents(keyword);
-            loadTableData(results);
-            if (results.isEmpty()) {
-                JOptionPane.showMessageDialog(this,
-                        "No incidents found matching: " + keyword,
-                        "Search Results",
-                        JOptionPane.INFORMATION_MESSAGE);
-            }
+            statusLabel.setText(" Searching for: " + keyword + " …");
+            UiActionEvent action = UiActionEvent.start("search", keyword);
+            searchAction = action;
+            Trace.run(action.getActionId(), () -> {
+                pendingSearch = controller.searchIncidents(keyword);
+                AsyncIncidentController.onEdt(pendingSearch, results -> {
+                    loadTableData(results);
+                    action.finish(results.size(), "ok");
+                    if (results.isEmpty()) {
+                        JOptionPane.showMessageDialog(this,
+                                "No incidents found matching: " + keyword,
+                                "Search Results",
+                                JOptionPane.INFORMATION_MESSAGE);
+                    }
+                }, error -> {
+                    action.finish(0, "failed");
+                    showError("Search failed: " + error.getMessage());
+                });
+            });
         } else {
-            loadTableData(controller.getAllIncidents());
+            showAll("show all");
         }
     }
 
+    private void showError(String message) {
+        JOptionPane.showMessageDialog(this,
+                "⚠️ " + message,
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+    }
+
+    private void showStillLoading() {
+        JOptionPane.showMessageDialog(this,
+                "⏳ The selected row is still loading, please try again.",
+                "Loading",
+                JOptionPane.INFORMATION_MESSAGE);
+    }
+
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             MainWindow window = new MainWindow();
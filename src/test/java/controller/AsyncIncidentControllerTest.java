@@ -0,0 +1,119 @@
+package controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dao.InMemoryIncidentDAO;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import model.Incident;
+import model.IncidentModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncIncidentControllerTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void shutDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void modelCallsRunInSubmissionOrder() throws Exception {
+        InMemoryIncidentDAO dao = new InMemoryIncidentDAO();
+        AsyncIncidentController async = new AsyncIncidentController(new IncidentController(new IncidentModel(dao)), pool);
+
+        List<CompletableFuture<Void>> adds = new ArrayList<>();
+        for (int i = 0; i < 200; i++) adds.add(add(async, "incident " + i));
+        CompletableFuture.allOf(adds.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        List<Incident> stored = dao.findAll();
+        stored.sort((a, b) -> Long.compare(a.getIncidentId(), b.getIncidentId()));
+        for (int i = 0; i < stored.size(); i++) assertEquals("incident " + i, stored.get(i).getTitle());
+    }
+
+    @Test
+    void daoReadsDoNotWaitForModelCalls() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryIncidentDAO dao = new InMemoryIncidentDAO() {
+            @Override
+            public void update(Incident incident) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.update(incident);
+            }
+        };
+        Long id = dao.add(incident("slow"));
+        AsyncIncidentController async = new AsyncIncidentController(new IncidentController(new IncidentModel(dao)), pool);
+
+        Incident changed = dao.findById(id);
+        changed.setStatus(Incident.Status.CLOSED);
+        CompletableFuture<Void> update = async.updateIncident(changed);
+        CompletableFuture<List<Incident>> search = async.searchIncidents("slow");
+
+        assertNotNull(async.getIncidentById(id).get(5, TimeUnit.SECONDS));
+        assertFalse(search.isDone(), "search must wait for the update submitted before it");
+
+        release.countDown();
+        update.get(5, TimeUnit.SECONDS);
+        assertEquals(Incident.Status.CLOSED, search.get(5, TimeUnit.SECONDS).get(0).getStatus());
+    }
+
+    @Test
+    void cancelledModelCallNeverRuns() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean deleted = new AtomicBoolean();
+        InMemoryIncidentDAO dao = new InMemoryIncidentDAO() {
+            @Override
+            public Long add(Incident incident) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.add(incident);
+            }
+
+            @Override
+            public void delete(Long id) {
+                deleted.set(true);
+                super.delete(id);
+            }
+        };
+        AsyncIncidentController async = new AsyncIncidentController(new IncidentController(new IncidentModel(dao)), pool);
+
+        CompletableFuture<Void> add = add(async, "first");
+        CompletableFuture<Void> delete = async.deleteIncident(1L);
+        assertTrue(delete.cancel(true));
+        release.countDown();
+        add.get(5, TimeUnit.SECONDS);
+        async.countFiltered(null, null, null).get(5, TimeUnit.SECONDS); // queued behind the cancelled delete
+
+        assertFalse(deleted.get());
+        assertEquals(1, dao.count());
+    }
+
+    private static CompletableFuture<Void> add(AsyncIncidentController async, String title) {
+        return async.addIncident(title, "description", Incident.IncidentType.OTHER, Incident.Risk.LOW,
+                Incident.Status.NEW, new Date(), "analyst@example.com", null);
+    }
+
+    private static Incident incident(String title) {
+        return new Incident(null, title, "description", Incident.IncidentType.OTHER, Incident.Risk.LOW,
+                Incident.Status.NEW, new Date(), "analyst@example.com", null);
+    }
+}
@@ -0,0 +1,131 @@
+package dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import model.Incident;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CachingIncidentDAOTest {
+
+    private CountingDAO store;
+    private CachingIncidentDAO cache;
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        store = new CountingDAO();
+        id = store.add(incident("Phishing email"));
+        store.add(incident("Malware on workstation"));
+        cache = new CachingIncidentDAO(store, 100, 0);
+    }
+
+    @Test
+    void secondLookupIsAHitAndCopiesStayIndependent() {
+        Incident first = cache.findById(id);
+        first.setTitle("Edited by the caller");
+        Incident second = cache.findById(id);
+
+        assertEquals("Phishing email", second.getTitle());
+        assertEquals(1, store.lookups.get());
+        assertEquals(1, cache.getStats().hits);
+        assertEquals(1, cache.getStats().misses);
+    }
+
+    @Test
+    void fullRowPagesWarmTheCacheButSummaryPagesDoNot() {
+        cache.findSummaryPage(null, 10);
+        cache.findById(id);
+        assertEquals(1, store.lookups.get());
+
+        cache.invalidateAll();
+        cache.findPage(null, 10);
+        cache.findById(id);
+        assertEquals(1, store.lookups.get());
+        assertEquals(1, cache.getStats().hits);
+    }
+
+    @Test
+    void writesAndPushedChangesInvalidate() {
+        cache.findById(id);
+        Incident renamed = store.findById(id);
+        renamed.setTitle("Renamed");
+        cache.update(renamed);
+        assertEquals("Renamed", cache.findById(id).getTitle());
+
+        Incident elsewhere = store.findById(id); // another client, announced by the dispatcher
+        elsewhere.setTitle("Renamed elsewhere");
+        store.update(elsewhere);
+        cache.incidentsChanged(new IncidentChangeBatch(List.of(elsewhere), List.of(), Set.of(), 1));
+        assertEquals("Renamed elsewhere", cache.findById(id).getTitle());
+
+        cache.delete(id);
+        assertNull(cache.findById(id));
+        assertEquals(4, cache.getStats().misses);
+        assertEquals(0, cache.getStats().hits);
+    }
+
+    @Test
+    void loadThatRacesWithAnUpdateIsNotCached() throws Exception {
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        store.pause(read, written);
+        AtomicReference<Incident> stale = new AtomicReference<>();
+        Thread reader = new Thread(() -> stale.set(cache.findById(id)));
+        reader.start();
+
+        assertTrue(read.await(5, TimeUnit.SECONDS)); // the reader holds the old row, not yet cached
+        Incident renamed = store.findById(id);
+        renamed.setTitle("Renamed");
+        cache.update(renamed);
+        written.countDown();
+        reader.join();
+
+        assertEquals("Phishing email", stale.get().getTitle()); // what the read saw
+        assertEquals("Renamed", cache.findById(id).getTitle()); // the old row never made it into the cache
+        assertEquals(0, cache.getStats().hits);
+    }
+
+    // Counts row lookups; once paused, the next lookup reads its row and then waits before returning it
+    private static final class CountingDAO extends InMemoryIncidentDAO {
+        final AtomicInteger lookups = new AtomicInteger();
+        private volatile CountDownLatch read;
+        private volatile CountDownLatch resume;
+
+        void pause(CountDownLatch read, CountDownLatch resume) {
+            this.read = read;
+            this.resume = resume;
+        }
+
+        @Override
+        public Incident findById(Long id) {
+            lookups.incrementAndGet();
+            Incident incident = super.findById(id);
+            CountDownLatch paused = resume;
+            if (paused != null) {
+                resume = null;
+                read.countDown();
+                try {
+                    paused.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return incident;
+        }
+    }
+
+    private static Incident incident(String title) {
+        return new Incident(null, title, "description", Incident.IncidentType.OTHER, Incident.Risk.LOW,
+                Incident.Status.NEW, new Date(), "analyst@example.com", null);
+    }
+}
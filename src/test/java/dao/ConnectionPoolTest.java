@@ -0,0 +1,68 @@
+package dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// The housekeeper runs at most once a second, so each leak test waits for its first pass
+class ConnectionPoolTest {
+
+    private EmbeddedDatabase database;
+    private final ByteArrayOutputStream log = new ByteArrayOutputStream();
+    private PrintStream err;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new EmbeddedDatabase("pool-test");
+        err = System.err;
+        System.setErr(new PrintStream(log, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        System.setErr(err);
+        database.close();
+    }
+
+    @Test
+    void leakIsReportedWithoutABorrowSiteByDefault() throws Exception {
+        String report = leak(false);
+        assertTrue(report.contains("Possible connection leak"), report);
+        assertTrue(report.contains("incidents.pool.leakTrace"), report);
+        assertFalse(report.contains("leakIsReportedWithoutABorrowSiteByDefault"), report);
+    }
+
+    @Test
+    void leakTraceReportsWhereTheConnectionWasBorrowed() throws Exception {
+        String report = leak(true);
+        assertTrue(report.contains("Possible connection leak"), report);
+        assertTrue(report.contains("borrowed at:"), report);
+        assertTrue(report.contains("ConnectionPoolTest.leak("), report);
+    }
+
+    private String leak(boolean leakTrace) throws Exception {
+        try (ConnectionPool pool = new ConnectionPool(database::connect, 0, 2, 1_000, 60_000, 1, leakTrace)) {
+            Connection held = pool.getConnection();
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!reported() && System.currentTimeMillis() < deadline) Thread.sleep(50);
+            assertEquals(1, pool.getStats().leaksDetected);
+            held.close();
+        }
+        return log.toString(StandardCharsets.UTF_8);
+    }
+
+    // The housekeeper counts a leak before it prints the report, so wait for the finished report itself
+    private boolean reported() {
+        String text = log.toString(StandardCharsets.UTF_8);
+        return text.contains("Possible connection leak") && text.endsWith(System.lineSeparator());
+    }
+}
@@ -0,0 +1,83 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * In-memory H2 database in MySQL mode with the incidents schema, standing in for MySQL in tests and
+ * benchmarks. Each name is a separate database; it lives until {@link #close()}.
+ * There is no FULLTEXT index and there are no triggers, so writes leave no outbox rows; tests write
+ * incident_changes rows themselves.
+ */
+public final class EmbeddedDatabase implements AutoCloseable {
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE incidents (" +
+                    " incident_id BIGINT NOT NULL PRIMARY KEY AUTO_INCREMENT," +
+                    " title VARCHAR(255) NOT NULL," +
+                    " description TEXT," +
+                    " type VARCHAR(50)," +
+                    " risk VARCHAR(50)," +
+                    " status VARCHAR(50)," +
+                    " reported_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP," +
+                    " assigned_to VARCHAR(255)," +
+                    " resolution_notes TEXT," +
+                    " last_modified TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3))",
+            "CREATE TABLE incidents_archive (" +
+                    " incident_id BIGINT NOT NULL PRIMARY KEY," +
+                    " title VARCHAR(255) NOT NULL," +
+                    " description TEXT," +
+                    " type VARCHAR(50)," +
+                    " risk VARCHAR(50)," +
+                    " status VARCHAR(50)," +
+                    " reported_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP," +
+                    " assigned_to VARCHAR(255)," +
+                    " resolution_notes TEXT," +
+                    " last_modified TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)," +
+                    " archived_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3))",
+            "CREATE TABLE incident_changes (" +
+                    " change_id BIGINT NOT NULL PRIMARY KEY AUTO_INCREMENT," +
+                    " incident_id BIGINT NOT NULL," +
+                    " op CHAR(1) NOT NULL," +
+                    " changed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3))"
+    };
+
+    private final String name;
+    private final String url;
+    private final Connection keepAlive;
+
+    public EmbeddedDatabase(String name) throws SQLException {
+        this.name = name;
+        this.url = "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        this.keepAlive = DriverManager.getConnection(url);
+        try (Statement st = keepAlive.createStatement()) {
+            for (String ddl : SCHEMA) st.execute(ddl);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // A new connection per call, like a connection factory without a pool
+    public Connection connect() throws SQLException {
+        return DriverManager.getConnection(url);
+    }
+
+    public int execute(String sql) throws SQLException {
+        try (Connection conn = connect(); Statement st = conn.createStatement()) {
+            return st.executeUpdate(sql);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (Statement st = keepAlive.createStatement()) {
+            st.execute("SHUTDOWN");
+        } finally {
+            keepAlive.close();
+        }
+    }
+}
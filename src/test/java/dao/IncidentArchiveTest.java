@@ -0,0 +1,78 @@
+package dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import model.Incident;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Closed rows are dated two days back and archived with a one-day age, in batches of one
+class IncidentArchiveTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private EmbeddedDatabase database;
+    private IncidentDAOImpl dao;
+    private Long open;
+    private Long closed;
+    private Long closedToo;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new EmbeddedDatabase("archive-test");
+        dao = new IncidentDAOImpl(database::connect, 100);
+        open = dao.add(incident("Phishing email", Incident.Status.IN_PROGRESS));
+        closed = dao.add(incident("Phishing email to finance", Incident.Status.CLOSED));
+        closedToo = dao.add(incident("Malware on workstation", Incident.Status.CLOSED));
+        database.execute("UPDATE incidents SET last_modified = TIMESTAMPADD(DAY, -2, CURRENT_TIMESTAMP(3))");
+
+        try (IncidentArchiver archiver = new IncidentArchiver(database::connect, DAY, 1)) {
+            assertEquals(2, archiver.archiveNow());
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void archivedRowIsFoundByIdButIsNoLongerCurrent() {
+        Incident archived = dao.findById(closed);
+        assertEquals("Phishing email to finance", archived.getTitle());
+        assertEquals(Incident.Status.CLOSED, archived.getStatus());
+        assertEquals("Phishing email", dao.findById(open).getTitle());
+        assertNull(dao.findById(closedToo + 1));
+
+        assertNull(dao.findCurrent(closed));
+        assertEquals(List.of(open), ids(dao.findAll()));
+    }
+
+    @Test
+    void searchCoversTheHotTableAndCriteriaCanIncludeTheArchive() {
+        assertEquals(List.of(open), ids(dao.search("phishing", 10)));
+
+        IncidentCriteria history = new IncidentCriteria()
+                .orderBy(IncidentSortKey.ID, false)
+                .includeArchived(true);
+        assertEquals(List.of(open, closed, closedToo), ids(dao.findMatching(history)));
+        assertEquals(3, dao.countMatching(history));
+    }
+
+    private static List<Long> ids(List<Incident> incidents) {
+        List<Long> ids = new ArrayList<>();
+        for (Incident incident : incidents) ids.add(incident.getIncidentId());
+        return ids;
+    }
+
+    private static Incident incident(String title, Incident.Status status) {
+        return new Incident(null, title, "description", Incident.IncidentType.OTHER, Incident.Risk.LOW,
+                status, new Date(), "analyst@example.com", null);
+    }
+}
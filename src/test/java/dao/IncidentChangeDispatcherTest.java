@@ -0,0 +1,125 @@
+package dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Outbox rows are written with explicit change ids, so a test decides which ids are skipped and when
+// they commit
+class IncidentChangeDispatcherTest {
+
+    private static final long GAP_TIMEOUT_MS = 2_000; // well above a poll, even on a loaded machine
+
+    private EmbeddedDatabase database;
+    private IncidentChangeDispatcher dispatcher;
+    private final List<IncidentChangeBatch> batches = new ArrayList<>();
+    private int resyncs;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new EmbeddedDatabase("changes");
+        database.execute("INSERT INTO incidents (title, description, type, risk, status) "
+                + "VALUES ('Phishing email', 'seed', 'PHISHING', 'HIGH', 'NEW')");
+        change(1);
+        dispatcher = dispatcher();
+        dispatcher.subscribe(new IncidentChangeSubscriber() {
+            @Override
+            public void incidentsChanged(IncidentChangeBatch batch) {
+                batches.add(batch);
+            }
+
+            @Override
+            public void resync() {
+                resyncs++;
+            }
+        });
+        dispatcher.pollNow(); // records where the outbox ends
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void gapFilledByALateCommitIsPushed() throws Exception {
+        change(3);
+        assertEquals(1, dispatcher.pollNow());
+        change(2);
+        assertEquals(1, dispatcher.pollNow());
+
+        Thread.sleep(GAP_TIMEOUT_MS * 2);
+        dispatcher.pollNow();
+        assertEquals(0, resyncs);
+    }
+
+    @Test
+    void expiredGapAsksForAResync() throws Exception {
+        change(3);
+        dispatcher.pollNow();
+        assertEquals(0, resyncs);
+
+        Thread.sleep(GAP_TIMEOUT_MS * 2);
+        dispatcher.pollNow();
+        assertEquals(1, resyncs);
+        dispatcher.pollNow();
+        assertEquals(1, resyncs);
+    }
+
+    @Test
+    void skipsPastTheGapLimitAskForAResyncEvenWhenTrackedGapsFill() throws Exception {
+        long last = 2 + IncidentChangeDispatcher.MAX_GAPS + 5; // ids 2..1001 tracked, 1002..1006 not
+        change(last);
+        dispatcher.pollNow();
+        database.execute("INSERT INTO incident_changes (change_id, incident_id, op) "
+                + "SELECT \"X\", 1, 'U' FROM SYSTEM_RANGE(2, " + (1 + IncidentChangeDispatcher.MAX_GAPS) + ")");
+        dispatcher.pollNow();
+        assertEquals(0, resyncs);
+
+        Thread.sleep(GAP_TIMEOUT_MS * 2);
+        dispatcher.pollNow();
+        assertEquals(1, resyncs);
+    }
+
+    @Test
+    void onlyAPruningDispatcherDeletesOldChanges() throws Exception {
+        database.execute("INSERT INTO incident_changes (change_id, incident_id, op, changed_at) "
+                + "VALUES (2, 1, 'U', TIMESTAMPADD(DAY, -2, CURRENT_TIMESTAMP))");
+        database.execute("INSERT INTO incident_changes (change_id, incident_id, op, changed_at) "
+                + "VALUES (3, 1, 'U', TIMESTAMPADD(DAY, -2, CURRENT_TIMESTAMP))");
+
+        dispatcher.pollNow();
+        assertEquals(3, changes());
+
+        IncidentChangeDispatcher pruning = dispatcher();
+        pruning.setPruning(true);
+        pruning.pollNow();
+        pruning.pollNow();
+        assertEquals(2, changes()); // the newest change stays, however old, so delta sync knows where ids stand
+    }
+
+    private IncidentChangeDispatcher dispatcher() {
+        return new IncidentChangeDispatcher(database::connect, new IncidentDAOImpl(database::connect, 100), 100,
+                GAP_TIMEOUT_MS);
+    }
+
+    private void change(long changeId) throws SQLException {
+        database.execute("INSERT INTO incident_changes (change_id, incident_id, op) VALUES (" + changeId + ", 1, 'U')");
+    }
+
+    private long changes() throws SQLException {
+        try (Connection conn = database.connect(); Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM incident_changes")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import model.Incident;
+import model.IncidentModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Delta sync over the outbox. H2 has no triggers, so each write is followed by the outbox row a trigger
+// would add; "old" rows are dated two days back, past the default gap timeout.
+class IncidentDAOImplChangesTest {
+
+    private EmbeddedDatabase database;
+    private IncidentDAOImpl dao;
+    private Long first;
+    private Long second;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new EmbeddedDatabase("changes-test");
+        dao = new IncidentDAOImpl(database::connect, 100);
+        first = dao.add(incident("Phishing email"));
+        second = dao.add(incident("Malware on workstation"));
+        oldChange(1, first, 'I');
+        oldChange(2, second, 'I');
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void firstCallIsAFullSnapshotThatResumesAfterTheLastSettledChange() {
+        ChangeSet<Incident> all = dao.findChangedSince(0);
+        assertTrue(all.isFullSnapshot());
+        assertEquals(2, all.getUpserts().size());
+        assertEquals(3, all.getWatermark());
+
+        ChangeSet<Incident> none = dao.findChangedSince(all.getWatermark());
+        assertFalse(none.isFullSnapshot());
+        assertTrue(none.isEmpty());
+        assertEquals(3, none.getWatermark());
+    }
+
+    @Test
+    void deltaReturnsTheCurrentRowsAndTheDeletes() throws SQLException {
+        long watermark = dao.findChangedSince(0).getWatermark();
+        Incident renamed = dao.findById(first);
+        renamed.setTitle("Renamed");
+        dao.update(renamed);
+        change(3, first, 'U');
+        Long third = dao.add(incident("Ransomware note"));
+        change(4, third, 'I');
+        dao.delete(second);
+        change(5, second, 'D');
+
+        ChangeSet<Incident> changes = dao.findChangedSince(watermark);
+        assertEquals(List.of(first, third), ids(changes.getUpserts()));
+        assertEquals("Renamed", changes.getUpserts().get(0).getTitle());
+        assertEquals(List.of(second), changes.getDeletedIds());
+        assertEquals(6, changes.getWatermark());
+    }
+
+    @Test
+    void updateOfARowDeletedSinceIsADelete() throws SQLException {
+        long watermark = dao.findChangedSince(0).getWatermark();
+        change(3, second, 'U');
+        dao.delete(second); // its 'D' has not been read yet
+
+        ChangeSet<Incident> changes = dao.findChangedSince(watermark);
+        assertTrue(changes.getUpserts().isEmpty());
+        assertEquals(List.of(second), changes.getDeletedIds());
+    }
+
+    @Test
+    void lateCommitBelowTheWatermarkIsNotSkipped() throws SQLException {
+        long watermark = dao.findChangedSince(0).getWatermark();
+        Long third = dao.add(incident("Committed first"));
+        change(4, third, 'I'); // change 3 belongs to a transaction that has not committed
+
+        ChangeSet<Incident> ahead = dao.findChangedSince(watermark);
+        assertEquals(List.of(third), ids(ahead.getUpserts()));
+        assertEquals(3, ahead.getWatermark()); // held at the gap
+
+        Incident late = dao.findById(first);
+        late.setStatus(Incident.Status.CLOSED);
+        dao.update(late);
+        change(3, first, 'U');
+
+        ChangeSet<Incident> filled = dao.findChangedSince(ahead.getWatermark());
+        assertEquals(List.of(first, third), ids(filled.getUpserts())); // 4 again: applying it twice is harmless
+        assertEquals(Incident.Status.CLOSED, filled.getUpserts().get(0).getStatus());
+        assertEquals(5, filled.getWatermark());
+    }
+
+    @Test
+    void gapBeforeAChangeOlderThanTheTimeoutCountsAsRolledBack() throws SQLException {
+        long watermark = dao.findChangedSince(0).getWatermark();
+        oldChange(4, first, 'U'); // change 3 never committed
+
+        ChangeSet<Incident> changes = dao.findChangedSince(watermark);
+        assertEquals(List.of(first), ids(changes.getUpserts()));
+        assertEquals(5, changes.getWatermark());
+    }
+
+    @Test
+    void prunedHistoryOrATimestampWatermarkGetsAFullSnapshot() throws SQLException {
+        database.execute("DELETE FROM incident_changes WHERE change_id < 2");
+        assertTrue(dao.findChangedSince(1).isFullSnapshot());
+        assertFalse(dao.findChangedSince(2).isFullSnapshot());
+
+        ChangeSet<Incident> fromTimestamp = dao.findChangedSince(System.currentTimeMillis());
+        assertTrue(fromTimestamp.isFullSnapshot());
+        assertEquals(3, fromTimestamp.getWatermark());
+    }
+
+    @Test
+    void unreadableChangesLeaveTheModelUnloadedUntilTheyCanBeRead() throws SQLException {
+        database.execute("ALTER TABLE incident_changes RENAME TO incident_changes_moved");
+        assertNull(dao.findChangedSince(0));
+
+        IncidentModel model = new IncidentModel(dao);
+        assertThrows(IllegalStateException.class, model::getAllIncidents);
+        assertThrows(IllegalStateException.class, () -> model.countFiltered(null, null, null));
+
+        database.execute("ALTER TABLE incident_changes_moved RENAME TO incident_changes");
+        assertEquals(2, model.getAllIncidents().size());
+    }
+
+    private void change(long changeId, Long incidentId, char op) throws SQLException {
+        database.execute("INSERT INTO incident_changes (change_id, incident_id, op) VALUES ("
+                + changeId + ", " + incidentId + ", '" + op + "')");
+    }
+
+    private void oldChange(long changeId, Long incidentId, char op) throws SQLException {
+        database.execute("INSERT INTO incident_changes (change_id, incident_id, op, changed_at) VALUES ("
+                + changeId + ", " + incidentId + ", '" + op + "', TIMESTAMPADD(DAY, -2, CURRENT_TIMESTAMP))");
+    }
+
+    private static List<Long> ids(List<Incident> incidents) {
+        List<Long> ids = new ArrayList<>();
+        for (Incident incident : incidents) ids.add(incident.getIncidentId());
+        return ids;
+    }
+
+    private static Incident incident(String title) {
+        return new Incident(null, title, "description", Incident.IncidentType.OTHER, Incident.Risk.LOW,
+                Incident.Status.NEW, new Date(), "analyst@example.com", null);
+    }
+}
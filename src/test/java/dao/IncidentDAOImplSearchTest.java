@@ -0,0 +1,107 @@
+package dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLSyntaxErrorException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.Incident;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Search on H2, which has no FULLTEXT: the DAO must fall back to the ranked LIKE query
+class IncidentDAOImplSearchTest {
+
+    private EmbeddedDatabase database;
+    private final AtomicInteger fullTextAttempts = new AtomicInteger();
+    private final AtomicBoolean failNextFullText = new AtomicBoolean();
+    private IncidentDAOImpl dao;
+    private Long titleBoth;
+    private Long descriptionBoth;
+    private Long titleBothAndNotes;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = new EmbeddedDatabase("search-test");
+        dao = new IncidentDAOImpl(this::connect, 100);
+        titleBoth = dao.add(incident("Phishing email to finance", "Reported by a user", null));
+        descriptionBoth = dao.add(incident("Suspicious login", "Phishing page mimicking the finance portal", null));
+        dao.add(incident("Malware on workstation", "Unsigned process", null));
+        titleBothAndNotes = dao.add(incident("Finance phishing wave", "Several mailboxes", "Phishing domain blocked"));
+        dao.add(incident("Finance report", "Quarterly numbers", null)); // only one of the two terms
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Test
+    void fallbackRanksTitleHitsFirst() {
+        assertEquals(List.of(titleBothAndNotes, titleBoth, descriptionBoth), ids(dao.search("phishing finance", 0, 10)));
+    }
+
+    @Test
+    void fallbackPages() {
+        assertEquals(List.of(titleBothAndNotes, titleBoth), ids(dao.search("phishing finance", 0, 2)));
+        assertEquals(List.of(descriptionBoth), ids(dao.search("phishing finance", 2, 2)));
+        assertTrue(dao.search("phishing finance", 3, 2).isEmpty());
+    }
+
+    @Test
+    void fallbackMatchesPrefixesCaseInsensitively() {
+        assertEquals(List.of(titleBothAndNotes, titleBoth, descriptionBoth), ids(dao.search("PHISH fin", 0, 10)));
+        assertTrue(dao.search("ransomware", 0, 10).isEmpty());
+    }
+
+    @Test
+    void unrelatedErrorDoesNotDisableFullText() {
+        failNextFullText.set(true);
+        assertTrue(dao.search("phishing", 0, 10).isEmpty()); // logged and reported as a failed search
+        assertEquals(1, fullTextAttempts.get());
+
+        assertEquals(3, dao.search("phishing", 0, 10).size()); // tries MATCH again; H2 rejects it, LIKE answers
+        assertEquals(2, fullTextAttempts.get());
+
+        dao.search("phishing", 0, 10); // from now on straight to the fallback
+        assertEquals(2, fullTextAttempts.get());
+    }
+
+    // Counts MATCH queries and, on request, fails one with a MySQL syntax error unrelated to FULLTEXT
+    private Connection connect() throws java.sql.SQLException {
+        Connection conn = database.connect();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement") && ((String) args[0]).contains("MATCH(")) {
+                        fullTextAttempts.incrementAndGet();
+                        if (failNextFullText.getAndSet(false)) {
+                            throw new SQLSyntaxErrorException("You have an error in your SQL syntax", "42000", 1064);
+                        }
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static Incident incident(String title, String description, String notes) {
+        return new Incident(null, title, description, Incident.IncidentType.PHISHING, Incident.Risk.HIGH,
+                Incident.Status.NEW, new Date(), "analyst@example.com", notes);
+    }
+
+    private static List<Long> ids(List<Incident> incidents) {
+        List<Long> ids = new ArrayList<>();
+        for (Incident incident : incidents) ids.add(incident.getIncidentId());
+        return ids;
+    }
+}
@@ -0,0 +1,83 @@
+package dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import model.Incident;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// A title longer than the column fails its whole chunk on H2, the way a constraint violation would on MySQL
+class IncidentImporterTest {
+
+    private static final String TOO_LONG = "x".repeat(300);
+
+    private EmbeddedDatabase database;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new EmbeddedDatabase("import-test");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void failedChunkInsideABatchStopsTheImportAfterTheStoredPrefix() throws IOException {
+        IncidentDAOImpl dao = new IncidentDAOImpl(database::connect, 2);
+        IncidentImporter importer = new IncidentImporter(dao, 10);
+        importer.importCsv(csv("first", "second", TOO_LONG, "fourth", "fifth"));
+
+        assertTrue(importer.isStopped());
+        assertEquals(3, importer.getStoppedAtRow());
+        assertEquals(2, importer.getImported());
+        assertEquals(List.of("first", "second"), titles(dao.findAll()));
+    }
+
+    @Test
+    void failedBatchStopsReadingTheFile() throws IOException {
+        IncidentDAOImpl dao = new IncidentDAOImpl(database::connect, 100);
+        IncidentImporter importer = new IncidentImporter(dao, 2);
+        importer.importCsv(csv("first", "", "second", "third", TOO_LONG, "fifth", "sixth", "seventh"));
+
+        assertTrue(importer.isStopped());
+        assertEquals(4, importer.getStoppedAtRow()); // the whole batch (rows 4 and 5) was rolled back
+        assertEquals(2, importer.getImported());
+        assertEquals(1, importer.getRejected()); // the blank title; rows after the failure are never read
+        assertEquals(List.of("first", "second"), titles(dao.findAll()));
+    }
+
+    @Test
+    void rejectedRowsDoNotStopTheImport() throws IOException {
+        IncidentDAOImpl dao = new IncidentDAOImpl(database::connect, 2);
+        IncidentImporter importer = new IncidentImporter(dao, 2);
+        importer.importCsv(csv("first", "", "second", "third"));
+
+        assertFalse(importer.isStopped());
+        assertEquals(3, importer.getImported());
+        assertEquals(1, importer.getRejected());
+    }
+
+    private static BufferedReader csv(String... titles) {
+        StringBuilder sb = new StringBuilder("title,description\n");
+        for (String title : titles) sb.append(title).append(",imported\n");
+        return new BufferedReader(new StringReader(sb.toString()));
+    }
+
+    private static List<String> titles(List<Incident> incidents) {
+        List<String> titles = new ArrayList<>();
+        for (Incident incident : incidents) titles.add(incident.getTitle());
+        titles.sort(null);
+        return titles;
+    }
+}
@@ -0,0 +1,195 @@
+package dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import model.Incident;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Crash damage is made by editing the closed file: the header's logical end is at byte 24,
+// and Stats.logBytes is the end after the last append
+class LogIncidentDAOTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file() {
+        return dir.resolve("incidents.log");
+    }
+
+    @Test
+    void tornTailRecordIsDroppedOnReplay() throws IOException {
+        long end;
+        try (LogIncidentDAO log = open()) {
+            log.add(incident("first"));
+            log.add(incident("second"));
+            end = log.getStats().logBytes;
+        }
+        zero(file(), end - 5, 5); // the last record only partly reached the disk
+
+        try (LogIncidentDAO log = open()) {
+            assertEquals(List.of("first"), titles(log.findAll()));
+            assertEquals(2L, log.add(incident("again"))); // the torn id was never acknowledged
+        }
+        try (LogIncidentDAO log = open()) {
+            assertEquals(List.of("first", "again"), titles(log.findAll()));
+        }
+    }
+
+    @Test
+    void recordsPastACorruptOneStayUnreadAfterLaterAppends() throws IOException {
+        long afterFirst;
+        try (LogIncidentDAO log = open()) {
+            log.add(incident("first"));
+            afterFirst = log.getStats().logBytes;
+            log.add(incident("second"));
+            log.add(incident("third")); // survived on disk, but past the corrupt record
+        }
+        flip(file(), afterFirst + 30); // inside the second record's payload, so its CRC fails
+
+        try (LogIncidentDAO log = open()) {
+            assertEquals(List.of("first"), titles(log.findAll()));
+            log.add(incident("fourth"));
+        }
+        try (LogIncidentDAO log = open()) {
+            assertEquals(List.of("first", "fourth"), titles(log.findAll()));
+        }
+    }
+
+    @Test
+    void compactionKeepsLiveRowsAndSwitchesGeneration() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        long before;
+        try (LogIncidentDAO log = open()) {
+            for (int i = 0; i < 200; i++) ids.add(log.add(incident("row " + i)));
+            for (Long id : ids) log.update(renamed(log.findById(id), "updated " + id));
+            for (Long id : ids.subList(0, 50)) log.delete(id);
+            before = log.findChangedSince(1).getWatermark();
+
+            log.compact();
+
+            assertEquals(1, log.getStats().compactions);
+            assertEquals(150, log.count());
+            assertEquals("updated " + ids.get(50), log.findById(ids.get(50)).getTitle());
+            assertNull(log.findById(ids.get(0)));
+            assertTrue(log.findChangedSince(before - 1).isFullSnapshot()); // tombstones are gone
+        }
+        assertTrue(Files.exists(dir.resolve("incidents.log.1")));
+        assertFalse(Files.exists(file()));
+
+        try (LogIncidentDAO log = open()) {
+            assertEquals(150, log.count());
+            for (Long id : ids.subList(50, 200)) assertEquals("updated " + id, log.findById(id).getTitle());
+            assertEquals(201L, log.add(incident("after")));
+        }
+    }
+
+    @Test
+    void readsSeeEveryRowWhileCompactionsRun() throws Exception {
+        try (LogIncidentDAO log = open()) {
+            List<Incident> rows = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) rows.add(incident("row"));
+            log.addAll(rows);
+
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread reader = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    while (!done.get()) {
+                        long id = 1 + random.nextInt(1000);
+                        Incident incident = log.findById(id);
+                        assertNotNull(incident, "incident " + id);
+                        assertEquals("row", incident.getTitle());
+                        assertEquals(Math.min(50, 1001 - id), log.findPage(id - 1, 50).size());
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            reader.start();
+            for (int round = 0; round < 10; round++) {
+                log.updateAll(log.findAll()); // every row gets a new record, so the old ones are garbage
+                log.compact();
+            }
+            done.set(true);
+            reader.join();
+
+            assertNull(failure.get(), () -> "reader failed: " + failure.get());
+            assertEquals(10, log.getStats().compactions);
+            assertEquals(1000, log.count());
+        }
+    }
+
+    @Test
+    void formatOneLogIsReplayedAndRewritten() throws IOException {
+        try (LogIncidentDAO log = open()) {
+            log.add(incident("first"));
+            log.add(incident("second"));
+        }
+        // The same records behind the old 24-byte header, which had no logical end
+        byte[] current = Files.readAllBytes(file());
+        int end = ByteBuffer.wrap(current).getInt(24);
+        ByteBuffer old = ByteBuffer.allocate(end - 8).order(ByteOrder.BIG_ENDIAN);
+        old.put(current, 0, 24).putInt(4, 1);
+        old.position(24);
+        old.put(current, 32, end - 32);
+        Files.write(file(), old.array());
+
+        try (LogIncidentDAO log = open()) {
+            assertEquals(List.of("first", "second"), titles(log.findAll()));
+            assertEquals(3L, log.add(incident("third")));
+        }
+        assertFalse(Files.exists(file()));
+        try (LogIncidentDAO log = open()) {
+            assertEquals(List.of("first", "second", "third"), titles(log.findAll()));
+        }
+    }
+
+    private LogIncidentDAO open() throws IOException {
+        return new LogIncidentDAO(file(), true, 0);
+    }
+
+    private static void zero(Path file, long from, int length) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        for (int i = 0; i < length; i++) bytes[(int) from + i] = 0;
+        Files.write(file, bytes);
+    }
+
+    private static void flip(Path file, long at) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[(int) at] ^= 0x5A;
+        Files.write(file, bytes);
+    }
+
+    private static Incident renamed(Incident incident, String title) {
+        incident.setTitle(title);
+        return incident;
+    }
+
+    private static List<String> titles(List<Incident> incidents) {
+        List<String> titles = new ArrayList<>();
+        for (Incident incident : incidents) titles.add(incident.getTitle());
+        return titles;
+    }
+
+    private static Incident incident(String title) {
+        return new Incident(null, title, "description", Incident.IncidentType.OTHER, Incident.Risk.LOW,
+                Incident.Status.NEW, new Date(), "analyst@example.com", null);
+    }
+}
@@ -0,0 +1,108 @@
+package dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import model.Incident;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// One primary and two replicas, each a separate H2 database holding incident 1 titled with its own name,
+// so the title of a read shows which server answered. Nothing replicates between them.
+class RoutingDataSourceTest {
+
+    private final List<EmbeddedDatabase> databases = new ArrayList<>();
+    private final AtomicBoolean replica1Down = new AtomicBoolean();
+    private RoutingDataSource router;
+    private IncidentDAOImpl dao;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        EmbeddedDatabase primary = database("primary");
+        EmbeddedDatabase replica1 = database("replica-1");
+        EmbeddedDatabase replica2 = database("replica-2");
+        List<ConnectionPool.ConnectionFactory> replicas = new ArrayList<>();
+        replicas.add(() -> {
+            if (replica1Down.get()) throw new SQLTransientConnectionException("Connection refused");
+            return replica1.connect();
+        });
+        replicas.add(replica2::connect);
+        router = new RoutingDataSource(primary::connect, replicas, RoutingDataSource.Balance.ROUND_ROBIN, 60_000);
+        dao = new IncidentDAOImpl(router, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        for (EmbeddedDatabase database : databases) database.close();
+    }
+
+    @Test
+    void writesGoToThePrimary() throws SQLException {
+        Long id = dao.add(incident("written"));
+
+        assertNotNull(id);
+        assertEquals("written", title(databases.get(0), id));
+        assertNull(title(databases.get(1), id));
+        assertNull(title(databases.get(2), id));
+    }
+
+    @Test
+    void readsRotateAcrossReplicas() {
+        List<String> servedBy = new ArrayList<>();
+        for (int i = 0; i < 4; i++) servedBy.add(dao.findById(1L).getTitle());
+
+        assertEquals(List.of("replica-1", "replica-2", "replica-1", "replica-2"), servedBy);
+    }
+
+    @Test
+    void readsAfterAWriteStayOnThePrimary() {
+        dao.add(incident("written"));
+
+        assertEquals("primary", dao.findById(1L).getTitle());
+        assertEquals("primary", dao.findById(1L).getTitle());
+        assertEquals(2, router.getStats().stickyReads);
+    }
+
+    @Test
+    void primaryReadsDoNotPinLaterReads() {
+        dao.findChangedSince(0);
+        assertEquals("primary", dao.findCurrent(1L).getTitle());
+
+        assertEquals("replica-1", dao.findById(1L).getTitle());
+        assertEquals(0, router.getStats().stickyReads);
+    }
+
+    @Test
+    void failedReplicaIsSkipped() {
+        replica1Down.set(true);
+
+        for (int i = 0; i < 4; i++) assertEquals("replica-2", dao.findById(1L).getTitle());
+        assertEquals(0, router.getStats().fallbackReads);
+    }
+
+    private EmbeddedDatabase database(String name) throws SQLException {
+        EmbeddedDatabase database = new EmbeddedDatabase("routing-" + name);
+        databases.add(database);
+        database.execute("INSERT INTO incidents (title, description, type, risk, status) "
+                + "VALUES ('" + name + "', 'seed', 'OTHER', 'LOW', 'NEW')");
+        return database;
+    }
+
+    private static String title(EmbeddedDatabase database, Long id) {
+        Incident incident = new IncidentDAOImpl(database::connect, 100).findById(id);
+        return incident == null ? null : incident.getTitle();
+    }
+
+    private static Incident incident(String title) {
+        return new Incident(null, title, "description", Incident.IncidentType.OTHER, Incident.Risk.LOW,
+                Incident.Status.NEW, new Date(), "analyst@example.com", null);
+    }
+}
@@ -0,0 +1,113 @@
+package metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    private static final long MAX_VALUE = (1L << 40) - 1;
+
+    @Test
+    void smallValuesGetABucketEach() {
+        for (long value = 0; value < 128; value++) {
+            assertEquals(value, LatencyHistogram.bucketOf(value));
+            assertEquals(value, LatencyHistogram.highestIn((int) value));
+        }
+        assertEquals(128, LatencyHistogram.bucketOf(128));
+        assertEquals(128, LatencyHistogram.highestIn(128)); // 128..255 still one value per bucket
+        assertEquals(256, LatencyHistogram.bucketOf(256));
+        assertEquals(257, LatencyHistogram.highestIn(256)); // from 256 on, buckets widen with the power of two
+    }
+
+    @Test
+    void everyValueIsInsideItsBucketAndWithinOnePercent() {
+        for (long value : samples()) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long highest = LatencyHistogram.highestIn(bucket);
+            long lowest = bucket == 0 ? 0 : LatencyHistogram.highestIn(bucket - 1) + 1;
+            assertTrue(lowest <= value && value <= highest, value + " outside [" + lowest + ", " + highest + "]");
+            assertTrue(highest - lowest <= lowest / 128, "bucket of " + value + " is wider than 1/128");
+        }
+    }
+
+    @Test
+    void bucketsAreContiguousUpToTheLargestValue() {
+        int last = LatencyHistogram.bucketOf(MAX_VALUE);
+        assertEquals(MAX_VALUE, LatencyHistogram.highestIn(last));
+        for (int bucket = 1; bucket <= last; bucket++) {
+            long lowest = LatencyHistogram.highestIn(bucket - 1) + 1;
+            assertEquals(bucket, LatencyHistogram.bucketOf(lowest));
+            assertEquals(bucket, LatencyHistogram.bucketOf(LatencyHistogram.highestIn(bucket)));
+        }
+    }
+
+    @Test
+    void outOfRangeRecordingsAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.count);
+        assertEquals(MAX_VALUE, snapshot.maxNanos);
+        assertEquals(MAX_VALUE, snapshot.sumNanos);
+        assertEquals(0, snapshot.percentile(0.5));
+        assertEquals(MAX_VALUE, snapshot.percentile(1.0));
+    }
+
+    @Test
+    void percentilesAreUpperBoundsWithinOnePercentAndNeverAboveTheMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) histogram.record(micros * 1_000);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        for (double fraction : new double[]{0.001, 0.25, 0.5, 0.9, 0.99, 0.999}) {
+            long exact = (long) Math.ceil(fraction * 10_000) * 1_000;
+            long reported = snapshot.percentile(fraction);
+            assertTrue(reported >= exact && reported <= exact + exact / 100,
+                    "p" + fraction + " = " + reported + ", exact " + exact);
+        }
+        assertEquals(10_000_000, snapshot.percentile(1.0)); // capped at the recorded max, not the bucket's top
+        assertEquals(LatencyHistogram.highestIn(LatencyHistogram.bucketOf(1_000)), snapshot.percentile(0.0)); // rank 1
+        assertEquals(5_000_500, snapshot.meanNanos());
+        assertEquals(0, new LatencyHistogram().snapshot().percentile(0.99));
+    }
+
+    @Test
+    void concurrentRecordingsAreAllCounted() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 25_000; i++) histogram.record(i);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.snapshot().count);
+        assertEquals(24_999, histogram.snapshot().maxNanos);
+    }
+
+    // Every power of two and its neighbours, plus random values across the whole range
+    private static List<Long> samples() {
+        List<Long> values = new ArrayList<>();
+        for (int bit = 0; bit < 40; bit++) {
+            long power = 1L << bit;
+            values.add(power - 1);
+            values.add(power);
+            values.add(power + 1);
+        }
+        values.add(MAX_VALUE);
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) values.add(random.nextLong() & MAX_VALUE);
+        return values;
+    }
+}
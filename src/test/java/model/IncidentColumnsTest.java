@@ -0,0 +1,97 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// The arena compacts once more than one 1 MiB chunk of it is garbage and garbage is over half of it
+class IncidentColumnsTest {
+
+    private static final int MIB = 1 << 20;
+
+    private IncidentColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        columns = new IncidentColumns();
+    }
+
+    @Test
+    void rowsRoundTripAndFreedSlotsAreReused() {
+        int first = columns.add(incident(1, "Phishing email", "Link to a fake login page", "alice@example.com"));
+        int second = columns.add(new Incident(2L, null, null, null, null, null, null, null, null));
+        assertEquals(0, first);
+        assertEquals(1, second);
+
+        Incident stored = columns.get(first);
+        assertEquals("Phishing email", stored.getTitle());
+        assertEquals("Link to a fake login page", stored.getDescription());
+        assertEquals("alice@example.com", stored.getAssignedTo());
+        assertEquals(Incident.Status.NEW, columns.getStatus(first));
+        assertNull(columns.getReportedDate(second));
+        assertNull(columns.getType(second));
+        assertEquals(-1, columns.getAssigneeCode(second));
+
+        columns.remove(first);
+        assertThrows(IllegalArgumentException.class, () -> columns.get(first));
+        assertEquals(first, columns.add(incident(3, "Malware", null, "alice@example.com")));
+        assertEquals(columns.assigneeCode("alice@example.com"), columns.getAssigneeCode(first));
+        assertEquals(2, columns.size());
+    }
+
+    @Test
+    void manyOverwritesOfOneRowKeepTheArenaBounded() {
+        columns.add(incident(1, "Phishing email", "Neighbour before", "alice@example.com"));
+        int slot = columns.add(incident(2, "Malware", "v0", "bob@example.com"));
+        columns.add(incident(3, "Ransomware", "Neighbour after, ünïcödé ✓", "carol@example.com"));
+
+        String padding = "x".repeat(10_000);
+        long peak = 0;
+        boolean compacted = false;
+        for (int i = 1; i <= 400; i++) { // about 4 MB written in all
+            long before = columns.getTextBytes();
+            columns.set(slot, incident(2, "Malware " + i, "v" + i + padding, "bob@example.com"));
+            compacted |= columns.getTextBytes() < before;
+            peak = Math.max(peak, columns.getTextBytes());
+        }
+
+        assertTrue(compacted);
+        assertTrue(peak < MIB + 64 * 1024, "arena peaked at " + peak + " bytes");
+        assertEquals("Malware 400", columns.getTitle(slot));
+        assertEquals("v400" + padding, columns.getDescription(slot));
+        assertEquals("Neighbour before", columns.getDescription(0));
+        assertEquals("Neighbour after, ünïcödé ✓", columns.getDescription(2));
+        assertEquals("Ransomware", columns.getTitle(2));
+    }
+
+    @Test
+    void textOfRemovedRowsIsDroppedByTheNextCompaction() {
+        String padding = "y".repeat(10_000);
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < 150; i++) slots.add(columns.add(incident(i, "Incident " + i, i + padding, null)));
+        long full = columns.getTextBytes();
+        assertTrue(full > MIB);
+
+        for (int i = 1; i < 150; i++) columns.remove(slots.get(i));
+        assertEquals(full, columns.getTextBytes()); // removing only marks text as garbage
+        int added = columns.add(incident(500, "After the removals", "kept", null)); // this write compacts
+
+        assertTrue(columns.getTextBytes() < 20_000, "arena holds " + columns.getTextBytes() + " bytes");
+        assertEquals("0" + padding, columns.getDescription(slots.get(0)));
+        assertEquals("Incident 0", columns.getTitle(slots.get(0)));
+        assertEquals("kept", columns.getDescription(added));
+        assertEquals(2, columns.getAll().size());
+    }
+
+    private static Incident incident(long id, String title, String description, String assignee) {
+        return new Incident(id, title, description, Incident.IncidentType.MALWARE, Incident.Risk.HIGH,
+                Incident.Status.NEW, new Date(1_700_000_000_000L + id), assignee, null);
+    }
+}
@@ -0,0 +1,109 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IncidentFacetIndexTest {
+
+    private IncidentFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new IncidentFacetIndex();
+        index.set(0, incident(Incident.Status.NEW, Incident.Risk.CRITICAL, Incident.IncidentType.PHISHING));
+        index.set(1, incident(Incident.Status.NEW, Incident.Risk.CRITICAL, Incident.IncidentType.MALWARE));
+        index.set(2, incident(Incident.Status.NEW, Incident.Risk.LOW, Incident.IncidentType.PHISHING));
+        index.set(3, incident(Incident.Status.CLOSED, Incident.Risk.CRITICAL, Incident.IncidentType.PHISHING));
+        index.set(5, incident(Incident.Status.IN_PROGRESS, null, Incident.IncidentType.DDOS));
+    }
+
+    @Test
+    void countsAreTheCardinalityOfTheAnd() {
+        assertEquals(5, index.count(null, null, null));
+        assertEquals(2, index.count(Incident.Status.NEW, Incident.Risk.CRITICAL, null));
+        assertEquals(1, index.count(Incident.Status.NEW, Incident.Risk.CRITICAL, Incident.IncidentType.MALWARE));
+        assertEquals(0, index.count(Incident.Status.RESOLVED, null, null));
+        assertEquals(slots(0, 2, 3), index.filter(null, null, Incident.IncidentType.PHISHING));
+        assertEquals(slots(0, 1, 2, 3, 5), index.filter(null, null, null));
+    }
+
+    @Test
+    void facetCountsIgnoreTheirOwnDimensionAndKeepTheOthers() {
+        EnumMap<Incident.Status, Integer> byStatus =
+                index.facetCounts(Incident.Status.class, Incident.Status.CLOSED, Incident.Risk.CRITICAL, null);
+        assertEquals(2, byStatus.get(Incident.Status.NEW));
+        assertEquals(1, byStatus.get(Incident.Status.CLOSED));
+        assertEquals(0, byStatus.get(Incident.Status.IN_PROGRESS));
+        assertEquals(Incident.Status.values().length, byStatus.size());
+
+        EnumMap<Incident.Risk, Integer> byRisk = index.facetCounts(Incident.Risk.class, null, null, null);
+        assertEquals(3, byRisk.get(Incident.Risk.CRITICAL));
+        assertEquals(1, byRisk.get(Incident.Risk.LOW));
+        assertEquals(0, byRisk.get(Incident.Risk.HIGH)); // slot 5 has no risk and counts under none
+
+        assertThrows(IllegalArgumentException.class,
+                () -> index.facetCounts(TimeUnit.class, null, null, null));
+    }
+
+    @Test
+    void updateMovesTheSlotToItsNewValues() {
+        index.set(1, incident(Incident.Status.RESOLVED, Incident.Risk.HIGH, Incident.IncidentType.MALWARE));
+
+        assertEquals(1, index.count(Incident.Status.NEW, Incident.Risk.CRITICAL, null));
+        assertEquals(slots(1), index.filter(Incident.Status.RESOLVED, Incident.Risk.HIGH, null));
+        assertEquals(2, index.facetCounts(Incident.Status.class, null, null, null).get(Incident.Status.NEW));
+        assertEquals(5, index.size());
+
+        index.set(0, incident(null, null, null)); // a cleared value leaves the slot in no bitmap of that dimension
+        assertEquals(slots(2), index.filter(Incident.Status.NEW, null, null));
+        assertEquals(slots(2, 3), index.filter(null, null, Incident.IncidentType.PHISHING));
+        assertEquals(5, index.count(null, null, null));
+    }
+
+    @Test
+    void removeClearsEveryBitOfTheSlot() {
+        index.remove(0);
+        index.remove(5);
+
+        assertEquals(3, index.size());
+        assertEquals(slots(1, 2, 3), index.filter(null, null, null));
+        assertEquals(slots(2, 3), index.filter(null, null, Incident.IncidentType.PHISHING));
+        assertTrue(index.filter(null, null, Incident.IncidentType.DDOS).isEmpty());
+        assertEquals(1, index.count(Incident.Status.NEW, Incident.Risk.CRITICAL, null));
+
+        index.set(0, incident(Incident.Status.CLOSED, Incident.Risk.LOW, Incident.IncidentType.OTHER)); // reused
+        assertEquals(slots(0, 3), index.filter(Incident.Status.CLOSED, null, null));
+        assertEquals(slots(3), index.filter(null, Incident.Risk.CRITICAL, Incident.IncidentType.PHISHING));
+    }
+
+    @Test
+    void rebuildIndexesEveryLiveSlotOfTheColumns() {
+        IncidentColumns columns = new IncidentColumns();
+        int kept = columns.add(incident(Incident.Status.NEW, Incident.Risk.HIGH, Incident.IncidentType.MALWARE));
+        int removed = columns.add(incident(Incident.Status.NEW, Incident.Risk.HIGH, Incident.IncidentType.MALWARE));
+        columns.remove(removed);
+
+        index.rebuild(columns);
+        assertEquals(1, index.size());
+        assertEquals(slots(kept), index.filter(Incident.Status.NEW, Incident.Risk.HIGH, null));
+        assertEquals(0, index.count(null, Incident.Risk.CRITICAL, null));
+    }
+
+    private static BitSet slots(int... slots) {
+        BitSet bits = new BitSet();
+        for (int slot : slots) bits.set(slot);
+        return bits;
+    }
+
+    private static Incident incident(Incident.Status status, Incident.Risk risk, Incident.IncidentType type) {
+        return new Incident(1L, "Incident", "description", type, risk, status, new Date(), "analyst@example.com", null);
+    }
+}
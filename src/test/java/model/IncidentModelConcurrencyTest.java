@@ -0,0 +1,127 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import benchmark.SyntheticIncidents;
+import dao.InMemoryIncidentDAO;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+// Many threads add, update, delete and read while another keeps syncing; afterwards the list,
+// the facets and the assignee index must match the store and no call may have thrown
+class IncidentModelConcurrencyTest {
+
+    private static final int SIZE = 5_000;
+    private static final int THREADS = 8;
+    private static final long RUN_MILLIS = 2_000;
+    private static final String[] QUERIES = {"email", "ransomware", "finance team", "macro OR beacon", "cred*"};
+    private static final Incident.Status[] STATUSES = Incident.Status.values();
+
+    @Test
+    void modelMatchesTheStoreAfterConcurrentWritesAndSyncs() throws InterruptedException {
+        InMemoryIncidentDAO dao = new InMemoryIncidentDAO();
+        dao.addAll(SyntheticIncidents.generate(SIZE));
+        IncidentModel model = new IncidentModel(dao);
+        model.getAllIncidents();
+
+        long deadline = System.nanoTime() + RUN_MILLIS * 1_000_000L;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                List<Long> mine = new ArrayList<>(); // only the adding thread deletes its incidents
+                try {
+                    while (System.nanoTime() < deadline && failure.get() == null) {
+                        int op = random.nextInt(100);
+                        if (op < 10) {
+                            Incident added = model.addIncident("stress " + random.nextInt(1000), "added by stress",
+                                    Incident.IncidentType.OTHER, Incident.Risk.LOW, Incident.Status.NEW,
+                                    new Date(), "stress" + random.nextInt(8) + "@example.com", "");
+                            mine.add(added.getIncidentId());
+                        } else if (op < 15 && !mine.isEmpty()) {
+                            model.deleteIncident(mine.remove(random.nextInt(mine.size())));
+                        } else if (op < 30) {
+                            model.updateIncident(changed(dao, 1 + random.nextInt(SIZE), random));
+                        } else {
+                            read(model, random);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "stress-" + t));
+        }
+        threads.add(new Thread(() -> {
+            try {
+                while (System.nanoTime() < deadline && failure.get() == null) {
+                    model.refresh();
+                    assertNotNull(model.getAllIncidents());
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }, "stress-sync"));
+
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        assertNull(failure.get(), () -> "a thread failed: " + failure.get());
+
+        model.refresh();
+        Map<Long, Incident> stored = new HashMap<>();
+        for (Incident incident : dao.findAll()) stored.put(incident.getIncidentId(), incident);
+        List<Incident> listed = model.getAllIncidents();
+        assertEquals(stored.size(), listed.size());
+        for (Incident incident : listed) {
+            Incident expected = stored.get(incident.getIncidentId());
+            assertNotNull(expected, () -> "incident " + incident.getIncidentId() + " is not in the store");
+            assertEquals(expected.getStatus(), incident.getStatus());
+            assertEquals(expected.getAssignedTo(), incident.getAssignedTo());
+        }
+        int byStatus = 0;
+        for (Incident.Status status : STATUSES) {
+            int count = model.countFiltered(status, null, null);
+            assertEquals(model.filterIncidents(status, null, null).size(), count);
+            byStatus += count;
+        }
+        assertEquals(stored.size(), byStatus);
+        int assigned = 0;
+        for (int count : model.getAssigneeCounts().values()) assigned += count;
+        assertEquals(stored.size(), assigned);
+    }
+
+    private static Incident changed(InMemoryIncidentDAO dao, long id, ThreadLocalRandom random) {
+        Incident incident = dao.findById(id);
+        incident.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+        incident.setAssignedTo("analyst" + random.nextInt(200) + "@example.com");
+        return incident;
+    }
+
+    private static void read(IncidentModel model, ThreadLocalRandom random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                model.searchIncidents(QUERIES[random.nextInt(QUERIES.length)]);
+                break;
+            case 1:
+                model.filterIncidents(Incident.Status.NEW, Incident.Risk.CRITICAL, null);
+                break;
+            case 2:
+                model.countFiltered(STATUSES[random.nextInt(STATUSES.length)], null, null);
+                break;
+            case 3:
+                model.getIncidentsAssignedTo("analyst" + random.nextInt(200) + "@example.com");
+                break;
+            default:
+                model.getFacetCounts(Incident.Risk.class, Incident.Status.NEW, null, null);
+                break;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dao.InMemoryIncidentDAO;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// The loaded list lives in IncidentColumns; the indexes must follow every add, update and delete
+class IncidentModelTest {
+
+    private InMemoryIncidentDAO dao;
+    private IncidentModel model;
+    private Incident phishing;
+    private Incident malware;
+
+    @BeforeEach
+    void setUp() {
+        dao = new InMemoryIncidentDAO();
+        dao.add(incident("Phishing email", Incident.IncidentType.PHISHING, Incident.Status.NEW, "alice@example.com"));
+        dao.add(incident("Malware on laptop", Incident.IncidentType.MALWARE, Incident.Status.NEW, "bob@example.com"));
+        model = new IncidentModel(dao);
+        model.getAllIncidents(); // full load
+        phishing = model.searchIncidents("phishing").get(0);
+        malware = model.searchIncidents("malware").get(0);
+    }
+
+    @Test
+    void updateMovesTheIncidentInEveryIndex() {
+        phishing.setStatus(Incident.Status.CLOSED);
+        phishing.setAssignedTo("bob@example.com");
+        phishing.setTitle("Credential harvesting");
+        model.updateIncident(phishing);
+
+        assertTrue(model.searchIncidents("phishing").isEmpty());
+        assertEquals(List.of(phishing.getIncidentId()), ids(model.searchIncidents("credential")));
+        assertEquals(1, model.countFiltered(Incident.Status.CLOSED, null, null));
+        assertEquals(1, model.countFiltered(Incident.Status.NEW, null, null));
+        assertEquals(0, model.countAssignedTo("alice@example.com"));
+        assertEquals(2, model.getIncidentsAssignedTo("bob@example.com").size());
+        assertEquals("Credential harvesting",
+                model.filterIncidents(Incident.Status.CLOSED, null, null).get(0).getTitle());
+    }
+
+    @Test
+    void deletedSlotIsReusedWithoutStaleBits() {
+        model.deleteIncident(malware.getIncidentId());
+        Incident added = model.addIncident("Ransomware note", "Files encrypted", Incident.IncidentType.OTHER,
+                Incident.Risk.CRITICAL, Incident.Status.IN_PROGRESS, new Date(), "carol@example.com", null);
+
+        assertEquals(0, model.countFiltered(null, null, Incident.IncidentType.MALWARE));
+        assertEquals(List.of(added.getIncidentId()),
+                ids(model.filterIncidents(Incident.Status.IN_PROGRESS, Incident.Risk.CRITICAL, null)));
+        assertEquals(2, model.getAllIncidents().size());
+        assertTrue(model.searchIncidents("malware").isEmpty());
+        assertEquals("carol@example.com", model.searchIncidents("ransomware").get(0).getAssignedTo());
+    }
+
+    @Test
+    void returnedIncidentsAreCopies() {
+        model.getAllIncidents().get(0).setTitle("changed outside the model");
+
+        assertEquals(1, model.searchIncidents("phishing").size());
+        assertTrue(model.searchIncidents("outside").isEmpty());
+    }
+
+    @Test
+    void pagesCoverEveryHitOnce() {
+        for (int i = 0; i < 5; i++) {
+            model.addIncident("Phishing " + i, "description", Incident.IncidentType.PHISHING, Incident.Risk.HIGH,
+                    Incident.Status.NEW, new Date(), "alice@example.com", null);
+        }
+
+        List<Long> all = ids(model.filterIncidents(Incident.Status.NEW, null, null));
+        List<Long> paged = new ArrayList<>();
+        for (int offset = 0; offset < 9; offset += 3) {
+            paged.addAll(ids(model.filterIncidents(Incident.Status.NEW, null, null, offset, 3)));
+        }
+        assertEquals(7, all.size());
+        assertEquals(all, paged);
+
+        List<Long> assigned = ids(model.getIncidentsAssignedTo("alice@example.com"));
+        assertEquals(assigned.subList(2, 6), ids(model.getIncidentsAssignedTo("alice@example.com", 2, 4)));
+        assertTrue(model.getIncidentsAssignedTo("alice@example.com", 6, 4).isEmpty());
+    }
+
+    @Test
+    void resyncCatchesUpALoadedList() {
+        dao.add(incident("Added elsewhere", Incident.IncidentType.OTHER, Incident.Status.NEW, "carol@example.com"));
+        model.resync();
+
+        assertEquals(1, model.countAssignedTo("carol@example.com"));
+    }
+
+    @Test
+    void resyncWithoutALoadedListTellsListenersToReadAgain() {
+        IncidentModel paged = new IncidentModel(dao);
+        AtomicInteger reloads = new AtomicInteger();
+        paged.addChangeListener(new IncidentChangeListener() {
+            @Override
+            public void incidentChanged(IncidentChangeEvent event) {
+            }
+
+            @Override
+            public void incidentsReloaded() {
+                reloads.incrementAndGet();
+            }
+        });
+        paged.resync();
+
+        assertEquals(1, reloads.get());
+    }
+
+    private static Incident incident(String title, Incident.IncidentType type, Incident.Status status,
+                                     String assignee) {
+        return new Incident(null, title, "description", type, Incident.Risk.HIGH, status, new Date(), assignee, null);
+    }
+
+    private static List<Long> ids(List<Incident> incidents) {
+        List<Long> ids = new ArrayList<>();
+        for (Incident incident : incidents) ids.add(incident.getIncidentId());
+        return ids;
+    }
+}
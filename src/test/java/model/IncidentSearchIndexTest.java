@@ -0,0 +1,102 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IncidentSearchIndexTest {
+
+    private IncidentSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new IncidentSearchIndex();
+        index.add(incident(1, "Phishing email to finance", "alice@example.com", "Credential harvesting link"));
+        index.add(incident(2, "Malware on finance laptop", "bob@example.com", "Unsigned process beaconing"));
+        index.add(incident(3, "Ransomware note", "carol@example.com", "Files encrypted on the share"));
+        index.add(incident(4, "Credential leak", "alice@example.com", "Passwords posted publicly"));
+    }
+
+    @Test
+    void parseSplitsOrGroupsAndKeepsThePrefixMarkerOnTheLastPart() {
+        assertEquals(List.of(List.of("finance", "email"), List.of("cred*")),
+                IncidentSearchIndex.parse("finance AND email OR cred*"));
+        assertEquals(List.of(List.of("alice", "example*")), IncidentSearchIndex.parse("alice@example*"));
+        assertEquals(List.of(List.of("beacon")), IncidentSearchIndex.parse("OR beacon OR"));
+    }
+
+    @Test
+    void termsInAGroupMustAllMatchAndGroupsAreAlternatives() {
+        assertEquals(List.of(1L, 2L), sorted(index.search("finance")));
+        assertEquals(List.of(2L), index.search("finance laptop"));
+        assertTrue(index.search("finance ransomware").isEmpty());
+        assertEquals(List.of(2L, 3L), sorted(index.search("laptop OR ransomware")));
+        assertEquals(2, index.count("laptop OR ransomware"));
+    }
+
+    @Test
+    void trailingStarMatchesPrefixesOnly() {
+        assertEquals(List.of(1L, 4L), sorted(index.search("cred*")));
+        assertTrue(index.search("ential*").isEmpty());
+        assertEquals(List.of(1L, 4L), sorted(index.search("ential"))); // without the star it is an infix match
+    }
+
+    @Test
+    void infixTermsMatchThroughTrigrams() {
+        assertEquals(List.of(1L), index.search("hish"));
+        assertEquals(List.of(3L), index.search("somwar"));
+        assertTrue(index.search("hsih").isEmpty());
+        assertEquals(List.of(1L), index.search("ph"));
+        assertTrue(index.search("hi").isEmpty()); // shorter than a trigram: prefix matches only
+    }
+
+    @Test
+    void exactMatchesRankAboveInfixMatchesAndTitlesAboveDescriptions() {
+        index.add(incident(5, "Encrypted backup", "dave@example.com", null));
+        assertEquals(List.of(5L, 3L), index.search("encrypted")); // title outweighs description
+        index.add(incident(6, "Antiphishing filter", "erin@example.com", null));
+        assertEquals(List.of(1L, 6L), index.search("phishing")); // exact before infix, same field
+    }
+
+    @Test
+    void pagesFollowTheFullRanking() {
+        for (long id = 10; id < 60; id++) {
+            index.add(incident(id, "Finance alert " + id, "analyst@example.com", id % 3 == 0 ? "finance finance" : null));
+        }
+        List<Long> all = index.search("finance");
+        List<Long> paged = new ArrayList<>();
+        for (int offset = 0; offset < all.size(); offset += 7) paged.addAll(index.search("finance", offset, 7));
+        assertEquals(all, paged);
+        assertEquals(all.size(), index.count("finance"));
+        assertTrue(index.search("finance", all.size(), 7).isEmpty());
+    }
+
+    @Test
+    void updateAndRemoveDropTheOldTokens() {
+        index.update(incident(1, "Spam report", "alice@example.com", null));
+        assertEquals(List.of(2L), index.search("finance"));
+        assertTrue(index.search("hish").isEmpty()); // its trigrams went with the last token holding them
+        assertEquals(List.of(1L), index.search("spam"));
+
+        index.remove(4L);
+        assertTrue(index.search("leak").isEmpty());
+        assertTrue(index.search("cred*").isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        List<Long> copy = new ArrayList<>(ids);
+        copy.sort(null);
+        return copy;
+    }
+
+    private static Incident incident(long id, String title, String assignee, String description) {
+        return new Incident(id, title, description, Incident.IncidentType.OTHER, Incident.Risk.LOW,
+                Incident.Status.NEW, new Date(), assignee, null);
+    }
+}
@@ -0,0 +1,112 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.CRC32C;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IncidentSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private IncidentSnapshot snapshot;
+    private List<Incident> incidents;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new IncidentSnapshot(dir.resolve("snapshots/incidents.snap"), "db.example.com");
+        incidents = new ArrayList<>();
+        incidents.add(new Incident(42L, "Phishing email", "Credential harvesting link", Incident.IncidentType.PHISHING,
+                Incident.Risk.HIGH, Incident.Status.NEW, new Date(1_700_000_000_000L), "alice@example.com", null));
+        // ids and dates going backwards, every nullable field null
+        incidents.add(new Incident(7L, null, null, null, null, null, null, null, null));
+        incidents.add(new Incident(3_000_000_000L, "Vírus na estação ✓", "", Incident.IncidentType.OTHER,
+                Incident.Risk.CRITICAL, Incident.Status.CLOSED, new Date(1_600_000_000_123L), "alice@example.com",
+                "Reimaged"));
+        incidents.add(new Incident(8L, "Malware", "x".repeat(70_000), Incident.IncidentType.MALWARE,
+                Incident.Risk.LOW, Incident.Status.IN_PROGRESS, new Date(0), "bob@example.com", "n/a"));
+    }
+
+    @Test
+    void roundTripKeepsEveryFieldOrderAndTheWatermark() throws IOException {
+        long before = System.currentTimeMillis();
+        snapshot.save(incidents, 1234L);
+
+        IncidentSnapshot.Contents loaded = snapshot.load();
+        assertEquals(1234L, loaded.watermark);
+        assertTrue(loaded.createdAt >= before);
+        assertEquals(fields(incidents), fields(loaded.incidents));
+        assertFalse(Files.exists(dir.resolve("snapshots/incidents.snap.tmp")));
+
+        snapshot.save(List.of(), 0L); // replaces the previous file
+        assertEquals(0, snapshot.load().incidents.size());
+    }
+
+    @Test
+    void missingFileOrAnotherSourceLoadsNothing() throws IOException {
+        assertNull(snapshot.load());
+        snapshot.save(incidents, 1L);
+        assertNull(new IncidentSnapshot(snapshot.getFile(), "other.example.com").load());
+    }
+
+    @Test
+    void truncatedFileIsIgnored() throws IOException {
+        snapshot.save(incidents, 1L);
+        byte[] bytes = Files.readAllBytes(snapshot.getFile());
+
+        Files.write(snapshot.getFile(), Arrays.copyOf(bytes, bytes.length / 2));
+        assertNull(snapshot.load());
+        Files.write(snapshot.getFile(), Arrays.copyOf(bytes, 8));
+        assertNull(snapshot.load());
+
+        // cut inside a record but sealed with a matching checksum: decoding runs off the end
+        Files.write(snapshot.getFile(), sealed(Arrays.copyOf(bytes, bytes.length - 4 - 100)));
+        assertNull(snapshot.load());
+    }
+
+    @Test
+    void checksumMismatchIsIgnored() throws IOException {
+        snapshot.save(incidents, 1L);
+        byte[] bytes = Files.readAllBytes(snapshot.getFile());
+
+        for (int at : new int[]{0, 30, bytes.length / 2, bytes.length - 1}) {
+            byte[] corrupt = bytes.clone();
+            corrupt[at] ^= 0x10;
+            Files.write(snapshot.getFile(), corrupt);
+            assertNull(snapshot.load(), "flipped byte " + at);
+        }
+
+        Files.write(snapshot.getFile(), bytes);
+        assertEquals(incidents.size(), snapshot.load().incidents.size());
+    }
+
+    // The body followed by its own CRC-32C, as save() writes it
+    private static byte[] sealed(byte[] body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        return ByteBuffer.allocate(body.length + 4).put(body).putInt((int) crc.getValue()).array();
+    }
+
+    private static List<List<Object>> fields(List<Incident> incidents) {
+        List<List<Object>> rows = new ArrayList<>();
+        for (Incident i : incidents) {
+            rows.add(Arrays.asList(i.getIncidentId(), i.getTitle(), i.getDescription(), i.getType(), i.getRisk(),
+                    i.getStatus(), i.getReportedDate(), i.getAssignedTo(), i.getResolutionNotes()));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,112 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LongIntHashMapTest {
+
+    private static final int CAPACITY = 16; // new LongIntHashMap(8) holds up to 10 keys before it rehashes
+
+    @Test
+    void removalInsideCollidingRunsKeepsEveryOtherKeyReachable() {
+        // Runs that share home slots and wrap from the last slot around to the first
+        List<Long> keys = new ArrayList<>();
+        keys.addAll(keysWithHome(CAPACITY - 1, 4));
+        keys.addAll(keysWithHome(0, 3));
+        keys.addAll(keysWithHome(1, 2));
+
+        for (int victim = 0; victim < keys.size(); victim++) {
+            LongIntHashMap map = new LongIntHashMap(8);
+            for (int i = 0; i < keys.size(); i++) assertEquals(LongIntHashMap.MISSING, map.put(keys.get(i), i));
+
+            assertEquals(victim, map.remove(keys.get(victim)));
+            assertEquals(LongIntHashMap.MISSING, map.remove(keys.get(victim)));
+            assertEquals(keys.size() - 1, map.size());
+            for (int i = 0; i < keys.size(); i++) {
+                assertEquals(i == victim ? LongIntHashMap.MISSING : i, map.get(keys.get(i)), "victim " + victim);
+            }
+
+            map.put(keys.get(victim), 100); // the gap is reusable and the run still ends
+            assertEquals(100, map.get(keys.get(victim)));
+            assertEquals(LongIntHashMap.MISSING, map.get(keysWithHome(0, 4).get(3)));
+        }
+    }
+
+    @Test
+    void removingEveryKeyOfARunInAnyOrderLeavesTheTableEmpty() {
+        List<Long> keys = keysWithHome(CAPACITY - 2, 8);
+        LongIntHashMap map = new LongIntHashMap(8);
+        for (int i = 0; i < keys.size(); i++) map.put(keys.get(i), i);
+
+        int[] order = {3, 0, 7, 5, 1, 6, 2, 4};
+        for (int n = 0; n < order.length; n++) {
+            assertEquals(order[n], map.remove(keys.get(order[n])));
+            for (int later = n + 1; later < order.length; later++) {
+                assertEquals(order[later], map.get(keys.get(order[later])));
+            }
+        }
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void churnMatchesAHashMap() {
+        Random random = new Random(7);
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int op = 0; op < 200_000; op++) {
+            long key = random.nextInt(2_000) - 1_000; // a small key space: constant collisions, zero and negatives
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? LongIntHashMap.MISSING : removed, map.remove(key));
+            } else {
+                int value = random.nextInt(Integer.MAX_VALUE);
+                Integer previous = expected.put(key, value);
+                assertEquals(previous == null ? LongIntHashMap.MISSING : previous, map.put(key, value));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = -1_000; key < 1_000; key++) {
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+            if (expected.containsKey(key)) assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    void zeroKeyLivesOutsideTheTable() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertFalse(map.containsKey(0));
+        assertEquals(LongIntHashMap.MISSING, map.put(0, 5));
+        assertEquals(5, map.put(0, 6));
+        assertEquals(1, map.size());
+        assertEquals(6, map.remove(0));
+        assertEquals(0, map.size());
+
+        map.put(1, 1);
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(1));
+        assertThrows(IllegalArgumentException.class, () -> map.put(2, -1));
+        assertEquals(LongIntHashMap.MISSING, map.put(2, 0));
+        assertTrue(map.containsKey(2));
+    }
+
+    // Positive keys whose home slot in a 16-slot table is home, using the map's own mixing
+    private static List<Long> keysWithHome(int home, int count) {
+        List<Long> keys = new ArrayList<>();
+        for (long key = 1; keys.size() < count; key++) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            if (((int) (h ^ (h >>> 32)) & (CAPACITY - 1)) == home) keys.add(key);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,123 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import controller.IncidentController;
+import dao.CachingIncidentDAO;
+import dao.InMemoryIncidentDAO;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Date;
+import model.Incident;
+import model.IncidentModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IncidentHttpServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private InMemoryIncidentDAO store;
+    private IncidentHttpServer server;
+    private Long id;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new InMemoryIncidentDAO();
+        id = store.add(new Incident(null, "Phishing email", "Reported by a user", Incident.IncidentType.PHISHING,
+                Incident.Risk.HIGH, Incident.Status.NEW, new Date(), "analyst@example.com", null));
+        // A long TTL, so the cache still holds the old row after another process changes it
+        CachingIncidentDAO cache = new CachingIncidentDAO(store, 100, 60_000);
+        server = new IncidentHttpServer(new IncidentController(new IncidentModel(cache)), 0);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void secondWriteWithTheSameETagIsRejected() throws Exception {
+        String tag = get("/incidents/" + id).headers().firstValue("ETag").orElseThrow();
+
+        assertEquals(200, put(tag, "{\"title\":\"First\",\"description\":\"d\"}").statusCode());
+        assertEquals(412, put(tag, "{\"title\":\"Second\",\"description\":\"d\"}").statusCode());
+        assertEquals(412, send(HttpRequest.newBuilder(uri("/incidents/" + id)).header("If-Match", tag).DELETE()));
+        assertEquals("First", store.findById(id).getTitle());
+    }
+
+    @Test
+    void ifMatchIsCheckedAgainstTheStoredRowNotTheCache() throws Exception {
+        String tag = get("/incidents/" + id).headers().firstValue("ETag").orElseThrow(); // now cached
+
+        Incident changed = store.findById(id); // another process writes the row
+        changed.setStatus(Incident.Status.CLOSED);
+        store.update(changed);
+
+        assertEquals(412, put(tag, "{\"title\":\"Stale\",\"description\":\"d\"}").statusCode());
+        assertEquals(Incident.Status.CLOSED, store.findById(id).getStatus());
+    }
+
+    @Test
+    void writesWithoutIfMatchAreUnconditional() throws Exception {
+        assertEquals(200, put(null, "{\"title\":\"Renamed\",\"description\":\"d\"}").statusCode());
+        assertEquals(204, send(HttpRequest.newBuilder(uri("/incidents/" + id)).DELETE()));
+        assertEquals(404, send(HttpRequest.newBuilder(uri("/incidents/" + id)).DELETE()));
+    }
+
+    @Test
+    void replacementIsValidatedLikeACreate() throws Exception {
+        assertEquals(400, put(null, "{\"title\":\"Renamed\",\"description\":\" \"}").statusCode());
+        assertEquals(400, put(null, "{\"description\":\"d\"}").statusCode());
+        assertEquals("Phishing email", store.findById(id).getTitle());
+        assertEquals(200, put(null, "{\"title\":\"Renamed\",\"description\":\"d\"}").statusCode());
+    }
+
+    @Test
+    void searchPagesCarryTheTotalHitCount() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            store.add(new Incident(null, "Phishing wave " + i, "d", Incident.IncidentType.PHISHING,
+                    Incident.Risk.LOW, Incident.Status.NEW, new Date(), null, null));
+        }
+        String body = get("/incidents/search?q=phishing&offset=1&limit=2").body();
+        assertTrue(body.contains("\"total\":5"), body);
+        assertEquals(2, body.split("\"incident_id\"").length - 1, body);
+    }
+
+    @Test
+    void negativeOffsetIsABadRequest() throws Exception {
+        assertEquals(400, get("/incidents/search?q=phishing&offset=-1").statusCode());
+        assertEquals(400, get("/incidents?offset=-1").statusCode());
+        assertEquals(400, get("/incidents/query?offset=-5").statusCode());
+        assertEquals(200, get("/incidents/search?q=phishing&offset=0").statusCode());
+    }
+
+    @Test
+    void listensOnLoopbackByDefault() {
+        assertEquals(InetAddress.getLoopbackAddress().getHostAddress(), server.getHost());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> put(String ifMatch, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri("/incidents/" + id))
+                .PUT(HttpRequest.BodyPublishers.ofString(body));
+        if (ifMatch != null) request.header("If-Match", ifMatch);
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private int send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+}
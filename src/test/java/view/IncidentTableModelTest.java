@@ -0,0 +1,161 @@
+package view;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import controller.AsyncIncidentController;
+import controller.IncidentController;
+import dao.InMemoryIncidentDAO;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+import model.Incident;
+import model.IncidentChangeEvent;
+import model.IncidentModel;
+import model.IncidentSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class IncidentTableModelTest {
+
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void insertCommittedDuringTheCountIsNotLost() throws Exception {
+        CountDownLatch countRead = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger counts = new AtomicInteger();
+        InMemoryIncidentDAO dao = new InMemoryIncidentDAO() {
+            @Override
+            public long count() {
+                long count = super.count();
+                if (counts.incrementAndGet() == 1) { // the first count has read the table but not returned yet
+                    countRead.countDown();
+                    await(release);
+                }
+                return count;
+            }
+        };
+        for (int i = 0; i < 3; i++) dao.add(incident("existing " + i));
+        IncidentModel model = new IncidentModel(dao);
+        IncidentTableModel table = table(model);
+
+        SwingUtilities.invokeAndWait(table::showAll);
+        assertTrue(countRead.await(5, TimeUnit.SECONDS));
+        model.addIncident("added", "description", Incident.IncidentType.OTHER, Incident.Risk.LOW,
+                Incident.Status.NEW, new Date(), "analyst@example.com", null);
+        SwingUtilities.invokeAndWait(() -> { }); // the insert event has reached the table
+        release.countDown();
+
+        assertEquals(4, awaitRowCount(table, 4));
+        assertTrue(counts.get() >= 2, "the count is taken again after an insert arrived during it");
+    }
+
+    @Test
+    void failedAddAddsNoRow() throws Exception {
+        AtomicBoolean rejecting = new AtomicBoolean();
+        InMemoryIncidentDAO dao = new InMemoryIncidentDAO() {
+            @Override
+            public Long add(Incident incident) {
+                // null is what IncidentDAOImpl returns after logging an SQL error
+                return rejecting.get() ? null : super.add(incident);
+            }
+        };
+        dao.add(incident("existing"));
+        IncidentModel model = new IncidentModel(dao);
+        List<IncidentChangeEvent> events = new ArrayList<>();
+        model.addChangeListener(events::add);
+        IncidentTableModel table = table(model);
+        SwingUtilities.invokeAndWait(table::showAll);
+        assertEquals(1, awaitRowCount(table, 1));
+
+        rejecting.set(true);
+        Incident added = model.addIncident("rejected", "description", Incident.IncidentType.OTHER,
+                Incident.Risk.LOW, Incident.Status.NEW, new Date(), "analyst@example.com", null);
+
+        assertNull(added.getIncidentId());
+        assertTrue(events.isEmpty());
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(1, table.getRowCount());
+    }
+
+    @Test
+    void deleteInsideACachedPageKeepsEveryRowFilled() throws Exception {
+        InMemoryIncidentDAO dao = new InMemoryIncidentDAO();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 450; i++) ids.add(dao.add(incident("existing " + i)));
+        IncidentModel model = new IncidentModel(dao);
+        IncidentTableModel table = table(model);
+        SwingUtilities.invokeAndWait(table::showAll);
+        assertEquals(450, awaitRowCount(table, 450));
+        assertEquals(ids, awaitAllRows(table)); // every page is cached
+
+        model.deleteIncident(ids.remove(10));
+
+        assertEquals(449, awaitRowCount(table, 449));
+        assertEquals(ids, awaitAllRows(table));
+    }
+
+    private IncidentTableModel table(IncidentModel model) {
+        IncidentTableModel table = new IncidentTableModel(
+                new AsyncIncidentController(new IncidentController(model), pool));
+        model.addChangeListener(table);
+        return table;
+    }
+
+    // Row count once it reaches the expected value, or the last one seen after 5 s
+    private static int awaitRowCount(IncidentTableModel table, int expected) throws Exception {
+        int[] rows = new int[1];
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        do {
+            SwingUtilities.invokeAndWait(() -> rows[0] = table.getRowCount());
+            if (rows[0] == expected) break;
+            Thread.sleep(10);
+        } while (System.nanoTime() < deadline);
+        return rows[0];
+    }
+
+    // Ids of all rows once every page is loaded, requesting pages as painting would
+    private static List<Long> awaitAllRows(IncidentTableModel table) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        do {
+            ids.clear();
+            SwingUtilities.invokeAndWait(() -> {
+                for (int row = 0; row < table.getRowCount(); row++) {
+                    IncidentSummary summary = table.getIncidentAt(row);
+                    ids.add(summary == null ? null : summary.getIncidentId());
+                }
+            });
+            if (!ids.contains(null)) break;
+            Thread.sleep(10);
+        } while (System.nanoTime() < deadline);
+        return ids;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Incident incident(String title) {
+        return new Incident(null, title, "description", Incident.IncidentType.OTHER, Incident.Risk.LOW,
+                Incident.Status.NEW, new Date(), "analyst@example.com", null);
+    }
+}